@@ -0,0 +1,670 @@
+package com.facturacion.almacen;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.numeracion.NumeroFactura;
+import com.facturacion.serializacion.ProductoCodec;
+import com.facturacion.serializacion.Utf8;
+import com.facturacion.serializacion.Varint;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Almacén de facturas estructurado como registro: las escrituras se agregan al final de
+ * un segmento y nunca se reescribe un archivo en su lugar.
+ *
+ * <p>Guardar una factura con un número ya guardado registra una nueva versión (una
+ * corrección), y {@link #anular(NumeroFactura)} registra una anulación. Un índice en
+ * memoria lleva cada número a la posición de su última versión, de modo que una lectura
+ * es un acceso directo al disco. Al abrir el almacén el índice se reconstruye recorriendo
+ * los segmentos en orden; un registro a medio escribir al final del último segmento, por
+ * un corte, se descarta.
+ *
+ * <p>Cuando el segmento activo alcanza su tamaño máximo se sella y se abre otro. La
+ * compactación ({@link #compactar()}, o en segundo plano con
+ * {@link #iniciarCompactacion(Duration, int)}) fusiona los segmentos sellados en uno solo
+ * con las versiones vigentes y descarta las reemplazadas y las anuladas. Copia sin tomar
+ * los bloqueos de escritura, a una tasa limitada en bytes por segundo para no competir por
+ * el disco con las escrituras, y solo al final reemplaza los segmentos de forma atómica:
+ * el segmento compactado toma el identificador del último que fusiona y registra en su
+ * cabecera el primero, así que si el proceso se corta antes de borrar los antiguos, al
+ * reabrir se sabe que están reemplazados.
+ *
+ * <p>Las escrituras no se fuerzan a disco una por una: {@link #sincronizar()} y
+ * {@link #close()} lo hacen, igual que el punto de control del modo por lotes. Es seguro
+ * usar una instancia desde varios hilos; las lecturas no bloquean a las escrituras.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class AlmacenFacturas implements Closeable {
+
+    /**
+     * Tamaño máximo de segmento cuando no se indica otro, en bytes.
+     */
+    public static final long TAMANO_SEGMENTO_POR_DEFECTO = 64L * 1024 * 1024;
+
+    /**
+     * Tasa de compactación sin límite.
+     */
+    public static final long SIN_LIMITE = LimitadorTasa.SIN_LIMITE;
+
+    /**
+     * Tipo de registro con una versión de una factura.
+     */
+    static final byte TIPO_FACTURA = 1;
+
+    /**
+     * Tipo de registro de anulación de una factura.
+     */
+    static final byte TIPO_ANULACION = 2;
+
+    /**
+     * Prefijo de los nombres de archivo de segmento.
+     */
+    private static final String PREFIJO_SEGMENTO = "segmento-";
+
+    /**
+     * Extensión de los archivos de segmento.
+     */
+    private static final String EXTENSION_SEGMENTO = ".log";
+
+    /**
+     * Extensión del segmento compactado mientras se escribe.
+     */
+    private static final String EXTENSION_COMPACTANDO = ".compactando";
+
+    /**
+     * Directorio de los segmentos.
+     */
+    private final Path directorio;
+
+    /**
+     * Reglas de impuesto de las facturas leídas.
+     */
+    private final Map<Class<? extends Producto>, Impuesto> reglasImpuesto;
+
+    /**
+     * Tamaño a partir del cual se sella el segmento activo.
+     */
+    private final long tamanoMaximoSegmento;
+
+    /**
+     * Limitador de la tasa de copia de la compactación.
+     */
+    private final LimitadorTasa limitador;
+
+    /**
+     * Ubicación de la última versión de cada factura vigente.
+     */
+    private final ConcurrentHashMap<NumeroFactura, Ubicacion> indice = new ConcurrentHashMap<>();
+
+    /**
+     * Segmentos sellados, del más antiguo al más nuevo. Protegido por el monitor del almacén.
+     */
+    private final List<SegmentoLog> sellados = new ArrayList<>();
+
+    /**
+     * Segmento al que se agregan los registros. Protegido por el monitor del almacén.
+     */
+    private SegmentoLog activo;
+
+    /**
+     * Bloqueo que impide reemplazar segmentos mientras se leen.
+     */
+    private final ReentrantReadWriteLock estructura = new ReentrantReadWriteLock();
+
+    /**
+     * Monitor que serializa las compactaciones.
+     */
+    private final Object compactacion = new Object();
+
+    /**
+     * Buffer reutilizable para codificar registros. Protegido por el monitor del almacén.
+     */
+    private ByteBuffer codificacion = ByteBuffer.allocate(4096);
+
+    /**
+     * Ejecutor de la compactación en segundo plano, o null si no se inició.
+     */
+    private ScheduledExecutorService compactador;
+
+    /**
+     * Último error de la compactación en segundo plano, o null.
+     */
+    private volatile Exception errorCompactacion;
+
+    /**
+     * Indica si el almacén fue cerrado.
+     */
+    private volatile boolean cerrado;
+
+    /**
+     * Constructor que abre un almacén con el tamaño de segmento por defecto y sin límite
+     * de tasa de compactación.
+     *
+     * @param directorio El directorio de los segmentos; se crea si no existe. No puede ser null.
+     * @param reglasImpuesto Las reglas de impuesto de las facturas leídas. No puede ser null.
+     * @throws NullPointerException si algún parámetro es null
+     * @throws IOException si falla la lectura de los segmentos existentes
+     * @throws IllegalStateException si algún segmento sellado está dañado
+     */
+    public AlmacenFacturas(Path directorio, Map<Class<? extends Producto>, Impuesto> reglasImpuesto)
+            throws IOException {
+        this(directorio, reglasImpuesto, TAMANO_SEGMENTO_POR_DEFECTO, SIN_LIMITE);
+    }
+
+    /**
+     * Constructor que abre un almacén, reconstruyendo el índice desde sus segmentos.
+     *
+     * @param directorio El directorio de los segmentos; se crea si no existe. No puede ser null.
+     * @param reglasImpuesto Las reglas de impuesto de las facturas leídas. No puede ser null.
+     * @param tamanoMaximoSegmento El tamaño en bytes a partir del cual se sella un segmento
+     * @param bytesPorSegundoCompactacion La tasa máxima de copia de la compactación, o
+     *                                    {@link #SIN_LIMITE}
+     * @throws NullPointerException si directorio o reglasImpuesto son null
+     * @throws IllegalArgumentException si el tamaño de segmento no es mayor que su cabecera
+     *                                  o la tasa es negativa
+     * @throws IOException si falla la lectura de los segmentos existentes
+     * @throws IllegalStateException si algún segmento sellado está dañado
+     */
+    public AlmacenFacturas(Path directorio, Map<Class<? extends Producto>, Impuesto> reglasImpuesto,
+                           long tamanoMaximoSegmento, long bytesPorSegundoCompactacion) throws IOException {
+        this.directorio = Objects.requireNonNull(directorio, "El directorio no puede ser null");
+        this.reglasImpuesto = Objects.requireNonNull(reglasImpuesto, "Las reglas de impuesto no pueden ser null");
+        if (tamanoMaximoSegmento <= SegmentoLog.LONGITUD_CABECERA) {
+            throw new IllegalArgumentException("El tamaño de segmento es demasiado chico: " + tamanoMaximoSegmento);
+        }
+        this.tamanoMaximoSegmento = tamanoMaximoSegmento;
+        this.limitador = new LimitadorTasa(bytesPorSegundoCompactacion);
+        Files.createDirectories(directorio);
+        recuperar();
+    }
+
+    /**
+     * Guarda una factura numerada. Si el número ya estaba guardado, la nueva versión
+     * reemplaza a la anterior.
+     *
+     * @param factura La factura a guardar. No puede ser null.
+     * @throws NullPointerException si factura es null
+     * @throws IllegalArgumentException si la factura no tiene número o algún producto no
+     *                                  pertenece a una categoría conocida
+     * @throws IllegalStateException si el almacén está cerrado
+     * @throws IOException si falla la escritura
+     */
+    public synchronized void guardar(Factura factura) throws IOException {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        NumeroFactura numero = factura.getNumero();
+        if (numero == null) {
+            throw new IllegalArgumentException("La factura debe tener número para guardarse");
+        }
+        verificarAbierto();
+        agregar(numero, codificar(TIPO_FACTURA, numero, factura), true);
+    }
+
+    /**
+     * Anula una factura: deja de estar vigente y se descarta en la próxima compactación.
+     *
+     * @param numero El número de la factura. No puede ser null.
+     * @return true si la factura estaba vigente
+     * @throws NullPointerException si numero es null
+     * @throws IllegalStateException si el almacén está cerrado
+     * @throws IOException si falla la escritura
+     */
+    public synchronized boolean anular(NumeroFactura numero) throws IOException {
+        Objects.requireNonNull(numero, "El número de factura no puede ser null");
+        verificarAbierto();
+        if (!indice.containsKey(numero)) {
+            return false;
+        }
+        agregar(numero, codificar(TIPO_ANULACION, numero, null), false);
+        return true;
+    }
+
+    /**
+     * Lee la versión vigente de una factura.
+     *
+     * @param numero El número de la factura. No puede ser null.
+     * @return La factura, con su número asignado, o null si no está guardada o fue anulada
+     * @throws NullPointerException si numero es null
+     * @throws IllegalStateException si el almacén está cerrado o el registro está dañado
+     * @throws IOException si falla la lectura
+     */
+    public Factura leer(NumeroFactura numero) throws IOException {
+        Objects.requireNonNull(numero, "El número de factura no puede ser null");
+        ByteBuffer cuerpo;
+        estructura.readLock().lock();
+        try {
+            verificarAbierto();
+            Ubicacion ubicacion = indice.get(numero);
+            if (ubicacion == null) {
+                return null;
+            }
+            cuerpo = ubicacion.segmento().leer(ubicacion.posicion(), ubicacion.longitud());
+        } finally {
+            estructura.readLock().unlock();
+        }
+        cuerpo.get();
+        leerClave(cuerpo);
+        Factura factura = new Factura(reglasImpuesto);
+        for (int i = Varint.leerInt(cuerpo); i > 0; i--) {
+            factura.agregarProducto(ProductoCodec.leerBinario(cuerpo));
+        }
+        factura.asignarNumero(numero);
+        return factura;
+    }
+
+    /**
+     * Indica si una factura está guardada y vigente.
+     *
+     * @param numero El número de la factura. No puede ser null.
+     * @return true si la factura está vigente
+     * @throws NullPointerException si numero es null
+     */
+    public boolean contiene(NumeroFactura numero) {
+        return indice.containsKey(Objects.requireNonNull(numero, "El número de factura no puede ser null"));
+    }
+
+    /**
+     * Obtiene los números de las facturas vigentes.
+     *
+     * @return Una copia de los números vigentes
+     */
+    public Set<NumeroFactura> getNumeros() {
+        return new HashSet<>(indice.keySet());
+    }
+
+    /**
+     * Obtiene la cantidad de facturas vigentes.
+     *
+     * @return La cantidad de facturas vigentes
+     */
+    public int getCantidad() {
+        return indice.size();
+    }
+
+    /**
+     * Obtiene la cantidad de segmentos, incluido el activo.
+     *
+     * @return La cantidad de segmentos
+     */
+    public synchronized int getSegmentos() {
+        return sellados.size() + 1;
+    }
+
+    /**
+     * Fuerza a disco los registros escritos hasta ahora.
+     *
+     * @throws IllegalStateException si el almacén está cerrado
+     * @throws IOException si falla la escritura
+     */
+    public synchronized void sincronizar() throws IOException {
+        verificarAbierto();
+        activo.forzar();
+    }
+
+    /**
+     * Cambia la tasa máxima de copia de la compactación; se aplica también a una
+     * compactación en curso.
+     *
+     * @param bytesPorSegundo Los bytes por segundo permitidos, o {@link #SIN_LIMITE}
+     * @throws IllegalArgumentException si la tasa es negativa
+     */
+    public void setLimiteCompactacion(long bytesPorSegundo) {
+        limitador.setBytesPorSegundo(bytesPorSegundo);
+    }
+
+    /**
+     * Fusiona los segmentos sellados en uno con solo las versiones vigentes.
+     *
+     * <p>Las escrituras y lecturas siguen mientras se copia; solo el reemplazo final de
+     * los segmentos bloquea brevemente las lecturas.
+     *
+     * @return El resultado de la compactación
+     * @throws IllegalStateException si el almacén está cerrado
+     * @throws IOException si falla la lectura o escritura de algún segmento, o el hilo es
+     *                     interrumpido mientras espera por el límite de tasa
+     */
+    public ResultadoCompactacion compactar() throws IOException {
+        synchronized (compactacion) {
+            long inicio = System.nanoTime();
+            List<SegmentoLog> origen;
+            synchronized (this) {
+                verificarAbierto();
+                origen = new ArrayList<>(sellados);
+            }
+            if (origen.isEmpty()) {
+                return ResultadoCompactacion.VACIO;
+            }
+            SegmentoLog ultimo = origen.get(origen.size() - 1);
+            Path temporal = directorio.resolve(nombreSegmento(ultimo.getId()) + EXTENSION_COMPACTANDO);
+            Files.deleteIfExists(temporal);
+            SegmentoLog destino = SegmentoLog.crear(temporal, ultimo.getId(), origen.get(0).getPrimero());
+            List<Movimiento> movimientos = new ArrayList<>();
+            long bytesLeidos = 0;
+            long[] descartados = {0};
+            try {
+                for (SegmentoLog segmento : origen) {
+                    bytesLeidos += segmento.getTamano();
+                    segmento.recorrer((posicion, cuerpo) -> {
+                        int longitud = cuerpo.remaining();
+                        limitador.adquirir(SegmentoLog.LONGITUD_PREFIJO + longitud);
+                        ByteBuffer clave = cuerpo.duplicate();
+                        clave.get();
+                        NumeroFactura numero = leerClave(clave);
+                        Ubicacion actual = indice.get(numero);
+                        if (actual != null && actual.segmento() == segmento && actual.posicion() == posicion) {
+                            long nueva = destino.agregar(cuerpo);
+                            movimientos.add(new Movimiento(numero, actual, new Ubicacion(destino, nueva, longitud)));
+                        } else {
+                            descartados[0]++;
+                        }
+                    });
+                }
+                destino.forzar();
+            } catch (IOException | RuntimeException e) {
+                descartar(destino, temporal);
+                throw e;
+            }
+            reemplazar(origen, destino, temporal, movimientos);
+            return new ResultadoCompactacion(origen.size(), movimientos.size(), descartados[0],
+                bytesLeidos, destino.getTamano(), System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Inicia la compactación en segundo plano: cada cierto intervalo, si hay al menos la
+     * cantidad indicada de segmentos sellados, los compacta en un hilo de baja prioridad.
+     *
+     * @param intervalo El intervalo entre revisiones. No puede ser null.
+     * @param segmentosSellados La cantidad mínima de segmentos sellados para compactar
+     * @throws NullPointerException si intervalo es null
+     * @throws IllegalArgumentException si el intervalo o la cantidad no son positivos
+     * @throws IllegalStateException si el almacén está cerrado o la compactación ya se inició
+     */
+    public synchronized void iniciarCompactacion(Duration intervalo, int segmentosSellados) {
+        Objects.requireNonNull(intervalo, "El intervalo no puede ser null");
+        if (intervalo.isNegative() || intervalo.isZero() || segmentosSellados <= 0) {
+            throw new IllegalArgumentException("El intervalo y la cantidad de segmentos deben ser positivos");
+        }
+        verificarAbierto();
+        if (compactador != null) {
+            throw new IllegalStateException("La compactación en segundo plano ya está iniciada");
+        }
+        compactador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "compactador-facturas");
+            hilo.setDaemon(true);
+            hilo.setPriority(Thread.MIN_PRIORITY);
+            return hilo;
+        });
+        long nanos = intervalo.toNanos();
+        compactador.scheduleWithFixedDelay(() -> compactarSiHaceFalta(segmentosSellados), nanos, nanos,
+            TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Obtiene el último error de la compactación en segundo plano.
+     *
+     * @return El error, o null si no hubo
+     */
+    public Exception getErrorCompactacion() {
+        return errorCompactacion;
+    }
+
+    /**
+     * Detiene la compactación en segundo plano, fuerza a disco el segmento activo y cierra
+     * los segmentos.
+     *
+     * @throws IOException si falla la escritura o el cierre
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService ejecutor;
+        synchronized (this) {
+            if (cerrado) {
+                return;
+            }
+            ejecutor = compactador;
+            compactador = null;
+        }
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+        }
+        synchronized (compactacion) {
+            estructura.writeLock().lock();
+            try {
+                synchronized (this) {
+                    cerrado = true;
+                    try {
+                        activo.forzar();
+                    } finally {
+                        cerrarTodos(sellados);
+                        activo.close();
+                    }
+                }
+            } finally {
+                estructura.writeLock().unlock();
+            }
+        }
+    }
+
+    private void compactarSiHaceFalta(int segmentosSellados) {
+        try {
+            if (getSegmentos() - 1 >= segmentosSellados) {
+                compactar();
+            }
+        } catch (IOException | RuntimeException e) {
+            errorCompactacion = e;
+        }
+    }
+
+    private void reemplazar(List<SegmentoLog> origen, SegmentoLog destino, Path temporal,
+                            List<Movimiento> movimientos) throws IOException {
+        SegmentoLog ultimo = origen.get(origen.size() - 1);
+        estructura.writeLock().lock();
+        try {
+            try {
+                Files.move(temporal, archivoSegmento(ultimo.getId()),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                descartar(destino, temporal);
+                throw e;
+            }
+            for (Movimiento movimiento : movimientos) {
+                indice.replace(movimiento.numero(), movimiento.anterior(), movimiento.nueva());
+            }
+            synchronized (this) {
+                sellados.subList(0, origen.size()).clear();
+                sellados.add(0, destino);
+            }
+            cerrarTodos(origen);
+            for (SegmentoLog segmento : origen) {
+                if (segmento != ultimo) {
+                    Files.deleteIfExists(archivoSegmento(segmento.getId()));
+                }
+            }
+        } finally {
+            estructura.writeLock().unlock();
+        }
+    }
+
+    private static void descartar(SegmentoLog destino, Path temporal) throws IOException {
+        try {
+            destino.close();
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private void agregar(NumeroFactura numero, ByteBuffer cuerpo, boolean vigente) throws IOException {
+        int longitud = cuerpo.remaining();
+        long posicion = activo.agregar(cuerpo);
+        if (vigente) {
+            indice.put(numero, new Ubicacion(activo, posicion, longitud));
+        } else {
+            indice.remove(numero);
+        }
+        if (activo.getTamano() >= tamanoMaximoSegmento) {
+            activo.forzar();
+            sellados.add(activo);
+            long id = activo.getId() + 1;
+            activo = SegmentoLog.crear(archivoSegmento(id), id, id);
+        }
+    }
+
+    private ByteBuffer codificar(byte tipo, NumeroFactura numero, Factura factura) {
+        while (true) {
+            codificacion.clear();
+            try {
+                codificacion.put(tipo);
+                Varint.escribirInt(codificacion, numero.serie().length());
+                Utf8.escribir(numero.serie(), codificacion);
+                Varint.escribirLong(codificacion, numero.numero());
+                if (factura != null) {
+                    int productos = factura.getCantidadProductos();
+                    Varint.escribirInt(codificacion, productos);
+                    for (int i = 0; i < productos; i++) {
+                        ProductoCodec.escribirBinario(factura.getProducto(i), codificacion);
+                    }
+                }
+                return codificacion.flip();
+            } catch (BufferOverflowException e) {
+                codificacion = ByteBuffer.allocate(codificacion.capacity() * 2);
+            }
+        }
+    }
+
+    private static NumeroFactura leerClave(ByteBuffer cuerpo) {
+        String serie = Utf8.leer(cuerpo, Varint.leerInt(cuerpo));
+        return new NumeroFactura(serie, Varint.leerLong(cuerpo));
+    }
+
+    private void recuperar() throws IOException {
+        TreeMap<Long, Path> archivos = new TreeMap<>();
+        try (DirectoryStream<Path> contenido = Files.newDirectoryStream(directorio)) {
+            for (Path archivo : contenido) {
+                String nombre = archivo.getFileName().toString();
+                if (nombre.startsWith(PREFIJO_SEGMENTO) && nombre.endsWith(EXTENSION_COMPACTANDO)) {
+                    // Compactación interrumpida: los segmentos originales siguen intactos
+                    Files.delete(archivo);
+                } else if (nombre.startsWith(PREFIJO_SEGMENTO) && nombre.endsWith(EXTENSION_SEGMENTO)) {
+                    try {
+                        archivos.put(Long.parseLong(nombre.substring(PREFIJO_SEGMENTO.length(),
+                            nombre.length() - EXTENSION_SEGMENTO.length())), archivo);
+                    } catch (NumberFormatException e) {
+                        // No es un segmento del almacén
+                    }
+                }
+            }
+        }
+
+        List<SegmentoLog> abiertos = new ArrayList<>();
+        try {
+            long reemplazadosDesde = Long.MAX_VALUE;
+            for (Map.Entry<Long, Path> archivo : archivos.descendingMap().entrySet()) {
+                if (archivo.getKey() >= reemplazadosDesde) {
+                    // Fusionado en un segmento compactado antes de que se alcanzara a borrar
+                    Files.delete(archivo.getValue());
+                    continue;
+                }
+                SegmentoLog segmento = SegmentoLog.abrir(archivo.getValue(), archivo.getKey());
+                abiertos.add(0, segmento);
+                reemplazadosDesde = Math.min(reemplazadosDesde, segmento.getPrimero());
+            }
+            for (int i = 0; i < abiertos.size(); i++) {
+                SegmentoLog segmento = abiertos.get(i);
+                long fin = segmento.recorrer((posicion, cuerpo) -> indexar(segmento, posicion, cuerpo));
+                if (fin < segmento.getTamano()) {
+                    if (i < abiertos.size() - 1) {
+                        throw new IllegalStateException(String.format(
+                            "Segmento %d dañado en la posición %d", segmento.getId(), fin));
+                    }
+                    segmento.truncar(fin);
+                }
+            }
+            if (abiertos.isEmpty()) {
+                activo = SegmentoLog.crear(archivoSegmento(1), 1, 1);
+            } else {
+                activo = abiertos.remove(abiertos.size() - 1);
+                sellados.addAll(abiertos);
+            }
+        } catch (IOException | RuntimeException e) {
+            cerrarTodos(abiertos);
+            throw e;
+        }
+    }
+
+    private void indexar(SegmentoLog segmento, long posicion, ByteBuffer cuerpo) {
+        int longitud = cuerpo.remaining();
+        byte tipo = cuerpo.get();
+        NumeroFactura numero = leerClave(cuerpo);
+        if (tipo == TIPO_FACTURA) {
+            indice.put(numero, new Ubicacion(segmento, posicion, longitud));
+        } else if (tipo == TIPO_ANULACION) {
+            indice.remove(numero);
+        } else {
+            throw new IllegalStateException(String.format(
+                "Tipo de registro desconocido en el segmento %d, posición %d: %d", segmento.getId(), posicion, tipo));
+        }
+    }
+
+    private Path archivoSegmento(long id) {
+        return directorio.resolve(nombreSegmento(id));
+    }
+
+    private static String nombreSegmento(long id) {
+        return String.format("%s%012d%s", PREFIJO_SEGMENTO, id, EXTENSION_SEGMENTO);
+    }
+
+    private void verificarAbierto() {
+        if (cerrado) {
+            throw new IllegalStateException("El almacén de facturas está cerrado");
+        }
+    }
+
+    private static void cerrarTodos(List<SegmentoLog> segmentos) throws IOException {
+        IOException error = null;
+        for (SegmentoLog segmento : segmentos) {
+            try {
+                segmento.close();
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Posición de la última versión de una factura.
+     */
+    private record Ubicacion(SegmentoLog segmento, long posicion, int longitud) {
+    }
+
+    /**
+     * Registro vigente copiado por una compactación.
+     */
+    private record Movimiento(NumeroFactura numero, Ubicacion anterior, Ubicacion nueva) {
+    }
+}
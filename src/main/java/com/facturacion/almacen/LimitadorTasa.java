@@ -0,0 +1,92 @@
+package com.facturacion.almacen;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limitador de la tasa de bytes de una tarea de fondo.
+ *
+ * <p>Cada llamada a {@link #adquirir(long)} reserva tiempo a la tasa configurada y, si la
+ * tarea va adelantada, duerme hasta que le corresponda continuar. No acumula crédito de
+ * los períodos ociosos, de modo que una tarea que estuvo detenida no puede luego ir más
+ * rápido que la tasa. Lo usa un solo hilo a la vez.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+final class LimitadorTasa {
+
+    /**
+     * Valor de tasa que indica que no hay límite.
+     */
+    static final long SIN_LIMITE = 0;
+
+    /**
+     * Bytes por segundo permitidos, o {@link #SIN_LIMITE}.
+     */
+    private volatile long bytesPorSegundo;
+
+    /**
+     * Instante, en la escala de {@link System#nanoTime()}, a partir del cual hay tasa libre.
+     */
+    private long disponibleDesde;
+
+    /**
+     * Constructor que crea un limitador.
+     *
+     * @param bytesPorSegundo Los bytes por segundo permitidos, o {@link #SIN_LIMITE}
+     * @throws IllegalArgumentException si la tasa es negativa
+     */
+    LimitadorTasa(long bytesPorSegundo) {
+        setBytesPorSegundo(bytesPorSegundo);
+    }
+
+    /**
+     * Reserva tasa para procesar una cantidad de bytes, esperando si hace falta.
+     *
+     * @param bytes Los bytes a procesar
+     * @throws InterruptedIOException si el hilo es interrumpido mientras espera
+     */
+    void adquirir(long bytes) throws InterruptedIOException {
+        long tasa = bytesPorSegundo;
+        if (tasa == SIN_LIMITE) {
+            return;
+        }
+        long ahora = System.nanoTime();
+        if (disponibleDesde - ahora < 0) {
+            disponibleDesde = ahora;
+        }
+        disponibleDesde += (long) (bytes * (double) TimeUnit.SECONDS.toNanos(1) / tasa);
+        long espera = disponibleDesde - ahora;
+        if (espera > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(espera);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrumpido mientras se limitaba la tasa");
+            }
+        }
+    }
+
+    /**
+     * Cambia la tasa permitida; se aplica desde la siguiente reserva.
+     *
+     * @param bytesPorSegundo Los bytes por segundo permitidos, o {@link #SIN_LIMITE}
+     * @throws IllegalArgumentException si la tasa es negativa
+     */
+    void setBytesPorSegundo(long bytesPorSegundo) {
+        if (bytesPorSegundo < 0) {
+            throw new IllegalArgumentException("La tasa no puede ser negativa: " + bytesPorSegundo);
+        }
+        this.bytesPorSegundo = bytesPorSegundo;
+    }
+
+    /**
+     * Obtiene la tasa permitida.
+     *
+     * @return Los bytes por segundo permitidos, o {@link #SIN_LIMITE}
+     */
+    long getBytesPorSegundo() {
+        return bytesPorSegundo;
+    }
+}
@@ -0,0 +1,32 @@
+package com.facturacion.almacen;
+
+/**
+ * Resultado de una compactación de {@link AlmacenFacturas}.
+ *
+ * @param segmentos Segmentos sellados que se fusionaron
+ * @param registrosCopiados Registros vigentes copiados al segmento compactado
+ * @param registrosDescartados Versiones reemplazadas y anulaciones descartadas
+ * @param bytesLeidos Bytes leídos de los segmentos fusionados
+ * @param bytesEscritos Bytes escritos en el segmento compactado
+ * @param nanos Duración de la compactación en nanosegundos
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record ResultadoCompactacion(int segmentos, long registrosCopiados, long registrosDescartados,
+                                    long bytesLeidos, long bytesEscritos, long nanos) {
+
+    /**
+     * Resultado de una compactación que no encontró segmentos para fusionar.
+     */
+    static final ResultadoCompactacion VACIO = new ResultadoCompactacion(0, 0, 0, 0, 0, 0);
+
+    /**
+     * Obtiene los bytes recuperados por la compactación.
+     *
+     * @return Bytes leídos menos bytes escritos
+     */
+    public long bytesRecuperados() {
+        return bytesLeidos - bytesEscritos;
+    }
+}
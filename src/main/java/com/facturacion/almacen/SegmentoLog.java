@@ -0,0 +1,296 @@
+package com.facturacion.almacen;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Segmento del registro de {@link AlmacenFacturas}: un archivo al que solo se agregan
+ * registros al final.
+ *
+ * <p>Formato (enteros de tamaño fijo en orden big-endian):
+ * <pre>
+ *   int    magia "FACL"
+ *   byte   versión
+ *   long   primer segmento que reemplaza (su propio id, salvo si es resultado de compactar)
+ *   ...    registros: int longitud del cuerpo, int CRC32C del cuerpo, cuerpo
+ * </pre>
+ *
+ * <p>El CRC permite detectar, al reabrir, un registro a medio escribir por un corte: el
+ * recorrido se detiene en el primer registro incompleto o dañado.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+final class SegmentoLog implements Closeable {
+
+    /**
+     * Número mágico al comienzo de cada segmento ("FACL").
+     */
+    static final int MAGIA = 0x4641434C;
+
+    /**
+     * Versión del formato de segmento.
+     */
+    static final byte VERSION = 1;
+
+    /**
+     * Longitud de la cabecera del segmento en bytes.
+     */
+    static final int LONGITUD_CABECERA = Integer.BYTES + 1 + Long.BYTES;
+
+    /**
+     * Bytes que preceden al cuerpo de cada registro (longitud y CRC).
+     */
+    static final int LONGITUD_PREFIJO = 2 * Integer.BYTES;
+
+    /**
+     * Identificador del segmento; los segmentos más nuevos tienen identificadores mayores.
+     */
+    private final long id;
+
+    /**
+     * Identificador del primer segmento que este reemplaza.
+     */
+    private final long primero;
+
+    /**
+     * Canal del archivo del segmento.
+     */
+    private final FileChannel canal;
+
+    /**
+     * Tamaño del segmento en bytes, incluida la cabecera.
+     */
+    private long tamano;
+
+    private SegmentoLog(long id, long primero, FileChannel canal, long tamano) {
+        this.id = id;
+        this.primero = primero;
+        this.canal = canal;
+        this.tamano = tamano;
+    }
+
+    /**
+     * Crea un segmento vacío.
+     *
+     * @param archivo El archivo a crear; no debe existir
+     * @param id El identificador del segmento
+     * @param primero El primer segmento que este reemplaza
+     * @return El segmento creado
+     * @throws IOException si falla la creación
+     */
+    static SegmentoLog crear(Path archivo, long id, long primero) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer cabecera = ByteBuffer.allocate(LONGITUD_CABECERA).putInt(MAGIA).put(VERSION).putLong(primero).flip();
+            escribirTodo(canal, cabecera, 0);
+            return new SegmentoLog(id, primero, canal, LONGITUD_CABECERA);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Abre un segmento existente.
+     *
+     * @param archivo El archivo del segmento
+     * @param id El identificador del segmento
+     * @return El segmento abierto
+     * @throws IOException si falla la lectura
+     * @throws IllegalStateException si el archivo no es un segmento válido
+     */
+    static SegmentoLog abrir(Path archivo, long id) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer cabecera = ByteBuffer.allocate(LONGITUD_CABECERA);
+            if (leerTodo(canal, cabecera, 0) < LONGITUD_CABECERA) {
+                throw new IllegalStateException("Segmento truncado: " + archivo);
+            }
+            cabecera.flip();
+            if (cabecera.getInt() != MAGIA) {
+                throw new IllegalStateException("No es un segmento de facturas: " + archivo);
+            }
+            byte version = cabecera.get();
+            if (version != VERSION) {
+                throw new IllegalStateException("Versión de segmento no soportada en " + archivo + ": " + version);
+            }
+            return new SegmentoLog(id, cabecera.getLong(), canal, canal.size());
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Agrega un registro al final del segmento.
+     *
+     * @param cuerpo El cuerpo del registro, entre su posición y su límite
+     * @return La posición del registro en el segmento
+     * @throws IOException si falla la escritura
+     */
+    long agregar(ByteBuffer cuerpo) throws IOException {
+        int longitud = cuerpo.remaining();
+        CRC32C crc = new CRC32C();
+        crc.update(cuerpo.duplicate());
+        ByteBuffer prefijo = ByteBuffer.allocate(LONGITUD_PREFIJO).putInt(longitud).putInt((int) crc.getValue()).flip();
+        long posicion = tamano;
+        escribirTodo(canal, prefijo, posicion);
+        escribirTodo(canal, cuerpo, posicion + LONGITUD_PREFIJO);
+        tamano = posicion + LONGITUD_PREFIJO + longitud;
+        return posicion;
+    }
+
+    /**
+     * Lee el cuerpo de un registro.
+     *
+     * @param posicion La posición del registro
+     * @param longitud La longitud del cuerpo
+     * @return El cuerpo del registro, listo para leer
+     * @throws IOException si falla la lectura
+     * @throws IllegalStateException si el registro está dañado
+     */
+    ByteBuffer leer(long posicion, int longitud) throws IOException {
+        ByteBuffer registro = ByteBuffer.allocate(LONGITUD_PREFIJO + longitud);
+        leerTodo(canal, registro, posicion);
+        registro.flip();
+        if (registro.remaining() < LONGITUD_PREFIJO + longitud || registro.getInt() != longitud) {
+            throw new IllegalStateException(String.format("Registro dañado en el segmento %d, posición %d", id, posicion));
+        }
+        int esperado = registro.getInt();
+        CRC32C crc = new CRC32C();
+        crc.update(registro.duplicate());
+        if ((int) crc.getValue() != esperado) {
+            throw new IllegalStateException(String.format("CRC incorrecto en el segmento %d, posición %d", id, posicion));
+        }
+        return registro.slice();
+    }
+
+    /**
+     * Recorre los registros válidos del segmento, en orden, hasta el primero incompleto o dañado.
+     *
+     * @param visitante Recibe la posición y el cuerpo de cada registro
+     * @return La posición siguiente al último registro válido
+     * @throws IOException si falla la lectura o el visitante
+     */
+    long recorrer(Visitante visitante) throws IOException {
+        long posicion = LONGITUD_CABECERA;
+        ByteBuffer prefijo = ByteBuffer.allocate(LONGITUD_PREFIJO);
+        while (posicion + LONGITUD_PREFIJO <= tamano) {
+            prefijo.clear();
+            leerTodo(canal, prefijo, posicion);
+            int longitud = prefijo.getInt(0);
+            if (longitud < 0 || posicion + LONGITUD_PREFIJO + longitud > tamano) {
+                break;
+            }
+            ByteBuffer cuerpo = ByteBuffer.allocate(longitud);
+            leerTodo(canal, cuerpo, posicion + LONGITUD_PREFIJO);
+            cuerpo.flip();
+            CRC32C crc = new CRC32C();
+            crc.update(cuerpo.duplicate());
+            if ((int) crc.getValue() != prefijo.getInt(Integer.BYTES)) {
+                break;
+            }
+            visitante.visitar(posicion, cuerpo);
+            posicion += LONGITUD_PREFIJO + longitud;
+        }
+        return posicion;
+    }
+
+    /**
+     * Descarta los bytes del segmento a partir de una posición.
+     *
+     * @param nuevoTamano El nuevo tamaño del segmento
+     * @throws IOException si falla el truncado
+     */
+    void truncar(long nuevoTamano) throws IOException {
+        canal.truncate(nuevoTamano);
+        tamano = nuevoTamano;
+    }
+
+    /**
+     * Fuerza a disco los registros escritos.
+     *
+     * @throws IOException si falla la escritura
+     */
+    void forzar() throws IOException {
+        canal.force(true);
+    }
+
+    /**
+     * Obtiene el identificador del segmento.
+     *
+     * @return El identificador
+     */
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Obtiene el identificador del primer segmento que este reemplaza.
+     *
+     * @return El primer segmento reemplazado
+     */
+    long getPrimero() {
+        return primero;
+    }
+
+    /**
+     * Obtiene el tamaño del segmento.
+     *
+     * @return El tamaño en bytes, incluida la cabecera
+     */
+    long getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Cierra el canal del segmento.
+     *
+     * @throws IOException si falla el cierre
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private static void escribirTodo(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            posicion += canal.write(buffer, posicion);
+        }
+    }
+
+    private static int leerTodo(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        int leidos = 0;
+        while (buffer.hasRemaining()) {
+            int n = canal.read(buffer, posicion + leidos);
+            if (n < 0) {
+                break;
+            }
+            leidos += n;
+        }
+        return leidos;
+    }
+
+    /**
+     * Receptor de los registros recorridos por {@link #recorrer(Visitante)}.
+     */
+    @FunctionalInterface
+    interface Visitante {
+
+        /**
+         * Procesa un registro.
+         *
+         * @param posicion La posición del registro en el segmento
+         * @param cuerpo El cuerpo del registro
+         * @throws IOException si falla el procesamiento
+         */
+        void visitar(long posicion, ByteBuffer cuerpo) throws IOException;
+    }
+}
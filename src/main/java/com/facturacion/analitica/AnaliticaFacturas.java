@@ -0,0 +1,231 @@
+package com.facturacion.analitica;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Analítica de productos sobre un flujo de facturas, en una sola pasada y en memoria
+ * acotada: los productos con más ingresos y con más impuestos ({@link TopProductos}), la
+ * frecuencia de cada producto ({@link CountMinSketch}) y la cantidad de productos
+ * distintos por categoría ({@link HyperLogLog}).
+ *
+ * <p>Las líneas se recorren sin copiar la lista de productos de la factura y el nombre de
+ * cada una se dispersa una sola vez para todos los sketches. Los montos se acumulan en
+ * centavos enteros, así que combinar resultados parciales da el mismo resultado en
+ * cualquier orden. Como {@link Factura#calcularSubtotal()}, supone que todas las líneas
+ * están en la misma moneda.
+ *
+ * <p>Cumple con <strong>Single Responsibility Principle (SRP)</strong>: cada sketch
+ * resuelve una sola pregunta y esta clase solo reparte las líneas entre ellos. Como
+ * {@link com.facturacion.distribuido.TotalesParciales}, cada hilo o partición acumula su
+ * propia instancia, las combina con {@link #combinar(AnaliticaFacturas)} y puede
+ * transmitirla con {@link #escribir(DataOutput)}. No es seguro usar una misma instancia
+ * desde varios hilos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class AnaliticaFacturas {
+
+    /**
+     * Ancho por defecto del sketch de frecuencias.
+     */
+    private static final int ANCHO_FRECUENCIAS = 4096;
+
+    /**
+     * Profundidad por defecto del sketch de frecuencias.
+     */
+    private static final int PROFUNDIDAD_FRECUENCIAS = 4;
+
+    /**
+     * Productos con mayores ingresos (suma de precios).
+     */
+    private final TopProductos topIngresos;
+
+    /**
+     * Productos con mayores impuestos.
+     */
+    private final TopProductos topImpuestos;
+
+    /**
+     * Cantidad de líneas de cada producto.
+     */
+    private final CountMinSketch frecuencias;
+
+    /**
+     * Productos distintos de cada categoría, indexados por código de categoría.
+     */
+    private final HyperLogLog[] distintos;
+
+    /**
+     * Cantidad de líneas procesadas.
+     */
+    private long lineas;
+
+    /**
+     * Constructor que crea una analítica vacía con los sketches por defecto.
+     *
+     * @param tamanoRanking Cantidad de productos de cada ranking. Debe ser > 0.
+     * @throws IllegalArgumentException si tamanoRanking no es positivo
+     */
+    public AnaliticaFacturas(int tamanoRanking) {
+        this(new TopProductos(tamanoRanking), new TopProductos(tamanoRanking),
+            new CountMinSketch(ANCHO_FRECUENCIAS, PROFUNDIDAD_FRECUENCIAS), nuevosDistintos());
+    }
+
+    private AnaliticaFacturas(TopProductos topIngresos, TopProductos topImpuestos,
+                              CountMinSketch frecuencias, HyperLogLog[] distintos) {
+        this.topIngresos = topIngresos;
+        this.topImpuestos = topImpuestos;
+        this.frecuencias = frecuencias;
+        this.distintos = distintos;
+    }
+
+    /**
+     * Acumula las líneas de una factura.
+     *
+     * @param factura La factura. No puede ser null.
+     * @throws NullPointerException si factura es null
+     * @throws IllegalArgumentException si algún producto no es de una categoría conocida
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public void acumular(Factura factura) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        int cantidad = factura.getCantidadProductos();
+        for (int i = 0; i < cantidad; i++) {
+            Producto producto = factura.getProducto(i);
+            String nombre = producto.getNombre();
+            long hash = HashNombres.de(nombre);
+            topIngresos.agregar(nombre, hash, Math.round(producto.getPrecio() * 100));
+            topImpuestos.agregar(nombre, hash,
+                Math.round(factura.obtenerImpuesto(producto).calcularImpuesto(producto) * 100));
+            frecuencias.agregar(hash, 1);
+            distintos[CategoriaProducto.de(producto).getCodigo()].agregar(hash);
+        }
+        lineas += cantidad;
+    }
+
+    /**
+     * Combina otra analítica con ésta.
+     *
+     * @param otra La analítica a combinar. No puede ser null.
+     * @throws NullPointerException si otra es null
+     * @throws IllegalArgumentException si los sketches tienen dimensiones distintas
+     */
+    public void combinar(AnaliticaFacturas otra) {
+        Objects.requireNonNull(otra, "La analítica a combinar no puede ser null");
+        topIngresos.combinar(otra.topIngresos);
+        topImpuestos.combinar(otra.topImpuestos);
+        frecuencias.combinar(otra.frecuencias);
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            distintos[categoria.getCodigo()].combinar(otra.distintos[categoria.getCodigo()]);
+        }
+        lineas += otra.lineas;
+    }
+
+    /**
+     * Obtiene los productos con mayores ingresos.
+     *
+     * @return Los productos de mayor a menor ingreso estimado
+     */
+    public List<ProductoDestacado> getTopIngresos() {
+        return topIngresos.resultado();
+    }
+
+    /**
+     * Obtiene los productos con mayores impuestos.
+     *
+     * @return Los productos de mayor a menor impuesto estimado
+     */
+    public List<ProductoDestacado> getTopImpuestos() {
+        return topImpuestos.resultado();
+    }
+
+    /**
+     * Estima cuántas líneas tienen un producto.
+     *
+     * @param nombre El nombre del producto. No puede ser null.
+     * @return Una estimación que nunca es menor que la cantidad real
+     * @throws NullPointerException si nombre es null
+     */
+    public long estimarFrecuencia(String nombre) {
+        return frecuencias.estimar(nombre);
+    }
+
+    /**
+     * Estima la cantidad de productos distintos de una categoría.
+     *
+     * @param categoria La categoría. No puede ser null.
+     * @return La estimación
+     * @throws NullPointerException si categoria es null
+     */
+    public long estimarDistintos(CategoriaProducto categoria) {
+        Objects.requireNonNull(categoria, "La categoría no puede ser null");
+        return distintos[categoria.getCodigo()].estimar();
+    }
+
+    /**
+     * Obtiene la cantidad de líneas procesadas.
+     *
+     * @return La cantidad de líneas
+     */
+    public long getLineas() {
+        return lineas;
+    }
+
+    /**
+     * Escribe la analítica en un flujo binario.
+     *
+     * @param salida El flujo de destino
+     * @throws IOException si falla la escritura
+     */
+    public void escribir(DataOutput salida) throws IOException {
+        salida.writeLong(lineas);
+        topIngresos.escribir(salida);
+        topImpuestos.escribir(salida);
+        frecuencias.escribir(salida);
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            distintos[categoria.getCodigo()].escribir(salida);
+        }
+    }
+
+    /**
+     * Lee una analítica escrita con {@link #escribir(DataOutput)}.
+     *
+     * @param entrada El flujo de origen
+     * @return La analítica leída
+     * @throws IOException si falla la lectura o el flujo termina antes de tiempo
+     */
+    public static AnaliticaFacturas leer(DataInput entrada) throws IOException {
+        long lineas = entrada.readLong();
+        TopProductos topIngresos = TopProductos.leer(entrada);
+        TopProductos topImpuestos = TopProductos.leer(entrada);
+        CountMinSketch frecuencias = CountMinSketch.leer(entrada);
+        HyperLogLog[] distintos = new HyperLogLog[CategoriaProducto.values().length + 1];
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            distintos[categoria.getCodigo()] = HyperLogLog.leer(entrada);
+        }
+        AnaliticaFacturas analitica = new AnaliticaFacturas(topIngresos, topImpuestos, frecuencias, distintos);
+        analitica.lineas = lineas;
+        return analitica;
+    }
+
+    /**
+     * Crea un sketch de productos distintos vacío por cada categoría.
+     *
+     * @return Los sketches, indexados por código de categoría
+     */
+    private static HyperLogLog[] nuevosDistintos() {
+        HyperLogLog[] distintos = new HyperLogLog[CategoriaProducto.values().length + 1];
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            distintos[categoria.getCodigo()] = new HyperLogLog();
+        }
+        return distintos;
+    }
+}
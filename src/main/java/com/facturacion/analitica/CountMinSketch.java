@@ -0,0 +1,226 @@
+package com.facturacion.analitica;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Sketch Count-Min: estima la suma de cantidades de cada clave en memoria fija.
+ *
+ * <p>Mantiene {@code profundidad} filas de {@code ancho} contadores. Cada clave suma su
+ * cantidad en un contador de cada fila y su estimación es el mínimo de esos contadores,
+ * que nunca es menor que la suma real. Con {@code ancho = e / ε} y
+ * {@code profundidad = ln(1 / δ)}, la estimación excede la suma real en más de
+ * {@code ε · N} (N = suma de todas las cantidades) con probabilidad menor que δ; ver
+ * {@link #conError(double, double)}.
+ *
+ * <p>Dos sketches con las mismas dimensiones se combinan sumando sus contadores, lo que da
+ * exactamente el sketch que se habría obtenido con todas las claves en uno solo. Así cada
+ * hilo o partición acumula el suyo y se combinan al final en cualquier orden. No es seguro
+ * usar una misma instancia desde varios hilos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class CountMinSketch {
+
+    /**
+     * Cantidad de contadores por fila; siempre una potencia de dos.
+     */
+    private final int ancho;
+
+    /**
+     * Cantidad de filas.
+     */
+    private final int profundidad;
+
+    /**
+     * Contadores, fila tras fila.
+     */
+    private final long[] contadores;
+
+    /**
+     * Suma de todas las cantidades agregadas.
+     */
+    private long total;
+
+    /**
+     * Constructor que crea un sketch vacío.
+     *
+     * @param ancho Contadores por fila; se redondea a la siguiente potencia de dos. Debe ser > 0.
+     * @param profundidad Cantidad de filas. Debe estar entre 1 y 32.
+     * @throws IllegalArgumentException si alguna dimensión está fuera de rango
+     */
+    public CountMinSketch(int ancho, int profundidad) {
+        if (ancho <= 0 || ancho > 1 << 24) {
+            throw new IllegalArgumentException("El ancho debe estar entre 1 y 2^24: " + ancho);
+        }
+        if (profundidad < 1 || profundidad > 32) {
+            throw new IllegalArgumentException("La profundidad debe estar entre 1 y 32: " + profundidad);
+        }
+        this.ancho = ancho == 1 ? 1 : Integer.highestOneBit(ancho - 1) << 1;
+        this.profundidad = profundidad;
+        this.contadores = new long[this.ancho * profundidad];
+    }
+
+    /**
+     * Crea un sketch dimensionado para un error relativo y una probabilidad de fallo.
+     *
+     * @param epsilon Error máximo como fracción de la suma total. Debe estar en (0, 1).
+     * @param delta Probabilidad de superar ese error. Debe estar en (0, 1).
+     * @return El sketch vacío
+     * @throws IllegalArgumentException si algún parámetro está fuera de rango
+     */
+    public static CountMinSketch conError(double epsilon, double delta) {
+        if (!(epsilon > 0 && epsilon < 1) || !(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("epsilon y delta deben estar entre 0 y 1");
+        }
+        return new CountMinSketch((int) Math.ceil(Math.E / epsilon), (int) Math.ceil(Math.log(1 / delta)));
+    }
+
+    /**
+     * Suma una cantidad a una clave.
+     *
+     * @param clave La clave. No puede ser null.
+     * @param cantidad La cantidad a sumar. Debe ser >= 0.
+     * @throws NullPointerException si clave es null
+     * @throws IllegalArgumentException si cantidad es negativa
+     */
+    public void agregar(String clave, long cantidad) {
+        agregar(HashNombres.de(Objects.requireNonNull(clave, "La clave no puede ser null")), cantidad);
+    }
+
+    /**
+     * Suma una cantidad a la clave con el hash indicado.
+     *
+     * @param hash El hash de la clave, calculado con {@link HashNombres#de(String)}
+     * @param cantidad La cantidad a sumar. Debe ser >= 0.
+     * @throws IllegalArgumentException si cantidad es negativa
+     */
+    void agregar(long hash, long cantidad) {
+        if (cantidad < 0) {
+            throw new IllegalArgumentException("La cantidad no puede ser negativa: " + cantidad);
+        }
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int mascara = ancho - 1;
+        for (int fila = 0, base = 0; fila < profundidad; fila++, base += ancho) {
+            contadores[base + ((h1 + fila * h2) & mascara)] += cantidad;
+        }
+        total += cantidad;
+    }
+
+    /**
+     * Estima la suma de cantidades de una clave.
+     *
+     * @param clave La clave. No puede ser null.
+     * @return Una estimación que nunca es menor que la suma real
+     * @throws NullPointerException si clave es null
+     */
+    public long estimar(String clave) {
+        return estimar(HashNombres.de(Objects.requireNonNull(clave, "La clave no puede ser null")));
+    }
+
+    /**
+     * Estima la suma de cantidades de la clave con el hash indicado.
+     *
+     * @param hash El hash de la clave
+     * @return La estimación
+     */
+    long estimar(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int mascara = ancho - 1;
+        long minimo = Long.MAX_VALUE;
+        for (int fila = 0, base = 0; fila < profundidad; fila++, base += ancho) {
+            minimo = Math.min(minimo, contadores[base + ((h1 + fila * h2) & mascara)]);
+        }
+        return minimo;
+    }
+
+    /**
+     * Suma los contadores de otro sketch a los de éste.
+     *
+     * @param otro El sketch a combinar. No puede ser null.
+     * @throws NullPointerException si otro es null
+     * @throws IllegalArgumentException si los sketches tienen dimensiones distintas
+     */
+    public void combinar(CountMinSketch otro) {
+        Objects.requireNonNull(otro, "El sketch a combinar no puede ser null");
+        if (otro.ancho != ancho || otro.profundidad != profundidad) {
+            throw new IllegalArgumentException(String.format(
+                "No se pueden combinar sketches de %dx%d y %dx%d",
+                profundidad, ancho, otro.profundidad, otro.ancho));
+        }
+        for (int i = 0; i < contadores.length; i++) {
+            contadores[i] += otro.contadores[i];
+        }
+        total += otro.total;
+    }
+
+    /**
+     * Escribe el sketch en un flujo binario.
+     *
+     * @param salida El flujo de destino
+     * @throws IOException si falla la escritura
+     */
+    public void escribir(DataOutput salida) throws IOException {
+        salida.writeInt(ancho);
+        salida.writeInt(profundidad);
+        salida.writeLong(total);
+        for (long contador : contadores) {
+            salida.writeLong(contador);
+        }
+    }
+
+    /**
+     * Lee un sketch escrito con {@link #escribir(DataOutput)}.
+     *
+     * @param entrada El flujo de origen
+     * @return El sketch leído
+     * @throws IOException si falla la lectura o el flujo termina antes de tiempo
+     */
+    public static CountMinSketch leer(DataInput entrada) throws IOException {
+        int ancho = entrada.readInt();
+        int profundidad = entrada.readInt();
+        CountMinSketch sketch;
+        try {
+            sketch = new CountMinSketch(ancho, profundidad);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Dimensiones de sketch no válidas", e);
+        }
+        sketch.total = entrada.readLong();
+        for (int i = 0; i < sketch.contadores.length; i++) {
+            sketch.contadores[i] = entrada.readLong();
+        }
+        return sketch;
+    }
+
+    /**
+     * Obtiene la suma de todas las cantidades agregadas.
+     *
+     * @return La suma total
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Obtiene la cantidad de contadores por fila.
+     *
+     * @return El ancho
+     */
+    public int getAncho() {
+        return ancho;
+    }
+
+    /**
+     * Obtiene la cantidad de filas.
+     *
+     * @return La profundidad
+     */
+    public int getProfundidad() {
+        return profundidad;
+    }
+}
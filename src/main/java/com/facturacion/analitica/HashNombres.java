@@ -0,0 +1,58 @@
+package com.facturacion.analitica;
+
+/**
+ * Función de dispersión de 64 bits para nombres de producto, compartida por los sketches
+ * del paquete.
+ *
+ * <p>Se calcula una sola vez por línea y de ella se derivan las posiciones de todos los
+ * sketches. No depende de {@link String#hashCode()} ni de la JVM, de modo que sketches
+ * construidos en procesos distintos se pueden combinar.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+final class HashNombres {
+
+    /**
+     * Base del hash FNV-1a de 64 bits.
+     */
+    private static final long BASE_FNV = 0xcbf29ce484222325L;
+
+    /**
+     * Primo del hash FNV-1a de 64 bits.
+     */
+    private static final long PRIMO_FNV = 0x100000001b3L;
+
+    private HashNombres() {
+    }
+
+    /**
+     * Calcula el hash de un nombre: FNV-1a sobre sus caracteres seguido del mezclado final
+     * de MurmurHash3, para que todos los bits dependan de todos los caracteres.
+     *
+     * @param nombre El nombre. No puede ser null.
+     * @return El hash de 64 bits
+     */
+    static long de(String nombre) {
+        long hash = BASE_FNV;
+        for (int i = 0, n = nombre.length(); i < n; i++) {
+            hash = (hash ^ nombre.charAt(i)) * PRIMO_FNV;
+        }
+        return mezclar(hash);
+    }
+
+    /**
+     * Mezclado final de 64 bits de MurmurHash3.
+     *
+     * @param valor El valor a mezclar
+     * @return El valor mezclado
+     */
+    static long mezclar(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xff51afd7ed558ccdL;
+        valor ^= valor >>> 33;
+        valor *= 0xc4ceb9fe1a85ec53L;
+        valor ^= valor >>> 33;
+        return valor;
+    }
+}
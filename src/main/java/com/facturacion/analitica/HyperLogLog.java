@@ -0,0 +1,192 @@
+package com.facturacion.analitica;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Sketch HyperLogLog: estima la cantidad de claves distintas en memoria fija.
+ *
+ * <p>Usa {@code 2^precision} registros de un byte. Los primeros {@code precision} bits del
+ * hash de cada clave eligen un registro, que guarda la mayor posición del primer bit en 1
+ * vista entre los bits restantes. El error típico de la estimación es
+ * {@code 1.04 / sqrt(2^precision)}: alrededor de 1,6 % con la precisión por defecto.
+ * Para conjuntos pequeños se usa el conteo lineal de registros vacíos, que es más exacto.
+ *
+ * <p>Dos sketches con la misma precisión se combinan tomando el máximo de cada registro;
+ * el resultado es idéntico al de un único sketch con todas las claves, sin importar el
+ * orden ni las repeticiones. No es seguro usar una misma instancia desde varios hilos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class HyperLogLog {
+
+    /**
+     * Precisión por defecto (4096 registros).
+     */
+    public static final int PRECISION_POR_DEFECTO = 12;
+
+    /**
+     * Precisión mínima admitida.
+     */
+    private static final int PRECISION_MINIMA = 4;
+
+    /**
+     * Precisión máxima admitida.
+     */
+    private static final int PRECISION_MAXIMA = 18;
+
+    /**
+     * Cantidad de bits del hash que eligen el registro.
+     */
+    private final int precision;
+
+    /**
+     * Registros del sketch.
+     */
+    private final byte[] registros;
+
+    /**
+     * Constructor que crea un sketch vacío con la precisión por defecto.
+     */
+    public HyperLogLog() {
+        this(PRECISION_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor que crea un sketch vacío.
+     *
+     * @param precision Bits del hash que eligen el registro. Debe estar entre 4 y 18.
+     * @throws IllegalArgumentException si la precisión está fuera de rango
+     */
+    public HyperLogLog(int precision) {
+        if (precision < PRECISION_MINIMA || precision > PRECISION_MAXIMA) {
+            throw new IllegalArgumentException(String.format(
+                "La precisión debe estar entre %d y %d: %d", PRECISION_MINIMA, PRECISION_MAXIMA, precision));
+        }
+        this.precision = precision;
+        this.registros = new byte[1 << precision];
+    }
+
+    /**
+     * Agrega una clave.
+     *
+     * @param clave La clave. No puede ser null.
+     * @throws NullPointerException si clave es null
+     */
+    public void agregar(String clave) {
+        agregar(HashNombres.de(Objects.requireNonNull(clave, "La clave no puede ser null")));
+    }
+
+    /**
+     * Agrega la clave con el hash indicado.
+     *
+     * @param hash El hash de la clave, calculado con {@link HashNombres#de(String)}
+     */
+    void agregar(long hash) {
+        int registro = (int) (hash >>> (64 - precision));
+        // El bit centinela acota el rango a 64 - precision + 1 cuando el resto del hash es 0
+        byte rango = (byte) (Long.numberOfLeadingZeros(hash << precision | 1L << (precision - 1)) + 1);
+        if (rango > registros[registro]) {
+            registros[registro] = rango;
+        }
+    }
+
+    /**
+     * Estima la cantidad de claves distintas agregadas.
+     *
+     * @return La estimación
+     */
+    public long estimar() {
+        int m = registros.length;
+        double suma = 0.0;
+        int vacios = 0;
+        for (byte registro : registros) {
+            suma += Math.scalb(1.0, -registro);
+            if (registro == 0) {
+                vacios++;
+            }
+        }
+        double estimacion = alfa(m) * m * m / suma;
+        if (estimacion <= 2.5 * m && vacios > 0) {
+            estimacion = m * Math.log((double) m / vacios);
+        }
+        return Math.round(estimacion);
+    }
+
+    /**
+     * Combina otro sketch con éste, tomando el máximo de cada registro.
+     *
+     * @param otro El sketch a combinar. No puede ser null.
+     * @throws NullPointerException si otro es null
+     * @throws IllegalArgumentException si los sketches tienen precisiones distintas
+     */
+    public void combinar(HyperLogLog otro) {
+        Objects.requireNonNull(otro, "El sketch a combinar no puede ser null");
+        if (otro.precision != precision) {
+            throw new IllegalArgumentException(String.format(
+                "No se pueden combinar sketches de precisión %d y %d", precision, otro.precision));
+        }
+        for (int i = 0; i < registros.length; i++) {
+            if (otro.registros[i] > registros[i]) {
+                registros[i] = otro.registros[i];
+            }
+        }
+    }
+
+    /**
+     * Escribe el sketch en un flujo binario.
+     *
+     * @param salida El flujo de destino
+     * @throws IOException si falla la escritura
+     */
+    public void escribir(DataOutput salida) throws IOException {
+        salida.writeByte(precision);
+        salida.write(registros);
+    }
+
+    /**
+     * Lee un sketch escrito con {@link #escribir(DataOutput)}.
+     *
+     * @param entrada El flujo de origen
+     * @return El sketch leído
+     * @throws IOException si falla la lectura o el flujo termina antes de tiempo
+     */
+    public static HyperLogLog leer(DataInput entrada) throws IOException {
+        int precision = entrada.readUnsignedByte();
+        HyperLogLog sketch;
+        try {
+            sketch = new HyperLogLog(precision);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Precisión de sketch no válida", e);
+        }
+        entrada.readFully(sketch.registros);
+        return sketch;
+    }
+
+    /**
+     * Obtiene la precisión del sketch.
+     *
+     * @return Los bits del hash que eligen el registro
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Constante de corrección del sesgo del estimador para {@code m} registros.
+     *
+     * @param m La cantidad de registros
+     * @return La constante alfa
+     */
+    private static double alfa(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.facturacion.analitica;
+
+import java.math.BigDecimal;
+
+/**
+ * Producto de un ranking de {@link TopProductos}, con su monto estimado.
+ *
+ * @param nombre El nombre del producto
+ * @param centavos El monto acumulado estimado, en centavos. Nunca es menor que el real.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record ProductoDestacado(String nombre, long centavos) {
+
+    /**
+     * Obtiene el monto estimado en unidades de la moneda.
+     *
+     * @return El monto estimado
+     */
+    public BigDecimal monto() {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+}
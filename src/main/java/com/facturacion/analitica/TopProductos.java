@@ -0,0 +1,338 @@
+package com.facturacion.analitica;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Ranking de los N productos con mayor monto acumulado, calculado en una sola pasada y
+ * en memoria acotada.
+ *
+ * <p>Los montos de todos los productos se acumulan en un {@link CountMinSketch}, y solo
+ * se guardan como candidatos los N productos con mayor estimación vista hasta el momento.
+ * Cuando un producto que no es candidato supera la menor estimación de los candidatos, la
+ * reemplaza. Los candidatos forman un montículo de mínimos indexado (cada candidato sabe
+ * su posición), así que la menor estimación se lee en O(1) y tanto el reemplazo como la
+ * actualización de un candidato cuestan O(log N). La memoria no depende de la cantidad de
+ * productos distintos: es la del sketch más N entradas.
+ *
+ * <p>Los montos informados son los del sketch, que nunca son menores que los reales y los
+ * exceden en a lo sumo una pequeña fracción del total (ver {@link CountMinSketch}). Un
+ * producto cuyo monto real está por encima de esa fracción siempre aparece en el ranking.
+ *
+ * <p>Dos rankings se combinan con {@link #combinar(TopProductos)}: se suman los sketches y
+ * se vuelven a estimar los candidatos de ambos. No es seguro usar una misma instancia desde
+ * varios hilos; cada hilo o partición acumula el suyo.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class TopProductos {
+
+    /**
+     * Ancho por defecto del sketch de montos.
+     */
+    public static final int ANCHO_POR_DEFECTO = 4096;
+
+    /**
+     * Profundidad por defecto del sketch de montos.
+     */
+    public static final int PROFUNDIDAD_POR_DEFECTO = 4;
+
+    /**
+     * Orden del ranking: mayor monto primero y, a igual monto, por nombre.
+     */
+    private static final Comparator<Candidato> ORDEN = Comparator
+        .comparingLong((Candidato candidato) -> candidato.estimado).reversed()
+        .thenComparing(candidato -> candidato.nombre);
+
+    /**
+     * Cantidad de productos del ranking.
+     */
+    private final int tamano;
+
+    /**
+     * Sketch con el monto acumulado de todos los productos.
+     */
+    private final CountMinSketch montos;
+
+    /**
+     * Candidatos actuales, por nombre.
+     */
+    private final Map<String, Candidato> candidatos;
+
+    /**
+     * Montículo de mínimos de los candidatos según su estimación: el primero es el de
+     * menor estimación. Ocupa las primeras {@code candidatos.size()} posiciones.
+     */
+    private final Candidato[] monticulo;
+
+    /**
+     * Constructor que crea un ranking vacío con el sketch por defecto.
+     *
+     * @param tamano Cantidad de productos del ranking. Debe ser > 0.
+     * @throws IllegalArgumentException si tamano no es positivo
+     */
+    public TopProductos(int tamano) {
+        this(tamano, new CountMinSketch(ANCHO_POR_DEFECTO, PROFUNDIDAD_POR_DEFECTO));
+    }
+
+    /**
+     * Constructor que crea un ranking vacío sobre un sketch de montos.
+     *
+     * @param tamano Cantidad de productos del ranking. Debe ser > 0.
+     * @param montos El sketch donde se acumulan los montos. No puede ser null y debe estar vacío.
+     * @throws NullPointerException si montos es null
+     * @throws IllegalArgumentException si tamano no es positivo o el sketch no está vacío
+     */
+    public TopProductos(int tamano, CountMinSketch montos) {
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño del ranking debe ser positivo: " + tamano);
+        }
+        this.montos = Objects.requireNonNull(montos, "El sketch de montos no puede ser null");
+        if (montos.getTotal() != 0) {
+            throw new IllegalArgumentException("El sketch de montos debe estar vacío");
+        }
+        this.tamano = tamano;
+        this.candidatos = new HashMap<>(tamano * 2);
+        this.monticulo = new Candidato[tamano];
+    }
+
+    /**
+     * Suma un monto a un producto.
+     *
+     * @param nombre El nombre del producto. No puede ser null.
+     * @param centavos El monto en centavos. Debe ser >= 0.
+     * @throws NullPointerException si nombre es null
+     * @throws IllegalArgumentException si el monto es negativo
+     */
+    public void agregar(String nombre, long centavos) {
+        agregar(nombre, HashNombres.de(Objects.requireNonNull(nombre, "El nombre no puede ser null")), centavos);
+    }
+
+    /**
+     * Suma un monto a un producto cuyo hash ya se calculó.
+     *
+     * @param nombre El nombre del producto
+     * @param hash El hash del nombre, calculado con {@link HashNombres#de(String)}
+     * @param centavos El monto en centavos. Debe ser >= 0.
+     */
+    void agregar(String nombre, long hash, long centavos) {
+        montos.agregar(hash, centavos);
+        long estimado = montos.estimar(hash);
+        Candidato candidato = candidatos.get(nombre);
+        if (candidato != null) {
+            // La estimación solo crece, así que el candidato solo puede bajar en el montículo
+            candidato.estimado = estimado;
+            hundir(candidato.posicion);
+        } else {
+            considerar(nombre, hash, estimado);
+        }
+    }
+
+    /**
+     * Combina otro ranking con éste.
+     *
+     * @param otro El ranking a combinar. No puede ser null.
+     * @throws NullPointerException si otro es null
+     * @throws IllegalArgumentException si los sketches tienen dimensiones distintas
+     */
+    public void combinar(TopProductos otro) {
+        Objects.requireNonNull(otro, "El ranking a combinar no puede ser null");
+        montos.combinar(otro.montos);
+        List<Candidato> todos = new ArrayList<>(candidatos.values());
+        for (Candidato candidato : otro.candidatos.values()) {
+            if (!candidatos.containsKey(candidato.nombre)) {
+                todos.add(new Candidato(candidato.nombre, candidato.hash, 0));
+            }
+        }
+        candidatos.clear();
+        Arrays.fill(monticulo, null);
+        for (Candidato candidato : todos) {
+            candidato.estimado = montos.estimar(candidato.hash);
+        }
+        todos.sort(ORDEN);
+        for (int i = 0; i < Math.min(tamano, todos.size()); i++) {
+            insertar(todos.get(i));
+        }
+    }
+
+    /**
+     * Obtiene el ranking actual.
+     *
+     * @return Los productos de mayor a menor monto estimado; a lo sumo {@code tamano}
+     */
+    public List<ProductoDestacado> resultado() {
+        List<Candidato> ordenados = new ArrayList<>(candidatos.values());
+        ordenados.sort(ORDEN);
+        List<ProductoDestacado> resultado = new ArrayList<>(ordenados.size());
+        for (Candidato candidato : ordenados) {
+            resultado.add(new ProductoDestacado(candidato.nombre, candidato.estimado));
+        }
+        return resultado;
+    }
+
+    /**
+     * Escribe el ranking en un flujo binario.
+     *
+     * @param salida El flujo de destino
+     * @throws IOException si falla la escritura
+     */
+    public void escribir(DataOutput salida) throws IOException {
+        salida.writeInt(tamano);
+        montos.escribir(salida);
+        salida.writeInt(candidatos.size());
+        for (Candidato candidato : candidatos.values()) {
+            salida.writeUTF(candidato.nombre);
+        }
+    }
+
+    /**
+     * Lee un ranking escrito con {@link #escribir(DataOutput)}.
+     *
+     * @param entrada El flujo de origen
+     * @return El ranking leído
+     * @throws IOException si falla la lectura o el flujo termina antes de tiempo
+     */
+    public static TopProductos leer(DataInput entrada) throws IOException {
+        int tamano = entrada.readInt();
+        CountMinSketch montos = CountMinSketch.leer(entrada);
+        TopProductos ranking;
+        try {
+            ranking = new TopProductos(tamano, new CountMinSketch(montos.getAncho(), montos.getProfundidad()));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Tamaño de ranking no válido", e);
+        }
+        ranking.montos.combinar(montos);
+        int cantidad = entrada.readInt();
+        for (int i = 0; i < cantidad; i++) {
+            String nombre = entrada.readUTF();
+            long hash = HashNombres.de(nombre);
+            if (ranking.candidatos.size() == tamano) {
+                throw new IOException("El ranking tiene más candidatos que su tamaño: " + cantidad);
+            }
+            ranking.insertar(new Candidato(nombre, hash, montos.estimar(hash)));
+        }
+        return ranking;
+    }
+
+    /**
+     * Obtiene la cantidad de productos del ranking.
+     *
+     * @return El tamaño del ranking
+     */
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Incorpora un producto que no es candidato si su estimación lo justifica.
+     *
+     * @param nombre El nombre del producto
+     * @param hash El hash del nombre
+     * @param estimado La estimación actual del producto
+     */
+    private void considerar(String nombre, long hash, long estimado) {
+        if (candidatos.size() < tamano) {
+            insertar(new Candidato(nombre, hash, estimado));
+            return;
+        }
+        Candidato menor = monticulo[0];
+        if (estimado > menor.estimado) {
+            // El candidato desplazado se reutiliza para no asignar memoria por reemplazo
+            candidatos.remove(menor.nombre);
+            menor.nombre = nombre;
+            menor.hash = hash;
+            menor.estimado = estimado;
+            candidatos.put(nombre, menor);
+            hundir(0);
+        }
+    }
+
+    /**
+     * Agrega un candidato cuando todavía hay lugar en el ranking.
+     */
+    private void insertar(Candidato candidato) {
+        int posicion = candidatos.size();
+        candidatos.put(candidato.nombre, candidato);
+        monticulo[posicion] = candidato;
+        candidato.posicion = posicion;
+        while (posicion > 0) {
+            int padre = (posicion - 1) >>> 1;
+            if (monticulo[padre].estimado <= candidato.estimado) {
+                break;
+            }
+            ubicar(monticulo[padre], posicion);
+            posicion = padre;
+        }
+        ubicar(candidato, posicion);
+    }
+
+    /**
+     * Baja en el montículo el candidato de una posición hasta que ningún hijo tenga una
+     * estimación menor.
+     */
+    private void hundir(int posicion) {
+        Candidato candidato = monticulo[posicion];
+        int cantidad = candidatos.size();
+        while (true) {
+            int hijo = 2 * posicion + 1;
+            if (hijo >= cantidad) {
+                break;
+            }
+            if (hijo + 1 < cantidad && monticulo[hijo + 1].estimado < monticulo[hijo].estimado) {
+                hijo++;
+            }
+            if (monticulo[hijo].estimado >= candidato.estimado) {
+                break;
+            }
+            ubicar(monticulo[hijo], posicion);
+            posicion = hijo;
+        }
+        ubicar(candidato, posicion);
+    }
+
+    private void ubicar(Candidato candidato, int posicion) {
+        monticulo[posicion] = candidato;
+        candidato.posicion = posicion;
+    }
+
+    /**
+     * Producto candidato a integrar el ranking.
+     */
+    private static final class Candidato {
+
+        /**
+         * Nombre del producto.
+         */
+        private String nombre;
+
+        /**
+         * Hash del nombre.
+         */
+        private long hash;
+
+        /**
+         * Monto estimado en centavos.
+         */
+        private long estimado;
+
+        /**
+         * Posición del candidato en el montículo.
+         */
+        private int posicion;
+
+        Candidato(String nombre, long hash, long estimado) {
+            this.nombre = nombre;
+            this.hash = hash;
+            this.estimado = estimado;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.facturacion.analitica;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.model.Producto;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Totales exactos de cantidad, ingresos e impuestos agrupados por producto.
+ *
+ * <p>A diferencia de {@link TopProductos}, que estima en memoria acotada, guarda una entrada
+ * por cada producto distinto. Es una tabla de direccionamiento abierto con sondeo lineal:
+ * los productos, sus códigos hash y los tres totales viven en arreglos paralelos, de modo
+ * que acumular una línea no crea objetos ni encajona valores, y un producto que ya está en
+ * la tabla se encuentra comparando primero el hash guardado y luego la referencia, sin
+ * llamar a {@link Producto#equals(Object)} salvo en una colisión real. Dos productos son la
+ * misma clave si son iguales según {@link Producto#equals(Object)}: misma clase, nombre,
+ * precio y moneda.
+ *
+ * <p>Como {@link AnaliticaFacturas}, cada hilo o partición acumula su propia instancia y
+ * las combina con {@link #combinar(TotalesPorProducto)}. No es seguro usar una misma
+ * instancia desde varios hilos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class TotalesPorProducto {
+
+    /**
+     * Capacidad inicial por defecto de la tabla.
+     */
+    public static final int CAPACIDAD_POR_DEFECTO = 64;
+
+    /**
+     * Multiplicador de Fibonacci (2^32 / φ) que reparte los códigos hash en la tabla.
+     */
+    private static final int FIBONACCI = 0x9E3779B9;
+
+    /**
+     * Mayor capacidad de la tabla.
+     */
+    private static final int CAPACIDAD_MAXIMA = 1 << 30;
+
+    /**
+     * Productos de cada posición; null en las posiciones libres.
+     */
+    private Producto[] productos;
+
+    /**
+     * Código hash del producto de cada posición.
+     */
+    private int[] hashes;
+
+    /**
+     * Cantidad acumulada del producto de cada posición.
+     */
+    private long[] cantidades;
+
+    /**
+     * Ingresos acumulados del producto de cada posición.
+     */
+    private double[] ingresos;
+
+    /**
+     * Impuestos acumulados del producto de cada posición.
+     */
+    private double[] impuestos;
+
+    /**
+     * Desplazamiento que deja en el hash mezclado los bits de la posición inicial.
+     */
+    private int desplazamiento;
+
+    /**
+     * Cantidad de productos distintos.
+     */
+    private int tamano;
+
+    /**
+     * Constructor que crea totales vacíos con la capacidad por defecto.
+     */
+    public TotalesPorProducto() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor que crea totales vacíos dimensionados para una cantidad de productos.
+     *
+     * @param productosEsperados Cantidad de productos distintos que se espera acumular; la
+     *                           tabla crece si se supera. Debe ser > 0.
+     * @throws IllegalArgumentException si productosEsperados no es positivo
+     */
+    public TotalesPorProducto(int productosEsperados) {
+        if (productosEsperados <= 0) {
+            throw new IllegalArgumentException("La cantidad de productos esperados debe ser positiva: " + productosEsperados);
+        }
+        // Factor de carga de 1/2: las secuencias de sondeo lineal se mantienen cortas
+        int capacidad = Integer.highestOneBit(Math.min(productosEsperados, CAPACIDAD_MAXIMA / 2) * 2 - 1) << 1;
+        reservar(Math.max(capacidad, 2));
+    }
+
+    /**
+     * Acumula las líneas de una factura: cada línea suma una unidad, su precio como
+     * ingreso y el impuesto que le aplica la factura.
+     *
+     * @param factura La factura. No puede ser null.
+     * @throws NullPointerException si factura es null
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public void acumular(Factura factura) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        for (int i = 0, n = factura.getCantidadProductos(); i < n; i++) {
+            Producto producto = factura.getProducto(i);
+            agregar(producto, 1, producto.getPrecio(), factura.obtenerImpuesto(producto).calcularImpuesto(producto));
+        }
+    }
+
+    /**
+     * Suma cantidad, ingresos e impuestos a los totales de un producto.
+     *
+     * @param producto El producto. No puede ser null.
+     * @param cantidad La cantidad a sumar
+     * @param ingreso Los ingresos a sumar
+     * @param impuesto Los impuestos a sumar
+     * @throws NullPointerException si producto es null
+     */
+    public void agregar(Producto producto, long cantidad, double ingreso, double impuesto) {
+        Objects.requireNonNull(producto, "El producto no puede ser null");
+        int hash = producto.hashCode();
+        int posicion = buscar(producto, hash);
+        if (posicion < 0) {
+            posicion = insertar(producto, hash, ~posicion);
+        }
+        cantidades[posicion] += cantidad;
+        ingresos[posicion] += ingreso;
+        impuestos[posicion] += impuesto;
+    }
+
+    /**
+     * Combina otros totales con éstos.
+     *
+     * @param otros Los totales a combinar. No puede ser null.
+     * @throws NullPointerException si otros es null
+     */
+    public void combinar(TotalesPorProducto otros) {
+        Objects.requireNonNull(otros, "Los totales a combinar no pueden ser null");
+        Producto[] suyos = otros.productos;
+        for (int i = 0; i < suyos.length; i++) {
+            if (suyos[i] != null) {
+                int posicion = buscar(suyos[i], otros.hashes[i]);
+                if (posicion < 0) {
+                    posicion = insertar(suyos[i], otros.hashes[i], ~posicion);
+                }
+                cantidades[posicion] += otros.cantidades[i];
+                ingresos[posicion] += otros.ingresos[i];
+                impuestos[posicion] += otros.impuestos[i];
+            }
+        }
+    }
+
+    /**
+     * Indica si hay totales para un producto.
+     *
+     * @param producto El producto. No puede ser null.
+     * @return true si se acumuló alguna línea del producto
+     * @throws NullPointerException si producto es null
+     */
+    public boolean contiene(Producto producto) {
+        return posicion(producto) >= 0;
+    }
+
+    /**
+     * Obtiene la cantidad acumulada de un producto.
+     *
+     * @param producto El producto. No puede ser null.
+     * @return La cantidad, o 0 si no se acumuló ninguna línea del producto
+     * @throws NullPointerException si producto es null
+     */
+    public long getCantidad(Producto producto) {
+        int posicion = posicion(producto);
+        return posicion < 0 ? 0 : cantidades[posicion];
+    }
+
+    /**
+     * Obtiene los ingresos acumulados de un producto.
+     *
+     * @param producto El producto. No puede ser null.
+     * @return Los ingresos, o 0 si no se acumuló ninguna línea del producto
+     * @throws NullPointerException si producto es null
+     */
+    public double getIngresos(Producto producto) {
+        int posicion = posicion(producto);
+        return posicion < 0 ? 0.0 : ingresos[posicion];
+    }
+
+    /**
+     * Obtiene los impuestos acumulados de un producto.
+     *
+     * @param producto El producto. No puede ser null.
+     * @return Los impuestos, o 0 si no se acumuló ninguna línea del producto
+     * @throws NullPointerException si producto es null
+     */
+    public double getImpuestos(Producto producto) {
+        int posicion = posicion(producto);
+        return posicion < 0 ? 0.0 : impuestos[posicion];
+    }
+
+    /**
+     * Obtiene la cantidad de productos distintos.
+     *
+     * @return La cantidad de productos con totales
+     */
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Recorre los totales de todos los productos, en un orden no especificado.
+     *
+     * @param visitante El visitante. No puede ser null.
+     * @throws NullPointerException si visitante es null
+     */
+    public void recorrer(Visitante visitante) {
+        Objects.requireNonNull(visitante, "El visitante no puede ser null");
+        for (int i = 0; i < productos.length; i++) {
+            if (productos[i] != null) {
+                visitante.visitar(productos[i], cantidades[i], ingresos[i], impuestos[i]);
+            }
+        }
+    }
+
+    /**
+     * Descarta todos los totales, conservando la capacidad de la tabla.
+     */
+    public void limpiar() {
+        Arrays.fill(productos, null);
+        Arrays.fill(cantidades, 0L);
+        Arrays.fill(ingresos, 0.0);
+        Arrays.fill(impuestos, 0.0);
+        tamano = 0;
+    }
+
+    /**
+     * Recibe los totales de cada producto en {@link #recorrer(Visitante)}.
+     */
+    @FunctionalInterface
+    public interface Visitante {
+
+        /**
+         * Recibe los totales de un producto.
+         *
+         * @param producto El producto
+         * @param cantidad La cantidad acumulada
+         * @param ingresos Los ingresos acumulados
+         * @param impuestos Los impuestos acumulados
+         */
+        void visitar(Producto producto, long cantidad, double ingresos, double impuestos);
+    }
+
+    private int posicion(Producto producto) {
+        Objects.requireNonNull(producto, "El producto no puede ser null");
+        return buscar(producto, producto.hashCode());
+    }
+
+    /**
+     * Busca un producto en la tabla.
+     *
+     * @return La posición del producto, o el complemento de la posición libre donde iría
+     */
+    private int buscar(Producto producto, int hash) {
+        int mascara = productos.length - 1;
+        for (int i = (hash * FIBONACCI) >>> desplazamiento; ; i = (i + 1) & mascara) {
+            Producto actual = productos[i];
+            if (actual == null) {
+                return ~i;
+            }
+            if (hashes[i] == hash && (actual == producto || actual.equals(producto))) {
+                return i;
+            }
+        }
+    }
+
+    private int insertar(Producto producto, int hash, int posicion) {
+        if (2 * (tamano + 1) > productos.length) {
+            if (productos.length == CAPACIDAD_MAXIMA) {
+                throw new IllegalStateException("Se alcanzó la cantidad máxima de productos distintos: " + tamano);
+            }
+            crecer();
+            posicion = ~buscar(producto, hash);
+        }
+        productos[posicion] = producto;
+        hashes[posicion] = hash;
+        tamano++;
+        return posicion;
+    }
+
+    private void crecer() {
+        Producto[] viejosProductos = productos;
+        int[] viejosHashes = hashes;
+        long[] viejasCantidades = cantidades;
+        double[] viejosIngresos = ingresos;
+        double[] viejosImpuestos = impuestos;
+        reservar(viejosProductos.length * 2);
+        int mascara = productos.length - 1;
+        for (int i = 0; i < viejosProductos.length; i++) {
+            if (viejosProductos[i] != null) {
+                int j = (viejosHashes[i] * FIBONACCI) >>> desplazamiento;
+                while (productos[j] != null) {
+                    j = (j + 1) & mascara;
+                }
+                productos[j] = viejosProductos[i];
+                hashes[j] = viejosHashes[i];
+                cantidades[j] = viejasCantidades[i];
+                ingresos[j] = viejosIngresos[i];
+                impuestos[j] = viejosImpuestos[i];
+            }
+        }
+    }
+
+    private void reservar(int capacidad) {
+        productos = new Producto[capacidad];
+        hashes = new int[capacidad];
+        cantidades = new long[capacidad];
+        ingresos = new double[capacidad];
+        impuestos = new double[capacidad];
+        desplazamiento = Integer.numberOfLeadingZeros(capacidad) + 1;
+    }
+}
@@ -1,6 +1,8 @@
 package com.facturacion.app;
 
-import com.facturacion.factura.Factura;
+import com.facturacion.catalogo.EntradaCatalogo;
+import com.facturacion.catalogo.IndiceNombres;
+import com.facturacion.factura.FacturaPersistente;
 import com.facturacion.factura.InvoicePrinter;
 import com.facturacion.factura.SimpleInvoicePrinter;
 import com.facturacion.impuesto.IVAAlimento;
@@ -11,9 +13,22 @@ import com.facturacion.model.ProductoAlimento;
 import com.facturacion.model.ProductoElectronico;
 import com.facturacion.model.ProductoRopa;
 
+import com.facturacion.lote.LectorFacturas;
+import com.facturacion.serializacion.Decimales;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.Objects;
 
 /**
  * Clase que proporciona una interfaz de consola interactiva para el sistema de facturación.
@@ -24,20 +39,70 @@ import java.util.Scanner;
  * <p>Cumple con <strong>Dependency Inversion Principle (DIP)</strong> al depender de las
  * abstracciones (Factura, InvoicePrinter) en lugar de implementaciones concretas.
  * 
+ * <p>La entrada se lee línea a línea con un {@link BufferedReader} y los números se
+ * interpretan a mano, sin expresiones regulares. El modo de entrada rápida acepta una
+ * línea compacta por producto ({@code categoria;nombre;precio}), pensada para terminales
+ * de punto de venta alimentadas por lectores de códigos de barras que pegan cientos de
+ * líneas por segundo; el resumen se redibuja una vez por ráfaga y no por cada producto.
+ * 
+ * <p>Si se configura un catálogo ({@link IndiceNombres}), al agregar un producto se
+ * puede escribir el comienzo del nombre (o el nombre con errores de tipeo) y elegir entre
+ * las sugerencias más vendidas, sin escribir la categoría ni el precio.
+ * 
+ * <p>La factura es una {@link FacturaPersistente}: cada cambio crea una versión nueva que
+ * comparte los productos con la anterior, así que deshacer y rehacer solo mueven versiones
+ * entre dos pilas, sin copiar la factura.
+ * 
  * @author Sistema de Facturación SOLID
  * @version 1.0
  */
 public class ConsolaInteractiva {
     
     /**
-     * Scanner para leer entrada del usuario.
+     * Cantidad máxima de productos agregados en modo rápido entre dos redibujados del
+     * resumen, aunque la ráfaga de entrada continúe.
+     */
+    private static final int MAX_PRODUCTOS_POR_REDIBUJADO = 500;
+    
+    /**
+     * Cantidad de sugerencias del catálogo que se muestran al buscar un producto.
+     */
+    private static final int MAX_SUGERENCIAS = 5;
+    
+    /**
+     * Cantidad máxima de cambios que se pueden deshacer.
      */
-    private final Scanner scanner;
+    private static final int MAX_HISTORIAL = 1000;
     
     /**
-     * Factura que se está construyendo.
+     * Lector con buffer para leer la entrada del usuario.
      */
-    private Factura factura;
+    private final BufferedReader entrada;
+    
+    /**
+     * Stream donde se escriben los mensajes de la consola.
+     */
+    private final PrintStream salida;
+    
+    /**
+     * Indica si la entrada se agotó (fin de archivo).
+     */
+    private boolean entradaAgotada;
+    
+    /**
+     * Versión actual de la factura que se está construyendo.
+     */
+    private FacturaPersistente factura;
+    
+    /**
+     * Versiones anteriores a cada cambio, la más reciente primero.
+     */
+    private final Deque<FacturaPersistente> deshechas = new ArrayDeque<>();
+    
+    /**
+     * Versiones deshechas que se pueden rehacer, la más reciente primero.
+     */
+    private final Deque<FacturaPersistente> rehechas = new ArrayDeque<>();
     
     /**
      * Mapa de reglas de impuesto configuradas.
@@ -45,10 +110,45 @@ public class ConsolaInteractiva {
     private final Map<Class<? extends Producto>, com.facturacion.impuesto.Impuesto> reglasImpuesto;
     
     /**
-     * Constructor que inicializa la consola interactiva.
+     * Catálogo de productos para sugerir nombres, o null si no hay catálogo.
+     */
+    private final IndiceNombres catalogo;
+    
+    /**
+     * Constructor que inicializa la consola interactiva sobre la entrada y salida estándar.
      */
     public ConsolaInteractiva() {
-        this.scanner = new Scanner(System.in);
+        this(System.in, System.out);
+    }
+    
+    /**
+     * Constructor que inicializa la consola con streams personalizados.
+     * 
+     * <p>La inyección de dependencias por constructor permite automatizar la consola
+     * (por ejemplo, conectándola a un lector de códigos) y probarla, cumpliendo con DIP.
+     * 
+     * @param entrada El stream de entrada del usuario. No puede ser null.
+     * @param salida El stream de salida de la consola. No puede ser null.
+     * @throws NullPointerException si entrada o salida son null
+     */
+    public ConsolaInteractiva(InputStream entrada, PrintStream salida) {
+        this(entrada, salida, null);
+    }
+    
+    /**
+     * Constructor que inicializa la consola con streams personalizados y un catálogo de
+     * productos para buscar por nombre.
+     * 
+     * @param entrada El stream de entrada del usuario. No puede ser null.
+     * @param salida El stream de salida de la consola. No puede ser null.
+     * @param catalogo El catálogo de productos, o null para ingresar siempre los productos a mano
+     * @throws NullPointerException si entrada o salida son null
+     */
+    public ConsolaInteractiva(InputStream entrada, PrintStream salida, IndiceNombres catalogo) {
+        this.catalogo = catalogo;
+        this.entrada = new BufferedReader(new InputStreamReader(
+            Objects.requireNonNull(entrada, "El stream de entrada no puede ser null"), StandardCharsets.UTF_8));
+        this.salida = Objects.requireNonNull(salida, "El stream de salida no puede ser null");
         this.reglasImpuesto = inicializarReglasImpuesto();
     }
     
@@ -69,16 +169,30 @@ public class ConsolaInteractiva {
      * Inicia la sesión interactiva de facturación.
      */
     public void iniciar() {
-        System.out.println("========================================");
-        System.out.println("   Sistema de Facturación SOLID");
-        System.out.println("   Modo Interactivo");
-        System.out.println("========================================");
-        System.out.println();
+        iniciar(false);
+    }
+    
+    /**
+     * Inicia la sesión interactiva de facturación, opcionalmente entrando directamente
+     * al modo de entrada rápida.
+     * 
+     * @param comenzarEnModoRapido true para empezar en modo de entrada rápida
+     */
+    public void iniciar(boolean comenzarEnModoRapido) {
+        salida.println("========================================");
+        salida.println("   Sistema de Facturación SOLID");
+        salida.println("   Modo Interactivo");
+        salida.println("========================================");
+        salida.println();
         
         // Crear nueva factura
-        factura = new Factura(reglasImpuesto);
+        factura = FacturaPersistente.vacia(reglasImpuesto);
         
-        boolean continuar = true;
+        if (comenzarEnModoRapido) {
+            entradaRapida();
+        }
+        
+        boolean continuar = !entradaAgotada;
         
         while (continuar) {
             mostrarMenu();
@@ -103,31 +217,47 @@ public class ConsolaInteractiva {
                 case 6:
                     mostrarAyuda();
                     break;
+                case 7:
+                    entradaRapida();
+                    break;
+                case 8:
+                    deshacer();
+                    break;
+                case 9:
+                    rehacer();
+                    break;
                 case 0:
                     continuar = false;
-                    System.out.println("\n¡Gracias por usar el Sistema de Facturación SOLID!");
+                    salida.println("\n¡Gracias por usar el Sistema de Facturación SOLID!");
                     break;
                 default:
-                    System.out.println("\n❌ Opción no válida. Por favor, seleccione una opción del menú.");
+                    salida.println("\n❌ Opción no válida. Por favor, seleccione una opción del menú.");
+            }
+            
+            if (entradaAgotada) {
+                continuar = false;
             }
         }
         
-        scanner.close();
+        salida.flush();
     }
     
     /**
      * Muestra el menú principal de opciones.
      */
     private void mostrarMenu() {
-        System.out.println("\n--- MENÚ PRINCIPAL ---");
-        System.out.println("1. Agregar producto a la factura");
-        System.out.println("2. Ver resumen de productos");
-        System.out.println("3. Calcular total");
-        System.out.println("4. Imprimir factura completa");
-        System.out.println("5. Limpiar factura (empezar de nuevo)");
-        System.out.println("6. Ayuda");
-        System.out.println("0. Salir");
-        System.out.print("\nSeleccione una opción: ");
+        salida.println("\n--- MENÚ PRINCIPAL ---");
+        salida.println("1. Agregar producto a la factura");
+        salida.println("2. Ver resumen de productos");
+        salida.println("3. Calcular total");
+        salida.println("4. Imprimir factura completa");
+        salida.println("5. Limpiar factura (empezar de nuevo)");
+        salida.println("6. Ayuda");
+        salida.println("7. Entrada rápida (lector de códigos)");
+        salida.println("8. Deshacer último cambio");
+        salida.println("9. Rehacer");
+        salida.println("0. Salir");
+        salida.print("\nSeleccione una opción: ");
     }
     
     /**
@@ -136,74 +266,242 @@ public class ConsolaInteractiva {
      * @return La opción seleccionada, o -1 si hay error
      */
     private int leerOpcion() {
+        return parsearEntero(leerLinea());
+    }
+    
+    /**
+     * Lee una línea de la entrada.
+     * 
+     * @return La línea leída sin el salto de línea, o una cadena vacía si la entrada se agotó
+     * @throws UncheckedIOException si falla la lectura
+     */
+    private String leerLinea() {
         try {
-            String entrada = scanner.nextLine().trim();
-            return Integer.parseInt(entrada);
-        } catch (NumberFormatException e) {
+            String linea = entrada.readLine();
+            if (linea == null) {
+                entradaAgotada = true;
+                return "";
+            }
+            return linea;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer la entrada de la consola", e);
+        }
+    }
+    
+    /**
+     * Interpreta un entero no negativo escrito por el usuario, ignorando los espacios
+     * alrededor, sin usar expresiones regulares ni excepciones.
+     * 
+     * @param texto El texto a interpretar
+     * @return El entero interpretado, o -1 si el texto no es un entero no negativo válido
+     */
+    static int parsearEntero(String texto) {
+        int desde = 0;
+        int hasta = texto.length();
+        while (desde < hasta && Character.isWhitespace(texto.charAt(desde))) {
+            desde++;
+        }
+        while (hasta > desde && Character.isWhitespace(texto.charAt(hasta - 1))) {
+            hasta--;
+        }
+        if (desde == hasta || hasta - desde > 9) {
             return -1;
         }
+        int valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
     }
     
     /**
      * Permite al usuario agregar un producto a la factura.
      */
     private void agregarProducto() {
-        System.out.println("\n--- AGREGAR PRODUCTO ---");
-        System.out.println("Seleccione la categoría del producto:");
-        System.out.println("1. Alimento (IVA: 5%)");
-        System.out.println("2. Ropa (IVA: 19%)");
-        System.out.println("3. Electrónica (IVA: 25%)");
-        System.out.println("0. Cancelar");
-        System.out.print("\nOpción: ");
+        salida.println("\n--- AGREGAR PRODUCTO ---");
+        
+        if (catalogo != null && agregarDesdeCatalogo()) {
+            return;
+        }
+        
+        salida.println("Seleccione la categoría del producto:");
+        salida.println("1. Alimento (IVA: 5%)");
+        salida.println("2. Ropa (IVA: 19%)");
+        salida.println("3. Electrónica (IVA: 25%)");
+        salida.println("0. Cancelar");
+        salida.print("\nOpción: ");
         
         int categoria = leerOpcion();
         
         if (categoria == 0) {
-            System.out.println("Operación cancelada.");
+            salida.println("Operación cancelada.");
             return;
         }
         
         if (categoria < 1 || categoria > 3) {
-            System.out.println("❌ Categoría no válida.");
+            salida.println("❌ Categoría no válida.");
             return;
         }
         
-        System.out.print("Ingrese el nombre del producto: ");
-        String nombre = scanner.nextLine().trim();
+        salida.print("Ingrese el nombre del producto: ");
+        String nombre = leerLinea().trim();
         
         if (nombre.isEmpty()) {
-            System.out.println("❌ El nombre no puede estar vacío.");
+            salida.println("❌ El nombre no puede estar vacío.");
             return;
         }
         
-        System.out.print("Ingrese el precio del producto: ");
-        String precioStr = scanner.nextLine().trim();
+        salida.print("Ingrese el precio del producto: ");
+        String precioStr = leerLinea().trim();
         
         try {
-            double precio = Double.parseDouble(precioStr);
+            double precio = Decimales.parsear(precioStr, 0, precioStr.length());
             
             if (precio < 0) {
-                System.out.println("❌ El precio no puede ser negativo.");
+                salida.println("❌ El precio no puede ser negativo.");
                 return;
             }
             
             Producto producto = crearProducto(categoria, nombre, precio);
             
             if (producto != null) {
-                factura.agregarProducto(producto);
-                System.out.println("\n✅ Producto agregado exitosamente:");
-                System.out.println("   " + producto);
+                cambiar(factura.agregarProducto(producto));
+                salida.println("\n✅ Producto agregado exitosamente:");
+                salida.println("   " + producto);
             }
             
         } catch (NumberFormatException e) {
-            System.out.println("❌ Error: El precio debe ser un número válido.");
+            salida.println("❌ Error: El precio debe ser un número válido.");
         } catch (IllegalArgumentException e) {
-            System.out.println("❌ Error: " + e.getMessage());
+            salida.println("❌ Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            salida.println("❌ Error: " + e.getMessage());
+            salida.println("Configure una regla de impuesto para esta categoría antes de agregar el producto.");
         } catch (Exception e) {
-            System.out.println("❌ Error inesperado: " + e.getMessage());
+            salida.println("❌ Error inesperado: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Busca el producto en el catálogo a partir de lo que escribe el usuario: primero por
+     * prefijo y, si no hay coincidencias, por nombre aproximado.
+     * 
+     * @return true si se resolvió la operación (producto agregado o cancelado), false si el
+     *         usuario prefiere ingresar el producto a mano
+     */
+    private boolean agregarDesdeCatalogo() {
+        salida.print("Buscar en el catálogo (Enter para ingresar a mano): ");
+        String texto = leerLinea().trim();
+        if (texto.isEmpty()) {
+            return entradaAgotada;
+        }
+        
+        List<EntradaCatalogo> sugerencias = catalogo.buscarPrefijo(texto, MAX_SUGERENCIAS);
+        if (sugerencias.isEmpty()) {
+            sugerencias = catalogo.buscarAproximado(texto, texto.length() < 5 ? 1 : 2, MAX_SUGERENCIAS);
+        }
+        if (sugerencias.isEmpty()) {
+            salida.println("No se encontraron productos para \"" + texto + "\".");
+            return false;
+        }
+        
+        for (int i = 0; i < sugerencias.size(); i++) {
+            salida.println((i + 1) + ". " + sugerencias.get(i).producto());
+        }
+        salida.println("0. Ingresar a mano");
+        salida.print("\nOpción: ");
+        int opcion = leerOpcion();
+        if (opcion < 1 || opcion > sugerencias.size()) {
+            return entradaAgotada;
+        }
+        
+        Producto producto = sugerencias.get(opcion - 1).producto();
+        cambiar(factura.agregarProducto(producto));
+        salida.println("\n✅ Producto agregado exitosamente:");
+        salida.println("   " + producto);
+        return true;
+    }
+    
+    /**
+     * Modo de entrada rápida: cada línea {@code categoria;nombre;precio} agrega un producto.
+     * 
+     * <p>No se muestra nada por cada producto correcto. El resumen se redibuja cuando la
+     * ráfaga de entrada se detiene (no hay más líneas disponibles sin bloquear) o cada
+     * {@value #MAX_PRODUCTOS_POR_REDIBUJADO} productos. Los errores se informan de
+     * inmediato con la línea que los produjo, sin interrumpir la ráfaga. Una línea vacía
+     * o el fin de la entrada vuelven al menú. Toda la ráfaga se deshace como un solo cambio.
+     */
+    private void entradaRapida() {
+        salida.println("\n--- ENTRADA RÁPIDA ---");
+        salida.println("Una línea por producto: categoria;nombre;precio (ej: 1;Pan Integral;5000)");
+        salida.println("Categorías: 1/Alimento, 2/Ropa, 3/Electrónica. Línea vacía para volver al menú.");
+        salida.flush();
+        
+        FacturaPersistente inicial = factura;
+        int agregados = 0;
+        int pendientes = 0;
+        int errores = 0;
+        
+        while (true) {
+            String linea = leerLinea();
+            if (linea.isBlank()) {
+                break;
+            }
+            
+            try {
+                factura = factura.agregarProducto(LectorFacturas.parsearLinea(linea));
+                agregados++;
+                pendientes++;
+            } catch (IllegalArgumentException e) {
+                errores++;
+                salida.println("❌ " + e.getMessage());
+            }
+            
+            if (pendientes > 0 && (pendientes >= MAX_PRODUCTOS_POR_REDIBUJADO || !hayEntradaDisponible())) {
+                redibujarResumenRapido(pendientes);
+                pendientes = 0;
+            }
+        }
+        
+        if (pendientes > 0) {
+            redibujarResumenRapido(pendientes);
+        }
+        if (agregados > 0) {
+            FacturaPersistente rafaga = factura;
+            factura = inicial;
+            cambiar(rafaga);
+        }
+        salida.printf("Entrada rápida finalizada: %d producto(s) agregado(s), %d error(es).%n", agregados, errores);
+    }
+    
+    /**
+     * Indica si hay más entrada disponible que puede leerse sin bloquear.
+     * 
+     * @return true si la ráfaga de entrada continúa
+     */
+    private boolean hayEntradaDisponible() {
+        try {
+            return entrada.ready();
+        } catch (IOException e) {
+            return false;
         }
     }
     
+    /**
+     * Muestra una línea de resumen compacta tras una ráfaga de productos.
+     * 
+     * @param nuevos La cantidad de productos agregados desde el último resumen
+     */
+    private void redibujarResumenRapido(int nuevos) {
+        salida.printf("  +%d | Productos: %d | Subtotal: $%.2f%n",
+            nuevos, factura.getCantidadProductos(), factura.calcularSubtotal());
+        salida.flush();
+    }
+    
     /**
      * Crea un producto según la categoría seleccionada.
      * 
@@ -225,111 +523,144 @@ public class ConsolaInteractiva {
      * Muestra un resumen de los productos agregados a la factura.
      */
     private void mostrarResumen() {
-        System.out.println("\n--- RESUMEN DE PRODUCTOS ---");
+        salida.println("\n--- RESUMEN DE PRODUCTOS ---");
         
         if (factura.getCantidadProductos() == 0) {
-            System.out.println("No hay productos en la factura.");
+            salida.println("No hay productos en la factura.");
             return;
         }
         
-        System.out.println("Productos en la factura (" + factura.getCantidadProductos() + "):");
-        System.out.println();
+        salida.println("Productos en la factura (" + factura.getCantidadProductos() + "):");
+        salida.println();
         
-        int contador = 1;
-        for (Producto producto : factura.getProductos()) {
-            System.out.printf("%d. %s%n", contador++, producto);
+        for (int i = 0; i < factura.getCantidadProductos(); i++) {
+            salida.printf("%d. %s%n", i + 1, factura.getProducto(i));
         }
         
-        System.out.println();
-        System.out.printf("Subtotal: $%.2f%n", factura.calcularSubtotal());
+        salida.println();
+        salida.printf("Subtotal: $%.2f%n", factura.calcularSubtotal());
     }
     
     /**
      * Calcula y muestra el total de la factura.
      */
     private void calcularYMostrarTotal() {
-        System.out.println("\n--- CÁLCULO DE TOTAL ---");
+        salida.println("\n--- CÁLCULO DE TOTAL ---");
         
         if (factura.getCantidadProductos() == 0) {
-            System.out.println("No hay productos en la factura para calcular.");
+            salida.println("No hay productos en la factura para calcular.");
             return;
         }
         
-        try {
-            double subtotal = factura.calcularSubtotal();
-            double impuestos = factura.calcularTotalImpuestos();
-            double total = factura.calcularTotal();
-            
-            System.out.println();
-            System.out.printf("Subtotal:              $%15.2f%n", subtotal);
-            System.out.printf("Total Impuestos:       $%15.2f%n", impuestos);
-            System.out.println("----------------------------------------");
-            System.out.printf("TOTAL:                 $%15.2f%n", total);
-            
-        } catch (IllegalStateException e) {
-            System.out.println("❌ Error: " + e.getMessage());
-            System.out.println("Asegúrese de que todos los productos tengan una regla de impuesto configurada.");
-        }
+        // Los productos sin regla de impuesto se rechazan al agregarlos, así que aquí no hay errores
+        salida.println();
+        salida.printf("Subtotal:              $%15.2f%n", factura.calcularSubtotal());
+        salida.printf("Total Impuestos:       $%15.2f%n", factura.calcularTotalImpuestos());
+        salida.println("----------------------------------------");
+        salida.printf("TOTAL:                 $%15.2f%n", factura.calcularTotal());
     }
     
     /**
      * Imprime la factura completa usando InvoicePrinter.
      */
     private void imprimirFactura() {
-        System.out.println("\n--- IMPRIMIR FACTURA ---");
+        salida.println("\n--- IMPRIMIR FACTURA ---");
         
         if (factura.getCantidadProductos() == 0) {
-            System.out.println("No hay productos en la factura para imprimir.");
+            salida.println("No hay productos en la factura para imprimir.");
             return;
         }
         
-        try {
-            InvoicePrinter printer = new SimpleInvoicePrinter();
-            printer.imprimir(factura, reglasImpuesto);
-        } catch (IllegalStateException e) {
-            System.out.println("❌ Error: " + e.getMessage());
-            System.out.println("Asegúrese de que todos los productos tengan una regla de impuesto configurada.");
-        }
+        InvoicePrinter printer = new SimpleInvoicePrinter();
+        printer.imprimir(factura.aFactura(), reglasImpuesto);
     }
     
     /**
-     * Limpia la factura actual y crea una nueva.
+     * Limpia la factura para empezar una nueva venta: pasa a una versión nueva y vacía, y la
+     * versión anterior queda en el historial, de modo que limpiar se puede deshacer.
      */
     private void limpiarFactura() {
-        System.out.println("\n--- LIMPIAR FACTURA ---");
-        System.out.print("¿Está seguro de que desea limpiar la factura? (s/n): ");
-        String confirmacion = scanner.nextLine().trim().toLowerCase();
+        salida.println("\n--- LIMPIAR FACTURA ---");
+        salida.print("¿Está seguro de que desea limpiar la factura? (s/n): ");
+        String confirmacion = leerLinea().trim().toLowerCase();
         
         if (confirmacion.equals("s") || confirmacion.equals("si") || confirmacion.equals("y") || confirmacion.equals("yes")) {
-            factura = new Factura(reglasImpuesto);
-            System.out.println("✅ Factura limpiada. Puede comenzar a agregar productos nuevamente.");
+            cambiar(FacturaPersistente.vacia(reglasImpuesto));
+            salida.println("✅ Factura limpiada. Puede comenzar a agregar productos nuevamente.");
         } else {
-            System.out.println("Operación cancelada.");
+            salida.println("Operación cancelada.");
+        }
+    }
+    
+    /**
+     * Reemplaza la factura por una versión nueva, guardando la actual para deshacer.
+     * 
+     * @param nueva La nueva versión de la factura
+     */
+    private void cambiar(FacturaPersistente nueva) {
+        if (deshechas.size() == MAX_HISTORIAL) {
+            deshechas.removeLast();
+        }
+        deshechas.push(factura);
+        rehechas.clear();
+        factura = nueva;
+    }
+    
+    /**
+     * Vuelve a la versión de la factura anterior al último cambio.
+     */
+    private void deshacer() {
+        salida.println("\n--- DESHACER ---");
+        if (deshechas.isEmpty()) {
+            salida.println("No hay cambios para deshacer.");
+            return;
+        }
+        rehechas.push(factura);
+        factura = deshechas.pop();
+        salida.printf("✅ Cambio deshecho. Productos: %d | Subtotal: $%.2f%n",
+            factura.getCantidadProductos(), factura.calcularSubtotal());
+    }
+    
+    /**
+     * Vuelve a aplicar el último cambio deshecho.
+     */
+    private void rehacer() {
+        salida.println("\n--- REHACER ---");
+        if (rehechas.isEmpty()) {
+            salida.println("No hay cambios para rehacer.");
+            return;
         }
+        deshechas.push(factura);
+        factura = rehechas.pop();
+        salida.printf("✅ Cambio rehecho. Productos: %d | Subtotal: $%.2f%n",
+            factura.getCantidadProductos(), factura.calcularSubtotal());
     }
     
     /**
      * Muestra información de ayuda sobre el sistema.
      */
     private void mostrarAyuda() {
-        System.out.println("\n--- AYUDA ---");
-        System.out.println("Sistema de Facturación SOLID - Modo Interactivo");
-        System.out.println();
-        System.out.println("Este sistema permite crear facturas agregando productos de diferentes categorías:");
-        System.out.println("  • Alimentos: IVA del 5%");
-        System.out.println("  • Ropa: IVA del 19%");
-        System.out.println("  • Electrónica: IVA del 25%");
-        System.out.println();
-        System.out.println("Funcionalidades:");
-        System.out.println("  1. Agregar producto: Permite agregar productos a la factura");
-        System.out.println("  2. Ver resumen: Muestra todos los productos agregados");
-        System.out.println("  3. Calcular total: Calcula subtotal, impuestos y total");
-        System.out.println("  4. Imprimir factura: Muestra la factura completa formateada");
-        System.out.println("  5. Limpiar factura: Reinicia la factura actual");
-        System.out.println("  6. Ayuda: Muestra esta información");
-        System.out.println("  0. Salir: Termina la sesión");
-        System.out.println();
-        System.out.println("Nota: Los precios deben ser números positivos válidos.");
+        salida.println("\n--- AYUDA ---");
+        salida.println("Sistema de Facturación SOLID - Modo Interactivo");
+        salida.println();
+        salida.println("Este sistema permite crear facturas agregando productos de diferentes categorías:");
+        salida.println("  • Alimentos: IVA del 5%");
+        salida.println("  • Ropa: IVA del 19%");
+        salida.println("  • Electrónica: IVA del 25%");
+        salida.println();
+        salida.println("Funcionalidades:");
+        salida.println("  1. Agregar producto: Permite agregar productos a la factura");
+        salida.println("  2. Ver resumen: Muestra todos los productos agregados");
+        salida.println("  3. Calcular total: Calcula subtotal, impuestos y total");
+        salida.println("  4. Imprimir factura: Muestra la factura completa formateada");
+        salida.println("  5. Limpiar factura: Reinicia la factura actual");
+        salida.println("  6. Ayuda: Muestra esta información");
+        salida.println("  7. Entrada rápida: Una línea 'categoria;nombre;precio' por producto");
+        salida.println("  8. Deshacer: Revierte el último cambio (agregar, entrada rápida o limpiar)");
+        salida.println("  9. Rehacer: Vuelve a aplicar el último cambio deshecho");
+        salida.println("  0. Salir: Termina la sesión");
+        salida.println();
+        salida.println("Nota: Los precios deben ser números positivos válidos.");
     }
 }
 
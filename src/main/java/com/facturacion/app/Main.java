@@ -1,15 +1,45 @@
 package com.facturacion.app;
 
+import com.facturacion.catalogo.IndiceNombres;
+import com.facturacion.distribuido.CoordinadorShards;
+import com.facturacion.distribuido.TotalesParciales;
 import com.facturacion.factura.Factura;
 import com.facturacion.factura.InvoicePrinter;
 import com.facturacion.factura.SimpleInvoicePrinter;
+import com.facturacion.impuesto.DesgloseImpuestos;
 import com.facturacion.impuesto.IVAAlimento;
 import com.facturacion.impuesto.IVAElectronico;
 import com.facturacion.impuesto.IVARopa;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.lote.LectorFacturas;
+import com.facturacion.lote.OpcionesLote;
+import com.facturacion.lote.ProcesadorLotes;
+import com.facturacion.lote.ResumenLote;
+import com.facturacion.model.Producto;
 import com.facturacion.model.ProductoAlimento;
 import com.facturacion.model.ProductoElectronico;
 import com.facturacion.model.ProductoRopa;
+import com.facturacion.servicio.GeneradorCarga;
+import com.facturacion.servicio.LoteadorPrecios;
+import com.facturacion.servicio.ResultadoCarga;
+import com.facturacion.servicio.ServicioPrecios;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,7 +52,19 @@ import java.util.Map;
  * <p>Uso:
  * <ul>
  *   <li>Sin argumentos o con "--demo": Ejecuta una demostración predefinida</li>
- *   <li>Con "--interactive" o "-i": Inicia el modo interactivo de consola</li>
+ *   <li>Con "--interactive" o "-i": Inicia el modo interactivo de consola; si además se
+ *       indica "--rapido", comienza en el modo de entrada rápida; con
+ *       "--catalogo ARCHIVO" sugiere productos de un historial de ventas, cuyos precios
+ *       incluyen el impuesto si se indica "--precios-con-impuesto"</li>
+ *   <li>Con "--batch" o "-b": Procesa facturas desde archivos o la entrada estándar,
+ *       sin interacción, y muestra un resumen de rendimiento</li>
+ *   <li>Con "--shards N": Calcula los totales de un archivo de facturas repartiéndolas
+ *       entre 1..N procesos trabajadores y muestra la eficiencia de escalado</li>
+ *   <li>Con "--servidor [puerto] [hilos] [lote] [espera_us]": Inicia el servicio HTTP de
+ *       precios ({@link ServicioPrecios}); con "lote" agrupa las cestas en lotes de hasta
+ *       ese tamaño, esperando a lo sumo "espera_us" microsegundos</li>
+ *   <li>Con "--carga URL [conexiones] [segundos] [líneas]": Mide rendimiento y latencia
+ *       de un servicio de precios ({@link GeneradorCarga})</li>
  * </ul>
  * 
  * @author Sistema de Facturación SOLID
@@ -30,34 +72,322 @@ import java.util.Map;
  */
 public class Main {
     
+    /**
+     * Puerto por defecto del servicio de precios.
+     */
+    private static final int PUERTO_POR_DEFECTO = 8080;
+    
     /**
      * Método principal que ejecuta el sistema según los argumentos proporcionados.
      * 
      * @param args Argumentos de línea de comandos:
      *             - Sin argumentos o "--demo": Modo demostración
-     *             - "--interactive" o "-i": Modo interactivo
+     *             - "--interactive" o "-i" (opcionalmente con "--rapido" y "--catalogo ARCHIVO"): Modo interactivo
+     *             - "--batch" o "-b" seguido de sus opciones: Modo por lotes
+     *             - "--shards N [archivo]": Cálculo distribuido con informe de escalado
+     *             - "--servidor [puerto] [hilos] [lote] [espera_us]": Servicio HTTP de precios
+     *             - "--carga URL [conexiones] [segundos] [líneas]": Prueba de carga del servicio
      */
     public static void main(String[] args) {
         // Determinar el modo de ejecución
         boolean modoInteractivo = false;
+        boolean modoLotes = false;
+        boolean modoShards = false;
+        boolean modoServidor = false;
+        boolean modoCarga = false;
         
         if (args.length > 0) {
             String primerArg = args[0].toLowerCase();
             modoInteractivo = primerArg.equals("--interactive") || 
                             primerArg.equals("-i") ||
                             primerArg.equals("--interactivo");
+            modoLotes = primerArg.equals("--batch") ||
+                        primerArg.equals("-b") ||
+                        primerArg.equals("--lote");
+            modoShards = primerArg.equals("--shards");
+            modoServidor = primerArg.equals("--servidor") || primerArg.equals("--server");
+            modoCarga = primerArg.equals("--carga") || primerArg.equals("--load");
         }
         
-        if (modoInteractivo) {
-            // Modo interactivo
-            ConsolaInteractiva consola = new ConsolaInteractiva();
-            consola.iniciar();
+        if (modoServidor) {
+            // Servicio HTTP de precios; se detiene con Ctrl+C
+            int codigo = ejecutarServidor(Arrays.copyOfRange(args, 1, args.length));
+            if (codigo != 0) {
+                System.exit(codigo);
+            }
+        } else if (modoCarga) {
+            // Prueba de carga contra un servicio de precios
+            System.exit(ejecutarCarga(Arrays.copyOfRange(args, 1, args.length)));
+        } else if (modoShards) {
+            // Cálculo distribuido entre procesos trabajadores
+            System.exit(ejecutarShards(Arrays.copyOfRange(args, 1, args.length)));
+        } else if (modoLotes) {
+            // Modo por lotes (no interactivo)
+            System.exit(ejecutarLotes(Arrays.copyOfRange(args, 1, args.length)));
+        } else if (modoInteractivo) {
+            // Modo interactivo (con "--rapido" comienza en modo de entrada rápida)
+            boolean modoRapido = Arrays.asList(args).contains("--rapido") ||
+                                 Arrays.asList(args).contains("--fast");
+            // Con "--catalogo ARCHIVO" se sugieren productos por nombre al agregarlos
+            int posicionCatalogo = Arrays.asList(args).indexOf("--catalogo");
+            IndiceNombres catalogo = null;
+            if (posicionCatalogo > 0 && posicionCatalogo + 1 < args.length) {
+                // Con "--precios-con-impuesto" el historial trae precios de góndola
+                DesgloseImpuestos desglose = Arrays.asList(args).contains("--precios-con-impuesto")
+                    ? DesgloseImpuestos.compilar(ReglasImpuesto.porDefecto())
+                    : null;
+                catalogo = cargarCatalogo(args[posicionCatalogo + 1], desglose);
+                if (catalogo == null) {
+                    System.exit(1);
+                }
+            }
+            ConsolaInteractiva consola = new ConsolaInteractiva(System.in, System.out, catalogo);
+            consola.iniciar(modoRapido);
         } else {
             // Modo demostración
             ejecutarDemostracion();
         }
     }
     
+    /**
+     * Ejecuta el modo de procesamiento por lotes.
+     * 
+     * <p>El resumen se imprime en la salida estándar, salvo que los resultados se estén
+     * escribiendo allí; en ese caso se imprime en la salida de errores.
+     * 
+     * @param args Las opciones del modo por lotes (ver {@link OpcionesLote#uso()})
+     * @return El código de salida: 0 si terminó bien, 1 si falló el procesamiento,
+     *         2 si los argumentos no son válidos
+     */
+    private static int ejecutarLotes(String[] args) {
+        OpcionesLote opciones;
+        try {
+            opciones = OpcionesLote.parsear(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(OpcionesLote.uso());
+            return 2;
+        }
+        
+        try {
+            ResumenLote resumen = new ProcesadorLotes(opciones, ReglasImpuesto.porDefecto()).ejecutar();
+            resumen.imprimir(opciones.getSalida() == null ? System.err : System.out);
+            return 0;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error de entrada/salida: " + e.getMessage());
+            return 1;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+    
+    /**
+     * Carga el catálogo de productos de la consola desde un historial de ventas con una
+     * línea {@code categoria;nombre;precio} por producto vendido. La frecuencia de cada
+     * producto es la cantidad de veces que aparece; las líneas vacías y las que comienzan
+     * con '#' se ignoran.
+     * 
+     * <p>Con un desglose, los precios del historial se interpretan como precios con
+     * impuesto incluido y el catálogo guarda el precio base de cada producto.
+     * 
+     * @param archivo La ruta del historial
+     * @param desglose El desglose de impuestos, o null si el historial trae precios base
+     * @return El índice del catálogo, o null si no se pudo cargar (el error se informa)
+     */
+    private static IndiceNombres cargarCatalogo(String archivo, DesgloseImpuestos desglose) {
+        List<Producto> historial = new ArrayList<>();
+        try (BufferedReader lector = Files.newBufferedReader(Path.of(archivo), StandardCharsets.UTF_8)) {
+            String linea;
+            int numero = 0;
+            while ((linea = lector.readLine()) != null) {
+                numero++;
+                if (!linea.isBlank() && !linea.startsWith("#")) {
+                    try {
+                        historial.add(LectorFacturas.parsearLinea(linea, desglose));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException(archivo + ", línea " + numero + ": " + e.getMessage(), e);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error al cargar el catálogo: " + e.getMessage());
+            return null;
+        }
+        return IndiceNombres.desdeHistorial(historial);
+    }
+    
+    /**
+     * Ejecuta el cálculo distribuido con 1..N trabajadores e imprime la eficiencia de
+     * escalado y los totales combinados.
+     * 
+     * @param args La cantidad máxima de trabajadores y, opcionalmente, el archivo de
+     *             facturas (en el formato del modo por lotes; sin archivo o "-" se lee la
+     *             entrada estándar)
+     * @return El código de salida: 0 si terminó bien, 1 si falló el cálculo,
+     *         2 si los argumentos no son válidos
+     */
+    private static int ejecutarShards(String[] args) {
+        int maxTrabajadores;
+        try {
+            if (args.length < 1 || args.length > 2) {
+                throw new IllegalArgumentException("se esperaba: --shards N [archivo]");
+            }
+            maxTrabajadores = Integer.parseInt(args[0]);
+            if (maxTrabajadores <= 0) {
+                throw new IllegalArgumentException("la cantidad de trabajadores debe ser positiva");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Uso: --shards N [archivo]");
+            return 2;
+        }
+        
+        String origen = args.length == 2 ? args[1] : "-";
+        List<Factura> facturas = new ArrayList<>();
+        try (Reader fuente = origen.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Path.of(origen), StandardCharsets.UTF_8);
+             LectorFacturas lector = new LectorFacturas(fuente, ReglasImpuesto.porDefecto(), origen)) {
+            while (lector.leer(facturas, 8192) > 0) {
+                // Lee todo el archivo
+            }
+            
+            List<CoordinadorShards.MedicionEscalado> mediciones =
+                CoordinadorShards.medirEscalado(facturas, maxTrabajadores, null);
+            System.out.println("trabajadores;arranque_ms;calculo_ms;facturas_por_segundo;eficiencia");
+            for (CoordinadorShards.MedicionEscalado medicion : mediciones) {
+                System.out.printf("%d;%.1f;%.1f;%.0f;%.2f%n", medicion.trabajadores(),
+                    medicion.nanosArranque() / 1e6, medicion.nanosCalculo() / 1e6,
+                    medicion.facturasPorSegundo(), medicion.eficiencia());
+            }
+            
+            TotalesParciales totales = mediciones.get(mediciones.size() - 1).total();
+            System.out.printf("Facturas: %d  Líneas: %d%n", totales.getFacturas(), totales.getLineas());
+            System.out.printf("Subtotal: $%.2f  Impuestos: $%.2f%n",
+                totales.getSubtotal(), totales.getTotalImpuestos());
+            totales.getImpuestosPorRegla().forEach((regla, valor) ->
+                System.out.printf("  %s: $%.2f%n", regla, valor));
+            return 0;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error de entrada/salida: " + e.getMessage());
+            return 1;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+    
+    /**
+     * Inicia el servicio HTTP de precios y lo deja atendiendo hasta que termine el proceso.
+     * 
+     * @param args Opcionalmente el puerto (por defecto {@value #PUERTO_POR_DEFECTO}), la
+     *             cantidad de hilos (por defecto, uno por procesador) y, para agrupar las
+     *             cestas con {@link LoteadorPrecios}, el tamaño máximo de lote y la espera
+     *             máxima en microsegundos (por defecto 100)
+     * @return El código de salida: 0 si el servicio quedó iniciado, 1 si no se pudo abrir
+     *         el puerto, 2 si los argumentos no son válidos
+     */
+    private static int ejecutarServidor(String[] args) {
+        int puerto;
+        int hilos;
+        int lote;
+        long esperaMicros;
+        try {
+            if (args.length > 4) {
+                throw new IllegalArgumentException("se esperaba: --servidor [puerto] [hilos] [lote] [espera_us]");
+            }
+            puerto = args.length > 0 ? Integer.parseInt(args[0]) : PUERTO_POR_DEFECTO;
+            hilos = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+            lote = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+            esperaMicros = args.length > 3 ? Long.parseLong(args[3]) : 100;
+            if (puerto < 0 || puerto > 65535 || hilos <= 0 || lote < 0 || esperaMicros < 0) {
+                throw new IllegalArgumentException("puerto, hilos, lote o espera fuera de rango");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Uso: --servidor [puerto] [hilos] [lote] [espera_us]");
+            return 2;
+        }
+        
+        // El servidor HTTP del JDK escribe encabezados y cuerpo por separado: sin esto, cada
+        // respuesta espera el ACK retardado del cliente. Se respeta un valor dado con -D.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        
+        try {
+            Map<Class<? extends Producto>, Impuesto> reglas = ReglasImpuesto.porDefecto();
+            LoteadorPrecios loteador = lote > 0
+                ? new LoteadorPrecios(reglas, lote, Duration.ofNanos(esperaMicros * 1000))
+                : null;
+            ServicioPrecios servicio = new ServicioPrecios(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), reglas, hilos, loteador);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                servicio.close();
+                if (loteador != null) {
+                    loteador.close();
+                    System.err.println("Lotes: " + loteador.getEstadisticas());
+                }
+            }));
+            servicio.iniciar();
+            System.out.printf("Servicio de precios en http://localhost:%d%s (%d hilos%s)%n",
+                servicio.getPuerto(), ServicioPrecios.RUTA, hilos,
+                loteador == null ? "" : String.format(", lotes de hasta %d con espera de %d us", lote, esperaMicros));
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Error al iniciar el servicio: " + e.getMessage());
+            return 1;
+        }
+    }
+    
+    /**
+     * Ejecuta una prueba de carga contra un servicio de precios e imprime el rendimiento
+     * y los percentiles de latencia.
+     * 
+     * @param args La URL del recurso de precios y, opcionalmente, la cantidad de conexiones
+     *             (por defecto 8), los segundos de medición (por defecto 10) y las líneas de
+     *             la cesta enviada (por defecto 10)
+     * @return El código de salida: 0 si terminó bien, 1 si hubo errores, 2 si los
+     *         argumentos no son válidos
+     */
+    private static int ejecutarCarga(String[] args) {
+        URI destino;
+        int conexiones;
+        int segundos;
+        int lineas;
+        try {
+            if (args.length < 1 || args.length > 4) {
+                throw new IllegalArgumentException("se esperaba: --carga URL [conexiones] [segundos] [líneas]");
+            }
+            destino = URI.create(args[0]);
+            conexiones = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+            segundos = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+            lineas = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+            if (conexiones <= 0 || segundos <= 0) {
+                throw new IllegalArgumentException("conexiones y segundos deben ser positivos");
+            }
+            if (lineas < 0) {
+                throw new IllegalArgumentException("las líneas no pueden ser negativas");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Uso: --carga URL [conexiones] [segundos] [líneas]");
+            return 2;
+        }
+        
+        try {
+            GeneradorCarga generador = new GeneradorCarga(destino, GeneradorCarga.cestaDeEjemplo(lineas), conexiones);
+            ResultadoCarga resultado = generador.ejecutar(
+                Duration.ofSeconds(Math.max(1, segundos / 5)), Duration.ofSeconds(segundos));
+            resultado.imprimir(System.out);
+            return resultado.errores() == 0 ? 0 : 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+    
     /**
      * Ejecuta una demostración predefinida del sistema.
      * 
@@ -68,7 +398,7 @@ public class Main {
     private static void ejecutarDemostracion() {
         System.out.println("=== Sistema de Facturación SOLID ===\n");
         System.out.println("Modo: Demostración");
-        System.out.println("(Use --interactive o -i para modo interactivo)\n");
+        System.out.println("(Use --interactive o -i para modo interactivo, --batch para modo por lotes)\n");
         
         // Crear productos de diferentes categorías
         // Esto demuestra LSP: todas las subclases pueden usarse como Producto
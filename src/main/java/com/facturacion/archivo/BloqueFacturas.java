@@ -0,0 +1,253 @@
+package com.facturacion.archivo;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.serializacion.Utf8;
+import com.facturacion.serializacion.Varint;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bloque comprimido de facturas del archivo, decodificable por sí solo.
+ *
+ * <p>Formato del bloque (todos los enteros son varint salvo que se indique otra cosa):
+ * <pre>
+ *   cantidad de facturas
+ *   cantidad de productos de cada factura
+ *   tamaño del diccionario, y por cada nombre: longitud en bytes + UTF-8
+ *   categorías de todas las líneas, 2 bits por línea (4 por byte)
+ *   índice en el diccionario del nombre de cada línea
+ *   precio de cada línea en centavos, como diferencia zigzag con la línea anterior
+ * </pre>
+ *
+ * <p>Agrupar cada columna hace que los valores parecidos queden juntos: los nombres se
+ * repiten poco dentro del diccionario y los precios repetidos o cercanos ocupan uno o dos
+ * bytes. Los precios deben tener como máximo dos decimales, de modo que la conversión a
+ * centavos no pierde información, y estar en {@link Producto#MONEDA_POR_DEFECTO}.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+final class BloqueFacturas {
+
+    /**
+     * Cantidad de productos de cada factura del bloque.
+     */
+    private int[] productosPorFactura = new int[64];
+
+    /**
+     * Cantidad de facturas del bloque.
+     */
+    private int facturas;
+
+    /**
+     * Código de categoría de cada línea.
+     */
+    private byte[] categorias = new byte[256];
+
+    /**
+     * Índice en el diccionario del nombre de cada línea.
+     */
+    private int[] nombres = new int[256];
+
+    /**
+     * Precio de cada línea en centavos.
+     */
+    private long[] centavos = new long[256];
+
+    /**
+     * Cantidad de líneas del bloque.
+     */
+    private int lineas;
+
+    /**
+     * Índice de cada nombre en el diccionario.
+     */
+    private final Map<String, Integer> indiceDiccionario = new HashMap<>();
+
+    /**
+     * Nombres del diccionario, en orden de aparición.
+     */
+    private final List<String> diccionario = new ArrayList<>();
+
+    /**
+     * Cota superior de los bytes que ocupa el bloque codificado.
+     */
+    private long longitudMaxima;
+
+    /**
+     * Agrega una factura al bloque.
+     *
+     * @param factura La factura a agregar
+     * @throws IllegalArgumentException si algún precio tiene más de dos decimales o no está
+     *                                  en la moneda por defecto, o algún producto no tiene
+     *                                  categoría conocida
+     */
+    void agregar(Factura factura) {
+        int cantidad = factura.getCantidadProductos();
+        if (facturas == productosPorFactura.length) {
+            productosPorFactura = Arrays.copyOf(productosPorFactura, facturas * 2);
+        }
+        if (lineas + cantidad > categorias.length) {
+            int capacidad = Math.max(categorias.length * 2, lineas + cantidad);
+            categorias = Arrays.copyOf(categorias, capacidad);
+            nombres = Arrays.copyOf(nombres, capacidad);
+            centavos = Arrays.copyOf(centavos, capacidad);
+        }
+        // Valida toda la factura antes de modificar el bloque
+        for (int i = 0; i < cantidad; i++) {
+            Producto producto = factura.getProducto(i);
+            if (producto.getMoneda() != Producto.MONEDA_POR_DEFECTO) {
+                throw new IllegalArgumentException("Solo se archivan precios en "
+                    + Producto.MONEDA_POR_DEFECTO.getCurrencyCode() + ": " + producto);
+            }
+            categorias[lineas + i] = (byte) CategoriaProducto.de(producto).getCodigo();
+            centavos[lineas + i] = aCentavos(producto.getPrecio());
+        }
+        for (int i = 0; i < cantidad; i++) {
+            String nombre = factura.getProducto(i).getNombre();
+            Integer indice = indiceDiccionario.get(nombre);
+            if (indice == null) {
+                indice = diccionario.size();
+                indiceDiccionario.put(nombre, indice);
+                diccionario.add(nombre);
+                longitudMaxima += 5 + 3L * nombre.length();
+            }
+            nombres[lineas + i] = indice;
+        }
+        productosPorFactura[facturas++] = cantidad;
+        lineas += cantidad;
+        longitudMaxima += 5 + cantidad * (1L + 5 + 10);
+    }
+
+    /**
+     * Obtiene la cantidad de facturas del bloque.
+     *
+     * @return La cantidad de facturas
+     */
+    int getFacturas() {
+        return facturas;
+    }
+
+    /**
+     * Obtiene una cota superior de los bytes que ocupa el bloque codificado.
+     *
+     * @return La cota en bytes
+     */
+    long getLongitudMaxima() {
+        return longitudMaxima + 15;
+    }
+
+    /**
+     * Codifica el bloque en la posición actual del buffer.
+     *
+     * @param destino El buffer de destino
+     * @throws BufferOverflowException si el buffer no tiene espacio suficiente
+     */
+    void codificar(ByteBuffer destino) {
+        Varint.escribirInt(destino, facturas);
+        for (int i = 0; i < facturas; i++) {
+            Varint.escribirInt(destino, productosPorFactura[i]);
+        }
+        Varint.escribirInt(destino, diccionario.size());
+        for (String nombre : diccionario) {
+            Varint.escribirInt(destino, Utf8.longitud(nombre));
+            Utf8.escribir(nombre, destino);
+        }
+        for (int i = 0; i < lineas; i += 4) {
+            int empaquetado = 0;
+            for (int j = 0; j < 4 && i + j < lineas; j++) {
+                empaquetado |= (categorias[i + j] & 0x3) << (2 * j);
+            }
+            destino.put((byte) empaquetado);
+        }
+        for (int i = 0; i < lineas; i++) {
+            Varint.escribirInt(destino, nombres[i]);
+        }
+        long anterior = 0;
+        for (int i = 0; i < lineas; i++) {
+            Varint.escribirLong(destino, Varint.zigZag(centavos[i] - anterior));
+            anterior = centavos[i];
+        }
+    }
+
+    /**
+     * Vacía el bloque para reutilizarlo.
+     */
+    void limpiar() {
+        facturas = 0;
+        lineas = 0;
+        indiceDiccionario.clear();
+        diccionario.clear();
+        longitudMaxima = 0;
+    }
+
+    /**
+     * Decodifica un bloque completo y agrega sus facturas al destino.
+     *
+     * @param origen El buffer posicionado al comienzo del bloque
+     * @param reglasImpuesto Las reglas de impuesto de las facturas creadas
+     * @param destino La lista donde se agregan las facturas
+     * @throws IllegalArgumentException si el bloque está dañado
+     */
+    static void decodificar(ByteBuffer origen, Map<Class<? extends Producto>, Impuesto> reglasImpuesto,
+                            List<Factura> destino) {
+        try {
+            int cantidadFacturas = Varint.leerInt(origen);
+            int[] productos = new int[cantidadFacturas];
+            int totalLineas = 0;
+            for (int i = 0; i < cantidadFacturas; i++) {
+                productos[i] = Varint.leerInt(origen);
+                totalLineas += productos[i];
+            }
+            String[] nombresDiccionario = new String[Varint.leerInt(origen)];
+            for (int i = 0; i < nombresDiccionario.length; i++) {
+                nombresDiccionario[i] = Utf8.leer(origen, Varint.leerInt(origen));
+            }
+            int inicioCategorias = origen.position();
+            origen.position(inicioCategorias + (totalLineas + 3) / 4);
+            int[] indicesNombre = new int[totalLineas];
+            for (int i = 0; i < totalLineas; i++) {
+                indicesNombre[i] = Varint.leerInt(origen);
+            }
+
+            long precio = 0;
+            int linea = 0;
+            for (int f = 0; f < cantidadFacturas; f++) {
+                Factura factura = new Factura(reglasImpuesto);
+                for (int p = 0; p < productos[f]; p++, linea++) {
+                    int codigo = (origen.get(inicioCategorias + (linea >> 2)) >> (2 * (linea & 3))) & 0x3;
+                    precio += Varint.deZigZag(Varint.leerLong(origen));
+                    factura.agregarProducto(CategoriaProducto.porCodigo(codigo)
+                        .crear(nombresDiccionario[indicesNombre[linea]], precio / 100.0));
+                }
+                destino.add(factura);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Bloque de facturas dañado: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Convierte un precio a centavos, verificando que la conversión sea exacta.
+     *
+     * @param precio El precio
+     * @return El precio en centavos
+     * @throws IllegalArgumentException si el precio tiene más de dos decimales
+     */
+    static long aCentavos(double precio) {
+        long centavos = Math.round(precio * 100);
+        if (centavos / 100.0 != precio) {
+            throw new IllegalArgumentException(
+                "El precio " + precio + " no se puede archivar: tiene más de dos decimales");
+        }
+        return centavos;
+    }
+}
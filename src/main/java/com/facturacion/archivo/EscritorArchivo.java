@@ -0,0 +1,160 @@
+package com.facturacion.archivo;
+
+import com.facturacion.factura.Factura;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Escritor del archivo comprimido de facturas.
+ *
+ * <p>El archivo comienza con una cabecera ({@link #MAGIA} y {@link #VERSION}) seguida de
+ * bloques independientes, cada uno precedido por su longitud en bytes (int de 4 bytes).
+ * El formato de cada bloque se describe en {@link BloqueFacturas}. Las facturas se
+ * acumulan en memoria hasta completar un bloque, que se codifica en un buffer reutilizable
+ * y se escribe de una sola vez en el canal.
+ *
+ * <p>Un bloque se cierra al alcanzar la cantidad de facturas configurada o
+ * {@link #BYTES_MAXIMOS_POR_BLOQUE}, lo que ocurra primero. Bloques más grandes comprimen
+ * mejor (el diccionario se comparte entre más facturas); bloques más pequeños reparten
+ * mejor el trabajo entre los hilos del {@link LectorArchivo}.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class EscritorArchivo implements Closeable {
+
+    /**
+     * Bytes iniciales que identifican un archivo de facturas comprimido.
+     */
+    static final int MAGIA = 0x46414346; // "FACF"
+
+    /**
+     * Versión del formato.
+     */
+    static final byte VERSION = 1;
+
+    /**
+     * Longitud de la cabecera del archivo, en bytes.
+     */
+    static final int LONGITUD_CABECERA = 5;
+
+    /**
+     * Facturas por bloque por defecto.
+     */
+    public static final int FACTURAS_POR_BLOQUE = 4096;
+
+    /**
+     * Tamaño estimado a partir del cual se cierra un bloque aunque no tenga todas sus facturas.
+     */
+    public static final int BYTES_MAXIMOS_POR_BLOQUE = 8 * 1024 * 1024;
+
+    /**
+     * Canal donde se escribe el archivo.
+     */
+    private final WritableByteChannel canal;
+
+    /**
+     * Cantidad máxima de facturas por bloque.
+     */
+    private final int facturasPorBloque;
+
+    /**
+     * Bloque en construcción.
+     */
+    private final BloqueFacturas bloque = new BloqueFacturas();
+
+    /**
+     * Buffer reutilizable donde se codifica cada bloque.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    /**
+     * Indica si ya se escribió la cabecera.
+     */
+    private boolean cabeceraEscrita;
+
+    /**
+     * Constructor que usa la cantidad de facturas por bloque por defecto.
+     *
+     * @param canal El canal de salida. No puede ser null.
+     * @throws NullPointerException si canal es null
+     */
+    public EscritorArchivo(WritableByteChannel canal) {
+        this(canal, FACTURAS_POR_BLOQUE);
+    }
+
+    /**
+     * Constructor que permite indicar la cantidad de facturas por bloque.
+     *
+     * @param canal El canal de salida. No puede ser null.
+     * @param facturasPorBloque La cantidad máxima de facturas por bloque. Debe ser > 0.
+     * @throws NullPointerException si canal es null
+     * @throws IllegalArgumentException si facturasPorBloque no es positivo
+     */
+    public EscritorArchivo(WritableByteChannel canal, int facturasPorBloque) {
+        this.canal = Objects.requireNonNull(canal, "El canal de salida no puede ser null");
+        if (facturasPorBloque <= 0) {
+            throw new IllegalArgumentException("Las facturas por bloque deben ser positivas: " + facturasPorBloque);
+        }
+        this.facturasPorBloque = facturasPorBloque;
+    }
+
+    /**
+     * Agrega una factura al archivo.
+     *
+     * @param factura La factura a archivar. No puede ser null.
+     * @throws NullPointerException si factura es null
+     * @throws IllegalArgumentException si algún precio tiene más de dos decimales o algún
+     *                                  producto no tiene categoría conocida
+     * @throws IOException si falla la escritura de un bloque completo
+     */
+    public void escribir(Factura factura) throws IOException {
+        bloque.agregar(Objects.requireNonNull(factura, "La factura no puede ser null"));
+        if (bloque.getFacturas() >= facturasPorBloque || bloque.getLongitudMaxima() >= BYTES_MAXIMOS_POR_BLOQUE) {
+            escribirBloque();
+        }
+    }
+
+    /**
+     * Escribe el bloque pendiente (si lo hay) y cierra el canal.
+     *
+     * @throws IOException si falla la escritura
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            escribirBloque();
+        } finally {
+            canal.close();
+        }
+    }
+
+    private void escribirBloque() throws IOException {
+        if (!cabeceraEscrita) {
+            ByteBuffer cabecera = ByteBuffer.allocate(LONGITUD_CABECERA).putInt(MAGIA).put(VERSION).flip();
+            while (cabecera.hasRemaining()) {
+                canal.write(cabecera);
+            }
+            cabeceraEscrita = true;
+        }
+        if (bloque.getFacturas() == 0) {
+            return;
+        }
+        long necesario = Integer.BYTES + bloque.getLongitudMaxima();
+        if (necesario > buffer.capacity()) {
+            buffer = ByteBuffer.allocate((int) Math.max(necesario, buffer.capacity() * 2L));
+        }
+        buffer.clear();
+        buffer.position(Integer.BYTES);
+        bloque.codificar(buffer);
+        buffer.putInt(0, buffer.position() - Integer.BYTES);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        bloque.limpiar();
+    }
+}
@@ -0,0 +1,222 @@
+package com.facturacion.archivo;
+
+import com.facturacion.distribuido.TotalesParciales;
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lector del archivo comprimido de facturas escrito por {@link EscritorArchivo}.
+ *
+ * <p>Al abrir el archivo sólo se recorren las cabeceras de los bloques para conocer su
+ * posición. Como cada bloque se decodifica por sí solo, {@link #calcularTotales(int)}
+ * reparte los bloques entre varios hilos: cada uno lee su bloque con una lectura
+ * posicional del canal (segura entre hilos), lo descomprime y acumula sus totales, y los
+ * parciales se combinan en orden de bloque para que el resultado no dependa de la cantidad
+ * de hilos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class LectorArchivo implements Closeable {
+
+    /**
+     * Canal del archivo.
+     */
+    private final FileChannel canal;
+
+    /**
+     * Reglas de impuesto de las facturas leídas.
+     */
+    private final Map<Class<? extends Producto>, Impuesto> reglasImpuesto;
+
+    /**
+     * Posición del contenido (después de la longitud) de cada bloque.
+     */
+    private final long[] posiciones;
+
+    /**
+     * Longitud en bytes de cada bloque.
+     */
+    private final int[] longitudes;
+
+    /**
+     * Abre un archivo de facturas comprimido.
+     *
+     * @param archivo La ruta del archivo. No puede ser null.
+     * @param reglasImpuesto Las reglas de impuesto de las facturas leídas. No puede ser null.
+     * @throws NullPointerException si archivo o reglasImpuesto son null
+     * @throws IOException si el archivo no se puede leer o no tiene el formato esperado
+     */
+    public LectorArchivo(Path archivo, Map<Class<? extends Producto>, Impuesto> reglasImpuesto) throws IOException {
+        Objects.requireNonNull(archivo, "El archivo no puede ser null");
+        this.reglasImpuesto = Objects.requireNonNull(reglasImpuesto, "Las reglas de impuesto no pueden ser null");
+        this.canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            ByteBuffer cabecera = ByteBuffer.allocate(EscritorArchivo.LONGITUD_CABECERA);
+            leerCompleto(cabecera, 0);
+            if (cabecera.getInt(0) != EscritorArchivo.MAGIA || cabecera.get(4) != EscritorArchivo.VERSION) {
+                throw new IOException("El archivo no es un archivo de facturas comprimido: " + archivo);
+            }
+
+            long[] posicionesLeidas = new long[16];
+            int[] longitudesLeidas = new int[16];
+            int bloques = 0;
+            long posicion = EscritorArchivo.LONGITUD_CABECERA;
+            ByteBuffer longitud = ByteBuffer.allocate(Integer.BYTES);
+            while (posicion < canal.size()) {
+                longitud.clear();
+                leerCompleto(longitud, posicion);
+                int bytes = longitud.getInt(0);
+                if (bytes < 0 || posicion + Integer.BYTES + bytes > canal.size()) {
+                    throw new IOException("Bloque truncado o dañado en la posición " + posicion + " de " + archivo);
+                }
+                if (bloques == posicionesLeidas.length) {
+                    posicionesLeidas = Arrays.copyOf(posicionesLeidas, bloques * 2);
+                    longitudesLeidas = Arrays.copyOf(longitudesLeidas, bloques * 2);
+                }
+                posicionesLeidas[bloques] = posicion + Integer.BYTES;
+                longitudesLeidas[bloques] = bytes;
+                bloques++;
+                posicion += Integer.BYTES + bytes;
+            }
+            this.posiciones = Arrays.copyOf(posicionesLeidas, bloques);
+            this.longitudes = Arrays.copyOf(longitudesLeidas, bloques);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de bloques del archivo.
+     *
+     * @return La cantidad de bloques
+     */
+    public int getCantidadBloques() {
+        return posiciones.length;
+    }
+
+    /**
+     * Lee y descomprime un bloque.
+     *
+     * @param bloque El número de bloque (desde 0)
+     * @return Las facturas del bloque
+     * @throws IndexOutOfBoundsException si el número de bloque no es válido
+     * @throws IOException si falla la lectura
+     * @throws IllegalArgumentException si el bloque está dañado
+     */
+    public List<Factura> leerBloque(int bloque) throws IOException {
+        Objects.checkIndex(bloque, posiciones.length);
+        ByteBuffer contenido = ByteBuffer.allocate(longitudes[bloque]);
+        leerCompleto(contenido, posiciones[bloque]);
+        contenido.flip();
+        List<Factura> facturas = new ArrayList<>();
+        BloqueFacturas.decodificar(contenido, reglasImpuesto, facturas);
+        return facturas;
+    }
+
+    /**
+     * Lee todas las facturas del archivo, en orden.
+     *
+     * @return Las facturas
+     * @throws IOException si falla la lectura
+     * @throws IllegalArgumentException si algún bloque está dañado
+     */
+    public List<Factura> leerTodas() throws IOException {
+        List<Factura> facturas = new ArrayList<>();
+        for (int bloque = 0; bloque < posiciones.length; bloque++) {
+            facturas.addAll(leerBloque(bloque));
+        }
+        return facturas;
+    }
+
+    /**
+     * Calcula los totales de todas las facturas del archivo, descomprimiendo los bloques en
+     * paralelo.
+     *
+     * @param hilos La cantidad de hilos a utilizar. Debe ser > 0.
+     * @return Los totales combinados, en orden de bloque
+     * @throws IllegalArgumentException si hilos no es positivo o algún bloque está dañado
+     * @throws IOException si falla la lectura
+     */
+    public TotalesParciales calcularTotales(int hilos) throws IOException {
+        if (hilos <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos debe ser positiva: " + hilos);
+        }
+        List<Callable<TotalesParciales>> tareas = new ArrayList<>(posiciones.length);
+        for (int bloque = 0; bloque < posiciones.length; bloque++) {
+            int numero = bloque;
+            tareas.add(() -> {
+                TotalesParciales parciales = new TotalesParciales();
+                for (Factura factura : leerBloque(numero)) {
+                    parciales.acumular(factura);
+                }
+                return parciales;
+            });
+        }
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(Math.min(hilos, Math.max(posiciones.length, 1)));
+        try {
+            TotalesParciales total = new TotalesParciales();
+            for (Future<TotalesParciales> parcial : ejecutor.invokeAll(tareas)) {
+                total.combinar(parcial.get());
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("La lectura del archivo fue interrumpida", e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException io) {
+                throw io;
+            }
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (causa instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Error al calcular los totales del archivo", causa);
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Cierra el archivo.
+     *
+     * @throws IOException si falla el cierre
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private void leerCompleto(ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            int leidos = canal.read(destino, posicion);
+            if (leidos < 0) {
+                throw new EOFException("Fin de archivo inesperado en la posición " + posicion);
+            }
+            posicion += leidos;
+        }
+    }
+}
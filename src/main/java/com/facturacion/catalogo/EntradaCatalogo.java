@@ -0,0 +1,30 @@
+package com.facturacion.catalogo;
+
+import com.facturacion.model.Producto;
+import java.util.Objects;
+
+/**
+ * Entrada del catálogo de productos: un producto junto con su frecuencia de venta, que se
+ * usa para ordenar las sugerencias de búsqueda.
+ *
+ * @param producto El producto del catálogo
+ * @param frecuencia La cantidad de veces que se ha vendido (o cualquier peso no negativo)
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record EntradaCatalogo(Producto producto, long frecuencia) {
+
+    /**
+     * Valida los datos de la entrada.
+     *
+     * @throws NullPointerException si producto es null
+     * @throws IllegalArgumentException si frecuencia es negativa
+     */
+    public EntradaCatalogo {
+        Objects.requireNonNull(producto, "El producto no puede ser null");
+        if (frecuencia < 0) {
+            throw new IllegalArgumentException("La frecuencia no puede ser negativa: " + frecuencia);
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.facturacion.catalogo;
+
+import com.facturacion.model.Producto;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de búsqueda por nombre sobre un catálogo de productos, pensado para sugerir
+ * productos mientras el cajero escribe.
+ *
+ * <p>Los nombres se normalizan (minúsculas, sin tildes ni espacios sobrantes) y se
+ * organizan en un trie compacto (radix) almacenado en arreglos paralelos de enteros:
+ * <ul>
+ *   <li>Los caracteres de todos los nombres se guardan una sola vez, ordenados, en un
+ *       único {@code char[]}. Las etiquetas de las aristas no se copian: la etiqueta de un
+ *       nodo es un tramo del primer nombre de su subárbol.</li>
+ *   <li>Cada nodo guarda su profundidad, el rango de entradas de su subárbol (que es
+ *       contiguo porque las entradas están ordenadas), sus hijos (contiguos, en orden de
+ *       carácter) y la frecuencia máxima de su subárbol.</li>
+ * </ul>
+ * Un trie radix tiene menos de dos nodos por nombre, de modo que el índice ocupa unos
+ * 24 bytes por nodo más 2 bytes por carácter, sin objetos por nodo, y puede mantenerse
+ * completo en memoria incluso con millones de productos.
+ *
+ * <p>La búsqueda por prefijo recorre el subárbol del prefijo de mayor a menor frecuencia
+ * usando la frecuencia máxima de cada nodo, por lo que solo visita los nodos necesarios
+ * para obtener los primeros resultados. La búsqueda aproximada calcula la distancia de
+ * edición (Levenshtein) fila por fila mientras desciende, y descarta una rama en cuanto
+ * ninguna posición puede quedar dentro de la distancia máxima.
+ *
+ * <p>El índice es inmutable y puede consultarse desde varios hilos. Cumple con
+ * <strong>Single Responsibility Principle (SRP)</strong>: solo busca; el catálogo de
+ * productos y sus frecuencias los provee quien lo construye.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class IndiceNombres {
+
+    /**
+     * Marcas diacríticas que se eliminan al normalizar.
+     */
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Entradas del catálogo, ordenadas por nombre normalizado.
+     */
+    private final EntradaCatalogo[] entradas;
+
+    /**
+     * Nombres normalizados concatenados, en el mismo orden que las entradas.
+     */
+    private final char[] caracteres;
+
+    /**
+     * Posición de inicio de cada nombre en {@link #caracteres}; tiene una posición extra
+     * con el final del último nombre.
+     */
+    private final int[] inicioNombre;
+
+    /**
+     * Profundidad (longitud del prefijo) de cada nodo.
+     */
+    private final int[] profundidad;
+
+    /**
+     * Primera entrada del subárbol de cada nodo.
+     */
+    private final int[] entradaDesde;
+
+    /**
+     * Fin (exclusivo) de las entradas del subárbol de cada nodo.
+     */
+    private final int[] entradaHasta;
+
+    /**
+     * Primer hijo de cada nodo; los hijos ocupan posiciones consecutivas.
+     */
+    private final int[] primerHijo;
+
+    /**
+     * Cantidad de hijos de cada nodo.
+     */
+    private final int[] cantidadHijos;
+
+    /**
+     * Frecuencia máxima entre las entradas del subárbol de cada nodo.
+     */
+    private final long[] frecuenciaMaxima;
+
+    /**
+     * Longitud del nombre más largo, para dimensionar la tabla de distancias.
+     */
+    private final int longitudMaxima;
+
+    /**
+     * Construye el índice sobre las entradas indicadas.
+     *
+     * @param catalogo Las entradas del catálogo. No puede ser null ni contener null.
+     * @throws NullPointerException si catalogo o alguna entrada es null
+     */
+    public IndiceNombres(Collection<EntradaCatalogo> catalogo) {
+        Objects.requireNonNull(catalogo, "El catálogo no puede ser null");
+        int n = catalogo.size();
+        String[] claves = new String[n];
+        Integer[] orden = new Integer[n];
+        EntradaCatalogo[] originales = catalogo.toArray(new EntradaCatalogo[0]);
+        for (int i = 0; i < n; i++) {
+            claves[i] = normalizar(Objects.requireNonNull(originales[i], "La entrada no puede ser null")
+                .producto().getNombre());
+            orden[i] = i;
+        }
+        Arrays.sort(orden, Comparator.comparing((Integer i) -> claves[i]));
+
+        this.entradas = new EntradaCatalogo[n];
+        this.inicioNombre = new int[n + 1];
+        int totalCaracteres = 0;
+        int maximo = 0;
+        for (String clave : claves) {
+            totalCaracteres += clave.length();
+            maximo = Math.max(maximo, clave.length());
+        }
+        this.caracteres = new char[totalCaracteres];
+        this.longitudMaxima = maximo;
+        int posicion = 0;
+        for (int i = 0; i < n; i++) {
+            entradas[i] = originales[orden[i]];
+            String clave = claves[orden[i]];
+            inicioNombre[i] = posicion;
+            clave.getChars(0, clave.length(), caracteres, posicion);
+            posicion += clave.length();
+        }
+        inicioNombre[n] = posicion;
+
+        Constructor constructor = new Constructor(2 * n + 1);
+        constructor.construir();
+        this.profundidad = Arrays.copyOf(constructor.profundidad, constructor.nodos);
+        this.entradaDesde = Arrays.copyOf(constructor.desde, constructor.nodos);
+        this.entradaHasta = Arrays.copyOf(constructor.hasta, constructor.nodos);
+        this.primerHijo = Arrays.copyOf(constructor.primerHijo, constructor.nodos);
+        this.cantidadHijos = Arrays.copyOf(constructor.cantidadHijos, constructor.nodos);
+        this.frecuenciaMaxima = new long[constructor.nodos];
+        for (int nodo = constructor.nodos - 1; nodo >= 0; nodo--) {
+            // Los hijos siempre tienen un número mayor que su padre
+            long maxima = 0;
+            for (int e = entradaDesde[nodo]; e < entradaHasta[nodo] && longitud(e) == profundidad[nodo]; e++) {
+                maxima = Math.max(maxima, entradas[e].frecuencia());
+            }
+            for (int h = primerHijo[nodo]; h < primerHijo[nodo] + cantidadHijos[nodo]; h++) {
+                maxima = Math.max(maxima, frecuenciaMaxima[h]);
+            }
+            frecuenciaMaxima[nodo] = maxima;
+        }
+    }
+
+    /**
+     * Construye un índice a partir de un historial de ventas: cada producto distinto es una
+     * entrada y su frecuencia es la cantidad de veces que aparece en el historial.
+     *
+     * @param historial Los productos vendidos. No puede ser null.
+     * @return El índice sobre los productos distintos del historial
+     * @throws NullPointerException si historial es null
+     */
+    public static IndiceNombres desdeHistorial(Iterable<? extends Producto> historial) {
+        Objects.requireNonNull(historial, "El historial no puede ser null");
+        Map<Producto, Long> frecuencias = new HashMap<>();
+        for (Producto producto : historial) {
+            frecuencias.merge(producto, 1L, Long::sum);
+        }
+        List<EntradaCatalogo> entradas = new ArrayList<>(frecuencias.size());
+        frecuencias.forEach((producto, frecuencia) -> entradas.add(new EntradaCatalogo(producto, frecuencia)));
+        return new IndiceNombres(entradas);
+    }
+
+    /**
+     * Busca las entradas cuyo nombre comienza con el prefijo indicado.
+     *
+     * @param prefijo El prefijo a buscar (se normaliza igual que los nombres). No puede ser null.
+     * @param maximo La cantidad máxima de resultados. Debe ser > 0.
+     * @return Las entradas encontradas, de mayor a menor frecuencia
+     * @throws NullPointerException si prefijo es null
+     * @throws IllegalArgumentException si maximo no es positivo
+     */
+    public List<EntradaCatalogo> buscarPrefijo(String prefijo, int maximo) {
+        String clave = normalizar(Objects.requireNonNull(prefijo, "El prefijo no puede ser null"));
+        validarMaximo(maximo);
+        List<EntradaCatalogo> resultado = new ArrayList<>(Math.min(maximo, 16));
+        int nodo = buscarNodo(clave);
+        if (nodo < 0) {
+            return resultado;
+        }
+
+        // Búsqueda de mejor primero: los nodos compiten por su frecuencia máxima y las
+        // entradas por su frecuencia; una entrada sale de la cola solo cuando ningún
+        // nodo pendiente puede contener otra más frecuente.
+        PriorityQueue<long[]> cola = new PriorityQueue<>((a, b) -> Long.compare(b[0], a[0]));
+        cola.add(new long[] {frecuenciaMaxima[nodo], nodo, 0});
+        while (!cola.isEmpty() && resultado.size() < maximo) {
+            long[] candidato = cola.poll();
+            int indice = (int) candidato[1];
+            if (candidato[2] == 1) {
+                resultado.add(entradas[indice]);
+                continue;
+            }
+            for (int e = entradaDesde[indice]; e < entradaHasta[indice] && longitud(e) == profundidad[indice]; e++) {
+                cola.add(new long[] {entradas[e].frecuencia(), e, 1});
+            }
+            for (int h = primerHijo[indice]; h < primerHijo[indice] + cantidadHijos[indice]; h++) {
+                cola.add(new long[] {frecuenciaMaxima[h], h, 0});
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca las entradas cuyo nombre está a una distancia de edición (inserciones,
+     * eliminaciones o sustituciones de un carácter) no mayor a la indicada.
+     *
+     * @param consulta El nombre a buscar (se normaliza igual que los nombres). No puede ser null.
+     * @param distanciaMaxima La distancia máxima permitida. Debe ser >= 0.
+     * @param maximo La cantidad máxima de resultados. Debe ser > 0.
+     * @return Las entradas encontradas, de menor a mayor distancia y, a igual distancia,
+     *         de mayor a menor frecuencia
+     * @throws NullPointerException si consulta es null
+     * @throws IllegalArgumentException si distanciaMaxima es negativa o maximo no es positivo
+     */
+    public List<EntradaCatalogo> buscarAproximado(String consulta, int distanciaMaxima, int maximo) {
+        String clave = normalizar(Objects.requireNonNull(consulta, "La consulta no puede ser null"));
+        if (distanciaMaxima < 0) {
+            throw new IllegalArgumentException("La distancia máxima no puede ser negativa: " + distanciaMaxima);
+        }
+        validarMaximo(maximo);
+        if (entradas.length == 0) {
+            return new ArrayList<>();
+        }
+
+        // Peor resultado arriba, para descartarlo cuando aparece uno mejor
+        Comparator<long[]> mejorPrimero = (a, b) -> a[0] != b[0]
+            ? Long.compare(a[0], b[0]) : Long.compare(b[1], a[1]);
+        PriorityQueue<long[]> mejores = new PriorityQueue<>(mejorPrimero.reversed());
+        int[][] filas = new int[longitudMaxima + 1][clave.length() + 1];
+        for (int j = 0; j <= clave.length(); j++) {
+            filas[0][j] = j;
+        }
+        recorrerAproximado(0, clave, distanciaMaxima, maximo, filas, mejores);
+
+        List<EntradaCatalogo> resultado = new ArrayList<>(mejores.size());
+        while (!mejores.isEmpty()) {
+            resultado.add(entradas[(int) mejores.poll()[2]]);
+        }
+        Collections.reverse(resultado);
+        return resultado;
+    }
+
+    /**
+     * Obtiene la cantidad de entradas del índice.
+     *
+     * @return La cantidad de entradas
+     */
+    public int getCantidadEntradas() {
+        return entradas.length;
+    }
+
+    /**
+     * Obtiene la cantidad de nodos del trie.
+     *
+     * @return La cantidad de nodos
+     */
+    public int getCantidadNodos() {
+        return profundidad.length;
+    }
+
+    /**
+     * Normaliza un nombre para compararlo: sin espacios al inicio ni al final, en
+     * minúsculas y sin tildes ni otras marcas diacríticas.
+     *
+     * @param nombre El nombre a normalizar
+     * @return El nombre normalizado
+     */
+    static String normalizar(String nombre) {
+        String recortado = nombre.trim();
+        for (int i = 0; i < recortado.length(); i++) {
+            if (recortado.charAt(i) >= 0x80) {
+                String sinMarcas = DIACRITICOS.matcher(Normalizer.normalize(recortado, Normalizer.Form.NFD))
+                    .replaceAll("");
+                return sinMarcas.toLowerCase(Locale.ROOT);
+            }
+        }
+        return recortado.toLowerCase(Locale.ROOT);
+    }
+
+    private void recorrerAproximado(int nodo, String clave, int distanciaMaxima, int maximo,
+                                    int[][] filas, PriorityQueue<long[]> mejores) {
+        int depth = profundidad[nodo];
+        int fila = filas[depth][clave.length()];
+        if (fila <= distanciaMaxima) {
+            for (int e = entradaDesde[nodo]; e < entradaHasta[nodo] && longitud(e) == depth; e++) {
+                long[] candidato = {fila, entradas[e].frecuencia(), e};
+                mejores.add(candidato);
+                if (mejores.size() > maximo) {
+                    mejores.poll();
+                }
+            }
+        }
+        for (int h = primerHijo[nodo]; h < primerHijo[nodo] + cantidadHijos[nodo]; h++) {
+            int inicio = inicioNombre[entradaDesde[h]];
+            boolean viable = true;
+            for (int d = depth; d < profundidad[h] && viable; d++) {
+                // Calcula la fila d + 1 de la tabla de Levenshtein para el carácter del nombre
+                char c = caracteres[inicio + d];
+                int[] anterior = filas[d];
+                int[] actual = filas[d + 1];
+                actual[0] = d + 1;
+                int minimoFila = actual[0];
+                for (int j = 1; j <= clave.length(); j++) {
+                    int costo = clave.charAt(j - 1) == c ? 0 : 1;
+                    actual[j] = Math.min(Math.min(actual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + costo);
+                    minimoFila = Math.min(minimoFila, actual[j]);
+                }
+                viable = minimoFila <= distanciaMaxima;
+            }
+            if (viable) {
+                recorrerAproximado(h, clave, distanciaMaxima, maximo, filas, mejores);
+            }
+        }
+    }
+
+    /**
+     * Busca el nodo más alto cuyo subárbol contiene exactamente los nombres que
+     * comienzan con la clave.
+     *
+     * @return El nodo, o -1 si ningún nombre comienza con la clave
+     */
+    private int buscarNodo(String clave) {
+        if (entradas.length == 0) {
+            return -1;
+        }
+        int nodo = 0;
+        int posicion = 0;
+        while (posicion < clave.length()) {
+            int hijo = buscarHijo(nodo, clave.charAt(posicion));
+            if (hijo < 0) {
+                return -1;
+            }
+            int inicio = inicioNombre[entradaDesde[hijo]];
+            int fin = Math.min(profundidad[hijo], clave.length());
+            for (int d = posicion; d < fin; d++) {
+                if (caracteres[inicio + d] != clave.charAt(d)) {
+                    return -1;
+                }
+            }
+            nodo = hijo;
+            posicion = fin;
+        }
+        return nodo;
+    }
+
+    private int buscarHijo(int nodo, char c) {
+        int desde = primerHijo[nodo];
+        int hasta = desde + cantidadHijos[nodo] - 1;
+        int d = profundidad[nodo];
+        while (desde <= hasta) {
+            int medio = (desde + hasta) >>> 1;
+            char actual = caracteres[inicioNombre[entradaDesde[medio]] + d];
+            if (actual < c) {
+                desde = medio + 1;
+            } else if (actual > c) {
+                hasta = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -1;
+    }
+
+    private int longitud(int entrada) {
+        return inicioNombre[entrada + 1] - inicioNombre[entrada];
+    }
+
+    private static void validarMaximo(int maximo) {
+        if (maximo <= 0) {
+            throw new IllegalArgumentException("La cantidad máxima de resultados debe ser positiva: " + maximo);
+        }
+    }
+
+    /**
+     * Construye los arreglos del trie en orden de anchura, de modo que los hijos de cada
+     * nodo queden contiguos y con números mayores que su padre.
+     */
+    private final class Constructor {
+        private final int[] profundidad;
+        private final int[] desde;
+        private final int[] hasta;
+        private final int[] primerHijo;
+        private final int[] cantidadHijos;
+        private int nodos;
+
+        private Constructor(int capacidad) {
+            this.profundidad = new int[capacidad];
+            this.desde = new int[capacidad];
+            this.hasta = new int[capacidad];
+            this.primerHijo = new int[capacidad];
+            this.cantidadHijos = new int[capacidad];
+        }
+
+        private void construir() {
+            // La raíz representa el prefijo vacío aunque todos los nombres compartan un prefijo
+            agregar(0, 0, entradas.length);
+            for (int nodo = 0; nodo < nodos; nodo++) {
+                int d = profundidad[nodo];
+                int e = desde[nodo];
+                while (e < hasta[nodo] && longitud(e) == d) {
+                    e++;
+                }
+                primerHijo[nodo] = nodos;
+                while (e < hasta[nodo]) {
+                    char c = caracteres[inicioNombre[e] + d];
+                    int fin = e + 1;
+                    while (fin < hasta[nodo] && caracteres[inicioNombre[fin] + d] == c) {
+                        fin++;
+                    }
+                    agregar(prefijoComun(e, fin - 1), e, fin);
+                    cantidadHijos[nodo]++;
+                    e = fin;
+                }
+            }
+        }
+
+        private void agregar(int profundidadNodo, int desdeEntrada, int hastaEntrada) {
+            profundidad[nodos] = profundidadNodo;
+            desde[nodos] = desdeEntrada;
+            hasta[nodos] = hastaEntrada;
+            nodos++;
+        }
+
+        /**
+         * Longitud del prefijo común de todas las entradas del rango, que en una lista
+         * ordenada es el de la primera y la última.
+         */
+        private int prefijoComun(int primera, int ultima) {
+            int limite = Math.min(longitud(primera), longitud(ultima));
+            int a = inicioNombre[primera];
+            int b = inicioNombre[ultima];
+            int d = 0;
+            while (d < limite && caracteres[a + d] == caracteres[b + d]) {
+                d++;
+            }
+            return d;
+        }
+    }
+}
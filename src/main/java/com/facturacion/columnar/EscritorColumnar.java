@@ -0,0 +1,331 @@
+package com.facturacion.columnar;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.serializacion.Utf8;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Escritor de líneas de factura en formato columnar para análisis.
+ *
+ * <p>Las líneas se agrupan en grupos de filas; dentro de cada grupo se escribe cada columna
+ * completa antes de la siguiente, con valores de tamaño fijo en orden big-endian:
+ * <pre>
+ *   int     magia "FACC"
+ *   byte    versión
+ *   ...     grupos: fecha (int, día de época) de cada línea, categoría (byte),
+ *           precio (double), impuesto (double) e índice del nombre (int)
+ *   pie:    int cantidad de grupos, y por grupo: long posición, int líneas, int fecha
+ *           mínima y máxima, int máscara de categorías, double precio mínimo y máximo,
+ *           double impuesto mínimo y máximo;
+ *           int cantidad de nombres, y por nombre: int longitud + UTF-8
+ *   long    posición del pie
+ *   int     magia "FACC"
+ * </pre>
+ *
+ * <p>Así, una consulta lee solo las columnas que necesita de los grupos cuyas estadísticas
+ * pueden cumplir su filtro ({@link LectorColumnar}). El impuesto de cada línea se calcula
+ * al exportar con la regla que la factura le aplica ({@link Factura#obtenerImpuesto}), de
+ * modo que sumarlo equivale a {@link Factura#calcularTotalImpuestos()}. Los nombres se
+ * guardan una sola vez, en un diccionario del archivo. Conviene exportar en orden de fecha:
+ * los grupos quedan con rangos de fechas angostos y se saltan más.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class EscritorColumnar implements Closeable {
+
+    /**
+     * Número mágico al comienzo y al final del archivo ("FACC").
+     */
+    static final int MAGIA = 0x46414343;
+
+    /**
+     * Versión del formato columnar.
+     */
+    static final byte VERSION = 1;
+
+    /**
+     * Longitud de la cabecera del archivo en bytes.
+     */
+    static final int LONGITUD_CABECERA = Integer.BYTES + 1;
+
+    /**
+     * Longitud del cierre del archivo (posición del pie y magia) en bytes.
+     */
+    static final int LONGITUD_CIERRE = Long.BYTES + Integer.BYTES;
+
+    /**
+     * Bytes de las estadísticas de un grupo en el pie.
+     */
+    static final int BYTES_ESTADISTICAS = Long.BYTES + 4 * Integer.BYTES + 4 * Double.BYTES;
+
+    /**
+     * Bytes que ocupa una línea sumando todas sus columnas.
+     */
+    static final int BYTES_POR_LINEA = Integer.BYTES + 1 + 2 * Double.BYTES + Integer.BYTES;
+
+    /**
+     * Líneas por grupo cuando no se indica otra cantidad.
+     */
+    public static final int LINEAS_POR_GRUPO = 64 * 1024;
+
+    /**
+     * Canal de salida.
+     */
+    private final WritableByteChannel canal;
+
+    /**
+     * Líneas de cada grupo de filas.
+     */
+    private final int lineasPorGrupo;
+
+    /**
+     * Fecha de cada línea del grupo en curso, como día de época.
+     */
+    private final int[] fechas;
+
+    /**
+     * Código de categoría de cada línea del grupo en curso.
+     */
+    private final byte[] categorias;
+
+    /**
+     * Precio de cada línea del grupo en curso.
+     */
+    private final double[] precios;
+
+    /**
+     * Impuesto de cada línea del grupo en curso.
+     */
+    private final double[] impuestos;
+
+    /**
+     * Índice del nombre de cada línea del grupo en curso.
+     */
+    private final int[] nombres;
+
+    /**
+     * Cantidad de líneas del grupo en curso.
+     */
+    private int lineas;
+
+    /**
+     * Índice de cada nombre en el diccionario.
+     */
+    private final Map<String, Integer> indiceDiccionario = new HashMap<>();
+
+    /**
+     * Nombres del diccionario, en orden de aparición.
+     */
+    private final List<String> diccionario = new ArrayList<>();
+
+    /**
+     * Estadísticas de los grupos ya escritos.
+     */
+    private final List<EstadisticasGrupo> grupos = new ArrayList<>();
+
+    /**
+     * Bytes escritos en el canal.
+     */
+    private long posicion;
+
+    /**
+     * Buffer reutilizable para escribir un grupo.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Constructor que crea un escritor con la cantidad de líneas por grupo por defecto.
+     *
+     * @param canal El canal de salida. No puede ser null.
+     * @throws NullPointerException si canal es null
+     */
+    public EscritorColumnar(WritableByteChannel canal) {
+        this(canal, LINEAS_POR_GRUPO);
+    }
+
+    /**
+     * Constructor que crea un escritor.
+     *
+     * <p>Grupos más chicos permiten saltar con más precisión, a cambio de un pie más grande.
+     *
+     * @param canal El canal de salida. No puede ser null.
+     * @param lineasPorGrupo La cantidad de líneas de cada grupo de filas
+     * @throws NullPointerException si canal es null
+     * @throws IllegalArgumentException si lineasPorGrupo no es positivo
+     */
+    public EscritorColumnar(WritableByteChannel canal, int lineasPorGrupo) {
+        this.canal = Objects.requireNonNull(canal, "El canal de salida no puede ser null");
+        if (lineasPorGrupo <= 0) {
+            throw new IllegalArgumentException("Las líneas por grupo deben ser positivas: " + lineasPorGrupo);
+        }
+        this.lineasPorGrupo = lineasPorGrupo;
+        this.fechas = new int[lineasPorGrupo];
+        this.categorias = new byte[lineasPorGrupo];
+        this.precios = new double[lineasPorGrupo];
+        this.impuestos = new double[lineasPorGrupo];
+        this.nombres = new int[lineasPorGrupo];
+    }
+
+    /**
+     * Agrega las líneas de una factura con su fecha.
+     *
+     * @param factura La factura a exportar. No puede ser null.
+     * @param fecha La fecha de la factura. No puede ser null.
+     * @throws NullPointerException si factura o fecha son null
+     * @throws IllegalArgumentException si algún precio no está en la moneda por defecto o
+     *                                  algún producto no tiene categoría conocida
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     * @throws IOException si falla la escritura de un grupo completo
+     */
+    public void agregar(Factura factura, LocalDate fecha) throws IOException {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        int dia = Math.toIntExact(Objects.requireNonNull(fecha, "La fecha no puede ser null").toEpochDay());
+        int cantidad = factura.getCantidadProductos();
+        // Valida toda la factura antes de agregar sus líneas
+        for (int i = 0; i < cantidad; i++) {
+            Producto producto = factura.getProducto(i);
+            if (producto.getMoneda() != Producto.MONEDA_POR_DEFECTO) {
+                throw new IllegalArgumentException("Solo se exportan precios en "
+                    + Producto.MONEDA_POR_DEFECTO.getCurrencyCode() + ": " + producto);
+            }
+            CategoriaProducto.de(producto);
+            factura.obtenerImpuesto(producto);
+        }
+        for (int i = 0; i < cantidad; i++) {
+            if (lineas == lineasPorGrupo) {
+                escribirGrupo();
+            }
+            Producto producto = factura.getProducto(i);
+            fechas[lineas] = dia;
+            categorias[lineas] = (byte) CategoriaProducto.de(producto).getCodigo();
+            precios[lineas] = producto.getPrecio();
+            impuestos[lineas] = factura.obtenerImpuesto(producto).calcularImpuesto(producto);
+            nombres[lineas] = indiceNombre(producto.getNombre());
+            lineas++;
+        }
+    }
+
+    /**
+     * Escribe el último grupo y el pie, y cierra el canal.
+     *
+     * @throws IOException si falla la escritura o el cierre
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (lineas > 0) {
+                escribirGrupo();
+            }
+            escribirPie();
+        } finally {
+            canal.close();
+        }
+    }
+
+    private int indiceNombre(String nombre) {
+        Integer indice = indiceDiccionario.get(nombre);
+        if (indice == null) {
+            indice = diccionario.size();
+            indiceDiccionario.put(nombre, indice);
+            diccionario.add(nombre);
+        }
+        return indice;
+    }
+
+    private void escribirGrupo() throws IOException {
+        if (posicion == 0) {
+            escribir(ByteBuffer.allocate(LONGITUD_CABECERA).putInt(MAGIA).put(VERSION).flip());
+        }
+        int n = lineas;
+        ByteBuffer grupo = reservar(n * BYTES_POR_LINEA);
+        int fechaMinima = Integer.MAX_VALUE;
+        int fechaMaxima = Integer.MIN_VALUE;
+        int mascara = 0;
+        double precioMinimo = Double.POSITIVE_INFINITY;
+        double precioMaximo = Double.NEGATIVE_INFINITY;
+        double impuestoMinimo = Double.POSITIVE_INFINITY;
+        double impuestoMaximo = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            fechaMinima = Math.min(fechaMinima, fechas[i]);
+            fechaMaxima = Math.max(fechaMaxima, fechas[i]);
+            mascara |= 1 << categorias[i];
+            precioMinimo = Math.min(precioMinimo, precios[i]);
+            precioMaximo = Math.max(precioMaximo, precios[i]);
+            impuestoMinimo = Math.min(impuestoMinimo, impuestos[i]);
+            impuestoMaximo = Math.max(impuestoMaximo, impuestos[i]);
+        }
+        grupo.asIntBuffer().put(fechas, 0, n);
+        grupo.position(n * Integer.BYTES);
+        grupo.put(categorias, 0, n);
+        grupo.asDoubleBuffer().put(precios, 0, n);
+        grupo.position(grupo.position() + n * Double.BYTES);
+        grupo.asDoubleBuffer().put(impuestos, 0, n);
+        grupo.position(grupo.position() + n * Double.BYTES);
+        grupo.asIntBuffer().put(nombres, 0, n);
+        grupo.position(grupo.limit()).flip();
+
+        grupos.add(new EstadisticasGrupo(posicion, n, LocalDate.ofEpochDay(fechaMinima),
+            LocalDate.ofEpochDay(fechaMaxima), mascara, precioMinimo, precioMaximo, impuestoMinimo, impuestoMaximo));
+        escribir(grupo);
+        lineas = 0;
+    }
+
+    private void escribirPie() throws IOException {
+        if (posicion == 0) {
+            escribir(ByteBuffer.allocate(LONGITUD_CABECERA).putInt(MAGIA).put(VERSION).flip());
+        }
+        long longitudNombres = 0;
+        for (String nombre : diccionario) {
+            longitudNombres += Integer.BYTES + Utf8.longitud(nombre);
+        }
+        long longitudPie = Integer.BYTES + (long) grupos.size() * BYTES_ESTADISTICAS
+            + Integer.BYTES + longitudNombres + LONGITUD_CIERRE;
+        ByteBuffer pie = reservar(Math.toIntExact(longitudPie));
+        long posicionPie = posicion;
+        pie.putInt(grupos.size());
+        for (EstadisticasGrupo grupo : grupos) {
+            pie.putLong(grupo.posicion())
+                .putInt(grupo.lineas())
+                .putInt((int) grupo.fechaMinima().toEpochDay())
+                .putInt((int) grupo.fechaMaxima().toEpochDay())
+                .putInt(grupo.mascaraCategorias())
+                .putDouble(grupo.precioMinimo())
+                .putDouble(grupo.precioMaximo())
+                .putDouble(grupo.impuestoMinimo())
+                .putDouble(grupo.impuestoMaximo());
+        }
+        pie.putInt(diccionario.size());
+        for (String nombre : diccionario) {
+            pie.putInt(Utf8.longitud(nombre));
+            Utf8.escribir(nombre, pie);
+        }
+        pie.putLong(posicionPie).putInt(MAGIA).flip();
+        escribir(pie);
+    }
+
+    private ByteBuffer reservar(int bytes) {
+        if (buffer == null || buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate(Math.max(bytes, buffer == null ? 0 : buffer.capacity() * 2));
+        }
+        buffer.clear().limit(bytes);
+        return buffer;
+    }
+
+    private void escribir(ByteBuffer datos) throws IOException {
+        while (datos.hasRemaining()) {
+            posicion += canal.write(datos);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.facturacion.columnar;
+
+import com.facturacion.model.CategoriaProducto;
+import java.time.LocalDate;
+
+/**
+ * Estadísticas de un grupo de filas de un archivo columnar, guardadas en su pie.
+ *
+ * <p>Permiten a {@link LectorColumnar} decidir, sin leer el grupo, si alguna de sus líneas
+ * puede cumplir un {@link FiltroColumnar}.
+ *
+ * @param posicion Posición del grupo en el archivo
+ * @param lineas Cantidad de líneas del grupo
+ * @param fechaMinima La fecha más antigua del grupo
+ * @param fechaMaxima La fecha más reciente del grupo
+ * @param mascaraCategorias Bit {@code 1 << codigo} de cada categoría presente en el grupo
+ * @param precioMinimo El menor precio del grupo
+ * @param precioMaximo El mayor precio del grupo
+ * @param impuestoMinimo El menor impuesto del grupo
+ * @param impuestoMaximo El mayor impuesto del grupo
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record EstadisticasGrupo(long posicion, int lineas, LocalDate fechaMinima, LocalDate fechaMaxima,
+                                int mascaraCategorias, double precioMinimo, double precioMaximo,
+                                double impuestoMinimo, double impuestoMaximo) {
+
+    /**
+     * Indica si el grupo tiene líneas de una categoría.
+     *
+     * @param categoria La categoría
+     * @return true si alguna línea del grupo es de esa categoría
+     */
+    public boolean contiene(CategoriaProducto categoria) {
+        return (mascaraCategorias & (1 << categoria.getCodigo())) != 0;
+    }
+}
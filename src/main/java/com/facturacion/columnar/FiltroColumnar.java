@@ -0,0 +1,164 @@
+package com.facturacion.columnar;
+
+import com.facturacion.model.CategoriaProducto;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Objects;
+
+/**
+ * Filtro inmutable de líneas para las agregaciones de {@link LectorColumnar}.
+ *
+ * <p>Cada método devuelve un filtro nuevo que exige además la condición indicada, igual
+ * que el encadenamiento de {@code ConsultaLineas}. Las condiciones son rangos sobre las
+ * columnas con estadísticas, de modo que el lector puede saber, con el mínimo y el máximo
+ * de un grupo de filas, si el grupo puede tener líneas que las cumplan.
+ *
+ * <p>Ejemplo: impuestos de la electrónica de marzo de 2024:
+ * <pre>
+ *   lector.agregar(FiltroColumnar.todas()
+ *       .mes(YearMonth.of(2024, 3))
+ *       .categoria(CategoriaProducto.ELECTRONICA)).impuestos();
+ * </pre>
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class FiltroColumnar {
+
+    /**
+     * Filtro que acepta todas las líneas.
+     */
+    private static final FiltroColumnar TODAS = new FiltroColumnar(Long.MIN_VALUE, Long.MAX_VALUE, -1,
+        Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    /**
+     * Primer día aceptado, como día de época.
+     */
+    private final long diaDesde;
+
+    /**
+     * Último día aceptado, como día de época.
+     */
+    private final long diaHasta;
+
+    /**
+     * Bit {@code 1 << codigo} de cada categoría aceptada.
+     */
+    private final int mascaraCategorias;
+
+    /**
+     * Menor precio aceptado.
+     */
+    private final double precioMinimo;
+
+    /**
+     * Mayor precio aceptado.
+     */
+    private final double precioMaximo;
+
+    private FiltroColumnar(long diaDesde, long diaHasta, int mascaraCategorias, double precioMinimo,
+                           double precioMaximo) {
+        this.diaDesde = diaDesde;
+        this.diaHasta = diaHasta;
+        this.mascaraCategorias = mascaraCategorias;
+        this.precioMinimo = precioMinimo;
+        this.precioMaximo = precioMaximo;
+    }
+
+    /**
+     * Obtiene el filtro que acepta todas las líneas.
+     *
+     * @return El filtro sin condiciones
+     */
+    public static FiltroColumnar todas() {
+        return TODAS;
+    }
+
+    /**
+     * Exige además que la fecha esté en un rango.
+     *
+     * @param desde La primera fecha aceptada. No puede ser null.
+     * @param hasta La última fecha aceptada, incluida. No puede ser null.
+     * @return El nuevo filtro
+     * @throws NullPointerException si desde o hasta son null
+     */
+    public FiltroColumnar entre(LocalDate desde, LocalDate hasta) {
+        long dia1 = Objects.requireNonNull(desde, "La fecha inicial no puede ser null").toEpochDay();
+        long dia2 = Objects.requireNonNull(hasta, "La fecha final no puede ser null").toEpochDay();
+        return new FiltroColumnar(Math.max(diaDesde, dia1), Math.min(diaHasta, dia2), mascaraCategorias,
+            precioMinimo, precioMaximo);
+    }
+
+    /**
+     * Exige además que la fecha esté en un mes.
+     *
+     * @param mes El mes. No puede ser null.
+     * @return El nuevo filtro
+     * @throws NullPointerException si mes es null
+     */
+    public FiltroColumnar mes(YearMonth mes) {
+        Objects.requireNonNull(mes, "El mes no puede ser null");
+        return entre(mes.atDay(1), mes.atEndOfMonth());
+    }
+
+    /**
+     * Exige además que la línea sea de una categoría.
+     *
+     * @param categoria La categoría. No puede ser null.
+     * @return El nuevo filtro
+     * @throws NullPointerException si categoria es null
+     */
+    public FiltroColumnar categoria(CategoriaProducto categoria) {
+        int bit = 1 << Objects.requireNonNull(categoria, "La categoría no puede ser null").getCodigo();
+        return new FiltroColumnar(diaDesde, diaHasta, mascaraCategorias & bit, precioMinimo, precioMaximo);
+    }
+
+    /**
+     * Exige además que el precio esté en un rango.
+     *
+     * @param minimo El menor precio aceptado
+     * @param maximo El mayor precio aceptado, incluido
+     * @return El nuevo filtro
+     */
+    public FiltroColumnar precioEntre(double minimo, double maximo) {
+        return new FiltroColumnar(diaDesde, diaHasta, mascaraCategorias, Math.max(precioMinimo, minimo),
+            Math.min(precioMaximo, maximo));
+    }
+
+    /**
+     * Indica si alguna línea de un grupo puede cumplir el filtro, según sus estadísticas.
+     *
+     * @param grupo Las estadísticas del grupo
+     * @return false si ninguna línea del grupo puede cumplir el filtro
+     */
+    boolean puedeCoincidir(EstadisticasGrupo grupo) {
+        return grupo.fechaMaxima().toEpochDay() >= diaDesde && grupo.fechaMinima().toEpochDay() <= diaHasta
+            && (grupo.mascaraCategorias() & mascaraCategorias) != 0
+            && grupo.precioMaximo() >= precioMinimo && grupo.precioMinimo() <= precioMaximo;
+    }
+
+    /**
+     * Indica si todas las líneas de un grupo cumplen el filtro, según sus estadísticas.
+     *
+     * @param grupo Las estadísticas del grupo
+     * @return true si se puede agregar el grupo sin evaluar el filtro línea por línea
+     */
+    boolean cubre(EstadisticasGrupo grupo) {
+        return grupo.fechaMinima().toEpochDay() >= diaDesde && grupo.fechaMaxima().toEpochDay() <= diaHasta
+            && (grupo.mascaraCategorias() & ~mascaraCategorias) == 0
+            && grupo.precioMinimo() >= precioMinimo && grupo.precioMaximo() <= precioMaximo;
+    }
+
+    /**
+     * Indica si una línea cumple el filtro.
+     *
+     * @param dia La fecha de la línea, como día de época
+     * @param codigoCategoria El código de categoría de la línea
+     * @param precio El precio de la línea
+     * @return true si la línea cumple todas las condiciones
+     */
+    boolean coincide(int dia, int codigoCategoria, double precio) {
+        return dia >= diaDesde && dia <= diaHasta && (mascaraCategorias & (1 << codigoCategoria)) != 0
+            && precio >= precioMinimo && precio <= precioMaximo;
+    }
+}
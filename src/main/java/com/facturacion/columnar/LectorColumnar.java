@@ -0,0 +1,222 @@
+package com.facturacion.columnar;
+
+import com.facturacion.serializacion.Utf8;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lector de archivos columnares escritos por {@link EscritorColumnar}.
+ *
+ * <p>Al abrir el archivo solo se lee el pie: las estadísticas de cada grupo de filas y el
+ * diccionario de nombres. {@link #agregar(FiltroColumnar)} descarta sin leerlos los grupos
+ * cuyas estadísticas no pueden cumplir el filtro, y de los demás lee solo las columnas de
+ * fecha, categoría, precio e impuesto, que recorre como arreglos primitivos. Si las
+ * estadísticas muestran que todo el grupo cumple el filtro, ni siquiera se evalúa línea
+ * por línea.
+ *
+ * <p>No es seguro usar una misma instancia desde varios hilos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class LectorColumnar implements Closeable {
+
+    /**
+     * Canal del archivo.
+     */
+    private final FileChannel canal;
+
+    /**
+     * Estadísticas de cada grupo de filas, en orden.
+     */
+    private final List<EstadisticasGrupo> grupos;
+
+    /**
+     * Diccionario de nombres de producto.
+     */
+    private final String[] nombres;
+
+    /**
+     * Buffer reutilizable para leer las columnas de un grupo.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+    /**
+     * Constructor que abre un archivo columnar y lee su pie.
+     *
+     * @param archivo El archivo a leer. No puede ser null.
+     * @throws NullPointerException si archivo es null
+     * @throws IOException si falla la lectura
+     * @throws IllegalStateException si el archivo no es un archivo columnar válido
+     */
+    public LectorColumnar(Path archivo) throws IOException {
+        Objects.requireNonNull(archivo, "El archivo no puede ser null");
+        this.canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        try {
+            long tamano = canal.size();
+            if (tamano < EscritorColumnar.LONGITUD_CABECERA + EscritorColumnar.LONGITUD_CIERRE) {
+                throw new IllegalStateException("Archivo columnar truncado: " + archivo);
+            }
+            ByteBuffer cabecera = leer(0, EscritorColumnar.LONGITUD_CABECERA);
+            if (cabecera.getInt() != EscritorColumnar.MAGIA) {
+                throw new IllegalStateException("No es un archivo columnar de facturas: " + archivo);
+            }
+            byte version = cabecera.get();
+            if (version != EscritorColumnar.VERSION) {
+                throw new IllegalStateException("Versión de archivo columnar no soportada: " + version);
+            }
+            ByteBuffer cierre = leer(tamano - EscritorColumnar.LONGITUD_CIERRE, EscritorColumnar.LONGITUD_CIERRE);
+            long posicionPie = cierre.getLong();
+            if (cierre.getInt() != EscritorColumnar.MAGIA || posicionPie < EscritorColumnar.LONGITUD_CABECERA
+                    || posicionPie > tamano - EscritorColumnar.LONGITUD_CIERRE) {
+                throw new IllegalStateException("Archivo columnar sin pie válido (¿escritura interrumpida?): " + archivo);
+            }
+            ByteBuffer pie = leer(posicionPie, Math.toIntExact(tamano - EscritorColumnar.LONGITUD_CIERRE - posicionPie));
+            List<EstadisticasGrupo> leidos = new ArrayList<>();
+            for (int i = pie.getInt(); i > 0; i--) {
+                leidos.add(new EstadisticasGrupo(pie.getLong(), pie.getInt(), LocalDate.ofEpochDay(pie.getInt()),
+                    LocalDate.ofEpochDay(pie.getInt()), pie.getInt(), pie.getDouble(), pie.getDouble(),
+                    pie.getDouble(), pie.getDouble()));
+            }
+            this.grupos = Collections.unmodifiableList(leidos);
+            this.nombres = new String[pie.getInt()];
+            for (int i = 0; i < nombres.length; i++) {
+                nombres[i] = Utf8.leer(pie, pie.getInt());
+            }
+        } catch (BufferUnderflowException e) {
+            canal.close();
+            throw new IllegalStateException("Pie de archivo columnar dañado: " + archivo, e);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Suma las líneas que cumplen un filtro, leyendo solo los grupos que pueden cumplirlo.
+     *
+     * @param filtro El filtro de líneas. No puede ser null.
+     * @return La cantidad, el subtotal y los impuestos de las líneas, y los grupos leídos y saltados
+     * @throws NullPointerException si filtro es null
+     * @throws IOException si falla la lectura
+     */
+    public ResultadoColumnar agregar(FiltroColumnar filtro) throws IOException {
+        Objects.requireNonNull(filtro, "El filtro no puede ser null");
+        long lineas = 0;
+        double subtotal = 0.0;
+        double impuestos = 0.0;
+        int leidos = 0;
+        int saltados = 0;
+        for (EstadisticasGrupo grupo : grupos) {
+            if (!filtro.puedeCoincidir(grupo)) {
+                saltados++;
+                continue;
+            }
+            leidos++;
+            int n = grupo.lineas();
+            boolean completo = filtro.cubre(grupo);
+            // Columnas de fecha, categoría, precio e impuesto; el índice del nombre no se lee
+            int inicioCategorias = n * Integer.BYTES;
+            int inicioPrecios = inicioCategorias + n;
+            int inicioImpuestos = inicioPrecios + n * Double.BYTES;
+            ByteBuffer columnas = completo
+                ? leerColumnas(grupo.posicion() + inicioPrecios, 2 * n * Double.BYTES)
+                : leerColumnas(grupo.posicion(), inicioImpuestos + n * Double.BYTES);
+            if (completo) {
+                for (int i = 0; i < n; i++) {
+                    subtotal += columnas.getDouble(i * Double.BYTES);
+                    impuestos += columnas.getDouble((n + i) * Double.BYTES);
+                }
+                lineas += n;
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                double precio = columnas.getDouble(inicioPrecios + i * Double.BYTES);
+                if (filtro.coincide(columnas.getInt(i * Integer.BYTES), columnas.get(inicioCategorias + i), precio)) {
+                    lineas++;
+                    subtotal += precio;
+                    impuestos += columnas.getDouble(inicioImpuestos + i * Double.BYTES);
+                }
+            }
+        }
+        return new ResultadoColumnar(lineas, subtotal, impuestos, leidos, saltados);
+    }
+
+    /**
+     * Obtiene las estadísticas de los grupos de filas.
+     *
+     * @return Las estadísticas, en el orden del archivo
+     */
+    public List<EstadisticasGrupo> getGrupos() {
+        return grupos;
+    }
+
+    /**
+     * Obtiene la cantidad total de líneas del archivo.
+     *
+     * @return La cantidad de líneas
+     */
+    public long getLineas() {
+        long total = 0;
+        for (EstadisticasGrupo grupo : grupos) {
+            total += grupo.lineas();
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene un nombre de producto del diccionario.
+     *
+     * @param indice El índice del nombre
+     * @return El nombre
+     * @throws IndexOutOfBoundsException si el índice está fuera de rango
+     */
+    public String getNombre(int indice) {
+        return nombres[indice];
+    }
+
+    /**
+     * Cierra el archivo.
+     *
+     * @throws IOException si falla el cierre
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private ByteBuffer leerColumnas(long posicion, int longitud) throws IOException {
+        if (buffer.capacity() < longitud) {
+            buffer = ByteBuffer.allocate(Math.max(longitud, buffer.capacity() * 2));
+        }
+        buffer.clear().limit(longitud);
+        leerTodo(buffer, posicion);
+        return buffer;
+    }
+
+    private ByteBuffer leer(long posicion, int longitud) throws IOException {
+        ByteBuffer destino = ByteBuffer.allocate(longitud);
+        leerTodo(destino, posicion);
+        return destino.flip();
+    }
+
+    private void leerTodo(ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            int n = canal.read(destino, posicion);
+            if (n < 0) {
+                throw new IllegalStateException("Archivo columnar truncado en la posición " + posicion);
+            }
+            posicion += n;
+        }
+    }
+}
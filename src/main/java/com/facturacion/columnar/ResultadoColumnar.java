@@ -0,0 +1,26 @@
+package com.facturacion.columnar;
+
+/**
+ * Resultado de una agregación de {@link LectorColumnar}.
+ *
+ * @param lineas Cantidad de líneas que cumplen el filtro
+ * @param subtotal Suma de los precios de esas líneas
+ * @param impuestos Suma de los impuestos de esas líneas
+ * @param gruposLeidos Grupos de filas leídos del archivo
+ * @param gruposSaltados Grupos de filas descartados por sus estadísticas, sin leerlos
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record ResultadoColumnar(long lineas, double subtotal, double impuestos, int gruposLeidos,
+                                int gruposSaltados) {
+
+    /**
+     * Obtiene el total de las líneas que cumplen el filtro.
+     *
+     * @return Subtotal más impuestos
+     */
+    public double total() {
+        return subtotal + impuestos;
+    }
+}
@@ -0,0 +1,262 @@
+package com.facturacion.consulta;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Consulta diferida sobre una colección de facturas.
+ *
+ * <p>Las operaciones intermedias ({@link #filtrar}, {@link #contieneLinea},
+ * {@link #limitar}) no recorren nada: solo devuelven una nueva consulta que describe el
+ * cálculo. Las operaciones terminales ({@link #sumarSubtotal}, {@link #impuestosPorRegla},
+ * {@link #existe}, ...) recorren el origen una única vez, aplicando filtros, proyecciones
+ * y agregaciones en la misma pasada, sin listas intermedias ni copias de
+ * {@link Factura#getProductos()}. Las operaciones que pueden decidir antes de terminar
+ * ({@link #existe}, {@link #primera}, {@link #limitar}) dejan de recorrer en cuanto
+ * tienen la respuesta.
+ *
+ * <p>Las consultas son inmutables y pueden reutilizarse: cada operación terminal vuelve a
+ * recorrer el origen, por lo que refleja su contenido actual. Esta clase cumple con
+ * <strong>Single Responsibility Principle (SRP)</strong>: solo describe y ejecuta la
+ * consulta, mientras que los cálculos de cada línea siguen delegándose en
+ * {@link Producto} e {@link Impuesto}.
+ *
+ * <p>Ejemplo: total de impuestos de las facturas que contienen electrónica de más de 1M:
+ * <pre>
+ *   ConsultaFacturas.sobre(facturas)
+ *       .contieneLinea(p -&gt; p instanceof ProductoElectronico &amp;&amp; p.getPrecio() &gt; 1_000_000)
+ *       .sumarImpuestos();
+ * </pre>
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class ConsultaFacturas {
+
+    /**
+     * Facturas sobre las que se ejecuta la consulta.
+     */
+    private final Iterable<Factura> origen;
+
+    /**
+     * Filtro de facturas, o null si se aceptan todas.
+     */
+    private final Predicate<? super Factura> filtro;
+
+    /**
+     * Cantidad máxima de facturas aceptadas, o -1 si no hay límite.
+     */
+    private final long limite;
+
+    private ConsultaFacturas(Iterable<Factura> origen, Predicate<? super Factura> filtro, long limite) {
+        this.origen = origen;
+        this.filtro = filtro;
+        this.limite = limite;
+    }
+
+    /**
+     * Crea una consulta sobre las facturas indicadas.
+     *
+     * @param facturas Las facturas a consultar. No puede ser null.
+     * @return Una consulta que acepta todas las facturas
+     * @throws NullPointerException si facturas es null
+     */
+    public static ConsultaFacturas sobre(Iterable<Factura> facturas) {
+        return new ConsultaFacturas(Objects.requireNonNull(facturas, "Las facturas no pueden ser null"), null, -1);
+    }
+
+    /**
+     * Agrega un filtro de facturas. Se combina con los filtros anteriores.
+     *
+     * @param predicado El filtro a aplicar. No puede ser null.
+     * @return Una nueva consulta con el filtro agregado
+     * @throws NullPointerException si predicado es null
+     */
+    public ConsultaFacturas filtrar(Predicate<? super Factura> predicado) {
+        Objects.requireNonNull(predicado, "El filtro no puede ser null");
+        return new ConsultaFacturas(origen, combinar(filtro, predicado), limite);
+    }
+
+    /**
+     * Conserva solo las facturas que tienen al menos una línea que cumple el predicado.
+     * La búsqueda dentro de cada factura se detiene en la primera línea que lo cumple.
+     *
+     * @param predicado El predicado de línea. No puede ser null.
+     * @return Una nueva consulta con el filtro agregado
+     * @throws NullPointerException si predicado es null
+     */
+    public ConsultaFacturas contieneLinea(Predicate<? super Producto> predicado) {
+        Objects.requireNonNull(predicado, "El filtro no puede ser null");
+        return filtrar(factura -> {
+            for (int i = 0, n = factura.getCantidadProductos(); i < n; i++) {
+                if (predicado.test(factura.getProducto(i))) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Limita la consulta a las primeras facturas que cumplen los filtros. El recorrido se
+     * detiene al alcanzar el límite.
+     *
+     * @param maximo La cantidad máxima de facturas. Debe ser >= 0.
+     * @return Una nueva consulta con el límite aplicado
+     * @throws IllegalArgumentException si maximo es negativo
+     */
+    public ConsultaFacturas limitar(long maximo) {
+        if (maximo < 0) {
+            throw new IllegalArgumentException("El límite no puede ser negativo: " + maximo);
+        }
+        return new ConsultaFacturas(origen, filtro, limite < 0 ? maximo : Math.min(limite, maximo));
+    }
+
+    /**
+     * Pasa a consultar las líneas de las facturas que cumplen esta consulta.
+     *
+     * @return Una consulta sobre las líneas
+     */
+    public ConsultaLineas lineas() {
+        return new ConsultaLineas(this, null, -1);
+    }
+
+    /**
+     * Cuenta las facturas que cumplen la consulta.
+     *
+     * @return La cantidad de facturas
+     */
+    public long contar() {
+        long[] cantidad = new long[1];
+        recorrer(factura -> {
+            cantidad[0]++;
+            return true;
+        });
+        return cantidad[0];
+    }
+
+    /**
+     * Indica si alguna factura cumple la consulta. Se detiene en la primera.
+     *
+     * @return true si al menos una factura cumple la consulta
+     */
+    public boolean existe() {
+        return primera().isPresent();
+    }
+
+    /**
+     * Obtiene la primera factura que cumple la consulta. Se detiene al encontrarla.
+     *
+     * @return La primera factura, o vacío si ninguna cumple la consulta
+     */
+    public Optional<Factura> primera() {
+        Factura[] encontrada = new Factura[1];
+        recorrer(factura -> {
+            encontrada[0] = factura;
+            return false;
+        });
+        return Optional.ofNullable(encontrada[0]);
+    }
+
+    /**
+     * Suma una proyección numérica de las facturas que cumplen la consulta.
+     *
+     * @param proyeccion La proyección a sumar. No puede ser null.
+     * @return La suma de la proyección
+     * @throws NullPointerException si proyeccion es null
+     */
+    public double sumar(ToDoubleFunction<? super Factura> proyeccion) {
+        Objects.requireNonNull(proyeccion, "La proyección no puede ser null");
+        double[] suma = new double[1];
+        recorrer(factura -> {
+            suma[0] += proyeccion.applyAsDouble(factura);
+            return true;
+        });
+        return suma[0];
+    }
+
+    /**
+     * Suma los subtotales de las facturas que cumplen la consulta.
+     *
+     * @return La suma de los subtotales
+     */
+    public double sumarSubtotal() {
+        return lineas().sumarSubtotal();
+    }
+
+    /**
+     * Suma los impuestos de las facturas que cumplen la consulta.
+     *
+     * @return La suma de los impuestos
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public double sumarImpuestos() {
+        return lineas().sumarImpuestos();
+    }
+
+    /**
+     * Suma los totales (subtotal + impuestos) de las facturas que cumplen la consulta,
+     * en una sola pasada por sus líneas.
+     *
+     * @return La suma de los totales
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public double sumarTotal() {
+        return lineas().sumarTotal();
+    }
+
+    /**
+     * Suma los impuestos de las facturas que cumplen la consulta, separados por regla.
+     *
+     * @return Los impuestos por regla, en orden de primera aparición
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public Map<Impuesto, Double> impuestosPorRegla() {
+        return lineas().impuestosPorRegla();
+    }
+
+    /**
+     * Recorre las facturas que cumplen la consulta hasta agotarlas, alcanzar el límite o
+     * hasta que el sumidero pida detenerse.
+     *
+     * @param sumidero Recibe cada factura aceptada; devuelve false para detener el recorrido
+     * @return false si el sumidero detuvo el recorrido
+     */
+    boolean recorrer(Predicate<Factura> sumidero) {
+        long restantes = limite;
+        for (Factura factura : origen) {
+            if (restantes == 0) {
+                return true;
+            }
+            if (filtro == null || filtro.test(factura)) {
+                restantes--;
+                if (!sumidero.test(factura)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Combina dos filtros en uno solo que exige ambos.
+     *
+     * @param actual El filtro existente, o null si no hay
+     * @param nuevo El filtro a agregar
+     * @return El filtro combinado
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Predicate<? super T> combinar(Predicate<? super T> actual, Predicate<? super T> nuevo) {
+        if (actual == null) {
+            return nuevo;
+        }
+        Predicate<T> primero = (Predicate<T>) actual;
+        return primero.and(nuevo);
+    }
+}
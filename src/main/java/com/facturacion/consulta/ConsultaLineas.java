@@ -0,0 +1,245 @@
+package com.facturacion.consulta;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Consulta diferida sobre las líneas (productos) de las facturas de una
+ * {@link ConsultaFacturas}.
+ *
+ * <p>Igual que la consulta de facturas, no recorre nada hasta ejecutar una operación
+ * terminal, y en ese momento aplica el filtro de facturas, el filtro de líneas y la
+ * agregación en una única pasada. Los impuestos se calculan con la regla que cada factura
+ * aplica a la línea ({@link Factura#obtenerImpuesto}).
+ *
+ * <p>Ejemplo: subtotal de la electrónica de más de 1M en todas las facturas:
+ * <pre>
+ *   ConsultaFacturas.sobre(facturas).lineas()
+ *       .categoria(CategoriaProducto.ELECTRONICA)
+ *       .precioMayorQue(1_000_000)
+ *       .sumarSubtotal();
+ * </pre>
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class ConsultaLineas {
+
+    /**
+     * Consulta de facturas cuyas líneas se recorren.
+     */
+    private final ConsultaFacturas facturas;
+
+    /**
+     * Filtro de líneas, o null si se aceptan todas.
+     */
+    private final Predicate<? super Producto> filtro;
+
+    /**
+     * Cantidad máxima de líneas aceptadas, o -1 si no hay límite.
+     */
+    private final long limite;
+
+    ConsultaLineas(ConsultaFacturas facturas, Predicate<? super Producto> filtro, long limite) {
+        this.facturas = facturas;
+        this.filtro = filtro;
+        this.limite = limite;
+    }
+
+    /**
+     * Agrega un filtro de líneas. Se combina con los filtros anteriores.
+     *
+     * @param predicado El filtro a aplicar. No puede ser null.
+     * @return Una nueva consulta con el filtro agregado
+     * @throws NullPointerException si predicado es null
+     */
+    public ConsultaLineas filtrar(Predicate<? super Producto> predicado) {
+        Objects.requireNonNull(predicado, "El filtro no puede ser null");
+        return new ConsultaLineas(facturas, ConsultaFacturas.combinar(filtro, predicado), limite);
+    }
+
+    /**
+     * Conserva solo las líneas de la categoría indicada.
+     *
+     * @param categoria La categoría. No puede ser null.
+     * @return Una nueva consulta con el filtro agregado
+     * @throws NullPointerException si categoria es null
+     */
+    public ConsultaLineas categoria(CategoriaProducto categoria) {
+        Class<? extends Producto> clase =
+            Objects.requireNonNull(categoria, "La categoría no puede ser null").getClaseProducto();
+        return filtrar(producto -> producto.getClass() == clase);
+    }
+
+    /**
+     * Conserva solo las líneas cuyo precio es estrictamente mayor al indicado.
+     *
+     * @param precio El precio mínimo (exclusivo)
+     * @return Una nueva consulta con el filtro agregado
+     */
+    public ConsultaLineas precioMayorQue(double precio) {
+        return filtrar(producto -> producto.getPrecio() > precio);
+    }
+
+    /**
+     * Limita la consulta a las primeras líneas que cumplen los filtros. El recorrido se
+     * detiene al alcanzar el límite.
+     *
+     * @param maximo La cantidad máxima de líneas. Debe ser >= 0.
+     * @return Una nueva consulta con el límite aplicado
+     * @throws IllegalArgumentException si maximo es negativo
+     */
+    public ConsultaLineas limitar(long maximo) {
+        if (maximo < 0) {
+            throw new IllegalArgumentException("El límite no puede ser negativo: " + maximo);
+        }
+        return new ConsultaLineas(facturas, filtro, limite < 0 ? maximo : Math.min(limite, maximo));
+    }
+
+    /**
+     * Cuenta las líneas que cumplen la consulta.
+     *
+     * @return La cantidad de líneas
+     */
+    public long contar() {
+        long[] cantidad = new long[1];
+        recorrer((factura, producto) -> {
+            cantidad[0]++;
+            return true;
+        });
+        return cantidad[0];
+    }
+
+    /**
+     * Indica si alguna línea cumple la consulta. Se detiene en la primera.
+     *
+     * @return true si al menos una línea cumple la consulta
+     */
+    public boolean existe() {
+        return !recorrer((factura, producto) -> false);
+    }
+
+    /**
+     * Suma una proyección numérica de las líneas que cumplen la consulta.
+     *
+     * @param proyeccion La proyección a sumar. No puede ser null.
+     * @return La suma de la proyección
+     * @throws NullPointerException si proyeccion es null
+     */
+    public double sumar(ToDoubleFunction<? super Producto> proyeccion) {
+        Objects.requireNonNull(proyeccion, "La proyección no puede ser null");
+        double[] suma = new double[1];
+        recorrer((factura, producto) -> {
+            suma[0] += proyeccion.applyAsDouble(producto);
+            return true;
+        });
+        return suma[0];
+    }
+
+    /**
+     * Suma los precios de las líneas que cumplen la consulta.
+     *
+     * @return La suma de los precios
+     */
+    public double sumarSubtotal() {
+        return sumar(Producto::getPrecio);
+    }
+
+    /**
+     * Suma los impuestos de las líneas que cumplen la consulta.
+     *
+     * @return La suma de los impuestos
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public double sumarImpuestos() {
+        double[] suma = new double[1];
+        recorrer((factura, producto) -> {
+            suma[0] += factura.obtenerImpuesto(producto).calcularImpuesto(producto);
+            return true;
+        });
+        return suma[0];
+    }
+
+    /**
+     * Suma precio más impuesto de las líneas que cumplen la consulta.
+     *
+     * @return La suma de los totales de línea
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public double sumarTotal() {
+        double[] suma = new double[1];
+        recorrer((factura, producto) -> {
+            suma[0] += producto.getPrecio() + factura.obtenerImpuesto(producto).calcularImpuesto(producto);
+            return true;
+        });
+        return suma[0];
+    }
+
+    /**
+     * Suma los impuestos de las líneas que cumplen la consulta, separados por regla.
+     *
+     * @return Los impuestos por regla, en orden de primera aparición
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public Map<Impuesto, Double> impuestosPorRegla() {
+        Map<Impuesto, Double> porRegla = new LinkedHashMap<>();
+        recorrer((factura, producto) -> {
+            Impuesto impuesto = factura.obtenerImpuesto(producto);
+            porRegla.merge(impuesto, impuesto.calcularImpuesto(producto), Double::sum);
+            return true;
+        });
+        return porRegla;
+    }
+
+    /**
+     * Recibe cada línea aceptada por la consulta.
+     */
+    @FunctionalInterface
+    private interface Sumidero {
+
+        /**
+         * Procesa una línea.
+         *
+         * @param factura La factura a la que pertenece la línea
+         * @param producto El producto de la línea
+         * @return false para detener el recorrido
+         */
+        boolean aceptar(Factura factura, Producto producto);
+    }
+
+    /**
+     * Recorre las líneas que cumplen la consulta hasta agotarlas, alcanzar el límite o
+     * hasta que el sumidero pida detenerse.
+     *
+     * @param sumidero Recibe cada línea aceptada
+     * @return false si el sumidero detuvo el recorrido
+     */
+    private boolean recorrer(Sumidero sumidero) {
+        long[] restantes = {limite};
+        boolean[] detenido = {false};
+        facturas.recorrer(factura -> {
+            for (int i = 0, n = factura.getCantidadProductos(); i < n; i++) {
+                if (restantes[0] == 0) {
+                    return false;
+                }
+                Producto producto = factura.getProducto(i);
+                if (filtro == null || filtro.test(producto)) {
+                    restantes[0]--;
+                    if (!sumidero.aceptar(factura, producto)) {
+                        detenido[0] = true;
+                        return false;
+                    }
+                }
+            }
+            return restantes[0] != 0;
+        });
+        return !detenido[0];
+    }
+}
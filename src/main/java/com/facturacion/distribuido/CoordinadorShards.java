@@ -0,0 +1,346 @@
+package com.facturacion.distribuido;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.serializacion.ProductoCodec;
+import com.facturacion.serializacion.Varint;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Coordinador que reparte el cálculo de un conjunto de facturas entre varios procesos
+ * trabajadores locales y combina sus totales parciales.
+ *
+ * <p>Cada factura se asigna a una partición según una clave (por defecto, su posición en
+ * la carga de trabajo), de modo que todas las facturas con la misma clave van al mismo
+ * trabajador. Cada trabajador es una JVM independiente ({@link TrabajadorShard}) lanzada
+ * con el mismo classpath, que se comunica con el coordinador por tuberías:
+ *
+ * <pre>
+ *   coordinador -&gt; trabajador: por factura, int longitud + varint cantidad de productos
+ *                              + productos según {@link ProductoCodec#escribirBinario};
+ *                              al final, int {@value #MARCA_FIN}
+ *   trabajador -&gt; coordinador: {@link TotalesParciales#escribir}
+ * </pre>
+ *
+ * <p>Los parciales se combinan en orden de partición, por lo que el resultado es
+ * reproducible para una misma cantidad de trabajadores. Los trabajadores aplican las
+ * reglas de impuesto por defecto del sistema ({@link ReglasImpuesto#porDefecto()}), por lo
+ * que antes de arrancarlos se rechazan las facturas que aplican a algún producto una regla
+ * de otra clase: de lo contrario el total distribuido diferiría en silencio del local.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class CoordinadorShards {
+
+    /**
+     * Longitud de trama que indica al trabajador que no hay más facturas.
+     */
+    static final int MARCA_FIN = -1;
+
+    /**
+     * Reglas de impuesto que aplican los trabajadores.
+     */
+    private static final Map<Class<? extends Producto>, Impuesto> REGLAS_TRABAJADOR =
+        Map.copyOf(ReglasImpuesto.porDefecto());
+
+    /**
+     * Cantidad de procesos trabajadores.
+     */
+    private final int trabajadores;
+
+    /**
+     * Opciones adicionales para las JVM de los trabajadores (ej: "-Xmx256m").
+     */
+    private final List<String> opcionesJvm;
+
+    /**
+     * Constructor que crea un coordinador con la cantidad de trabajadores indicada.
+     *
+     * @param trabajadores La cantidad de procesos trabajadores. Debe ser > 0.
+     * @param opcionesJvm Opciones adicionales para las JVM de los trabajadores
+     * @throws IllegalArgumentException si trabajadores no es positivo
+     */
+    public CoordinadorShards(int trabajadores, String... opcionesJvm) {
+        if (trabajadores <= 0) {
+            throw new IllegalArgumentException("La cantidad de trabajadores debe ser positiva: " + trabajadores);
+        }
+        this.trabajadores = trabajadores;
+        this.opcionesJvm = List.of(opcionesJvm);
+    }
+
+    /**
+     * Resultado de un cálculo distribuido.
+     *
+     * @param total Los totales combinados de todas las particiones
+     * @param parciales Los totales de cada partición, en orden de partición
+     * @param nanosArranque Tiempo de arranque de los procesos trabajadores
+     * @param nanosCalculo Tiempo desde el envío de la primera factura hasta la combinación
+     */
+    public record ResultadoShards(TotalesParciales total, List<TotalesParciales> parciales,
+                                  long nanosArranque, long nanosCalculo) {
+    }
+
+    /**
+     * Medición de una ejecución dentro de un informe de escalabilidad.
+     *
+     * @param trabajadores La cantidad de trabajadores utilizada
+     * @param nanosArranque Tiempo de arranque de los trabajadores
+     * @param nanosCalculo Tiempo de cálculo (sin arranque)
+     * @param facturasPorSegundo Rendimiento sobre el tiempo de cálculo
+     * @param eficiencia Aceleración respecto de un trabajador dividida por la cantidad de
+     *                   trabajadores (1.0 es escalado lineal)
+     * @param total Los totales combinados obtenidos en esta ejecución
+     */
+    public record MedicionEscalado(int trabajadores, long nanosArranque, long nanosCalculo,
+                                   double facturasPorSegundo, double eficiencia,
+                                   TotalesParciales total) {
+    }
+
+    /**
+     * Calcula los totales repartiendo las facturas por su posición en la lista.
+     *
+     * @param facturas Las facturas a calcular. No puede ser null.
+     * @return El resultado combinado
+     * @throws NullPointerException si facturas es null
+     * @throws IllegalArgumentException si alguna factura aplica reglas distintas de las por defecto
+     * @throws IllegalStateException si algún trabajador falla
+     * @throws UncheckedIOException si falla la comunicación con los trabajadores
+     */
+    public ResultadoShards calcular(List<Factura> facturas) {
+        return calcular(facturas, null);
+    }
+
+    /**
+     * Calcula los totales repartiendo las facturas según la clave indicada.
+     *
+     * @param facturas Las facturas a calcular. No puede ser null.
+     * @param clave Función que obtiene la clave de partición de cada factura, o null para
+     *              repartir por posición
+     * @return El resultado combinado
+     * @throws NullPointerException si facturas es null
+     * @throws IllegalArgumentException si alguna factura aplica reglas distintas de las por defecto
+     * @throws IllegalStateException si algún trabajador falla
+     * @throws UncheckedIOException si falla la comunicación con los trabajadores
+     */
+    public ResultadoShards calcular(List<Factura> facturas, Function<? super Factura, ?> clave) {
+        Objects.requireNonNull(facturas, "Las facturas no pueden ser null");
+        validarReglas(facturas);
+        int[][] particiones = particionar(facturas, clave);
+
+        long inicio = System.nanoTime();
+        List<Process> procesos = new ArrayList<>(trabajadores);
+        try {
+            for (int i = 0; i < trabajadores; i++) {
+                procesos.add(arrancar());
+            }
+            long inicioCalculo = System.nanoTime();
+
+            Enviador[] enviadores = new Enviador[trabajadores];
+            for (int i = 0; i < trabajadores; i++) {
+                enviadores[i] = new Enviador(procesos.get(i), facturas, particiones[i]);
+                enviadores[i].start();
+            }
+            TotalesParciales total = new TotalesParciales();
+            List<TotalesParciales> parciales = new ArrayList<>(trabajadores);
+            for (int i = 0; i < trabajadores; i++) {
+                TotalesParciales parcial = enviadores[i].esperar(i);
+                parciales.add(parcial);
+                total.combinar(parcial);
+            }
+            return new ResultadoShards(total, List.copyOf(parciales), inicioCalculo - inicio,
+                System.nanoTime() - inicioCalculo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al arrancar los trabajadores", e);
+        } finally {
+            for (Process proceso : procesos) {
+                proceso.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Mide cómo escala el cálculo al agregar trabajadores, de 1 hasta el máximo indicado.
+     *
+     * @param facturas Las facturas a calcular. No puede ser null.
+     * @param maxTrabajadores La cantidad máxima de trabajadores. Debe ser > 0.
+     * @param clave Función de clave de partición, o null para repartir por posición
+     * @param opcionesJvm Opciones adicionales para las JVM de los trabajadores
+     * @return Una medición por cada cantidad de trabajadores, en orden creciente
+     * @throws IllegalArgumentException si maxTrabajadores no es positivo o alguna factura
+     *                                  aplica reglas distintas de las por defecto
+     */
+    public static List<MedicionEscalado> medirEscalado(List<Factura> facturas, int maxTrabajadores,
+                                                       Function<? super Factura, ?> clave,
+                                                       String... opcionesJvm) {
+        if (maxTrabajadores <= 0) {
+            throw new IllegalArgumentException("La cantidad de trabajadores debe ser positiva: " + maxTrabajadores);
+        }
+        List<MedicionEscalado> mediciones = new ArrayList<>(maxTrabajadores);
+        long nanosUno = 0;
+        for (int n = 1; n <= maxTrabajadores; n++) {
+            ResultadoShards resultado = new CoordinadorShards(n, opcionesJvm).calcular(facturas, clave);
+            long nanos = Math.max(resultado.nanosCalculo(), 1);
+            if (n == 1) {
+                nanosUno = nanos;
+            }
+            mediciones.add(new MedicionEscalado(n, resultado.nanosArranque(), nanos,
+                facturas.size() * 1e9 / nanos, (double) nanosUno / (n * (double) nanos), resultado.total()));
+        }
+        return mediciones;
+    }
+
+    /**
+     * Calcula la partición de una clave con un hash mezclado, para repartir bien incluso
+     * claves numéricas consecutivas.
+     *
+     * @param clave La clave de partición (puede ser null)
+     * @param particiones La cantidad de particiones
+     * @return El número de partición, entre 0 y particiones - 1
+     */
+    static int particion(Object clave, int particiones) {
+        int hash = Objects.hashCode(clave) * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), particiones);
+    }
+
+    /**
+     * Verifica que cada producto de cada factura tenga una regla de la misma clase que la
+     * que le aplicarán los trabajadores. Las reglas por defecto no tienen estado, así que la
+     * misma clase garantiza el mismo impuesto.
+     */
+    private static void validarReglas(List<Factura> facturas) {
+        for (int i = 0; i < facturas.size(); i++) {
+            Factura factura = facturas.get(i);
+            for (int j = 0, n = factura.getCantidadProductos(); j < n; j++) {
+                Producto producto = factura.getProducto(j);
+                Impuesto regla = factura.obtenerImpuesto(producto);
+                Impuesto reglaTrabajador = REGLAS_TRABAJADOR.get(producto.getClass());
+                if (reglaTrabajador == null || regla.getClass() != reglaTrabajador.getClass()) {
+                    throw new IllegalArgumentException(String.format(
+                        "La factura %d aplica a %s la regla %s; los trabajadores solo aplican las reglas por defecto",
+                        i, producto.getClass().getSimpleName(), regla));
+                }
+            }
+        }
+    }
+
+    private int[][] particionar(List<Factura> facturas, Function<? super Factura, ?> clave) {
+        int[] asignacion = new int[facturas.size()];
+        int[] tamanos = new int[trabajadores];
+        for (int i = 0; i < asignacion.length; i++) {
+            asignacion[i] = clave == null ? i % trabajadores : particion(clave.apply(facturas.get(i)), trabajadores);
+            tamanos[asignacion[i]]++;
+        }
+        int[][] particiones = new int[trabajadores][];
+        for (int p = 0; p < trabajadores; p++) {
+            particiones[p] = new int[tamanos[p]];
+        }
+        Arrays.fill(tamanos, 0);
+        for (int i = 0; i < asignacion.length; i++) {
+            particiones[asignacion[i]][tamanos[asignacion[i]]++] = i;
+        }
+        return particiones;
+    }
+
+    private Process arrancar() throws IOException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(opcionesJvm);
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(TrabajadorShard.class.getName());
+        return new ProcessBuilder(comando)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+    }
+
+    /**
+     * Hilo que envía una partición a su trabajador y luego lee sus totales.
+     */
+    private static final class Enviador extends Thread {
+        private final Process proceso;
+        private final List<Factura> facturas;
+        private final int[] indices;
+        private TotalesParciales resultado;
+        private Exception error;
+
+        private Enviador(Process proceso, List<Factura> facturas, int[] indices) {
+            super("facturacion-shard-enviador");
+            setDaemon(true);
+            this.proceso = proceso;
+            this.facturas = facturas;
+            this.indices = indices;
+        }
+
+        @Override
+        public void run() {
+            try (DataOutputStream salida = new DataOutputStream(
+                    new BufferedOutputStream(proceso.getOutputStream(), 64 * 1024))) {
+                ByteBuffer trama = ByteBuffer.allocate(4096);
+                for (int indice : indices) {
+                    trama = codificar(facturas.get(indice), trama);
+                    salida.writeInt(trama.position());
+                    salida.write(trama.array(), 0, trama.position());
+                }
+                salida.writeInt(MARCA_FIN);
+            } catch (IOException | RuntimeException e) {
+                error = e;
+                return;
+            }
+            try (DataInputStream entrada = new DataInputStream(proceso.getInputStream())) {
+                resultado = TotalesParciales.leer(entrada);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+
+        private TotalesParciales esperar(int particion) {
+            try {
+                join();
+                int codigo = proceso.waitFor();
+                if (error instanceof RuntimeException fallo) {
+                    throw fallo;
+                }
+                if (error != null || codigo != 0) {
+                    throw new IllegalStateException(String.format(
+                        "El trabajador de la partición %d falló (código de salida %d)", particion, codigo), error);
+                }
+                return resultado;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("El cálculo distribuido fue interrumpido", e);
+            }
+        }
+
+        private static ByteBuffer codificar(Factura factura, ByteBuffer trama) {
+            int cantidad = factura.getCantidadProductos();
+            while (true) {
+                trama.clear();
+                try {
+                    Varint.escribirInt(trama, cantidad);
+                    for (int i = 0; i < cantidad; i++) {
+                        ProductoCodec.escribirBinario(factura.getProducto(i), trama);
+                    }
+                    return trama;
+                } catch (BufferOverflowException e) {
+                    trama = ByteBuffer.allocate(trama.capacity() * 2);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.facturacion.distribuido;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Acumulador de totales parciales de un conjunto de facturas: cantidad de facturas y de
+ * líneas, subtotal y suma de impuestos por regla de impuesto.
+ *
+ * <p>Cada trabajador acumula las facturas de su partición en una instancia, la envía al
+ * coordinador y éste las combina con {@link #combinar(TotalesParciales)}. Las reglas se
+ * identifican por el nombre de su clase, que es estable entre procesos, y se guardan en un
+ * mapa ordenado para que la combinación recorra siempre las claves en el mismo orden.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class TotalesParciales {
+
+    /**
+     * Cantidad de facturas acumuladas.
+     */
+    private long facturas;
+
+    /**
+     * Cantidad de líneas de producto acumuladas.
+     */
+    private long lineas;
+
+    /**
+     * Suma de los subtotales.
+     */
+    private double subtotal;
+
+    /**
+     * Suma de impuestos por regla, con el nombre de la clase de la regla como clave.
+     */
+    private final TreeMap<String, Double> impuestosPorRegla = new TreeMap<>();
+
+    /**
+     * Acumula una factura, resolviendo cada impuesto con las reglas de la propia factura.
+     *
+     * @param factura La factura a acumular. No puede ser null.
+     * @throws NullPointerException si factura es null
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public void acumular(Factura factura) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        int cantidad = factura.getCantidadProductos();
+        for (int i = 0; i < cantidad; i++) {
+            Producto producto = factura.getProducto(i);
+            Impuesto impuesto = factura.obtenerImpuesto(producto);
+            subtotal += producto.getPrecio();
+            impuestosPorRegla.merge(impuesto.getClass().getName(), impuesto.calcularImpuesto(producto), Double::sum);
+        }
+        lineas += cantidad;
+        facturas++;
+    }
+
+    /**
+     * Combina otros totales parciales con éstos.
+     *
+     * <p>Para obtener un resultado reproducible, el llamador debe combinar los parciales
+     * siempre en el mismo orden (por ejemplo, por número de partición).
+     *
+     * @param otros Los totales a sumar. No puede ser null.
+     * @throws NullPointerException si otros es null
+     */
+    public void combinar(TotalesParciales otros) {
+        Objects.requireNonNull(otros, "Los totales a combinar no pueden ser null");
+        facturas += otros.facturas;
+        lineas += otros.lineas;
+        subtotal += otros.subtotal;
+        for (Map.Entry<String, Double> entrada : otros.impuestosPorRegla.entrySet()) {
+            impuestosPorRegla.merge(entrada.getKey(), entrada.getValue(), Double::sum);
+        }
+    }
+
+    /**
+     * Escribe los totales en un flujo binario.
+     *
+     * @param salida El flujo de destino
+     * @throws IOException si falla la escritura
+     */
+    public void escribir(DataOutput salida) throws IOException {
+        salida.writeLong(facturas);
+        salida.writeLong(lineas);
+        salida.writeDouble(subtotal);
+        salida.writeInt(impuestosPorRegla.size());
+        for (Map.Entry<String, Double> entrada : impuestosPorRegla.entrySet()) {
+            salida.writeUTF(entrada.getKey());
+            salida.writeDouble(entrada.getValue());
+        }
+    }
+
+    /**
+     * Lee totales escritos con {@link #escribir(DataOutput)}.
+     *
+     * @param entrada El flujo de origen
+     * @return Los totales leídos
+     * @throws IOException si falla la lectura o el flujo termina antes de tiempo
+     */
+    public static TotalesParciales leer(DataInput entrada) throws IOException {
+        TotalesParciales totales = new TotalesParciales();
+        totales.facturas = entrada.readLong();
+        totales.lineas = entrada.readLong();
+        totales.subtotal = entrada.readDouble();
+        int reglas = entrada.readInt();
+        for (int i = 0; i < reglas; i++) {
+            totales.impuestosPorRegla.put(entrada.readUTF(), entrada.readDouble());
+        }
+        return totales;
+    }
+
+    /**
+     * Obtiene la cantidad de facturas acumuladas.
+     *
+     * @return La cantidad de facturas
+     */
+    public long getFacturas() {
+        return facturas;
+    }
+
+    /**
+     * Obtiene la cantidad de líneas de producto acumuladas.
+     *
+     * @return La cantidad de líneas
+     */
+    public long getLineas() {
+        return lineas;
+    }
+
+    /**
+     * Obtiene la suma de los subtotales.
+     *
+     * @return El subtotal acumulado
+     */
+    public double getSubtotal() {
+        return subtotal;
+    }
+
+    /**
+     * Obtiene la suma de impuestos de todas las reglas, en orden de clave.
+     *
+     * @return El total de impuestos acumulado
+     */
+    public double getTotalImpuestos() {
+        double total = 0.0;
+        for (double impuestos : impuestosPorRegla.values()) {
+            total += impuestos;
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene la suma de impuestos por regla.
+     *
+     * @return Un mapa inmodificable ordenado por el nombre de la clase de cada regla
+     */
+    public Map<String, Double> getImpuestosPorRegla() {
+        return Collections.unmodifiableMap(impuestosPorRegla);
+    }
+}
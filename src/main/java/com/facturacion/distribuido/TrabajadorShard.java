@@ -0,0 +1,89 @@
+package com.facturacion.distribuido;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.serializacion.ProductoCodec;
+import com.facturacion.serializacion.Varint;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Proceso trabajador que calcula los totales parciales de una partición de facturas.
+ *
+ * <p>Lo lanza {@link CoordinadorShards} como una JVM independiente. Recibe por la entrada
+ * estándar las facturas de su partición, con el formato de trama descrito en
+ * {@link CoordinadorShards}, las calcula con las reglas de impuesto por defecto (el
+ * coordinador no envía facturas con otras reglas) y, al recibir la marca de fin, escribe sus {@link TotalesParciales} en la salida estándar.
+ * Los errores se informan por la salida de errores y con un código de salida distinto de 0.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class TrabajadorShard {
+
+    private TrabajadorShard() {
+    }
+
+    /**
+     * Punto de entrada del proceso trabajador.
+     *
+     * @param args No se utilizan
+     */
+    public static void main(String[] args) {
+        try {
+            DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(FileDescriptor.in), 64 * 1024));
+            DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+            procesar(entrada, ReglasImpuesto.porDefecto()).escribir(salida);
+            salida.flush();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error en el trabajador de facturas: " + e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lee tramas de facturas hasta la marca de fin y acumula sus totales.
+     *
+     * @param entrada El flujo de tramas
+     * @param reglasImpuesto Las reglas de impuesto a aplicar
+     * @return Los totales de la partición
+     * @throws IOException si falla la lectura o el flujo termina sin marca de fin
+     */
+    static TotalesParciales procesar(DataInputStream entrada,
+                                     Map<Class<? extends Producto>, Impuesto> reglasImpuesto) throws IOException {
+        TotalesParciales totales = new TotalesParciales();
+        byte[] trama = new byte[4096];
+        while (true) {
+            int longitud = entrada.readInt();
+            if (longitud == CoordinadorShards.MARCA_FIN) {
+                return totales;
+            }
+            if (longitud < 0) {
+                throw new IOException("Longitud de trama no válida: " + longitud);
+            }
+            if (longitud > trama.length) {
+                trama = new byte[Math.max(longitud, trama.length * 2)];
+            }
+            entrada.readFully(trama, 0, longitud);
+            ByteBuffer buffer = ByteBuffer.wrap(trama, 0, longitud);
+            Factura factura = new Factura(reglasImpuesto);
+            int cantidad = Varint.leerInt(buffer);
+            for (int i = 0; i < cantidad; i++) {
+                factura.agregarProducto(ProductoCodec.leerBinario(buffer));
+            }
+            totales.acumular(factura);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.facturacion.factura;
+
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.monitoreo.EventoImpresionFactura;
+import com.facturacion.monitoreo.EventoReglaNoEncontrada;
+import com.facturacion.monitoreo.EventoVaciadoImpresion;
+import java.io.PrintStream;
+import java.text.DecimalFormatSymbols;
+import java.util.Formatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Implementación de InvoicePrinter que arma la factura completa en un buffer reutilizable
+ * y la escribe en la salida con una sola operación.
+ *
+ * <p>Produce el mismo texto que {@link SimpleInvoicePrinter}, pero en lugar de una
+ * escritura sincronizada por línea hace una por factura, y el buffer lo presta un
+ * {@link PoolFacturas}, por lo que imprimir muchas facturas en el mismo hilo no reserva
+ * un buffer nuevo cada vez. Recorre los productos por posición, sin copiar la lista, y
+ * escribe los montos exactos en centavos sin pasar por {@link Formatter}, de modo que
+ * las líneas habituales no generan basura más allá de la copia final a la salida.
+ *
+ * <p>Como {@link SimpleInvoicePrinter}, emite los eventos de JDK Flight Recorder
+ * {@link EventoImpresionFactura} y {@link EventoVaciadoImpresion}; aquí el vaciado
+ * incluye la única escritura de la factura.
+ *
+ * <p>Cumple con <strong>Liskov Substitution Principle (LSP)</strong>: puede usarse donde
+ * se espere un {@link InvoicePrinter} sin cambiar lo que se imprime.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class BufferedInvoicePrinter implements InvoicePrinter {
+
+    /**
+     * Separador de líneas, el mismo que usa {@link PrintStream#println()}.
+     */
+    private static final String FIN_LINEA = System.lineSeparator();
+
+    /**
+     * Ancho de la descripción del producto, como en {@code %-30s}.
+     */
+    private static final int ANCHO_DESCRIPCION = 30;
+
+    /**
+     * Ancho de los montos, como en {@code %10.2f}.
+     */
+    private static final int ANCHO_MONTO = 10;
+
+    /**
+     * Magnitud hasta la cual los montos se escriben sin {@link Formatter}; por debajo de
+     * ella los centavos caben de forma exacta en un {@code long} y en un {@code double}.
+     */
+    private static final double LIMITE_CAMINO_RAPIDO = 1e13;
+
+    /**
+     * Categorías conocidas, copiadas una vez para no crear el arreglo en cada línea.
+     */
+    private static final CategoriaProducto[] CATEGORIAS = CategoriaProducto.values();
+
+    /**
+     * Stream de salida donde se imprimirá la factura.
+     */
+    private final PrintStream output;
+
+    /**
+     * Pool que presta el buffer de cada hilo.
+     */
+    private final PoolFacturas pool;
+
+    /**
+     * Separador decimal del último locale de formato usado. El locale y su separador van en
+     * un mismo objeto inmutable para que un hilo nunca vea el separador de otro locale.
+     */
+    private volatile SeparadorLocale separador;
+
+    /**
+     * Constructor que inicializa el printer con una salida y el pool de buffers.
+     *
+     * @param output El stream de salida. No puede ser null.
+     * @param pool El pool que presta los buffers. No puede ser null.
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public BufferedInvoicePrinter(PrintStream output, PoolFacturas pool) {
+        this.output = Objects.requireNonNull(output, "El stream de salida no puede ser null");
+        this.pool = Objects.requireNonNull(pool, "El pool no puede ser null");
+    }
+
+    /**
+     * Imprime el detalle completo de la factura en formato texto.
+     *
+     * @param factura La factura a imprimir. No puede ser null.
+     * @param reglasImpuesto Mapa de reglas de impuesto para mostrar detalles. No puede ser null.
+     * @throws NullPointerException si factura o reglasImpuesto son null
+     */
+    @Override
+    public void imprimir(Factura factura, Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        Objects.requireNonNull(reglasImpuesto, "Las reglas de impuesto no pueden ser null");
+
+        EventoImpresionFactura impresion = new EventoImpresionFactura();
+        impresion.begin();
+        StringBuilder buffer = pool.obtenerBuffer();
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        linea(buffer, "========================================");
+        linea(buffer, "          FACTURA DE VENTA");
+        linea(buffer, "========================================");
+        linea(buffer, "");
+
+        linea(buffer, "PRODUCTOS:");
+        linea(buffer, "----------------------------------------");
+
+        for (int i = 0, n = factura.getCantidadProductos(); i < n; i++) {
+            Producto producto = factura.getProducto(i);
+            Impuesto impuesto = reglasImpuesto.get(producto.getClass());
+            if (impuesto == null) {
+                EventoReglaNoEncontrada.registrar(producto);
+            }
+
+            double precioBase = producto.getPrecio();
+            double montoImpuesto = impuesto != null ? impuesto.calcularImpuesto(producto) : 0.0;
+            double precioTotal = precioBase + montoImpuesto;
+
+            buffer.append("  ");
+            int inicio = buffer.length();
+            describir(buffer, producto, locale);
+            for (int relleno = ANCHO_DESCRIPCION - (buffer.length() - inicio); relleno > 0; relleno--) {
+                buffer.append(' ');
+            }
+            buffer.append(" $");
+            decimal(buffer, precioBase, 2, ANCHO_MONTO, locale);
+            buffer.append('\n');
+            if (impuesto != null) {
+                buffer.append("    Impuesto (");
+                decimal(buffer, impuesto.getPorcentaje(), 1, 0, locale);
+                buffer.append("%)              $");
+                decimal(buffer, montoImpuesto, 2, ANCHO_MONTO, locale);
+                buffer.append('\n');
+            }
+            buffer.append("    Subtotal                         $");
+            decimal(buffer, precioTotal, 2, ANCHO_MONTO, locale);
+            buffer.append('\n');
+            linea(buffer, "");
+        }
+
+        linea(buffer, "----------------------------------------");
+        buffer.append("SUBTOTAL:                             $");
+        decimal(buffer, factura.calcularSubtotal(), 2, ANCHO_MONTO, locale);
+        buffer.append("\nTOTAL IMPUESTOS:                      $");
+        decimal(buffer, factura.calcularTotalImpuestos(), 2, ANCHO_MONTO, locale);
+        buffer.append('\n');
+        linea(buffer, "----------------------------------------");
+        buffer.append("TOTAL:                                $");
+        decimal(buffer, factura.calcularTotal(), 2, ANCHO_MONTO, locale);
+        buffer.append('\n');
+        linea(buffer, "========================================");
+
+        impresion.end();
+        if (impresion.shouldCommit()) {
+            impresion.printer = getClass().getSimpleName();
+            impresion.lineas = factura.getCantidadProductos();
+            impresion.commit();
+        }
+
+        EventoVaciadoImpresion vaciado = new EventoVaciadoImpresion();
+        vaciado.begin();
+        output.append(buffer);
+        output.flush();
+        vaciado.end();
+        if (vaciado.shouldCommit()) {
+            vaciado.printer = getClass().getSimpleName();
+            vaciado.caracteres = buffer.length();
+            vaciado.commit();
+        }
+    }
+
+    private static void linea(StringBuilder buffer, String texto) {
+        buffer.append(texto).append(FIN_LINEA);
+    }
+
+    /**
+     * Agrega la descripción del producto, igual a su {@code toString()}. Para las clases
+     * de {@link CategoriaProducto} se arma sin crear cadenas intermedias; cualquier otra
+     * clase puede redefinir {@code toString()} y se usa tal cual.
+     */
+    private void describir(StringBuilder buffer, Producto producto, Locale locale) {
+        CategoriaProducto categoria = categoriaExacta(producto);
+        if (categoria == null) {
+            buffer.append(producto.toString());
+            return;
+        }
+        buffer.append('[').append(categoria.getEtiqueta()).append("] ")
+            .append(producto.getNombre()).append(" - $");
+        decimal(buffer, producto.getPrecio(), 2, 0, locale);
+        if (producto.getMoneda() != Producto.MONEDA_POR_DEFECTO) {
+            buffer.append(' ').append(producto.getMoneda().getCurrencyCode());
+        }
+    }
+
+    private static CategoriaProducto categoriaExacta(Producto producto) {
+        for (CategoriaProducto categoria : CATEGORIAS) {
+            if (categoria.getClaseProducto() == producto.getClass()) {
+                return categoria;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Agrega un número con {@code decimales} decimales, alineado a la derecha en
+     * {@code ancho} caracteres, como lo haría {@code %ancho.decimalesf}.
+     *
+     * <p>Si el valor es exactamente el decimal que se imprime (el caso de los montos con
+     * centavos), sus dígitos se escriben directamente; si hay que redondear, se delega en
+     * {@link Formatter} para conservar su redondeo.
+     */
+    private void decimal(StringBuilder buffer, double valor, int decimales, int ancho, Locale locale) {
+        double escala = decimales == 1 ? 10.0 : 100.0;
+        long unidades = Math.round(valor * escala);
+        char separador = separadorDecimal(locale);
+        if (separador == 0 || !(valor >= 0 && valor < LIMITE_CAMINO_RAPIDO && unidades / escala == valor)) {
+            String formato = ancho > 0 ? "%" + ancho + "." + decimales + "f" : "%." + decimales + "f";
+            new Formatter(buffer, locale).format(formato, valor);
+            return;
+        }
+        long divisor = decimales == 1 ? 10 : 100;
+        long entero = unidades / divisor;
+        long fraccion = unidades % divisor;
+        int digitosEntero = 1;
+        for (long resto = entero; resto >= 10; resto /= 10) {
+            digitosEntero++;
+        }
+        for (int relleno = ancho - (digitosEntero + 1 + decimales); relleno > 0; relleno--) {
+            buffer.append(' ');
+        }
+        buffer.append(entero).append(separador);
+        if (decimales == 2 && fraccion < 10) {
+            buffer.append('0');
+        }
+        buffer.append(fraccion);
+    }
+
+    /**
+     * Obtiene el separador decimal del locale, o 0 si el locale no usa dígitos ASCII y el
+     * camino rápido no es aplicable.
+     */
+    private char separadorDecimal(Locale locale) {
+        SeparadorLocale actual = separador;
+        if (actual == null || actual.locale() != locale) {
+            DecimalFormatSymbols simbolos = DecimalFormatSymbols.getInstance(locale);
+            actual = new SeparadorLocale(locale,
+                simbolos.getZeroDigit() == '0' ? simbolos.getDecimalSeparator() : 0);
+            separador = actual;
+        }
+        return actual.separador();
+    }
+
+    /**
+     * Separador decimal de un locale, o 0 si no se usa el camino rápido.
+     *
+     * @param locale El locale de formato
+     * @param separador El separador decimal
+     */
+    private record SeparadorLocale(Locale locale, char separador) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.facturacion.factura;
+
+/**
+ * Contadores de uso de un pool de objetos reutilizables, para dimensionarlo.
+ *
+ * @param aciertos Veces que se entregó un objeto reutilizado
+ * @param fallos Veces que hubo que crear un objeto nuevo
+ * @param descartes Objetos devueltos que no se guardaron porque el pool estaba lleno
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record EstadisticasPool(long aciertos, long fallos, long descartes) {
+
+    /**
+     * Calcula la proporción de pedidos atendidos con un objeto reutilizado.
+     *
+     * @return La tasa de aciertos entre 0 y 1 (0 si todavía no hubo pedidos)
+     */
+    public double tasaAciertos() {
+        long pedidos = aciertos + fallos;
+        return pedidos == 0 ? 0.0 : (double) aciertos / pedidos;
+    }
+}
@@ -1,8 +1,17 @@
 package com.facturacion.factura;
 
 import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
 import com.facturacion.model.Producto;
+import com.facturacion.moneda.AcumuladorMonedas;
+import com.facturacion.moneda.TablaTasas;
+import com.facturacion.moneda.TotalesMoneda;
+import com.facturacion.numeracion.NumeradorFacturas;
+import com.facturacion.numeracion.NumeroFactura;
+import com.facturacion.monitoreo.EventoFacturaCalculada;
+import com.facturacion.monitoreo.EventoReglaNoEncontrada;
 import java.util.ArrayList;
+import java.util.Currency;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -27,6 +36,9 @@ import java.util.Objects;
  * <p>La factura utiliza inyección de dependencias por constructor para recibir las reglas de
  * impuestos, lo que permite una alta flexibilidad y testabilidad.
  * 
+ * <p>{@link #calcularTotal()} y las búsquedas de reglas sin resultado emiten eventos de JDK
+ * Flight Recorder ({@link EventoFacturaCalculada} y {@link EventoReglaNoEncontrada}).
+ * 
  * @author Sistema de Facturación SOLID
  * @version 1.0
  */
@@ -43,6 +55,18 @@ public class Factura {
      */
     private final Map<Class<? extends Producto>, Impuesto> reglasImpuesto;
     
+    /**
+     * Identificador de la factura, o null si todavía no fue numerada.
+     */
+    private NumeroFactura numero;
+    
+    /**
+     * Cantidad de veces que la factura fue limpiada. Agregar productos solo extiende la
+     * lista, así que quien guarda datos derivados de las líneas ya vistas puede saber con
+     * este contador si siguen siendo válidos.
+     */
+    private int reinicios;
+    
     /**
      * Constructor que inicializa una factura con reglas de impuestos.
      * 
@@ -69,15 +93,80 @@ public class Factura {
         productos.add(Objects.requireNonNull(producto, "El producto no puede ser null"));
     }
     
+    /**
+     * Quita todos los productos de la factura para reutilizarla con otra venta.
+     * 
+     * <p>La lista interna conserva su capacidad, de modo que una factura reutilizada no
+     * vuelve a reservar memoria mientras sus ventas tengan un tamaño parecido. Las reglas
+     * de impuesto se mantienen y el número de factura se quita.
+     * 
+     * @see PoolFacturas
+     */
+    public void limpiar() {
+        productos.clear();
+        numero = null;
+        reinicios++;
+    }
+    
+    /**
+     * Asigna el identificador de la factura.
+     * 
+     * <p>Normalmente lo asigna {@link NumeradorFacturas#numerar(Factura)}.
+     * 
+     * @param numero El identificador. No puede ser null.
+     * @throws NullPointerException si numero es null
+     * @throws IllegalStateException si la factura ya tiene un identificador
+     */
+    public void asignarNumero(NumeroFactura numero) {
+        Objects.requireNonNull(numero, "El número de factura no puede ser null");
+        if (this.numero != null) {
+            throw new IllegalStateException("La factura ya tiene número: " + this.numero);
+        }
+        this.numero = numero;
+    }
+    
+    /**
+     * Obtiene el identificador de la factura.
+     * 
+     * @return El identificador, o null si la factura no fue numerada
+     */
+    public NumeroFactura getNumero() {
+        return numero;
+    }
+    
+    /**
+     * Obtiene la cantidad de veces que la factura fue limpiada.
+     * 
+     * @return El contador de {@link #limpiar()}
+     */
+    int getReinicios() {
+        return reinicios;
+    }
+    
+    /**
+     * Indica si esta factura aplica exactamente las reglas de impuesto indicadas.
+     * 
+     * @param reglas Las reglas a comparar
+     * @return true si la factura fue creada con el mismo mapa de reglas
+     */
+    boolean usaReglas(Map<Class<? extends Producto>, Impuesto> reglas) {
+        return reglasImpuesto == reglas;
+    }
+    
     /**
      * Calcula el subtotal de la factura (suma de precios sin impuestos).
      * 
+     * <p>Suma los precios tal como están, por lo que supone que todos los productos tienen
+     * la misma moneda; para facturas con varias monedas use
+     * {@link #calcularTotales(Currency, TablaTasas)}.
+     * 
+     * <p>La suma es compensada ({@link SumaCompensada}) y da exactamente lo mismo que
+     * {@code DoubleStream.sum()} sobre los precios, sin asignar memoria.
+     * 
      * @return El subtotal de la factura
      */
     public double calcularSubtotal() {
-        return productos.stream()
-                .mapToDouble(Producto::getPrecio)
-                .sum();
+        return SumaCompensada.sumarPrecios(productos);
     }
     
     /**
@@ -91,22 +180,29 @@ public class Factura {
     public double calcularTotalImpuestos() {
         double totalImpuestos = 0.0;
         
-        for (Producto producto : productos) {
-            Class<? extends Producto> claseProducto = producto.getClass();
-            Impuesto impuesto = reglasImpuesto.get(claseProducto);
-            
-            if (impuesto == null) {
-                throw new IllegalStateException(
-                    String.format("No existe una regla de impuesto para la clase de producto: %s", 
-                        claseProducto.getSimpleName()));
-            }
-            
-            totalImpuestos += impuesto.calcularImpuesto(producto);
+        for (int i = 0, n = productos.size(); i < n; i++) {
+            Producto producto = productos.get(i);
+            totalImpuestos += obtenerImpuesto(producto).calcularImpuesto(producto);
         }
         
         return totalImpuestos;
     }
     
+    /**
+     * Obtiene la regla de impuesto que esta factura aplica a un producto.
+     * 
+     * <p>Permite a quienes agregan impuestos por regla (reportes, cálculos distribuidos)
+     * resolver el impuesto exactamente como lo hace {@link #calcularTotalImpuestos()}.
+     * 
+     * @param producto El producto cuyo impuesto se quiere obtener. No puede ser null.
+     * @return La regla de impuesto registrada para la clase del producto
+     * @throws NullPointerException si producto es null
+     * @throws IllegalStateException si la clase del producto no tiene una regla de impuesto registrada
+     */
+    public Impuesto obtenerImpuesto(Producto producto) {
+        return ReglasImpuesto.obtener(reglasImpuesto, producto);
+    }
+    
     /**
      * Calcula el total de la factura (subtotal + impuestos).
      * 
@@ -114,7 +210,48 @@ public class Factura {
      * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
      */
     public double calcularTotal() {
-        return calcularSubtotal() + calcularTotalImpuestos();
+        EventoFacturaCalculada evento = EventoFacturaCalculada.iniciar();
+        double subtotal = calcularSubtotal();
+        double impuestos = calcularTotalImpuestos();
+        EventoFacturaCalculada.registrar(evento, productos.size(), subtotal, impuestos);
+        return subtotal + impuestos;
+    }
+    
+    /**
+     * Acumula el precio y el impuesto de cada línea en el balde de su moneda, sin convertir.
+     * 
+     * <p>Permite calcular totales de muchas facturas en otra moneda convirtiendo una sola
+     * vez por moneda al final, en lugar de una vez por línea.
+     * 
+     * @param acumulador El acumulador donde se suman las líneas. No puede ser null.
+     * @throws NullPointerException si acumulador es null
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public void acumularEn(AcumuladorMonedas acumulador) {
+        Objects.requireNonNull(acumulador, "El acumulador no puede ser null");
+        for (Producto producto : productos) {
+            acumulador.agregar(producto.getMoneda(), producto.getPrecio(),
+                obtenerImpuesto(producto).calcularImpuesto(producto));
+        }
+    }
+    
+    /**
+     * Calcula subtotal, impuestos y total de la factura expresados en una moneda.
+     * 
+     * <p>Cada impuesto se calcula en la moneda del producto, y luego se convierte el
+     * importe acumulado de cada moneda con la tabla de tasas indicada.
+     * 
+     * @param destino La moneda en la que se expresan los totales. No puede ser null.
+     * @param tasas La tabla de tasas a usar. No puede ser null.
+     * @return Los totales en la moneda de destino
+     * @throws NullPointerException si destino o tasas son null
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto
+     *                               registrada o la tabla no tiene tasa para alguna moneda
+     */
+    public TotalesMoneda calcularTotales(Currency destino, TablaTasas tasas) {
+        AcumuladorMonedas acumulador = new AcumuladorMonedas();
+        acumularEn(acumulador);
+        return acumulador.totalesEn(destino, tasas);
     }
     
     /**
@@ -126,6 +263,20 @@ public class Factura {
         return new ArrayList<>(productos);
     }
     
+    /**
+     * Obtiene el producto que ocupa una posición de la factura, sin copiar la lista.
+     * 
+     * <p>Junto con {@link #getCantidadProductos()} permite recorrer los productos en
+     * consultas y reportes que procesan muchas facturas.
+     * 
+     * @param indice La posición del producto (desde 0)
+     * @return El producto en esa posición
+     * @throws IndexOutOfBoundsException si el índice está fuera de rango
+     */
+    public Producto getProducto(int indice) {
+        return productos.get(indice);
+    }
+    
     /**
      * Obtiene el número de productos en la factura.
      * 
@@ -142,7 +293,10 @@ public class Factura {
      */
     @Override
     public String toString() {
-        return String.format("Factura con %d producto(s)", productos.size());
+        if (numero == null) {
+            return String.format("Factura con %d producto(s)", productos.size());
+        }
+        return String.format("Factura %s con %d producto(s)", numero, productos.size());
     }
 }
 
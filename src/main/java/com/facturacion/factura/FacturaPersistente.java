@@ -0,0 +1,314 @@
+package com.facturacion.factura;
+
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.Producto;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Factura inmutable en la que agregar un producto devuelve una nueva versión y deja la
+ * anterior intacta.
+ *
+ * <p>Los productos se guardan en un trie de vectores: bloques de {@value #ANCHO} productos
+ * colgados de nodos internos de {@value #ANCHO} hijos, más un bloque final abierto (la
+ * cola). Agregar un producto copia solo la cola o, cuando la cola se llena, el camino desde
+ * la raíz hasta el nuevo bloque, es decir O(log n) con una base de {@value #ANCHO}; todo lo
+ * demás se comparte entre versiones. Por eso guardar una versión no copia nada: una
+ * referencia a ella es una foto consistente aunque la venta siga creciendo, y el historial
+ * de versiones alcanza para deshacer y rehacer.
+ *
+ * <p>Cada versión lleva el subtotal y los impuestos acumulados, que se suman al agregar
+ * cada producto en el mismo orden y de la misma forma que {@link Factura#calcularSubtotal()}
+ * (suma compensada, {@link SumaCompensada}) y {@link Factura#calcularTotalImpuestos()};
+ * consultarlos es O(1) y da exactamente el mismo resultado que la factura equivalente. Como el impuesto se calcula al agregar, un producto
+ * sin regla registrada se rechaza en ese momento.
+ *
+ * <p>Cumple con <strong>Single Responsibility Principle (SRP)</strong>: guarda productos y
+ * totales; la impresión sigue a cargo de un {@link InvoicePrinter} sobre
+ * {@link #aFactura()}. Al ser inmutable, puede compartirse entre hilos sin sincronizar.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class FacturaPersistente {
+
+    /**
+     * Bits del índice que consume cada nivel del trie.
+     */
+    private static final int BITS = 5;
+
+    /**
+     * Cantidad de hijos de cada nodo y de productos de cada bloque.
+     */
+    private static final int ANCHO = 1 << BITS;
+
+    /**
+     * Máscara de la posición dentro de un nodo.
+     */
+    private static final int MASCARA = ANCHO - 1;
+
+    /**
+     * Raíz vacía, compartida por las versiones cuyos productos caben en la cola.
+     */
+    private static final Object[] RAIZ_VACIA = new Object[ANCHO];
+
+    /**
+     * Mapa que relaciona clases de productos con sus respectivas reglas de impuesto.
+     */
+    private final Map<Class<? extends Producto>, Impuesto> reglasImpuesto;
+
+    /**
+     * Cantidad de productos.
+     */
+    private final int cantidad;
+
+    /**
+     * Desplazamiento del índice en la raíz: {@value #BITS} por cada nivel de nodos internos.
+     */
+    private final int desplazamiento;
+
+    /**
+     * Raíz del trie con los bloques completos. Los nodos internos guardan nodos y los del
+     * último nivel guardan productos.
+     */
+    private final Object[] raiz;
+
+    /**
+     * Último bloque, con entre 0 y {@value #ANCHO} productos, que todavía no está en el trie.
+     */
+    private final Producto[] cola;
+
+    /**
+     * Suma compensada de los precios de todos los productos. No se modifica: cada versión
+     * nueva acumula sobre una copia.
+     */
+    private final SumaCompensada subtotal;
+
+    /**
+     * Suma de los impuestos de todos los productos.
+     */
+    private final double impuestos;
+
+    private FacturaPersistente(Map<Class<? extends Producto>, Impuesto> reglasImpuesto, int cantidad,
+                               int desplazamiento, Object[] raiz, Producto[] cola, SumaCompensada subtotal,
+                               double impuestos) {
+        this.reglasImpuesto = reglasImpuesto;
+        this.cantidad = cantidad;
+        this.desplazamiento = desplazamiento;
+        this.raiz = raiz;
+        this.cola = cola;
+        this.subtotal = subtotal;
+        this.impuestos = impuestos;
+    }
+
+    /**
+     * Crea una factura sin productos.
+     *
+     * @param reglasImpuesto Mapa que relaciona clases de productos con sus impuestos.
+     *                       No puede ser null, pero puede estar vacío.
+     * @return La factura vacía
+     * @throws NullPointerException si reglasImpuesto es null
+     */
+    public static FacturaPersistente vacia(Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        Objects.requireNonNull(reglasImpuesto, "Las reglas de impuesto no pueden ser null");
+        return new FacturaPersistente(reglasImpuesto, 0, BITS, RAIZ_VACIA, new Producto[0], new SumaCompensada(), 0.0);
+    }
+
+    /**
+     * Devuelve una nueva versión con un producto más al final. Esta versión no cambia.
+     *
+     * @param producto El producto a agregar. No puede ser null.
+     * @return La nueva versión
+     * @throws NullPointerException si producto es null
+     * @throws IllegalStateException si la clase del producto no tiene una regla de impuesto registrada
+     */
+    public FacturaPersistente agregarProducto(Producto producto) {
+        Objects.requireNonNull(producto, "El producto no puede ser null");
+        double impuesto = obtenerImpuesto(producto).calcularImpuesto(producto);
+        SumaCompensada nuevoSubtotal = new SumaCompensada(subtotal);
+        nuevoSubtotal.agregar(producto.getPrecio());
+        double nuevosImpuestos = impuestos + impuesto;
+
+        if (cola.length < ANCHO) {
+            Producto[] nuevaCola = Arrays.copyOf(cola, cola.length + 1);
+            nuevaCola[cola.length] = producto;
+            return new FacturaPersistente(reglasImpuesto, cantidad + 1, desplazamiento, raiz, nuevaCola,
+                nuevoSubtotal, nuevosImpuestos);
+        }
+
+        // La cola está llena: pasa al trie como bloque y se empieza una nueva
+        Object[] nuevaRaiz;
+        int nuevoDesplazamiento = desplazamiento;
+        if ((cantidad >>> BITS) > (1 << desplazamiento)) {
+            nuevaRaiz = new Object[ANCHO];
+            nuevaRaiz[0] = raiz;
+            nuevaRaiz[1] = camino(desplazamiento, cola);
+            nuevoDesplazamiento += BITS;
+        } else {
+            nuevaRaiz = insertarBloque(desplazamiento, raiz, cola);
+        }
+        return new FacturaPersistente(reglasImpuesto, cantidad + 1, nuevoDesplazamiento, nuevaRaiz,
+            new Producto[] {producto}, nuevoSubtotal, nuevosImpuestos);
+    }
+
+    /**
+     * Obtiene el producto de una posición, en O(log n).
+     *
+     * @param indice La posición, desde 0
+     * @return El producto
+     * @throws IndexOutOfBoundsException si la posición está fuera de rango
+     */
+    public Producto getProducto(int indice) {
+        Objects.checkIndex(indice, cantidad);
+        return (Producto) bloque(indice)[indice & MASCARA];
+    }
+
+    /**
+     * Obtiene la cantidad de productos.
+     *
+     * @return La cantidad de productos
+     */
+    public int getCantidadProductos() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene los productos de esta versión como una lista inmodificable.
+     *
+     * <p>La lista es una vista de la versión, no una copia, y no cambia aunque después se
+     * agreguen productos a versiones nuevas.
+     *
+     * @return Los productos, en el orden en que se agregaron
+     */
+    public List<Producto> getProductos() {
+        return new AbstractList<>() {
+            @Override
+            public Producto get(int indice) {
+                return getProducto(indice);
+            }
+
+            @Override
+            public int size() {
+                return cantidad;
+            }
+        };
+    }
+
+    /**
+     * Obtiene la regla de impuesto que esta factura aplica a un producto.
+     *
+     * @param producto El producto cuyo impuesto se quiere obtener. No puede ser null.
+     * @return La regla de impuesto registrada para la clase del producto
+     * @throws NullPointerException si producto es null
+     * @throws IllegalStateException si la clase del producto no tiene una regla de impuesto registrada
+     */
+    public Impuesto obtenerImpuesto(Producto producto) {
+        return ReglasImpuesto.obtener(reglasImpuesto, producto);
+    }
+
+    /**
+     * Obtiene el subtotal (suma de precios sin impuestos), en O(1).
+     *
+     * @return El subtotal de esta versión
+     */
+    public double calcularSubtotal() {
+        return subtotal.getValor();
+    }
+
+    /**
+     * Obtiene el total de impuestos, en O(1).
+     *
+     * @return Los impuestos de esta versión
+     */
+    public double calcularTotalImpuestos() {
+        return impuestos;
+    }
+
+    /**
+     * Obtiene el total (subtotal + impuestos), en O(1).
+     *
+     * @return El total de esta versión
+     */
+    public double calcularTotal() {
+        return subtotal.getValor() + impuestos;
+    }
+
+    /**
+     * Crea una {@link Factura} con los productos de esta versión, por ejemplo para
+     * imprimirla con un {@link InvoicePrinter}.
+     *
+     * @return Una factura nueva con las mismas reglas y los mismos productos
+     */
+    public Factura aFactura() {
+        Factura factura = new Factura(reglasImpuesto);
+        for (int inicio = 0; inicio < cantidad; inicio += ANCHO) {
+            Object[] productos = bloque(inicio);
+            for (int i = 0, n = Math.min(ANCHO, cantidad - inicio); i < n; i++) {
+                factura.agregarProducto((Producto) productos[i]);
+            }
+        }
+        return factura;
+    }
+
+    /**
+     * Representación en cadena de la factura.
+     *
+     * @return Una cadena con la cantidad de productos
+     */
+    @Override
+    public String toString() {
+        return String.format("Factura con %d producto(s)", cantidad);
+    }
+
+    /**
+     * Posición del primer producto de la cola.
+     */
+    private int inicioCola() {
+        return cantidad - cola.length;
+    }
+
+    /**
+     * Obtiene el bloque que contiene una posición válida.
+     */
+    private Object[] bloque(int indice) {
+        if (indice >= inicioCola()) {
+            return cola;
+        }
+        Object[] nodo = raiz;
+        for (int nivel = desplazamiento; nivel > 0; nivel -= BITS) {
+            nodo = (Object[]) nodo[(indice >>> nivel) & MASCARA];
+        }
+        return nodo;
+    }
+
+    /**
+     * Copia el camino hasta la posición del siguiente bloque y cuelga allí el bloque.
+     */
+    private Object[] insertarBloque(int nivel, Object[] padre, Object[] bloque) {
+        int posicion = ((cantidad - 1) >>> nivel) & MASCARA;
+        Object[] copia = padre.clone();
+        if (nivel == BITS) {
+            copia[posicion] = bloque;
+        } else {
+            Object[] hijo = (Object[]) padre[posicion];
+            copia[posicion] = hijo != null ? insertarBloque(nivel - BITS, hijo, bloque) : camino(nivel - BITS, bloque);
+        }
+        return copia;
+    }
+
+    /**
+     * Crea la rama de nodos de un solo hijo que lleva desde un nivel hasta el bloque.
+     */
+    private static Object[] camino(int nivel, Object[] bloque) {
+        if (nivel == 0) {
+            return bloque;
+        }
+        Object[] nodo = new Object[ANCHO];
+        nodo[0] = camino(nivel - BITS, bloque);
+        return nodo;
+    }
+}
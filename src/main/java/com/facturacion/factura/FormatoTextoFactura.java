@@ -0,0 +1,144 @@
+package com.facturacion.factura;
+
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.monitoreo.EventoImpresionFactura;
+import com.facturacion.monitoreo.EventoVaciadoImpresion;
+import java.io.PrintStream;
+
+/**
+ * Formato de texto plano de las facturas, compartido por {@link SimpleInvoicePrinter} y
+ * {@link PaginatedInvoicePrinter}: encabezado, líneas de producto, resumen y los eventos
+ * de JDK Flight Recorder de la impresión.
+ *
+ * <p>Cumple con <strong>Single Responsibility Principle (SRP)</strong>: los printers
+ * deciden qué líneas imprimir y con qué totales; esta clase decide cómo se ven, de modo
+ * que ambos formatos no puedan divergir.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+final class FormatoTextoFactura {
+
+    /**
+     * Separador de las secciones de la factura.
+     */
+    static final String SEPARADOR = "----------------------------------------";
+
+    /**
+     * Borde superior e inferior de la factura.
+     */
+    private static final String BORDE = "========================================";
+
+    private FormatoTextoFactura() {
+    }
+
+    /**
+     * Imprime el encabezado de la factura.
+     *
+     * @param output El stream de salida
+     * @param detalle Una línea adicional bajo el título (ej: el número de página), o null
+     */
+    static void imprimirEncabezado(PrintStream output, String detalle) {
+        output.println(BORDE);
+        output.println("          FACTURA DE VENTA");
+        if (detalle != null) {
+            output.println("          " + detalle);
+        }
+        output.println(BORDE);
+        output.println();
+    }
+
+    /**
+     * Imprime una línea de producto con su impuesto y su subtotal.
+     *
+     * @param output El stream de salida
+     * @param producto El producto
+     * @param impuesto La regla de impuesto del producto, o null si no tiene (se imprime sin
+     *                 impuesto)
+     */
+    static void imprimirLinea(PrintStream output, Producto producto, Impuesto impuesto) {
+        double precioBase = producto.getPrecio();
+        double montoImpuesto = impuesto != null ? impuesto.calcularImpuesto(producto) : 0.0;
+        double precioTotal = precioBase + montoImpuesto;
+
+        output.printf("  %-30s $%10.2f\n", producto.toString(), precioBase);
+        if (impuesto != null) {
+            output.printf("    Impuesto (%.1f%%)              $%10.2f\n",
+                impuesto.getPorcentaje(), montoImpuesto);
+        }
+        output.printf("    Subtotal                         $%10.2f\n", precioTotal);
+        output.println();
+    }
+
+    /**
+     * Imprime el resumen con subtotal, impuestos y total, y el borde final.
+     *
+     * @param output El stream de salida
+     * @param subtotal El subtotal de la factura
+     * @param impuestos El total de impuestos de la factura
+     * @param total El total de la factura
+     */
+    static void imprimirResumen(PrintStream output, double subtotal, double impuestos, double total) {
+        output.printf("SUBTOTAL:                             $%10.2f\n", subtotal);
+        output.printf("TOTAL IMPUESTOS:                      $%10.2f\n", impuestos);
+        output.println(SEPARADOR);
+        output.printf("TOTAL:                                $%10.2f\n", total);
+        output.println(BORDE);
+    }
+
+    /**
+     * Imprime el borde final de una factura que no lleva resumen.
+     *
+     * @param output El stream de salida
+     */
+    static void imprimirCierre(PrintStream output) {
+        output.println(BORDE);
+    }
+
+    /**
+     * Crea el evento de formato y empieza a medirlo.
+     *
+     * @return El evento iniciado
+     */
+    static EventoImpresionFactura iniciarImpresion() {
+        EventoImpresionFactura impresion = new EventoImpresionFactura();
+        impresion.begin();
+        return impresion;
+    }
+
+    /**
+     * Termina de medir el formato y lo registra si supera el umbral configurado.
+     *
+     * @param impresion El evento devuelto por {@link #iniciarImpresion()}
+     * @param printer El printer que formateó la factura
+     * @param lineas Cantidad de productos impresos
+     */
+    static void registrarImpresion(EventoImpresionFactura impresion, InvoicePrinter printer, int lineas) {
+        impresion.end();
+        if (impresion.shouldCommit()) {
+            impresion.printer = printer.getClass().getSimpleName();
+            impresion.lineas = lineas;
+            impresion.commit();
+        }
+    }
+
+    /**
+     * Vacía la salida midiendo el vaciado con {@link EventoVaciadoImpresion}. La cantidad
+     * de caracteres no se conoce al escribir directo en el stream y se registra como -1.
+     *
+     * @param output El stream de salida
+     * @param printer El printer que escribió la factura
+     */
+    static void vaciar(PrintStream output, InvoicePrinter printer) {
+        EventoVaciadoImpresion vaciado = new EventoVaciadoImpresion();
+        vaciado.begin();
+        output.flush();
+        vaciado.end();
+        if (vaciado.shouldCommit()) {
+            vaciado.printer = printer.getClass().getSimpleName();
+            vaciado.caracteres = -1;
+            vaciado.commit();
+        }
+    }
+}
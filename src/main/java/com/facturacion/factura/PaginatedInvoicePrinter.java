@@ -0,0 +1,258 @@
+package com.facturacion.factura;
+
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.monitoreo.EventoImpresionFactura;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Implementación de InvoicePrinter que imprime la factura en páginas de un número fijo de
+ * líneas, con el total acumulado que viene de la página anterior ("VAN") y el que pasa a
+ * la siguiente ("PASAN").
+ *
+ * <p>{@link #imprimirPagina(Factura, Map, int)} imprime una sola página en tiempo
+ * proporcional a su tamaño y no al de la factura. Para eso guarda, por factura, un índice
+ * disperso con el subtotal y los impuestos acumulados al comienzo de cada página: como los
+ * productos de la factura se acceden por posición, la primera línea de la página se ubica
+ * directamente y el arrastre se lee del índice. El índice se arma recorriendo la factura
+ * una vez; si después se agregan productos solo se extiende con los nuevos, y se rehace si
+ * la factura se limpió o si se imprime con otro mapa de reglas. Las facturas se guardan
+ * con referencias débiles, de modo que el índice no las mantiene vivas.
+ *
+ * <p>Las líneas, los totales acumulados y el resumen usan las mismas reglas: las recibidas
+ * al imprimir, por lo que las líneas de cada página siempre suman lo que pasa a la
+ * siguiente. Un producto sin regla en ese mapa hace fallar la impresión antes de escribir
+ * nada. Los totales suman en el mismo orden y de la misma forma (el subtotal, con
+ * {@link SumaCompensada}) que {@link Factura#calcularSubtotal()} y
+ * {@link Factura#calcularTotalImpuestos()}, por lo que, con las reglas de la propia
+ * factura, coinciden exactamente con ellos. El formato de texto es el de
+ * {@link FormatoTextoFactura}, el mismo de {@link SimpleInvoicePrinter}.
+ *
+ * <p>Cumple con <strong>Liskov Substitution Principle (LSP)</strong>: como
+ * {@link InvoicePrinter}, {@link #imprimir(Factura, Map)} imprime todas las páginas.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class PaginatedInvoicePrinter implements InvoicePrinter {
+
+    /**
+     * Stream de salida donde se imprimirán las páginas.
+     */
+    private final PrintStream output;
+
+    /**
+     * Cantidad de productos por página.
+     */
+    private final int lineasPorPagina;
+
+    /**
+     * Índice de páginas de cada factura impresa. Protegido por su propio monitor.
+     */
+    private final Map<Factura, IndicePaginas> indices = new WeakHashMap<>();
+
+    /**
+     * Constructor que inicializa el printer con una salida y el tamaño de página.
+     *
+     * @param output El stream de salida. No puede ser null.
+     * @param lineasPorPagina Cantidad de productos por página. Debe ser > 0.
+     * @throws NullPointerException si output es null
+     * @throws IllegalArgumentException si lineasPorPagina no es positivo
+     */
+    public PaginatedInvoicePrinter(PrintStream output, int lineasPorPagina) {
+        this.output = Objects.requireNonNull(output, "El stream de salida no puede ser null");
+        if (lineasPorPagina <= 0) {
+            throw new IllegalArgumentException("Las líneas por página deben ser positivas: " + lineasPorPagina);
+        }
+        this.lineasPorPagina = lineasPorPagina;
+    }
+
+    /**
+     * Imprime todas las páginas de la factura, en orden.
+     *
+     * @param factura La factura a imprimir. No puede ser null.
+     * @param reglasImpuesto Mapa de reglas de impuesto de las líneas y los totales. No puede ser null.
+     * @throws NullPointerException si factura o reglasImpuesto son null
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto en el mapa
+     */
+    @Override
+    public void imprimir(Factura factura, Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        for (int pagina = 1, paginas = getPaginas(factura); pagina <= paginas; pagina++) {
+            imprimirPagina(factura, reglasImpuesto, pagina);
+        }
+    }
+
+    /**
+     * Imprime una página de la factura, con el total que viene de las anteriores.
+     *
+     * @param factura La factura a imprimir. No puede ser null.
+     * @param reglasImpuesto Mapa de reglas de impuesto de las líneas y los totales. No puede ser null.
+     * @param pagina El número de página, desde 1
+     * @throws NullPointerException si factura o reglasImpuesto son null
+     * @throws IllegalArgumentException si la página no existe
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto en el mapa
+     */
+    public void imprimirPagina(Factura factura, Map<Class<? extends Producto>, Impuesto> reglasImpuesto, int pagina) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        Objects.requireNonNull(reglasImpuesto, "Las reglas de impuesto no pueden ser null");
+
+        int lineas = factura.getCantidadProductos();
+        int paginas = paginas(lineas);
+        if (pagina < 1 || pagina > paginas) {
+            throw new IllegalArgumentException(String.format("La página %d no existe; la factura tiene %d", pagina, paginas));
+        }
+        int inicio = (pagina - 1) * lineasPorPagina;
+        int fin = (int) Math.min(lineas, (long) inicio + lineasPorPagina);
+        double subtotalVan;
+        double impuestosVan;
+        double subtotalPasan;
+        double impuestosPasan;
+        synchronized (indices) {
+            IndicePaginas indice = indice(factura, reglasImpuesto);
+            subtotalVan = indice.subtotales[pagina - 1];
+            impuestosVan = indice.impuestos[pagina - 1];
+            subtotalPasan = pagina < paginas ? indice.subtotales[pagina] : indice.subtotal.getValor();
+            impuestosPasan = pagina < paginas ? indice.impuestos[pagina] : indice.totalImpuestos;
+        }
+
+        EventoImpresionFactura impresion = FormatoTextoFactura.iniciarImpresion();
+        FormatoTextoFactura.imprimirEncabezado(output, String.format("Página %d de %d", pagina, paginas));
+
+        output.printf("PRODUCTOS (%d a %d de %d):\n", Math.min(inicio + 1, fin), fin, lineas);
+        output.println(FormatoTextoFactura.SEPARADOR);
+        if (pagina > 1) {
+            output.printf("VAN:                                  $%10.2f\n", subtotalVan + impuestosVan);
+            output.println();
+        }
+
+        for (int i = inicio; i < fin; i++) {
+            Producto producto = factura.getProducto(i);
+            FormatoTextoFactura.imprimirLinea(output, producto, ReglasImpuesto.obtener(reglasImpuesto, producto));
+        }
+
+        output.println(FormatoTextoFactura.SEPARADOR);
+        if (pagina < paginas) {
+            output.printf("PASAN:                                $%10.2f\n", subtotalPasan + impuestosPasan);
+            FormatoTextoFactura.imprimirCierre(output);
+        } else {
+            FormatoTextoFactura.imprimirResumen(output, subtotalPasan, impuestosPasan, subtotalPasan + impuestosPasan);
+        }
+        FormatoTextoFactura.registrarImpresion(impresion, this, fin - inicio);
+        FormatoTextoFactura.vaciar(output, this);
+    }
+
+    /**
+     * Obtiene la cantidad de páginas de una factura. Una factura sin productos tiene una
+     * página, con el resumen en cero.
+     *
+     * @param factura La factura. No puede ser null.
+     * @return La cantidad de páginas
+     * @throws NullPointerException si factura es null
+     */
+    public int getPaginas(Factura factura) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        return paginas(factura.getCantidadProductos());
+    }
+
+    /**
+     * Obtiene la cantidad de productos por página.
+     *
+     * @return Las líneas por página
+     */
+    public int getLineasPorPagina() {
+        return lineasPorPagina;
+    }
+
+    private int paginas(int lineas) {
+        return Math.max(1, (int) ((lineas + (long) lineasPorPagina - 1) / lineasPorPagina));
+    }
+
+    /**
+     * Obtiene el índice de la factura al día con sus productos y calculado con las reglas
+     * indicadas. Debe llamarse con el monitor de {@link #indices}.
+     */
+    private IndicePaginas indice(Factura factura, Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        IndicePaginas indice = indices.get(factura);
+        if (indice == null || indice.reinicios != factura.getReinicios()
+                || indice.reglasImpuesto != reglasImpuesto
+                || indice.lineas > factura.getCantidadProductos()) {
+            indice = new IndicePaginas(factura.getReinicios(), reglasImpuesto);
+            indices.put(factura, indice);
+        }
+        indice.extender(factura, lineasPorPagina);
+        return indice;
+    }
+
+    /**
+     * Subtotal e impuestos acumulados al comienzo de cada página de una factura.
+     */
+    private static final class IndicePaginas {
+
+        /**
+         * Valor del contador de {@link Factura#limpiar()} cuando se armó el índice.
+         */
+        private final int reinicios;
+
+        /**
+         * Reglas de impuesto con las que se calcularon los acumulados.
+         */
+        private final Map<Class<? extends Producto>, Impuesto> reglasImpuesto;
+
+        /**
+         * Subtotal de las líneas anteriores a cada página.
+         */
+        private double[] subtotales = new double[1];
+
+        /**
+         * Impuestos de las líneas anteriores a cada página.
+         */
+        private double[] impuestos = new double[1];
+
+        /**
+         * Cantidad de líneas incluidas en el índice.
+         */
+        private int lineas;
+
+        /**
+         * Subtotal de las líneas incluidas.
+         */
+        private final SumaCompensada subtotal = new SumaCompensada();
+
+        /**
+         * Impuestos de las líneas incluidas.
+         */
+        private double totalImpuestos;
+
+        private IndicePaginas(int reinicios, Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+            this.reinicios = reinicios;
+            this.reglasImpuesto = reglasImpuesto;
+        }
+
+        /**
+         * Agrega al índice los productos de la factura que todavía no incluye.
+         */
+        private void extender(Factura factura, int lineasPorPagina) {
+            for (int n = factura.getCantidadProductos(); lineas < n; lineas++) {
+                if (lineas % lineasPorPagina == 0) {
+                    int pagina = lineas / lineasPorPagina;
+                    if (pagina == subtotales.length) {
+                        subtotales = Arrays.copyOf(subtotales, pagina * 2);
+                        impuestos = Arrays.copyOf(impuestos, pagina * 2);
+                    }
+                    subtotales[pagina] = subtotal.getValor();
+                    impuestos[pagina] = totalImpuestos;
+                }
+                Producto producto = factura.getProducto(lineas);
+                double impuesto = ReglasImpuesto.obtener(reglasImpuesto, producto).calcularImpuesto(producto);
+                subtotal.agregar(producto.getPrecio());
+                totalImpuestos += impuesto;
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.facturacion.factura;
+
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool por hilo de facturas y buffers de impresión reutilizables.
+ *
+ * <p>Está pensado para el procesamiento de muchas ventas por segundo, donde crear una
+ * {@link Factura} (y su lista) por venta solo genera trabajo para el recolector de
+ * basura. Cada hilo tiene su propia reserva de facturas libres, así que obtener y
+ * devolver no requiere sincronización; una factura devuelta desde otro hilo pasa a la
+ * reserva de ese hilo.
+ *
+ * <p>Las estadísticas ({@link #getEstadisticasFacturas()} y
+ * {@link #getEstadisticasBuffers()}) cuentan aciertos, fallos y descartes de todos los
+ * hilos: una tasa de aciertos baja con muchos descartes indica que la capacidad por hilo
+ * es insuficiente.
+ *
+ * <p>Cumple con <strong>Single Responsibility Principle (SRP)</strong>: el ciclo de vida
+ * de los objetos reutilizables queda aquí, y {@link Factura} solo expone
+ * {@link Factura#limpiar()}.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class PoolFacturas {
+
+    /**
+     * Capacidad por hilo cuando no se indica otra.
+     */
+    public static final int CAPACIDAD_POR_DEFECTO = 64;
+
+    /**
+     * Capacidad inicial de los buffers de impresión, en caracteres.
+     */
+    static final int CAPACIDAD_INICIAL_BUFFER = 2048;
+
+    /**
+     * Capacidad a partir de la cual un buffer no se reutiliza, para que una factura muy
+     * grande no deje retenida esa memoria en el hilo.
+     */
+    static final int CAPACIDAD_MAXIMA_BUFFER = 256 * 1024;
+
+    /**
+     * Reglas de impuesto de las facturas del pool.
+     */
+    private final Map<Class<? extends Producto>, Impuesto> reglasImpuesto;
+
+    /**
+     * Cantidad máxima de facturas libres que guarda cada hilo.
+     */
+    private final int capacidadPorHilo;
+
+    /**
+     * Facturas libres de cada hilo.
+     */
+    private final ThreadLocal<ArrayDeque<Factura>> libres = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Buffer de impresión de cada hilo.
+     */
+    private final ThreadLocal<StringBuilder> buffers = new ThreadLocal<>();
+
+    /**
+     * Facturas entregadas reutilizadas.
+     */
+    private final LongAdder aciertosFacturas = new LongAdder();
+
+    /**
+     * Facturas creadas por no haber libres.
+     */
+    private final LongAdder fallosFacturas = new LongAdder();
+
+    /**
+     * Facturas devueltas con la reserva llena.
+     */
+    private final LongAdder descartesFacturas = new LongAdder();
+
+    /**
+     * Buffers entregados reutilizados.
+     */
+    private final LongAdder aciertosBuffers = new LongAdder();
+
+    /**
+     * Buffers creados por no haber uno reutilizable.
+     */
+    private final LongAdder fallosBuffers = new LongAdder();
+
+    /**
+     * Buffers descartados por superar la capacidad máxima.
+     */
+    private final LongAdder descartesBuffers = new LongAdder();
+
+    /**
+     * Constructor que crea un pool con la capacidad por defecto.
+     *
+     * @param reglasImpuesto Las reglas de impuesto de las facturas. No puede ser null.
+     * @throws NullPointerException si reglasImpuesto es null
+     */
+    public PoolFacturas(Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        this(reglasImpuesto, CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor que crea un pool con una capacidad por hilo.
+     *
+     * @param reglasImpuesto Las reglas de impuesto de las facturas. No puede ser null.
+     * @param capacidadPorHilo Cantidad máxima de facturas libres por hilo. Debe ser >= 0;
+     *                         con 0 no se reutilizan facturas.
+     * @throws NullPointerException si reglasImpuesto es null
+     * @throws IllegalArgumentException si capacidadPorHilo es negativa
+     */
+    public PoolFacturas(Map<Class<? extends Producto>, Impuesto> reglasImpuesto, int capacidadPorHilo) {
+        this.reglasImpuesto = Objects.requireNonNull(reglasImpuesto, "Las reglas de impuesto no pueden ser null");
+        if (capacidadPorHilo < 0) {
+            throw new IllegalArgumentException("La capacidad del pool no puede ser negativa: " + capacidadPorHilo);
+        }
+        this.capacidadPorHilo = capacidadPorHilo;
+    }
+
+    /**
+     * Obtiene una factura vacía, reutilizada si el hilo tiene alguna libre.
+     *
+     * @return Una factura sin productos con las reglas de impuesto del pool
+     */
+    public Factura obtener() {
+        Factura factura = libres.get().pollLast();
+        if (factura != null) {
+            aciertosFacturas.increment();
+            return factura;
+        }
+        fallosFacturas.increment();
+        return new Factura(reglasImpuesto);
+    }
+
+    /**
+     * Devuelve una factura al pool del hilo actual, vaciándola.
+     *
+     * <p>La factura no debe seguir usándose después de devolverla.
+     *
+     * @param factura La factura a devolver. No puede ser null.
+     * @throws NullPointerException si factura es null
+     * @throws IllegalArgumentException si la factura tiene otras reglas de impuesto
+     */
+    public void devolver(Factura factura) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        if (!factura.usaReglas(reglasImpuesto)) {
+            throw new IllegalArgumentException("La factura no pertenece a este pool: tiene otras reglas de impuesto");
+        }
+        factura.limpiar();
+        ArrayDeque<Factura> reserva = libres.get();
+        if (reserva.size() < capacidadPorHilo) {
+            reserva.addLast(factura);
+        } else {
+            descartesFacturas.increment();
+        }
+    }
+
+    /**
+     * Obtiene el buffer de impresión del hilo actual, vacío.
+     *
+     * <p>El buffer pertenece al hilo: debe terminar de usarse antes de volver a pedirlo.
+     *
+     * @return Un buffer vacío
+     */
+    public StringBuilder obtenerBuffer() {
+        StringBuilder buffer = buffers.get();
+        if (buffer != null && buffer.capacity() <= CAPACIDAD_MAXIMA_BUFFER) {
+            aciertosBuffers.increment();
+            buffer.setLength(0);
+            return buffer;
+        }
+        if (buffer != null) {
+            descartesBuffers.increment();
+        }
+        fallosBuffers.increment();
+        buffer = new StringBuilder(CAPACIDAD_INICIAL_BUFFER);
+        buffers.set(buffer);
+        return buffer;
+    }
+
+    /**
+     * Obtiene la cantidad de facturas libres que guarda el hilo actual.
+     *
+     * @return La cantidad de facturas libres
+     */
+    public int getLibresEnHilo() {
+        return libres.get().size();
+    }
+
+    /**
+     * Obtiene las estadísticas de reutilización de facturas de todos los hilos.
+     *
+     * @return Las estadísticas de facturas
+     */
+    public EstadisticasPool getEstadisticasFacturas() {
+        return new EstadisticasPool(aciertosFacturas.sum(), fallosFacturas.sum(), descartesFacturas.sum());
+    }
+
+    /**
+     * Obtiene las estadísticas de reutilización de buffers de todos los hilos.
+     *
+     * @return Las estadísticas de buffers
+     */
+    public EstadisticasPool getEstadisticasBuffers() {
+        return new EstadisticasPool(aciertosBuffers.sum(), fallosBuffers.sum(), descartesBuffers.sum());
+    }
+}
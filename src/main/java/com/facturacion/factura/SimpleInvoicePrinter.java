@@ -2,6 +2,8 @@ package com.facturacion.factura;
 
 import com.facturacion.impuesto.Impuesto;
 import com.facturacion.model.Producto;
+import com.facturacion.monitoreo.EventoImpresionFactura;
+import com.facturacion.monitoreo.EventoReglaNoEncontrada;
 import java.io.PrintStream;
 import java.util.Map;
 import java.util.Objects;
@@ -17,6 +19,10 @@ import java.util.Objects;
  * <strong>Open/Closed Principle (OCP)</strong> al permitir agregar nuevas implementaciones
  * de InvoicePrinter sin modificar esta clase.
  * 
+ * <p>El formato de texto es el de {@link FormatoTextoFactura}. El formato y el vaciado de
+ * la salida emiten los eventos de JDK Flight Recorder {@link EventoImpresionFactura} y
+ * {@link com.facturacion.monitoreo.EventoVaciadoImpresion}.
+ * 
  * @author Sistema de Facturación SOLID
  * @version 1.0
  */
@@ -59,39 +65,28 @@ public class SimpleInvoicePrinter implements InvoicePrinter {
         Objects.requireNonNull(factura, "La factura no puede ser null");
         Objects.requireNonNull(reglasImpuesto, "Las reglas de impuesto no pueden ser null");
         
-        output.println("========================================");
-        output.println("          FACTURA DE VENTA");
-        output.println("========================================");
-        output.println();
+        EventoImpresionFactura impresion = FormatoTextoFactura.iniciarImpresion();
+        FormatoTextoFactura.imprimirEncabezado(output, null);
         
         // Imprimir productos
         output.println("PRODUCTOS:");
-        output.println("----------------------------------------");
+        output.println(FormatoTextoFactura.SEPARADOR);
         
-        for (Producto producto : factura.getProductos()) {
-            Class<? extends Producto> claseProducto = producto.getClass();
-            Impuesto impuesto = reglasImpuesto.get(claseProducto);
-            
-            double precioBase = producto.getPrecio();
-            double montoImpuesto = impuesto != null ? impuesto.calcularImpuesto(producto) : 0.0;
-            double precioTotal = precioBase + montoImpuesto;
-            
-            output.printf("  %-30s $%10.2f\n", producto.toString(), precioBase);
-            if (impuesto != null) {
-                output.printf("    Impuesto (%.1f%%)              $%10.2f\n", 
-                    impuesto.getPorcentaje(), montoImpuesto);
+        for (int i = 0, n = factura.getCantidadProductos(); i < n; i++) {
+            Producto producto = factura.getProducto(i);
+            Impuesto impuesto = reglasImpuesto.get(producto.getClass());
+            if (impuesto == null) {
+                EventoReglaNoEncontrada.registrar(producto);
             }
-            output.printf("    Subtotal                         $%10.2f\n", precioTotal);
-            output.println();
+            FormatoTextoFactura.imprimirLinea(output, producto, impuesto);
         }
         
         // Imprimir resumen
-        output.println("----------------------------------------");
-        output.printf("SUBTOTAL:                             $%10.2f\n", factura.calcularSubtotal());
-        output.printf("TOTAL IMPUESTOS:                      $%10.2f\n", factura.calcularTotalImpuestos());
-        output.println("----------------------------------------");
-        output.printf("TOTAL:                                $%10.2f\n", factura.calcularTotal());
-        output.println("========================================");
+        output.println(FormatoTextoFactura.SEPARADOR);
+        FormatoTextoFactura.imprimirResumen(output, factura.calcularSubtotal(),
+            factura.calcularTotalImpuestos(), factura.calcularTotal());
+        FormatoTextoFactura.registrarImpresion(impresion, this, factura.getCantidadProductos());
+        FormatoTextoFactura.vaciar(output, this);
     }
 }
 
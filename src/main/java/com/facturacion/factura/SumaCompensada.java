@@ -0,0 +1,102 @@
+package com.facturacion.factura;
+
+import com.facturacion.model.Producto;
+import java.util.List;
+
+/**
+ * Suma compensada (Kahan) de precios, con el mismo resultado que
+ * {@link java.util.stream.DoubleStream#sum()} sobre los mismos valores en el mismo orden.
+ *
+ * <p>Es la suma que usa {@link Factura#calcularSubtotal()}. Quienes necesitan el mismo
+ * subtotal sin pasar por una {@link Factura} (totales acumulados, cestas en lote) usan
+ * {@link #sumarPrecios(List)} o acumulan con una instancia, que no asigna memoria por valor
+ * agregado. Al igual que {@code DoubleStream}, si la suma compensada resulta NaN por
+ * acumular infinitos del mismo signo, devuelve el infinito de la suma simple.
+ *
+ * <p>No es segura para uso concurrente; cada hilo acumula en su propia instancia.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class SumaCompensada {
+
+    /**
+     * Suma de los valores agregados, sin el error de redondeo acumulado.
+     */
+    private double suma;
+
+    /**
+     * Error de redondeo acumulado, con el signo cambiado.
+     */
+    private double compensacion;
+
+    /**
+     * Suma simple de los valores, para el caso de infinitos.
+     */
+    private double sumaSimple;
+
+    /**
+     * Constructor que crea una suma en cero.
+     */
+    public SumaCompensada() {
+    }
+
+    /**
+     * Constructor que copia el estado de otra suma, para seguir acumulando sin modificarla.
+     *
+     * @param otra La suma a copiar. No puede ser null.
+     */
+    public SumaCompensada(SumaCompensada otra) {
+        this.suma = otra.suma;
+        this.compensacion = otra.compensacion;
+        this.sumaSimple = otra.sumaSimple;
+    }
+
+    /**
+     * Suma los precios de una lista de productos, sin asignar memoria.
+     *
+     * @param productos Los productos. No puede ser null.
+     * @return La suma compensada de sus precios, en el orden de la lista
+     */
+    public static double sumarPrecios(List<? extends Producto> productos) {
+        double suma = 0.0;
+        double compensacion = 0.0;
+        double sumaSimple = 0.0;
+        for (int i = 0, n = productos.size(); i < n; i++) {
+            double precio = productos.get(i).getPrecio();
+            double corregido = precio - compensacion;
+            double nueva = suma + corregido;
+            compensacion = (nueva - suma) - corregido;
+            suma = nueva;
+            sumaSimple += precio;
+        }
+        return resultado(suma, compensacion, sumaSimple);
+    }
+
+    /**
+     * Agrega un valor a la suma.
+     *
+     * @param valor El valor a agregar
+     */
+    public void agregar(double valor) {
+        double corregido = valor - compensacion;
+        double nueva = suma + corregido;
+        compensacion = (nueva - suma) - corregido;
+        suma = nueva;
+        sumaSimple += valor;
+    }
+
+    /**
+     * Obtiene la suma de los valores agregados hasta el momento.
+     *
+     * @return La suma compensada
+     */
+    public double getValor() {
+        return resultado(suma, compensacion, sumaSimple);
+    }
+
+    private static double resultado(double suma, double compensacion, double sumaSimple) {
+        double valor = suma - compensacion;
+        return Double.isNaN(valor) && Double.isInfinite(sumaSimple) ? sumaSimple : valor;
+    }
+}
@@ -0,0 +1,16 @@
+package com.facturacion.impuesto;
+
+/**
+ * Resultado de descomponer un monto con impuesto incluido en su base y su impuesto.
+ *
+ * <p>Ambos montos están redondeados al centavo y suman exactamente, en centavos, el monto
+ * con impuesto original.
+ *
+ * @param base El precio sin impuesto
+ * @param impuesto El impuesto incluido en el monto
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record DesgloseImpuesto(double base, double impuesto) {
+}
@@ -0,0 +1,241 @@
+package com.facturacion.impuesto;
+
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cálculo inverso de impuestos: obtiene precio base e impuesto a partir de montos con el
+ * impuesto incluido, uno a uno o por columnas completas de precios.
+ *
+ * <p>Los proveedores envían listas de precios con IVA incluido, mientras que
+ * {@link Producto} guarda el precio base. Para un impuesto proporcional de porcentaje
+ * {@code p}, la base es {@code bruto / (1 + p / 100)}; aquí se calcula con aritmética
+ * entera en centavos, con el porcentaje expresado en centésimas de punto (19 % = 1900):
+ * la base se redondea al centavo más cercano (las mitades hacia arriba) y el impuesto es
+ * la diferencia, de modo que base + impuesto es exactamente el monto bruto. El resultado
+ * no depende de errores de representación de {@code double}.
+ *
+ * <p>Las operaciones por columnas ({@link #desglosar(Impuesto, long[], long[], long[], int)}
+ * y sus variantes) recorren arreglos primitivos sin crear objetos por fila, para importar
+ * listas de millones de precios. Una instancia compilada con {@link #compilar(Map)}
+ * resuelve el porcentaje de cada categoría una sola vez y la usan el lector de facturas
+ * por lotes y la carga del catálogo cuando sus precios incluyen impuestos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class DesgloseImpuestos {
+
+    /**
+     * Mayor monto bruto admitido, en centavos, para que el cálculo no desborde un long.
+     */
+    public static final long MAX_CENTAVOS = Long.MAX_VALUE / 40_000;
+
+    /**
+     * Centésimas de punto porcentual en el 100 %.
+     */
+    private static final int CIEN_POR_CIENTO = 10_000;
+
+    /**
+     * Porcentaje de cada categoría en centésimas de punto, indexado por código de
+     * categoría; -1 si la categoría no tiene regla.
+     */
+    private final int[] puntosPorCategoria = new int[CategoriaProducto.values().length + 1];
+
+    private DesgloseImpuestos(Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            Impuesto impuesto = reglasImpuesto.get(categoria.getClaseProducto());
+            puntosPorCategoria[categoria.getCodigo()] = impuesto == null ? -1 : puntos(impuesto.getPorcentaje());
+        }
+    }
+
+    /**
+     * Compila las reglas de impuesto de las categorías conocidas.
+     *
+     * @param reglasImpuesto Las reglas por clase de producto. No puede ser null.
+     * @return El desglose compilado
+     * @throws NullPointerException si reglasImpuesto es null
+     * @throws IllegalArgumentException si algún porcentaje no es múltiplo de 0,01 o es negativo
+     */
+    public static DesgloseImpuestos compilar(Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        return new DesgloseImpuestos(Objects.requireNonNull(reglasImpuesto,
+            "Las reglas de impuesto no pueden ser null"));
+    }
+
+    /**
+     * Obtiene el precio base de un monto con impuesto incluido, según la regla de una categoría.
+     *
+     * @param categoria La categoría del producto. No puede ser null.
+     * @param montoConImpuesto El monto con impuesto incluido, con a lo sumo dos decimales
+     * @return El precio base redondeado al centavo
+     * @throws NullPointerException si categoria es null
+     * @throws IllegalArgumentException si el monto es negativo o tiene más de dos decimales
+     * @throws IllegalStateException si la categoría no tiene una regla de impuesto registrada
+     */
+    public double base(CategoriaProducto categoria, double montoConImpuesto) {
+        int puntos = puntosPorCategoria[Objects.requireNonNull(categoria, "La categoría no puede ser null").getCodigo()];
+        if (puntos < 0) {
+            throw ReglasImpuesto.sinRegla(categoria.getClaseProducto());
+        }
+        return baseCentavos(aCentavos(montoConImpuesto), puntos) / 100.0;
+    }
+
+    /**
+     * Descompone una columna de montos con impuesto de productos de distintas categorías.
+     *
+     * <p>Para cada fila, {@code bases[i] + impuestos[i] == brutos[i]}. Los arreglos de
+     * destino pueden ser el mismo arreglo de origen.
+     *
+     * @param codigosCategoria El código de categoría de cada fila
+     * @param brutos Los montos con impuesto, en centavos
+     * @param bases Destino de los precios base, en centavos
+     * @param impuestos Destino de los impuestos, en centavos
+     * @param cantidad Cantidad de filas a procesar
+     * @throws IllegalArgumentException si algún monto está fuera de rango o algún código no es válido
+     * @throws IllegalStateException si alguna categoría no tiene una regla de impuesto registrada
+     */
+    public void desglosar(byte[] codigosCategoria, long[] brutos, long[] bases, long[] impuestos, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            int codigo = codigosCategoria[i];
+            if (codigo < 1 || codigo >= puntosPorCategoria.length) {
+                throw new IllegalArgumentException("Código de categoría no válido en la fila " + i + ": " + codigo);
+            }
+            int puntos = puntosPorCategoria[codigo];
+            if (puntos < 0) {
+                throw ReglasImpuesto.sinRegla(CategoriaProducto.porCodigo(codigo).getClaseProducto());
+            }
+            long bruto = validar(brutos[i]);
+            long base = baseCentavos(bruto, puntos);
+            bases[i] = base;
+            impuestos[i] = bruto - base;
+        }
+    }
+
+    /**
+     * Descompone una columna de montos con impuesto, en centavos, sujetos a una misma regla.
+     *
+     * <p>Para cada fila, {@code bases[i] + impuestos[i] == brutos[i]}. Los arreglos de
+     * destino pueden ser el mismo arreglo de origen.
+     *
+     * @param impuesto La regla de impuesto. No puede ser null.
+     * @param brutos Los montos con impuesto, en centavos
+     * @param bases Destino de los precios base, en centavos
+     * @param impuestos Destino de los impuestos, en centavos
+     * @param cantidad Cantidad de filas a procesar
+     * @throws NullPointerException si impuesto es null
+     * @throws IllegalArgumentException si algún monto es negativo o mayor que {@link #MAX_CENTAVOS},
+     *                                  o el porcentaje no es múltiplo de 0,01
+     */
+    public static void desglosar(Impuesto impuesto, long[] brutos, long[] bases, long[] impuestos, int cantidad) {
+        int puntos = puntos(Objects.requireNonNull(impuesto, "El impuesto no puede ser null").getPorcentaje());
+        for (int i = 0; i < cantidad; i++) {
+            long bruto = validar(brutos[i]);
+            long base = baseCentavos(bruto, puntos);
+            bases[i] = base;
+            impuestos[i] = bruto - base;
+        }
+    }
+
+    /**
+     * Descompone una columna de montos con impuesto, expresados en unidades de la moneda.
+     *
+     * <p>Cada monto se convierte a centavos y se descompone como en
+     * {@link #desglosar(Impuesto, long[], long[], long[], int)}; los resultados se devuelven
+     * como {@code double} redondeados al centavo.
+     *
+     * @param impuesto La regla de impuesto. No puede ser null.
+     * @param brutos Los montos con impuesto, con a lo sumo dos decimales
+     * @param bases Destino de los precios base
+     * @param impuestos Destino de los impuestos
+     * @param cantidad Cantidad de filas a procesar
+     * @throws NullPointerException si impuesto es null
+     * @throws IllegalArgumentException si algún monto es negativo o tiene más de dos decimales
+     */
+    public static void desglosar(Impuesto impuesto, double[] brutos, double[] bases, double[] impuestos, int cantidad) {
+        int puntos = puntos(Objects.requireNonNull(impuesto, "El impuesto no puede ser null").getPorcentaje());
+        for (int i = 0; i < cantidad; i++) {
+            long bruto = aCentavos(brutos[i]);
+            long base = baseCentavos(bruto, puntos);
+            bases[i] = base / 100.0;
+            impuestos[i] = (bruto - base) / 100.0;
+        }
+    }
+
+    /**
+     * Descompone un monto con impuesto incluido según un porcentaje.
+     *
+     * @param porcentaje El porcentaje del impuesto (19.0 para 19 %)
+     * @param montoConImpuesto El monto con impuesto, con a lo sumo dos decimales
+     * @return La base y el impuesto
+     * @throws IllegalArgumentException si el monto es negativo o tiene más de dos decimales,
+     *                                  o el porcentaje no es múltiplo de 0,01
+     */
+    static DesgloseImpuesto desglosar(double porcentaje, double montoConImpuesto) {
+        long bruto = aCentavos(montoConImpuesto);
+        long base = baseCentavos(bruto, puntos(porcentaje));
+        return new DesgloseImpuesto(base / 100.0, (bruto - base) / 100.0);
+    }
+
+    /**
+     * Calcula la base de un monto bruto en centavos, redondeada al centavo más cercano
+     * (las mitades hacia arriba).
+     *
+     * @param brutoCentavos El monto bruto en centavos, entre 0 y {@link #MAX_CENTAVOS}
+     * @param puntos El porcentaje en centésimas de punto
+     * @return La base en centavos
+     */
+    static long baseCentavos(long brutoCentavos, int puntos) {
+        long divisor = CIEN_POR_CIENTO + puntos;
+        return (brutoCentavos * (2 * CIEN_POR_CIENTO) + divisor) / (2 * divisor);
+    }
+
+    /**
+     * Convierte un porcentaje a centésimas de punto.
+     *
+     * @param porcentaje El porcentaje
+     * @return El porcentaje en centésimas de punto
+     * @throws IllegalArgumentException si el porcentaje es negativo, demasiado grande o no
+     *                                  es múltiplo de 0,01
+     */
+    static int puntos(double porcentaje) {
+        long puntos = Math.round(porcentaje * 100);
+        if (!(porcentaje >= 0) || puntos > CIEN_POR_CIENTO * 10L || puntos / 100.0 != porcentaje) {
+            throw new IllegalArgumentException(
+                "El porcentaje " + porcentaje + " no se puede invertir de forma exacta");
+        }
+        return (int) puntos;
+    }
+
+    /**
+     * Convierte un monto a centavos, exigiendo que no tenga más de dos decimales.
+     *
+     * @param monto El monto
+     * @return El monto en centavos
+     * @throws IllegalArgumentException si el monto es negativo, está fuera de rango o tiene
+     *                                  más de dos decimales
+     */
+    private static long aCentavos(double monto) {
+        long centavos = Math.round(monto * 100);
+        if (centavos / 100.0 != monto) {
+            throw new IllegalArgumentException(
+                "El monto " + monto + " no se puede desglosar de forma exacta: tiene más de dos decimales");
+        }
+        return validar(centavos);
+    }
+
+    /**
+     * Verifica que un monto en centavos esté dentro del rango admitido.
+     *
+     * @param centavos El monto en centavos
+     * @return El mismo monto
+     * @throws IllegalArgumentException si el monto es negativo o mayor que {@link #MAX_CENTAVOS}
+     */
+    private static long validar(long centavos) {
+        if (centavos < 0 || centavos > MAX_CENTAVOS) {
+            throw new IllegalArgumentException("Monto con impuesto fuera de rango: " + centavos + " centavos");
+        }
+        return centavos;
+    }
+}
@@ -34,5 +34,24 @@ public interface Impuesto {
      * @return El porcentaje de impuesto (ej: 19.0 para 19%)
      */
     double getPorcentaje();
+    
+    /**
+     * Descompone un monto con el impuesto incluido en su precio base y su impuesto.
+     * 
+     * <p>Es la operación inversa de {@link #calcularImpuesto(Producto)}. La implementación
+     * por defecto supone un impuesto proporcional al precio, de porcentaje
+     * {@link #getPorcentaje()}, y calcula en centavos exactos con
+     * {@link DesgloseImpuestos}; un impuesto no proporcional debe sobrescribirla. Para
+     * columnas completas de precios use
+     * {@link DesgloseImpuestos#desglosar(Impuesto, long[], long[], long[], int)}.
+     * 
+     * @param montoConImpuesto El monto con impuesto incluido, con a lo sumo dos decimales
+     * @return La base y el impuesto, redondeados al centavo, que suman exactamente el monto
+     * @throws IllegalArgumentException si el monto es negativo o tiene más de dos decimales,
+     *                                  o el porcentaje no es múltiplo de 0,01
+     */
+    default DesgloseImpuesto desglosar(double montoConImpuesto) {
+        return DesgloseImpuestos.desglosar(getPorcentaje(), montoConImpuesto);
+    }
 }
 
@@ -0,0 +1,86 @@
+package com.facturacion.impuesto;
+
+import com.facturacion.model.Producto;
+import com.facturacion.monitoreo.EventoReglaNoEncontrada;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Fábrica de la configuración de reglas de impuesto estándar del sistema y búsqueda de la
+ * regla de un producto.
+ *
+ * <p>Los modos no interactivos (procesamiento por lotes, servicios) necesitan la misma
+ * configuración que la consola sin repetir su construcción. Las reglas se devuelven en un
+ * mapa nuevo y modificable, de modo que cada llamador puede extenderlas sin afectar a
+ * los demás, cumpliendo con <strong>Open/Closed Principle (OCP)</strong>.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class ReglasImpuesto {
+
+    private ReglasImpuesto() {
+    }
+
+    /**
+     * Crea las reglas de impuesto por defecto: Alimentos 5%, Ropa 19% y Electrónica 25%.
+     *
+     * @return Un mapa nuevo con las reglas de impuesto por defecto
+     */
+    public static Map<Class<? extends Producto>, Impuesto> porDefecto() {
+        Map<Class<? extends Producto>, Impuesto> reglas = new HashMap<>();
+        reglas.put(ProductoAlimento.class, new IVAAlimento());
+        reglas.put(ProductoRopa.class, new IVARopa());
+        reglas.put(ProductoElectronico.class, new IVAElectronico());
+        return reglas;
+    }
+
+    /**
+     * Obtiene la regla de impuesto registrada para la clase de un producto.
+     *
+     * @param reglas Las reglas de impuesto por clase de producto. No puede ser null.
+     * @param producto El producto. No puede ser null.
+     * @return La regla registrada para la clase del producto
+     * @throws NullPointerException si reglas o producto son null
+     * @throws IllegalStateException si la clase del producto no tiene una regla de impuesto registrada
+     */
+    public static Impuesto obtener(Map<Class<? extends Producto>, Impuesto> reglas, Producto producto) {
+        Impuesto impuesto = Objects.requireNonNull(reglas, "Las reglas de impuesto no pueden ser null")
+            .get(producto.getClass());
+        if (impuesto == null) {
+            throw sinRegla(producto);
+        }
+        return impuesto;
+    }
+
+    /**
+     * Crea el error de un producto sin regla de impuesto y emite el evento
+     * {@link EventoReglaNoEncontrada}.
+     *
+     * <p>Lo usan las tablas que resuelven la regla por su cuenta para fallar igual que
+     * {@link #obtener(Map, Producto)}.
+     *
+     * @param producto El producto sin regla. No puede ser null.
+     * @return La excepción a lanzar
+     */
+    public static IllegalStateException sinRegla(Producto producto) {
+        EventoReglaNoEncontrada.registrar(producto);
+        return sinRegla(producto.getClass());
+    }
+
+    /**
+     * Crea el error de una clase de producto sin regla de impuesto, para los cálculos que
+     * trabajan por categoría y no tienen un producto que informar.
+     *
+     * @param claseProducto La clase sin regla. No puede ser null.
+     * @return La excepción a lanzar
+     */
+    public static IllegalStateException sinRegla(Class<? extends Producto> claseProducto) {
+        return new IllegalStateException(String.format(
+            "No existe una regla de impuesto para la clase de producto: %s", claseProducto.getSimpleName()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.facturacion.impuesto;
+
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import com.facturacion.monitoreo.EventoReglaNoEncontrada;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Tabla de reglas de impuesto compilada a partir de un mapa de reglas, para resolver la
+ * regla de muchos productos sin buscar en el mapa cada vez.
+ *
+ * <p>Las reglas de las categorías conocidas ({@link CategoriaProducto}) se guardan en un
+ * arreglo indexado por código y se eligen comparando la clase exacta del producto; las
+ * demás clases se resuelven en una copia del mapa. La tabla es inmutable y puede
+ * compartirse entre hilos: refleja las reglas del mapa en el momento de compilarla.
+ *
+ * <p>Resuelve exactamente la misma regla que {@link com.facturacion.factura.Factura} con
+ * el mismo mapa, y también emite {@link EventoReglaNoEncontrada} cuando falta una regla.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class TablaImpuestos {
+
+    /**
+     * Reglas de las categorías conocidas, indexadas por código de categoría.
+     */
+    private final Impuesto[] porCategoria = new Impuesto[CategoriaProducto.values().length + 1];
+
+    /**
+     * Reglas de las demás clases de producto.
+     */
+    private final Map<Class<? extends Producto>, Impuesto> otras;
+
+    private TablaImpuestos(Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        this.otras = new HashMap<>(reglasImpuesto);
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            porCategoria[categoria.getCodigo()] = otras.get(categoria.getClaseProducto());
+        }
+    }
+
+    /**
+     * Compila un mapa de reglas de impuesto.
+     *
+     * @param reglasImpuesto Las reglas por clase de producto. No puede ser null.
+     * @return La tabla compilada
+     * @throws NullPointerException si reglasImpuesto es null
+     */
+    public static TablaImpuestos compilar(Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        return new TablaImpuestos(Objects.requireNonNull(reglasImpuesto,
+            "Las reglas de impuesto no pueden ser null"));
+    }
+
+    /**
+     * Obtiene la regla de impuesto de un producto.
+     *
+     * @param producto El producto. No puede ser null.
+     * @return La regla registrada para la clase del producto
+     * @throws NullPointerException si producto es null
+     * @throws IllegalStateException si la clase del producto no tiene una regla de impuesto registrada
+     */
+    public Impuesto resolver(Producto producto) {
+        Class<? extends Producto> clase = producto.getClass();
+        Impuesto impuesto;
+        if (clase == ProductoAlimento.class) {
+            impuesto = porCategoria[CategoriaProducto.ALIMENTO.getCodigo()];
+        } else if (clase == ProductoRopa.class) {
+            impuesto = porCategoria[CategoriaProducto.ROPA.getCodigo()];
+        } else if (clase == ProductoElectronico.class) {
+            impuesto = porCategoria[CategoriaProducto.ELECTRONICA.getCodigo()];
+        } else {
+            impuesto = otras.get(clase);
+        }
+        if (impuesto == null) {
+            throw ReglasImpuesto.sinRegla(producto);
+        }
+        return impuesto;
+    }
+}
@@ -0,0 +1,281 @@
+package com.facturacion.indice;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índices secundarios sobre facturas cerradas, identificadas por un número.
+ *
+ * <p>Mantiene tres tipos de índice que se actualizan de forma incremental con cada
+ * {@link #registrar}:
+ * <ul>
+ *   <li>Listas de identificadores (postings) por nombre de producto, sin distinguir
+ *       mayúsculas ni espacios al inicio o al final.</li>
+ *   <li>Listas de identificadores por {@link CategoriaProducto}.</li>
+ *   <li>Índices ordenados por total y por subtotal, para consultas por rango.</li>
+ * </ul>
+ *
+ * <p>Buscar un producto o una categoría cuesta O(1) más la copia del resultado; una
+ * consulta por rango de importe cuesta O(log n) más el tamaño del resultado. Los
+ * resultados son identificadores en orden creciente, de modo que pueden combinarse con
+ * {@link #interseccion}. Los totales se calculan una sola vez, al registrar la factura,
+ * por lo que el índice refleja la factura en el momento de cerrarla.
+ *
+ * <p>Es seguro usarlo desde varios hilos: los registros se serializan y las consultas
+ * pueden ejecutarse en paralelo entre sí. Cumple con <strong>Single Responsibility
+ * Principle (SRP)</strong>: solo indexa; almacenar las facturas sigue siendo
+ * responsabilidad de quien las persiste.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class IndiceFacturas {
+
+    /**
+     * Postings por nombre de producto normalizado.
+     */
+    private final Map<String, ListaPostings> porProducto = new HashMap<>();
+
+    /**
+     * Postings por categoría de producto.
+     */
+    private final Map<CategoriaProducto, ListaPostings> porCategoria = new EnumMap<>(CategoriaProducto.class);
+
+    /**
+     * Índice ordenado por total de factura.
+     */
+    private final NavigableMap<Double, ListaPostings> porTotal = new TreeMap<>();
+
+    /**
+     * Índice ordenado por subtotal de factura.
+     */
+    private final NavigableMap<Double, ListaPostings> porSubtotal = new TreeMap<>();
+
+    /**
+     * Cerrojo que separa registros (escritura) de consultas (lectura).
+     */
+    private final ReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    /**
+     * Cantidad de facturas registradas.
+     */
+    private long facturas;
+
+    /**
+     * Registra una factura cerrada en todos los índices.
+     *
+     * <p>Cada identificador debe registrarse una sola vez.
+     *
+     * @param id El identificador de la factura
+     * @param factura La factura. No puede ser null.
+     * @throws NullPointerException si factura es null
+     * @throws IllegalArgumentException si la factura contiene un producto sin categoría conocida
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public void registrar(long id, Factura factura) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        int cantidad = factura.getCantidadProductos();
+        String[] nombres = new String[cantidad];
+        CategoriaProducto[] categorias = new CategoriaProducto[cantidad];
+        double subtotal = 0.0;
+        double impuestos = 0.0;
+        for (int i = 0; i < cantidad; i++) {
+            Producto producto = factura.getProducto(i);
+            nombres[i] = normalizar(producto.getNombre());
+            categorias[i] = CategoriaProducto.de(producto);
+            subtotal += producto.getPrecio();
+            impuestos += factura.obtenerImpuesto(producto).calcularImpuesto(producto);
+        }
+
+        cerrojo.writeLock().lock();
+        try {
+            for (int i = 0; i < cantidad; i++) {
+                porProducto.computeIfAbsent(nombres[i], k -> new ListaPostings()).agregar(id);
+                porCategoria.computeIfAbsent(categorias[i], k -> new ListaPostings()).agregar(id);
+            }
+            porSubtotal.computeIfAbsent(subtotal, k -> new ListaPostings()).agregar(id);
+            porTotal.computeIfAbsent(subtotal + impuestos, k -> new ListaPostings()).agregar(id);
+            facturas++;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca las facturas que contienen un producto con el nombre indicado.
+     *
+     * @param nombre El nombre del producto. No puede ser null.
+     * @return Los identificadores, en orden creciente
+     * @throws NullPointerException si nombre es null
+     */
+    public long[] conProducto(String nombre) {
+        String clave = normalizar(Objects.requireNonNull(nombre, "El nombre no puede ser null"));
+        cerrojo.readLock().lock();
+        try {
+            ListaPostings postings = porProducto.get(clave);
+            return postings == null ? new long[0] : postings.aArreglo();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca las facturas que contienen al menos un producto de la categoría indicada.
+     *
+     * @param categoria La categoría. No puede ser null.
+     * @return Los identificadores, en orden creciente
+     * @throws NullPointerException si categoria es null
+     */
+    public long[] conCategoria(CategoriaProducto categoria) {
+        Objects.requireNonNull(categoria, "La categoría no puede ser null");
+        cerrojo.readLock().lock();
+        try {
+            ListaPostings postings = porCategoria.get(categoria);
+            return postings == null ? new long[0] : postings.aArreglo();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca las facturas cuyo total es estrictamente mayor al importe indicado.
+     *
+     * @param importe El importe mínimo (exclusivo)
+     * @return Los identificadores, en orden creciente
+     */
+    public long[] totalMayorQue(double importe) {
+        return totalEntre(Math.nextUp(importe), Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Busca las facturas cuyo total está dentro del rango indicado (ambos inclusive).
+     *
+     * @param minimo El total mínimo
+     * @param maximo El total máximo
+     * @return Los identificadores, en orden creciente
+     * @throws IllegalArgumentException si minimo es mayor que maximo
+     */
+    public long[] totalEntre(double minimo, double maximo) {
+        return rango(porTotal, minimo, maximo);
+    }
+
+    /**
+     * Busca las facturas cuyo subtotal está dentro del rango indicado (ambos inclusive).
+     *
+     * @param minimo El subtotal mínimo
+     * @param maximo El subtotal máximo
+     * @return Los identificadores, en orden creciente
+     * @throws IllegalArgumentException si minimo es mayor que maximo
+     */
+    public long[] subtotalEntre(double minimo, double maximo) {
+        return rango(porSubtotal, minimo, maximo);
+    }
+
+    /**
+     * Obtiene la cantidad de facturas registradas.
+     *
+     * @return La cantidad de facturas
+     */
+    public long getFacturas() {
+        cerrojo.readLock().lock();
+        try {
+            return facturas;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Calcula la intersección de varios resultados del índice (listas ordenadas sin
+     * duplicados), por ejemplo "facturas con el producto X y total mayor a 1M".
+     *
+     * <p>Recorre las listas de la más corta a la más larga, buscando cada candidato con
+     * búsqueda exponencial, por lo que el costo depende sobre todo de la lista más corta.
+     *
+     * @param listas Las listas a intersecar. Debe haber al menos una.
+     * @return Los identificadores presentes en todas las listas, en orden creciente
+     * @throws IllegalArgumentException si no se indica ninguna lista
+     */
+    public static long[] interseccion(long[]... listas) {
+        if (listas.length == 0) {
+            throw new IllegalArgumentException("Se debe indicar al menos una lista");
+        }
+        long[][] ordenadas = listas.clone();
+        Arrays.sort(ordenadas, (a, b) -> Integer.compare(a.length, b.length));
+        long[] resultado = ordenadas[0].clone();
+        int tamano = resultado.length;
+        for (int l = 1; l < ordenadas.length && tamano > 0; l++) {
+            long[] otra = ordenadas[l];
+            int escritos = 0;
+            int desde = 0;
+            for (int i = 0; i < tamano && desde < otra.length; i++) {
+                int posicion = buscarDesde(otra, desde, resultado[i]);
+                if (posicion >= 0) {
+                    resultado[escritos++] = resultado[i];
+                    desde = posicion + 1;
+                } else {
+                    desde = -posicion - 1;
+                }
+            }
+            tamano = escritos;
+        }
+        return Arrays.copyOf(resultado, tamano);
+    }
+
+    private long[] rango(NavigableMap<Double, ListaPostings> indice, double minimo, double maximo) {
+        if (minimo > maximo) {
+            throw new IllegalArgumentException(
+                String.format("Rango no válido: mínimo %s mayor que máximo %s", minimo, maximo));
+        }
+        cerrojo.readLock().lock();
+        try {
+            Collection<ListaPostings> coincidencias = indice.subMap(minimo, true, maximo, true).values();
+            int total = 0;
+            for (ListaPostings postings : coincidencias) {
+                total += postings.tamano();
+            }
+            long[] ids = new long[total];
+            int posicion = 0;
+            for (ListaPostings postings : coincidencias) {
+                posicion = postings.copiarEn(ids, posicion);
+            }
+            Arrays.sort(ids);
+            return ids;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca un valor en un arreglo ordenado a partir de una posición, con pasos que se
+     * duplican seguidos de búsqueda binaria.
+     *
+     * @return La posición del valor, o (-(punto de inserción) - 1) si no está
+     */
+    private static int buscarDesde(long[] arreglo, int desde, long valor) {
+        int paso = 1;
+        int hasta = desde;
+        while (hasta < arreglo.length && arreglo[hasta] < valor) {
+            desde = hasta + 1;
+            hasta += paso;
+            paso <<= 1;
+        }
+        return Arrays.binarySearch(arreglo, desde, Math.min(hasta + 1, arreglo.length), valor);
+    }
+
+    private static String normalizar(String nombre) {
+        return nombre.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,86 @@
+package com.facturacion.indice;
+
+import java.util.Arrays;
+
+/**
+ * Lista ordenada y sin duplicados de identificadores de factura.
+ *
+ * <p>Guarda los identificadores en un arreglo de {@code long} que crece por duplicación.
+ * Como las facturas suelen registrarse en orden creciente de identificador, agregar al
+ * final es el caso común y cuesta O(1) amortizado; un identificador fuera de orden se
+ * inserta en su posición con búsqueda binaria.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+final class ListaPostings {
+
+    /**
+     * Identificadores ordenados; solo las primeras {@link #tamano} posiciones son válidas.
+     */
+    private long[] ids = new long[4];
+
+    /**
+     * Cantidad de identificadores en la lista.
+     */
+    private int tamano;
+
+    /**
+     * Agrega un identificador si no estaba en la lista.
+     *
+     * @param id El identificador de factura
+     */
+    void agregar(long id) {
+        if (tamano > 0 && ids[tamano - 1] >= id) {
+            if (ids[tamano - 1] == id) {
+                return;
+            }
+            int posicion = Arrays.binarySearch(ids, 0, tamano, id);
+            if (posicion >= 0) {
+                return;
+            }
+            insertar(-posicion - 1, id);
+            return;
+        }
+        insertar(tamano, id);
+    }
+
+    /**
+     * Obtiene la cantidad de identificadores.
+     *
+     * @return La cantidad de identificadores
+     */
+    int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Copia los identificadores, en orden, a partir de la posición indicada del destino.
+     *
+     * @param destino El arreglo de destino
+     * @param desde La posición inicial en el destino
+     * @return La posición siguiente al último identificador copiado
+     */
+    int copiarEn(long[] destino, int desde) {
+        System.arraycopy(ids, 0, destino, desde, tamano);
+        return desde + tamano;
+    }
+
+    /**
+     * Obtiene una copia de los identificadores, en orden.
+     *
+     * @return Los identificadores
+     */
+    long[] aArreglo() {
+        return Arrays.copyOf(ids, tamano);
+    }
+
+    private void insertar(int posicion, long id) {
+        if (tamano == ids.length) {
+            ids = Arrays.copyOf(ids, tamano * 2);
+        }
+        System.arraycopy(ids, posicion, ids, posicion + 1, tamano - posicion);
+        ids[posicion] = id;
+        tamano++;
+    }
+}
@@ -0,0 +1,254 @@
+package com.facturacion.lote;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.factura.PoolFacturas;
+import com.facturacion.impuesto.DesgloseImpuestos;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.serializacion.Decimales;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Lector de definiciones de facturas en formato de texto.
+ *
+ * <p>Cada línea describe un producto con la forma {@code categoria;nombre;precio}, por
+ * ejemplo {@code Alimento;Pan Integral;5000}. Una línea en blanco cierra la factura en
+ * curso y las líneas que empiezan con '#' son comentarios. El nombre puede contener
+ * punto y coma: la categoría termina en el primero y el precio empieza después del último.
+ *
+ * <p>Los errores de formato se informan con {@link IllegalArgumentException}, indicando el
+ * origen y el número de línea.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class LectorFacturas implements Closeable {
+
+    /**
+     * Tamaño del buffer de lectura en caracteres.
+     */
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    /**
+     * Lector de líneas con buffer.
+     */
+    private final BufferedReader lector;
+
+    /**
+     * Pool del que se obtienen las facturas leídas.
+     */
+    private final PoolFacturas pool;
+
+    /**
+     * Desglose con el que se obtiene el precio base de precios con impuesto incluido, o
+     * null si los precios de la entrada ya son precios base.
+     */
+    private final DesgloseImpuestos desglose;
+
+    /**
+     * Nombre del origen, para los mensajes de error.
+     */
+    private final String origen;
+
+    /**
+     * Número de la última línea leída.
+     */
+    private long numeroLinea;
+
+    /**
+     * Indica si ya se alcanzó el final de la entrada.
+     */
+    private boolean agotado;
+
+    /**
+     * Constructor que crea un lector sobre una fuente de caracteres.
+     *
+     * @param fuente La fuente de caracteres. No puede ser null.
+     * @param reglasImpuesto Las reglas de impuesto de las facturas leídas. No puede ser null.
+     * @param origen Nombre del origen para los mensajes de error. No puede ser null.
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public LectorFacturas(Reader fuente, Map<Class<? extends Producto>, Impuesto> reglasImpuesto, String origen) {
+        this(fuente, new PoolFacturas(reglasImpuesto, 0), origen);
+    }
+
+    /**
+     * Constructor que crea un lector que obtiene sus facturas de un pool.
+     *
+     * <p>Quien consume las facturas puede devolverlas al pool una vez procesadas, para que
+     * las siguientes lecturas las reutilicen.
+     *
+     * @param fuente La fuente de caracteres. No puede ser null.
+     * @param pool El pool de facturas. No puede ser null.
+     * @param origen Nombre del origen para los mensajes de error. No puede ser null.
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public LectorFacturas(Reader fuente, PoolFacturas pool, String origen) {
+        this(fuente, pool, origen, null);
+    }
+
+    /**
+     * Constructor que crea un lector cuyos precios de entrada pueden incluir el impuesto.
+     *
+     * @param fuente La fuente de caracteres. No puede ser null.
+     * @param pool El pool de facturas. No puede ser null.
+     * @param origen Nombre del origen para los mensajes de error. No puede ser null.
+     * @param desglose El desglose para obtener el precio base de cada línea, o null si los
+     *                 precios de la entrada ya son precios base
+     * @throws NullPointerException si fuente, pool u origen son null
+     */
+    public LectorFacturas(Reader fuente, PoolFacturas pool, String origen, DesgloseImpuestos desglose) {
+        this.desglose = desglose;
+        this.lector = new BufferedReader(Objects.requireNonNull(fuente, "La fuente no puede ser null"), TAMANO_BUFFER);
+        this.pool = Objects.requireNonNull(pool, "El pool de facturas no puede ser null");
+        this.origen = Objects.requireNonNull(origen, "El origen no puede ser null");
+    }
+
+    /**
+     * Lee hasta {@code maximo} facturas y las agrega al final de la lista de destino.
+     *
+     * @param destino La lista donde se agregan las facturas leídas
+     * @param maximo La cantidad máxima de facturas a leer
+     * @return La cantidad de facturas leídas; 0 indica que la entrada se agotó
+     * @throws IOException si falla la lectura
+     * @throws IllegalArgumentException si alguna línea no tiene un formato válido
+     */
+    public int leer(List<Factura> destino, int maximo) throws IOException {
+        int leidas = 0;
+        Factura actual = null;
+        while (leidas < maximo && !agotado) {
+            String linea = lector.readLine();
+            if (linea == null) {
+                agotado = true;
+            } else {
+                numeroLinea++;
+            }
+            if (linea == null || linea.isBlank()) {
+                if (actual != null) {
+                    destino.add(actual);
+                    leidas++;
+                    actual = null;
+                }
+            } else if (linea.charAt(0) != '#') {
+                if (actual == null) {
+                    actual = pool.obtener();
+                }
+                try {
+                    actual.agregarProducto(parsearLinea(linea, desglose));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(
+                        String.format("%s, línea %d: %s", origen, numeroLinea, e.getMessage()), e);
+                }
+            }
+        }
+        if (actual != null) {
+            destino.add(actual);
+            leidas++;
+        }
+        return leidas;
+    }
+
+    /**
+     * Descarta las primeras líneas de la entrada sin interpretarlas, para reanudar una
+     * ejecución anterior desde su punto de control.
+     *
+     * @param cantidad Cantidad de líneas a descartar
+     * @throws IOException si falla la lectura
+     * @throws IllegalStateException si la entrada tiene menos líneas que las indicadas
+     */
+    public void saltarLineas(long cantidad) throws IOException {
+        while (numeroLinea < cantidad) {
+            if (lector.readLine() == null) {
+                throw new IllegalStateException(String.format(
+                    "%s tiene %d líneas, pero el punto de control indica %d", origen, numeroLinea, cantidad));
+            }
+            numeroLinea++;
+        }
+    }
+
+    /**
+     * Obtiene el número de la última línea leída.
+     *
+     * @return El número de línea, empezando en 1
+     */
+    public long getNumeroLinea() {
+        return numeroLinea;
+    }
+
+    /**
+     * Cierra la fuente de caracteres.
+     *
+     * @throws IOException si falla el cierre
+     */
+    @Override
+    public void close() throws IOException {
+        lector.close();
+    }
+
+    /**
+     * Interpreta una línea de producto con la forma {@code categoria;nombre;precio}.
+     *
+     * <p>La categoría admite las formas aceptadas por {@link CategoriaProducto#parsear} y el
+     * precio se analiza sin expresiones regulares mediante {@link Decimales}.
+     *
+     * @param linea La línea a interpretar. No puede ser null.
+     * @return El producto descrito por la línea
+     * @throws NullPointerException si linea es null
+     * @throws IllegalArgumentException si la línea no tiene un formato válido
+     */
+    public static Producto parsearLinea(String linea) {
+        return parsearLinea(linea, null);
+    }
+
+    /**
+     * Interpreta una línea de producto cuyo precio puede incluir el impuesto.
+     *
+     * <p>Con un desglose, el precio de la línea se interpreta como precio con impuesto y el
+     * producto se crea con el precio base calculado por
+     * {@link DesgloseImpuestos#base(CategoriaProducto, double)}.
+     *
+     * @param linea La línea a interpretar. No puede ser null.
+     * @param desglose El desglose de impuestos, o null si el precio es el precio base
+     * @return El producto descrito por la línea
+     * @throws NullPointerException si linea es null
+     * @throws IllegalArgumentException si la línea no tiene un formato válido, o el precio
+     *                                  con impuesto tiene más de dos decimales
+     * @throws IllegalStateException si la categoría no tiene una regla de impuesto registrada
+     */
+    public static Producto parsearLinea(String linea, DesgloseImpuestos desglose) {
+        Objects.requireNonNull(linea, "La línea no puede ser null");
+        int primerSeparador = linea.indexOf(';');
+        int ultimoSeparador = linea.lastIndexOf(';');
+        if (primerSeparador < 0 || primerSeparador == ultimoSeparador) {
+            throw new IllegalArgumentException("Se esperaba 'categoria;nombre;precio': " + linea);
+        }
+        CategoriaProducto categoria = CategoriaProducto.parsear(linea.substring(0, primerSeparador));
+        String nombre = linea.substring(primerSeparador + 1, ultimoSeparador).trim();
+        if (nombre.isEmpty()) {
+            throw new IllegalArgumentException("El nombre no puede estar vacío: " + linea);
+        }
+
+        int desde = ultimoSeparador + 1;
+        int hasta = linea.length();
+        while (desde < hasta && Character.isWhitespace(linea.charAt(desde))) {
+            desde++;
+        }
+        while (hasta > desde && Character.isWhitespace(linea.charAt(hasta - 1))) {
+            hasta--;
+        }
+        double precio;
+        try {
+            precio = Decimales.parsear(linea, desde, hasta);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El precio debe ser un número válido: " + linea, e);
+        }
+        return categoria.crear(nombre, desglose == null ? precio : desglose.base(categoria, precio));
+    }
+}
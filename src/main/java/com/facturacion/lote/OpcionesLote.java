@@ -0,0 +1,318 @@
+package com.facturacion.lote;
+
+import com.facturacion.serializacion.BinaryInvoiceSerializer;
+import com.facturacion.serializacion.CsvInvoiceSerializer;
+import com.facturacion.serializacion.InvoiceSerializer;
+import com.facturacion.serializacion.JsonInvoiceSerializer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Opciones de línea de comandos del modo de procesamiento por lotes.
+ *
+ * <p>Esta clase implementa el principio de <strong>Single Responsibility Principle (SRP)</strong>:
+ * su única responsabilidad es interpretar y validar los argumentos; el procesamiento lo
+ * realiza {@link ProcesadorLotes}.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class OpcionesLote {
+
+    /**
+     * Cantidad de facturas que se leen y calculan juntas por defecto.
+     */
+    public static final int TAMANO_BLOQUE_POR_DEFECTO = 8192;
+
+    /**
+     * Cantidad de bloques entre puntos de control por defecto.
+     */
+    public static final int BLOQUES_POR_CONTROL_POR_DEFECTO = 8;
+
+    /**
+     * Formatos de salida disponibles.
+     */
+    public enum Formato {
+
+        /**
+         * Una línea de totales por factura ({@link CsvInvoiceSerializer}).
+         */
+        CSV,
+
+        /**
+         * Un objeto JSON por línea con productos y totales ({@link JsonInvoiceSerializer}).
+         */
+        JSON,
+
+        /**
+         * Registros binarios con prefijo de longitud ({@link BinaryInvoiceSerializer}).
+         */
+        BINARIO;
+
+        /**
+         * Crea el serializador correspondiente al formato.
+         *
+         * @return Un serializador nuevo
+         */
+        public InvoiceSerializer crearSerializador() {
+            return switch (this) {
+                case CSV -> new CsvInvoiceSerializer();
+                case JSON -> new JsonInvoiceSerializer();
+                case BINARIO -> new BinaryInvoiceSerializer();
+            };
+        }
+    }
+
+    /**
+     * Archivos de entrada, en orden. Vacío significa leer de la entrada estándar.
+     */
+    private final List<Path> entradas;
+
+    /**
+     * Archivo de salida, o null para escribir en la salida estándar.
+     */
+    private final Path salida;
+
+    /**
+     * Cantidad de hilos de cálculo.
+     */
+    private final int hilos;
+
+    /**
+     * Cantidad de facturas por bloque.
+     */
+    private final int tamanoBloque;
+
+    /**
+     * Formato de salida.
+     */
+    private final Formato formato;
+
+    /**
+     * Archivo de punto de control, o null si no se guardan puntos de control.
+     */
+    private final Path puntoControl;
+
+    /**
+     * Cantidad de bloques procesados entre puntos de control.
+     */
+    private final int bloquesPorControl;
+
+    /**
+     * Indica si se reanuda desde el punto de control existente.
+     */
+    private final boolean reanudar;
+
+    /**
+     * Indica si los precios de la entrada incluyen el impuesto.
+     */
+    private final boolean preciosConImpuesto;
+
+    private OpcionesLote(List<Path> entradas, Path salida, int hilos, int tamanoBloque, Formato formato,
+                         Path puntoControl, int bloquesPorControl, boolean reanudar, boolean preciosConImpuesto) {
+        this.entradas = Collections.unmodifiableList(entradas);
+        this.salida = salida;
+        this.hilos = hilos;
+        this.tamanoBloque = tamanoBloque;
+        this.formato = formato;
+        this.puntoControl = puntoControl;
+        this.bloquesPorControl = bloquesPorControl;
+        this.reanudar = reanudar;
+        this.preciosConImpuesto = preciosConImpuesto;
+    }
+
+    /**
+     * Interpreta los argumentos del modo por lotes.
+     *
+     * <p>Los argumentos que no son opciones se interpretan como archivos de entrada; "-"
+     * representa la entrada estándar.
+     *
+     * @param args Los argumentos posteriores a "--batch"
+     * @return Las opciones interpretadas
+     * @throws IllegalArgumentException si algún argumento no es válido
+     */
+    public static OpcionesLote parsear(String... args) {
+        List<Path> entradas = new ArrayList<>();
+        Path salida = null;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        int tamanoBloque = TAMANO_BLOQUE_POR_DEFECTO;
+        Formato formato = Formato.CSV;
+        Path puntoControl = null;
+        int bloquesPorControl = BLOQUES_POR_CONTROL_POR_DEFECTO;
+        boolean reanudar = false;
+        boolean preciosConImpuesto = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--entrada", "--input", "-e" -> entradas.add(Path.of(valor(args, ++i, arg)));
+                case "--salida", "--output", "-o" -> {
+                    String valor = valor(args, ++i, arg);
+                    salida = valor.equals("-") ? null : Path.of(valor);
+                }
+                case "--hilos", "--threads", "-t" -> hilos = entero(valor(args, ++i, arg), arg);
+                case "--bloque" -> tamanoBloque = entero(valor(args, ++i, arg), arg);
+                case "--formato", "--format", "-f" -> formato = formato(valor(args, ++i, arg));
+                case "--checkpoint", "--control" -> puntoControl = Path.of(valor(args, ++i, arg));
+                case "--checkpoint-cada", "--control-cada" -> bloquesPorControl = entero(valor(args, ++i, arg), arg);
+                case "--reanudar", "--resume" -> reanudar = true;
+                case "--precios-con-impuesto", "--brutos" -> preciosConImpuesto = true;
+                default -> {
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("Opción desconocida: " + arg);
+                    }
+                    if (!arg.equals("-")) {
+                        entradas.add(Path.of(arg));
+                    }
+                }
+            }
+        }
+        if (puntoControl != null && salida == null) {
+            throw new IllegalArgumentException("Los puntos de control requieren un archivo de salida (--salida)");
+        }
+        if (reanudar && puntoControl == null) {
+            throw new IllegalArgumentException("--reanudar requiere un archivo de punto de control (--checkpoint)");
+        }
+        return new OpcionesLote(entradas, salida, hilos, tamanoBloque, formato, puntoControl, bloquesPorControl,
+            reanudar, preciosConImpuesto);
+    }
+
+    /**
+     * Texto de ayuda con la sintaxis del modo por lotes.
+     *
+     * @return La descripción de uso
+     */
+    public static String uso() {
+        return String.join(System.lineSeparator(),
+            "Uso: Main --batch [opciones] [archivo ...]",
+            "  Lee facturas de los archivos indicados (o de la entrada estándar si no hay ninguno).",
+            "  Formato de entrada: una línea 'categoria;nombre;precio' por producto y una línea",
+            "  en blanco entre facturas. Las líneas que empiezan con '#' se ignoran.",
+            "",
+            "Opciones:",
+            "  -o, --salida ARCHIVO   Archivo de resultados (por defecto, salida estándar)",
+            "  -t, --hilos N          Hilos de cálculo (por defecto, uno por procesador)",
+            "  -f, --formato F        csv | json | binario (por defecto, csv)",
+            "      --bloque N         Facturas por bloque de trabajo (por defecto, "
+                + TAMANO_BLOQUE_POR_DEFECTO + ")",
+            "      --checkpoint ARCH  Guarda un punto de control para poder reanudar",
+            "      --checkpoint-cada N  Bloques entre puntos de control (por defecto, "
+                + BLOQUES_POR_CONTROL_POR_DEFECTO + ")",
+            "      --reanudar         Continúa desde el punto de control, si existe",
+            "      --precios-con-impuesto  Los precios de entrada incluyen el impuesto; se",
+            "                         calcula el precio base de cada producto");
+    }
+
+    /**
+     * Obtiene los archivos de entrada.
+     *
+     * @return Los archivos de entrada; vacío si se lee de la entrada estándar
+     */
+    public List<Path> getEntradas() {
+        return entradas;
+    }
+
+    /**
+     * Obtiene el archivo de salida.
+     *
+     * @return El archivo de salida, o null si se escribe en la salida estándar
+     */
+    public Path getSalida() {
+        return salida;
+    }
+
+    /**
+     * Obtiene la cantidad de hilos de cálculo.
+     *
+     * @return La cantidad de hilos, mayor a cero
+     */
+    public int getHilos() {
+        return hilos;
+    }
+
+    /**
+     * Obtiene la cantidad de facturas por bloque.
+     *
+     * @return El tamaño de bloque, mayor a cero
+     */
+    public int getTamanoBloque() {
+        return tamanoBloque;
+    }
+
+    /**
+     * Obtiene el formato de salida.
+     *
+     * @return El formato de salida
+     */
+    public Formato getFormato() {
+        return formato;
+    }
+
+    /**
+     * Obtiene el archivo de punto de control.
+     *
+     * @return El archivo de punto de control, o null si no se guardan puntos de control
+     */
+    public Path getPuntoControl() {
+        return puntoControl;
+    }
+
+    /**
+     * Obtiene la cantidad de bloques procesados entre puntos de control.
+     *
+     * @return La cantidad de bloques, mayor a cero
+     */
+    public int getBloquesPorControl() {
+        return bloquesPorControl;
+    }
+
+    /**
+     * Indica si se reanuda desde el punto de control existente.
+     *
+     * @return true si se debe reanudar
+     */
+    public boolean isReanudar() {
+        return reanudar;
+    }
+
+    /**
+     * Indica si los precios de la entrada incluyen el impuesto.
+     *
+     * @return true si se debe calcular el precio base de cada producto
+     */
+    public boolean isPreciosConImpuesto() {
+        return preciosConImpuesto;
+    }
+
+    private static String valor(String[] args, int indice, String opcion) {
+        if (indice >= args.length) {
+            throw new IllegalArgumentException("Falta el valor de la opción " + opcion);
+        }
+        return args[indice];
+    }
+
+    private static int entero(String valor, String opcion) {
+        try {
+            int numero = Integer.parseInt(valor);
+            if (numero <= 0) {
+                throw new IllegalArgumentException(
+                    String.format("La opción %s debe ser un entero positivo: %s", opcion, valor));
+            }
+            return numero;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                String.format("La opción %s debe ser un entero positivo: %s", opcion, valor), e);
+        }
+    }
+
+    private static Formato formato(String valor) {
+        try {
+            return Formato.valueOf(valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de salida no válido: " + valor, e);
+        }
+    }
+}
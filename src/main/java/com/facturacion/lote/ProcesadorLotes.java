@@ -0,0 +1,437 @@
+package com.facturacion.lote;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.factura.PoolFacturas;
+import com.facturacion.impuesto.DesgloseImpuestos;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.monitoreo.EventoFacturaCalculada;
+import com.facturacion.serializacion.CsvInvoiceSerializer;
+import com.facturacion.serializacion.InvoiceSerializer;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Procesador de facturas por lotes orientado al rendimiento.
+ *
+ * <p>La entrada se consume en bloques de facturas. Cada bloque se reparte en tramos
+ * contiguos entre los hilos de cálculo; cada tramo calcula los totales de sus facturas y
+ * las serializa en su propio buffer reutilizable. Luego los buffers se escriben en el canal
+ * de salida en el orden original, de modo que el resultado no depende de la cantidad de
+ * hilos. Los tiempos de lectura, cálculo y escritura se miden por separado.
+ *
+ * <p>Las facturas de un bloque ya escrito vuelven a un {@link PoolFacturas} y el lector las
+ * reutiliza para el bloque siguiente, de modo que una ejecución larga no crea una factura
+ * por venta. La tasa de aciertos del pool se informa en el resumen.
+ *
+ * <p>Si las opciones indican un archivo de punto de control, cada
+ * {@link OpcionesLote#getBloquesPorControl()} bloques se fuerzan a disco los resultados
+ * escritos y se guarda un {@link PuntoControl} con la posición en la entrada y los
+ * acumulados. Con {@link OpcionesLote#isReanudar()} una ejecución interrumpida continúa
+ * desde ese punto: la salida se recorta a los bytes confirmados y se descartan las líneas
+ * de entrada ya procesadas. Al terminar sin errores el punto de control se elimina.
+ *
+ * <p>Cumple con <strong>Dependency Inversion Principle (DIP)</strong>: el formato de salida
+ * lo decide el {@link InvoiceSerializer} elegido en las opciones, y las reglas de impuesto
+ * se inyectan por constructor.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class ProcesadorLotes {
+
+    /**
+     * Capacidad inicial del buffer de cada tramo, en bytes.
+     */
+    private static final int CAPACIDAD_TRAMO = 256 * 1024;
+
+    /**
+     * Opciones de la ejecución.
+     */
+    private final OpcionesLote opciones;
+
+    /**
+     * Reglas de impuesto de las facturas leídas.
+     */
+    private final Map<Class<? extends Producto>, Impuesto> reglasImpuesto;
+
+    /**
+     * Constructor que inicializa el procesador.
+     *
+     * @param opciones Las opciones de la ejecución. No puede ser null.
+     * @param reglasImpuesto Las reglas de impuesto a aplicar. No puede ser null.
+     * @throws NullPointerException si algún parámetro es null
+     */
+    public ProcesadorLotes(OpcionesLote opciones, Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        this.opciones = Objects.requireNonNull(opciones, "Las opciones no pueden ser null");
+        this.reglasImpuesto = Objects.requireNonNull(reglasImpuesto, "Las reglas de impuesto no pueden ser null");
+    }
+
+    /**
+     * Procesa todas las entradas y escribe los resultados en la salida.
+     *
+     * @return El resumen de la ejecución
+     * @throws IOException si falla la lectura o la escritura
+     * @throws IllegalArgumentException si la entrada contiene líneas mal formadas
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public ResumenLote ejecutar() throws IOException {
+        reiniciarPicosHeap();
+        long inicio = System.nanoTime();
+        Ejecucion ejecucion = new Ejecucion();
+        PuntoControl reanudado = prepararPuntoControl();
+        if (reanudado != null) {
+            ejecucion.restaurar(reanudado);
+        }
+
+        ExecutorService hilos = opciones.getHilos() > 1
+            ? Executors.newFixedThreadPool(opciones.getHilos(), tarea -> {
+                Thread hilo = new Thread(tarea, "facturacion-lote");
+                hilo.setDaemon(true);
+                return hilo;
+            })
+            : null;
+
+        try (WritableByteChannel salida = abrirSalida(reanudado)) {
+            ejecucion.salida = salida;
+            ejecucion.hilos = hilos;
+            if (opciones.getFormato() == OpcionesLote.Formato.CSV && ejecucion.bytesSalida == 0) {
+                ByteBuffer encabezado = ByteBuffer.wrap(CsvInvoiceSerializer.ENCABEZADO.getBytes(StandardCharsets.US_ASCII));
+                ejecucion.bytesSalida += encabezado.remaining();
+                escribirTodo(salida, encabezado);
+            }
+
+            int primeraEntrada = reanudado != null ? reanudado.entrada() : 0;
+            long lineasProcesadas = reanudado != null ? reanudado.linea() : 0;
+            if (opciones.getEntradas().isEmpty()) {
+                procesarEntrada(ejecucion, new InputStreamReader(System.in, StandardCharsets.UTF_8),
+                    "entrada estándar", 0, lineasProcesadas);
+            } else {
+                for (int i = primeraEntrada; i < opciones.getEntradas().size(); i++) {
+                    Path entrada = opciones.getEntradas().get(i);
+                    procesarEntrada(ejecucion, Files.newBufferedReader(entrada, StandardCharsets.UTF_8),
+                        entrada.toString(), i, i == primeraEntrada ? lineasProcesadas : 0);
+                }
+            }
+            if (!ejecucion.bloque.isEmpty()) {
+                procesarBloque(ejecucion);
+            }
+        } finally {
+            if (hilos != null) {
+                hilos.shutdownNow();
+            }
+        }
+        if (opciones.getPuntoControl() != null) {
+            Files.deleteIfExists(opciones.getPuntoControl());
+        }
+
+        return new ResumenLote(ejecucion.facturas, ejecucion.lineas, ejecucion.subtotal, ejecucion.impuestos,
+            opciones.getHilos(), ejecucion.nanosLectura, ejecucion.nanosCalculo, ejecucion.nanosEscritura,
+            System.nanoTime() - inicio, picoHeap(), ejecucion.pool.getEstadisticasFacturas().tasaAciertos());
+    }
+
+    private void procesarEntrada(Ejecucion ejecucion, Reader fuente, String origen, int indice,
+                                 long lineasProcesadas) throws IOException {
+        int tamanoBloque = opciones.getTamanoBloque();
+        try (LectorFacturas lector = new LectorFacturas(fuente, ejecucion.pool, origen, ejecucion.desglose)) {
+            lector.saltarLineas(lineasProcesadas);
+            ejecucion.lector = lector;
+            ejecucion.indiceEntrada = indice;
+            while (true) {
+                long inicioLectura = System.nanoTime();
+                int leidas = lector.leer(ejecucion.bloque, tamanoBloque - ejecucion.bloque.size());
+                ejecucion.nanosLectura += System.nanoTime() - inicioLectura;
+                if (ejecucion.bloque.size() == tamanoBloque) {
+                    procesarBloque(ejecucion);
+                }
+                if (leidas == 0) {
+                    return;
+                }
+            }
+        } finally {
+            ejecucion.lector = null;
+        }
+    }
+
+    private void procesarBloque(Ejecucion ejecucion) throws IOException {
+        List<Factura> bloque = ejecucion.bloque;
+        int cantidadTramos = Math.min(opciones.getHilos(), bloque.size());
+        long inicioCalculo = System.nanoTime();
+        if (ejecucion.hilos == null || cantidadTramos == 1) {
+            ejecucion.tramo(0).asignar(bloque, 0, bloque.size()).call();
+        } else {
+            List<Tramo> tareas = new ArrayList<>(cantidadTramos);
+            for (int i = 0; i < cantidadTramos; i++) {
+                int desde = (int) ((long) bloque.size() * i / cantidadTramos);
+                int hasta = (int) ((long) bloque.size() * (i + 1) / cantidadTramos);
+                tareas.add(ejecucion.tramo(i).asignar(bloque, desde, hasta));
+            }
+            esperar(ejecucion.hilos, tareas);
+        }
+        ejecucion.nanosCalculo += System.nanoTime() - inicioCalculo;
+
+        long inicioEscritura = System.nanoTime();
+        for (int i = 0; i < cantidadTramos; i++) {
+            Tramo tramo = ejecucion.tramo(i);
+            ejecucion.facturas += tramo.facturas;
+            ejecucion.lineas += tramo.lineas;
+            ejecucion.subtotal += tramo.subtotal;
+            ejecucion.impuestos += tramo.impuestos;
+            tramo.buffer.flip();
+            ejecucion.bytesSalida += tramo.buffer.remaining();
+            escribirTodo(ejecucion.salida, tramo.buffer);
+            tramo.buffer.clear();
+        }
+        if (opciones.getPuntoControl() != null && ejecucion.lector != null
+                && ++ejecucion.bloquesSinControl >= opciones.getBloquesPorControl()) {
+            guardarPuntoControl(ejecucion);
+        }
+        ejecucion.nanosEscritura += System.nanoTime() - inicioEscritura;
+        for (int i = 0; i < bloque.size(); i++) {
+            ejecucion.pool.devolver(bloque.get(i));
+        }
+        bloque.clear();
+    }
+
+    /**
+     * Lee el punto de control a reanudar, o elimina el de una ejecución anterior si se
+     * empieza desde cero.
+     */
+    private PuntoControl prepararPuntoControl() throws IOException {
+        Path archivo = opciones.getPuntoControl();
+        if (archivo == null) {
+            return null;
+        }
+        if (!opciones.isReanudar()) {
+            Files.deleteIfExists(archivo);
+            return null;
+        }
+        PuntoControl punto = PuntoControl.leer(archivo);
+        if (punto != null && !punto.huella().equals(huella())) {
+            throw new IllegalStateException(String.format(
+                "El punto de control %s corresponde a otra ejecución (%s)", archivo, punto.huella()));
+        }
+        return punto;
+    }
+
+    /**
+     * Fuerza a disco los resultados escritos y guarda la posición alcanzada.
+     */
+    private void guardarPuntoControl(Ejecucion ejecucion) throws IOException {
+        ((FileChannel) ejecucion.salida).force(false);
+        new PuntoControl(huella(), ejecucion.indiceEntrada, ejecucion.lector.getNumeroLinea(),
+            ejecucion.bytesSalida, ejecucion.facturas, ejecucion.lineas, ejecucion.subtotal,
+            ejecucion.impuestos).guardar(opciones.getPuntoControl());
+        ejecucion.bloquesSinControl = 0;
+    }
+
+    /**
+     * Describe las entradas y el formato, que deben coincidir para poder reanudar.
+     */
+    private String huella() {
+        return opciones.getFormato() + " " + (opciones.getEntradas().isEmpty() ? "-" : opciones.getEntradas())
+            + (opciones.isPreciosConImpuesto() ? " con impuesto" : "");
+    }
+
+    private static void esperar(ExecutorService hilos, List<Tramo> tareas) {
+        try {
+            for (Future<Void> resultado : hilos.invokeAll(tareas)) {
+                resultado.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("El procesamiento por lotes fue interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Error en un hilo de cálculo", e.getCause());
+        }
+    }
+
+    private WritableByteChannel abrirSalida(PuntoControl reanudado) throws IOException {
+        if (reanudado != null) {
+            FileChannel canal = FileChannel.open(opciones.getSalida(), StandardOpenOption.WRITE);
+            long tamano = canal.size();
+            if (tamano < reanudado.bytesSalida()) {
+                canal.close();
+                throw new IllegalStateException(String.format(
+                    "La salida %s tiene %d bytes, pero el punto de control confirma %d",
+                    opciones.getSalida(), tamano, reanudado.bytesSalida()));
+            }
+            // Lo escrito después del último punto de control se vuelve a calcular
+            canal.truncate(reanudado.bytesSalida());
+            canal.position(reanudado.bytesSalida());
+            return canal;
+        }
+        if (opciones.getSalida() == null) {
+            // La salida estándar se vacía al terminar, pero no se cierra
+            WritableByteChannel estandar = Channels.newChannel(System.out);
+            return new WritableByteChannel() {
+                @Override
+                public int write(ByteBuffer origen) throws IOException {
+                    return estandar.write(origen);
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return estandar.isOpen();
+                }
+
+                @Override
+                public void close() {
+                    System.out.flush();
+                }
+            };
+        }
+        return FileChannel.open(opciones.getSalida(), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    private static void escribirTodo(WritableByteChannel canal, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    private static void reiniciarPicosHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long picoHeap() {
+        long pico = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pico += pool.getPeakUsage().getUsed();
+            }
+        }
+        return pico;
+    }
+
+    /**
+     * Estado mutable de una ejecución: bloque en curso, tramos reutilizables y acumulados.
+     */
+    private final class Ejecucion {
+        private final List<Factura> bloque = new ArrayList<>(opciones.getTamanoBloque());
+        private final Tramo[] tramos = new Tramo[opciones.getHilos()];
+        private final PoolFacturas pool = new PoolFacturas(reglasImpuesto, opciones.getTamanoBloque());
+
+        /**
+         * Desglose de los precios con impuesto incluido, o null si la entrada trae precios base.
+         */
+        private final DesgloseImpuestos desglose = opciones.isPreciosConImpuesto()
+            ? DesgloseImpuestos.compilar(reglasImpuesto)
+            : null;
+        private WritableByteChannel salida;
+        private ExecutorService hilos;
+        private long facturas;
+        private long lineas;
+        private double subtotal;
+        private double impuestos;
+        private long nanosLectura;
+        private long nanosCalculo;
+        private long nanosEscritura;
+        private long bytesSalida;
+        private LectorFacturas lector;
+        private int indiceEntrada;
+        private int bloquesSinControl;
+
+        private void restaurar(PuntoControl punto) {
+            facturas = punto.facturas();
+            lineas = punto.lineas();
+            subtotal = punto.subtotal();
+            impuestos = punto.impuestos();
+            bytesSalida = punto.bytesSalida();
+        }
+
+        private Tramo tramo(int indice) {
+            if (tramos[indice] == null) {
+                tramos[indice] = new Tramo(opciones.getFormato().crearSerializador());
+            }
+            return tramos[indice];
+        }
+    }
+
+    /**
+     * Porción contigua de un bloque que un hilo calcula y serializa en su propio buffer.
+     */
+    private static final class Tramo implements Callable<Void> {
+        private final InvoiceSerializer serializador;
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(CAPACIDAD_TRAMO);
+        private List<Factura> facturasBloque;
+        private int desde;
+        private int hasta;
+        private long facturas;
+        private long lineas;
+        private double subtotal;
+        private double impuestos;
+
+        private Tramo(InvoiceSerializer serializador) {
+            this.serializador = serializador;
+        }
+
+        private Tramo asignar(List<Factura> bloque, int desde, int hasta) {
+            this.facturasBloque = bloque;
+            this.desde = desde;
+            this.hasta = hasta;
+            return this;
+        }
+
+        @Override
+        public Void call() {
+            facturas = hasta - desde;
+            lineas = 0;
+            subtotal = 0.0;
+            impuestos = 0.0;
+            for (int i = desde; i < hasta; i++) {
+                Factura factura = facturasBloque.get(i);
+                EventoFacturaCalculada evento = EventoFacturaCalculada.iniciar();
+                double subtotalFactura = factura.calcularSubtotal();
+                double impuestosFactura = factura.calcularTotalImpuestos();
+                EventoFacturaCalculada.registrar(evento, factura.getCantidadProductos(),
+                    subtotalFactura, impuestosFactura);
+                lineas += factura.getCantidadProductos();
+                subtotal += subtotalFactura;
+                impuestos += impuestosFactura;
+                while (true) {
+                    try {
+                        serializador.serializar(factura, subtotalFactura, impuestosFactura, buffer);
+                        break;
+                    } catch (BufferOverflowException e) {
+                        ByteBuffer mayor = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                        buffer.flip();
+                        mayor.put(buffer);
+                        buffer = mayor;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
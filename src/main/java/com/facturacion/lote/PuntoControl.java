@@ -0,0 +1,138 @@
+package com.facturacion.lote;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Punto de control de una ejecución por lotes: hasta dónde se consumió la entrada, cuántos
+ * bytes de resultados quedaron confirmados y los acumulados parciales en ese momento.
+ *
+ * <p>Se guarda como texto {@code clave=valor}, fácil de inspeccionar, y de forma atómica:
+ * se escribe un archivo temporal en el mismo directorio, se fuerza a disco y se renombra
+ * sobre el anterior. Un corte en medio de la escritura deja intacto el punto anterior.
+ *
+ * <p>La posición en la entrada se expresa como índice del archivo de entrada y cantidad de
+ * líneas ya consumidas de ese archivo. Los decimales se guardan con
+ * {@link Double#toString(double)}, que se lee de vuelta sin pérdida.
+ *
+ * @param huella Descripción de las entradas y el formato, para no reanudar otra ejecución
+ * @param entrada Índice del archivo de entrada en curso
+ * @param linea Líneas ya consumidas del archivo de entrada en curso
+ * @param bytesSalida Bytes de resultados confirmados en el archivo de salida
+ * @param facturas Facturas procesadas hasta el punto de control
+ * @param lineas Líneas de producto procesadas hasta el punto de control
+ * @param subtotal Suma de los subtotales hasta el punto de control
+ * @param impuestos Suma de los impuestos hasta el punto de control
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record PuntoControl(String huella, int entrada, long linea, long bytesSalida, long facturas,
+                           long lineas, double subtotal, double impuestos) {
+
+    /**
+     * Versión del formato del archivo de punto de control.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Constructor canónico que valida el punto de control.
+     *
+     * @throws NullPointerException si huella es null
+     * @throws IllegalArgumentException si alguna posición o contador es negativo
+     */
+    public PuntoControl {
+        Objects.requireNonNull(huella, "La huella no puede ser null");
+        if (entrada < 0 || linea < 0 || bytesSalida < 0 || facturas < 0 || lineas < 0) {
+            throw new IllegalArgumentException("Las posiciones y contadores del punto de control no pueden ser negativos");
+        }
+    }
+
+    /**
+     * Guarda el punto de control de forma atómica.
+     *
+     * @param archivo El archivo de destino. No puede ser null.
+     * @throws IOException si falla la escritura
+     */
+    public void guardar(Path archivo) throws IOException {
+        Objects.requireNonNull(archivo, "El archivo no puede ser null");
+        String texto = "version=" + VERSION + "\n"
+            + "huella=" + huella.replace('\n', ' ') + "\n"
+            + "entrada=" + entrada + "\n"
+            + "linea=" + linea + "\n"
+            + "bytes_salida=" + bytesSalida + "\n"
+            + "facturas=" + facturas + "\n"
+            + "lineas=" + lineas + "\n"
+            + "subtotal=" + subtotal + "\n"
+            + "impuestos=" + impuestos + "\n";
+
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer contenido = ByteBuffer.wrap(texto.getBytes(StandardCharsets.UTF_8));
+            while (contenido.hasRemaining()) {
+                canal.write(contenido);
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lee un punto de control guardado.
+     *
+     * @param archivo El archivo a leer. No puede ser null.
+     * @return El punto de control, o null si el archivo no existe
+     * @throws IOException si falla la lectura
+     * @throws IllegalStateException si el archivo no es un punto de control válido
+     */
+    public static PuntoControl leer(Path archivo) throws IOException {
+        Objects.requireNonNull(archivo, "El archivo no puede ser null");
+        String texto;
+        try {
+            texto = Files.readString(archivo, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        Map<String, String> valores = new HashMap<>();
+        for (String linea : texto.split("\n")) {
+            int igual = linea.indexOf('=');
+            if (igual > 0) {
+                valores.put(linea.substring(0, igual), linea.substring(igual + 1));
+            }
+        }
+        try {
+            if (Integer.parseInt(valor(valores, "version")) != VERSION) {
+                throw new IllegalStateException("Versión de punto de control no soportada: " + valores.get("version"));
+            }
+            return new PuntoControl(valor(valores, "huella"),
+                Integer.parseInt(valor(valores, "entrada")),
+                Long.parseLong(valor(valores, "linea")),
+                Long.parseLong(valor(valores, "bytes_salida")),
+                Long.parseLong(valor(valores, "facturas")),
+                Long.parseLong(valor(valores, "lineas")),
+                Double.parseDouble(valor(valores, "subtotal")),
+                Double.parseDouble(valor(valores, "impuestos")));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Punto de control no válido en " + archivo + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String valor(Map<String, String> valores, String clave) {
+        String valor = valores.get(clave);
+        if (valor == null) {
+            throw new IllegalArgumentException("falta la clave '" + clave + "'");
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,258 @@
+package com.facturacion.lote;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Resumen de una ejecución del procesamiento por lotes: volumen procesado, totales
+ * acumulados, rendimiento y tiempos por fase.
+ *
+ * <p>Además del informe legible, {@link #imprimir(PrintStream)} emite una línea final de
+ * métricas con la forma {@code clave=valor} pensada para que los scripts programados
+ * (cron) la extraigan y registren la evolución del rendimiento.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class ResumenLote {
+
+    private static final double NANOS_POR_SEGUNDO = 1e9;
+    private static final double NANOS_POR_MILISEGUNDO = 1e6;
+    private static final double BYTES_POR_MB = 1024.0 * 1024.0;
+
+    /**
+     * Cantidad de facturas procesadas.
+     */
+    private final long facturas;
+
+    /**
+     * Cantidad de líneas de producto procesadas.
+     */
+    private final long lineas;
+
+    /**
+     * Suma de los subtotales.
+     */
+    private final double subtotal;
+
+    /**
+     * Suma de los impuestos.
+     */
+    private final double impuestos;
+
+    /**
+     * Cantidad de hilos de cálculo.
+     */
+    private final int hilos;
+
+    /**
+     * Tiempo de lectura y análisis de la entrada, en nanosegundos.
+     */
+    private final long nanosLectura;
+
+    /**
+     * Tiempo de cálculo y serialización, en nanosegundos.
+     */
+    private final long nanosCalculo;
+
+    /**
+     * Tiempo de escritura de la salida, en nanosegundos.
+     */
+    private final long nanosEscritura;
+
+    /**
+     * Tiempo total de la ejecución, en nanosegundos.
+     */
+    private final long nanosTotal;
+
+    /**
+     * Uso máximo de heap observado, en bytes.
+     */
+    private final long heapPico;
+
+    /**
+     * Proporción de facturas obtenidas reutilizadas del pool, entre 0 y 1.
+     */
+    private final double tasaAciertosPool;
+
+    /**
+     * Constructor que registra los resultados de una ejecución.
+     *
+     * @param facturas Cantidad de facturas procesadas
+     * @param lineas Cantidad de líneas de producto procesadas
+     * @param subtotal Suma de los subtotales
+     * @param impuestos Suma de los impuestos
+     * @param hilos Cantidad de hilos de cálculo utilizados
+     * @param nanosLectura Tiempo de lectura y análisis de la entrada, en nanosegundos
+     * @param nanosCalculo Tiempo de cálculo y serialización, en nanosegundos
+     * @param nanosEscritura Tiempo de escritura de la salida, en nanosegundos
+     * @param nanosTotal Tiempo total de la ejecución, en nanosegundos
+     * @param heapPico Uso máximo de heap observado, en bytes
+     */
+    public ResumenLote(long facturas, long lineas, double subtotal, double impuestos, int hilos,
+                       long nanosLectura, long nanosCalculo, long nanosEscritura, long nanosTotal,
+                       long heapPico) {
+        this(facturas, lineas, subtotal, impuestos, hilos, nanosLectura, nanosCalculo, nanosEscritura,
+            nanosTotal, heapPico, 0.0);
+    }
+
+    /**
+     * Constructor que registra los resultados de una ejecución, incluida la reutilización
+     * de facturas.
+     *
+     * @param facturas Cantidad de facturas procesadas
+     * @param lineas Cantidad de líneas de producto procesadas
+     * @param subtotal Suma de los subtotales
+     * @param impuestos Suma de los impuestos
+     * @param hilos Cantidad de hilos de cálculo utilizados
+     * @param nanosLectura Tiempo de lectura y análisis de la entrada, en nanosegundos
+     * @param nanosCalculo Tiempo de cálculo y serialización, en nanosegundos
+     * @param nanosEscritura Tiempo de escritura de la salida, en nanosegundos
+     * @param nanosTotal Tiempo total de la ejecución, en nanosegundos
+     * @param heapPico Uso máximo de heap observado, en bytes
+     * @param tasaAciertosPool Proporción de facturas reutilizadas del pool, entre 0 y 1
+     */
+    public ResumenLote(long facturas, long lineas, double subtotal, double impuestos, int hilos,
+                       long nanosLectura, long nanosCalculo, long nanosEscritura, long nanosTotal,
+                       long heapPico, double tasaAciertosPool) {
+        this.facturas = facturas;
+        this.lineas = lineas;
+        this.subtotal = subtotal;
+        this.impuestos = impuestos;
+        this.hilos = hilos;
+        this.nanosLectura = nanosLectura;
+        this.nanosCalculo = nanosCalculo;
+        this.nanosEscritura = nanosEscritura;
+        this.nanosTotal = nanosTotal;
+        this.heapPico = heapPico;
+        this.tasaAciertosPool = tasaAciertosPool;
+    }
+
+    /**
+     * Obtiene la cantidad de facturas procesadas.
+     *
+     * @return La cantidad de facturas
+     */
+    public long getFacturas() {
+        return facturas;
+    }
+
+    /**
+     * Obtiene la cantidad de líneas de producto procesadas.
+     *
+     * @return La cantidad de líneas
+     */
+    public long getLineas() {
+        return lineas;
+    }
+
+    /**
+     * Obtiene la suma de los subtotales de todas las facturas.
+     *
+     * @return El subtotal acumulado
+     */
+    public double getSubtotal() {
+        return subtotal;
+    }
+
+    /**
+     * Obtiene la suma de los impuestos de todas las facturas.
+     *
+     * @return Los impuestos acumulados
+     */
+    public double getImpuestos() {
+        return impuestos;
+    }
+
+    /**
+     * Obtiene la suma de los totales de todas las facturas.
+     *
+     * @return El total acumulado (subtotal + impuestos)
+     */
+    public double getTotal() {
+        return subtotal + impuestos;
+    }
+
+    /**
+     * Obtiene el tiempo total de la ejecución.
+     *
+     * @return El tiempo total en nanosegundos
+     */
+    public long getNanosTotal() {
+        return nanosTotal;
+    }
+
+    /**
+     * Obtiene el uso máximo de heap observado durante la ejecución.
+     *
+     * @return El heap pico en bytes
+     */
+    public long getHeapPico() {
+        return heapPico;
+    }
+
+    /**
+     * Obtiene la proporción de facturas reutilizadas del pool.
+     *
+     * @return La tasa de aciertos del pool, entre 0 y 1
+     */
+    public double getTasaAciertosPool() {
+        return tasaAciertosPool;
+    }
+
+    /**
+     * Calcula el rendimiento en facturas por segundo sobre el tiempo total.
+     *
+     * @return Las facturas procesadas por segundo
+     */
+    public double getFacturasPorSegundo() {
+        return porSegundo(facturas);
+    }
+
+    /**
+     * Calcula el rendimiento en líneas de producto por segundo sobre el tiempo total.
+     *
+     * @return Las líneas procesadas por segundo
+     */
+    public double getLineasPorSegundo() {
+        return porSegundo(lineas);
+    }
+
+    /**
+     * Imprime el resumen legible seguido de la línea de métricas.
+     *
+     * @param salida El stream donde imprimir. No puede ser null.
+     * @throws NullPointerException si salida es null
+     */
+    public void imprimir(PrintStream salida) {
+        Objects.requireNonNull(salida, "El stream de salida no puede ser null");
+        salida.println("=== Resumen del procesamiento por lotes ===");
+        salida.printf("Facturas procesadas:      %,15d%n", facturas);
+        salida.printf("Líneas procesadas:        %,15d%n", lineas);
+        salida.printf("Hilos de cálculo:         %15d%n", hilos);
+        salida.printf("Subtotal acumulado:      $%15.2f%n", subtotal);
+        salida.printf("Impuestos acumulados:    $%15.2f%n", impuestos);
+        salida.printf("TOTAL acumulado:         $%15.2f%n", getTotal());
+        salida.printf("Facturas/seg:             %,15.0f%n", getFacturasPorSegundo());
+        salida.printf("Líneas/seg:               %,15.0f%n", getLineasPorSegundo());
+        salida.printf("Heap pico:                %12.1f MB%n", heapPico / BYTES_POR_MB);
+        salida.printf("Facturas reutilizadas:    %13.1f %%%n", tasaAciertosPool * 100.0);
+        salida.println("Tiempos por fase:");
+        salida.printf("  Lectura:                %12.1f ms%n", nanosLectura / NANOS_POR_MILISEGUNDO);
+        salida.printf("  Cálculo:                %12.1f ms%n", nanosCalculo / NANOS_POR_MILISEGUNDO);
+        salida.printf("  Escritura:              %12.1f ms%n", nanosEscritura / NANOS_POR_MILISEGUNDO);
+        salida.printf("  Total:                  %12.1f ms%n", nanosTotal / NANOS_POR_MILISEGUNDO);
+        salida.println(String.format(Locale.ROOT,
+            "metricas facturas=%d lineas=%d hilos=%d facturas_seg=%.1f lineas_seg=%.1f heap_pico_bytes=%d "
+                + "lectura_ms=%.3f calculo_ms=%.3f escritura_ms=%.3f total_ms=%.3f "
+                + "pool_aciertos=%.3f",
+            facturas, lineas, hilos, getFacturasPorSegundo(), getLineasPorSegundo(), heapPico,
+            nanosLectura / NANOS_POR_MILISEGUNDO, nanosCalculo / NANOS_POR_MILISEGUNDO,
+            nanosEscritura / NANOS_POR_MILISEGUNDO, nanosTotal / NANOS_POR_MILISEGUNDO, tasaAciertosPool));
+    }
+
+    private double porSegundo(long cantidad) {
+        return nanosTotal > 0 ? cantidad * NANOS_POR_SEGUNDO / nanosTotal : 0.0;
+    }
+}
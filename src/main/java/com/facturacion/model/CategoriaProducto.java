@@ -0,0 +1,195 @@
+package com.facturacion.model;
+
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Enumeración de las categorías de producto conocidas por el sistema.
+ *
+ * <p>Centraliza la correspondencia entre cada subclase concreta de {@link Producto}, su
+ * código numérico compacto y su etiqueta legible. Los codificadores, lectores de entrada
+ * y demás componentes que necesitan identificar la categoría de un producto sin usar
+ * reflexión dependen de esta enumeración, cumpliendo con <strong>Single Responsibility
+ * Principle (SRP)</strong>: un único lugar conoce el catálogo de categorías.
+ *
+ * <p>Los códigos coinciden con las opciones del menú de la consola interactiva
+ * (1: Alimento, 2: Ropa, 3: Electrónica) y no deben cambiar, porque se persisten en los
+ * formatos binarios.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public enum CategoriaProducto {
+
+    /**
+     * Productos alimenticios ({@link ProductoAlimento}).
+     */
+    ALIMENTO(1, "Alimento", ProductoAlimento.class),
+
+    /**
+     * Productos de ropa ({@link ProductoRopa}).
+     */
+    ROPA(2, "Ropa", ProductoRopa.class),
+
+    /**
+     * Productos electrónicos ({@link ProductoElectronico}).
+     */
+    ELECTRONICA(3, "Electrónica", ProductoElectronico.class);
+
+    /**
+     * Categorías indexadas por su código para búsquedas sin recorrer los valores.
+     */
+    private static final CategoriaProducto[] POR_CODIGO = new CategoriaProducto[4];
+
+    static {
+        for (CategoriaProducto categoria : values()) {
+            POR_CODIGO[categoria.codigo] = categoria;
+        }
+    }
+
+    /**
+     * Código numérico compacto de la categoría.
+     */
+    private final int codigo;
+
+    /**
+     * Etiqueta legible de la categoría.
+     */
+    private final String etiqueta;
+
+    /**
+     * Subclase concreta de Producto asociada a la categoría.
+     */
+    private final Class<? extends Producto> claseProducto;
+
+    CategoriaProducto(int codigo, String etiqueta, Class<? extends Producto> claseProducto) {
+        this.codigo = codigo;
+        this.etiqueta = etiqueta;
+        this.claseProducto = claseProducto;
+    }
+
+    /**
+     * Obtiene el código numérico de la categoría.
+     *
+     * @return El código de la categoría (1, 2 o 3)
+     */
+    public int getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Obtiene la etiqueta legible de la categoría.
+     *
+     * @return La etiqueta (ej: "Alimento")
+     */
+    public String getEtiqueta() {
+        return etiqueta;
+    }
+
+    /**
+     * Obtiene la subclase de Producto asociada a la categoría.
+     *
+     * @return La clase del producto
+     */
+    public Class<? extends Producto> getClaseProducto() {
+        return claseProducto;
+    }
+
+    /**
+     * Crea un producto de esta categoría.
+     *
+     * @param nombre El nombre del producto. No puede ser null.
+     * @param precio El precio del producto. Debe ser >= 0.
+     * @return El producto creado
+     * @throws NullPointerException si nombre es null
+     * @throws IllegalArgumentException si precio es negativo
+     */
+    public Producto crear(String nombre, double precio) {
+        return switch (this) {
+            case ALIMENTO -> new ProductoAlimento(nombre, precio);
+            case ROPA -> new ProductoRopa(nombre, precio);
+            case ELECTRONICA -> new ProductoElectronico(nombre, precio);
+        };
+    }
+
+    /**
+     * Crea un producto de esta categoría con precio en una moneda determinada.
+     *
+     * @param nombre El nombre del producto. No puede ser null.
+     * @param precio El precio del producto. Debe ser >= 0.
+     * @param moneda La moneda del precio. No puede ser null.
+     * @return El producto creado
+     * @throws NullPointerException si nombre o moneda son null
+     * @throws IllegalArgumentException si precio es negativo
+     */
+    public Producto crear(String nombre, double precio, Currency moneda) {
+        return switch (this) {
+            case ALIMENTO -> new ProductoAlimento(nombre, precio, moneda);
+            case ROPA -> new ProductoRopa(nombre, precio, moneda);
+            case ELECTRONICA -> new ProductoElectronico(nombre, precio, moneda);
+        };
+    }
+
+    /**
+     * Obtiene la categoría de un producto según su clase concreta.
+     *
+     * @param producto El producto. No puede ser null.
+     * @return La categoría del producto
+     * @throws NullPointerException si producto es null
+     * @throws IllegalArgumentException si la clase del producto no corresponde a ninguna categoría
+     */
+    public static CategoriaProducto de(Producto producto) {
+        Objects.requireNonNull(producto, "El producto no puede ser null");
+        Class<? extends Producto> clase = producto.getClass();
+        if (clase == ProductoAlimento.class) {
+            return ALIMENTO;
+        }
+        if (clase == ProductoRopa.class) {
+            return ROPA;
+        }
+        if (clase == ProductoElectronico.class) {
+            return ELECTRONICA;
+        }
+        throw new IllegalArgumentException(
+            "No existe una categoría para la clase de producto: " + clase.getSimpleName());
+    }
+
+    /**
+     * Interpreta el nombre de una categoría tal como lo escribe un usuario o un archivo de
+     * entrada: el código numérico ("1"), el nombre de la constante ("ALIMENTO") o la
+     * etiqueta ("Electrónica"), sin distinguir mayúsculas. El nombre de la constante
+     * permite escribir las categorías sin tildes ("electronica").
+     *
+     * @param texto El texto a interpretar. No puede ser null.
+     * @return La categoría correspondiente
+     * @throws NullPointerException si texto es null
+     * @throws IllegalArgumentException si el texto no corresponde a ninguna categoría
+     */
+    public static CategoriaProducto parsear(String texto) {
+        String valor = Objects.requireNonNull(texto, "La categoría no puede ser null").trim();
+        if (valor.length() == 1 && valor.charAt(0) >= '1' && valor.charAt(0) <= '3') {
+            return POR_CODIGO[valor.charAt(0) - '0'];
+        }
+        for (int codigo = 1; codigo < POR_CODIGO.length; codigo++) {
+            CategoriaProducto categoria = POR_CODIGO[codigo];
+            if (categoria.name().equalsIgnoreCase(valor) || categoria.etiqueta.equalsIgnoreCase(valor)) {
+                return categoria;
+            }
+        }
+        throw new IllegalArgumentException("Categoría de producto no válida: " + texto);
+    }
+
+    /**
+     * Obtiene la categoría correspondiente a un código numérico.
+     *
+     * @param codigo El código de la categoría
+     * @return La categoría correspondiente
+     * @throws IllegalArgumentException si el código no corresponde a ninguna categoría
+     */
+    public static CategoriaProducto porCodigo(int codigo) {
+        if (codigo < 1 || codigo >= POR_CODIGO.length) {
+            throw new IllegalArgumentException("Código de categoría no válido: " + codigo);
+        }
+        return POR_CODIGO[codigo];
+    }
+}
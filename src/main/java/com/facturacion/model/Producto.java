@@ -1,5 +1,6 @@
 package com.facturacion.model;
 
+import java.util.Currency;
 import java.util.Objects;
 
 /**
@@ -9,7 +10,12 @@ import java.util.Objects;
  * Todas las subclases (ProductoAlimento, ProductoRopa, ProductoElectronico) pueden
  * sustituir a Producto sin alterar el comportamiento esperado del sistema. Además,
  * cumple con <strong>Single Responsibility Principle (SRP)</strong> al tener una única
- * responsabilidad: representar la información básica de un producto (nombre y precio).
+ * responsabilidad: representar la información básica de un producto (nombre, precio y
+ * moneda del precio).
+ * 
+ * <p>Si no se indica una moneda, el precio está en {@link #MONEDA_POR_DEFECTO}. Las
+ * conversiones entre monedas no son responsabilidad del producto; ver
+ * {@link com.facturacion.moneda.TablaTasas}.
  * 
  * <p>La clase es inmutable después de la construcción, lo que garantiza la integridad
  * de los datos del producto.
@@ -19,6 +25,11 @@ import java.util.Objects;
  */
 public abstract class Producto {
     
+    /**
+     * Moneda de los precios cuando no se indica otra: peso colombiano (COP).
+     */
+    public static final Currency MONEDA_POR_DEFECTO = Currency.getInstance("COP");
+    
     /**
      * Nombre del producto. No puede ser null.
      */
@@ -30,7 +41,18 @@ public abstract class Producto {
     private final double precio;
     
     /**
-     * Constructor que inicializa un producto con nombre y precio.
+     * Moneda en la que está expresado el precio. No puede ser null.
+     */
+    private final Currency moneda;
+    
+    /**
+     * Código hash, calculado una vez en la construcción: el producto es inmutable y se usa
+     * como clave al agrupar líneas de muchas facturas.
+     */
+    private final int hash;
+    
+    /**
+     * Constructor que inicializa un producto con nombre y precio en la moneda por defecto.
      * 
      * <p>Valida que el nombre no sea null y que el precio sea no negativo.
      * 
@@ -40,13 +62,28 @@ public abstract class Producto {
      * @throws IllegalArgumentException si precio es negativo
      */
     public Producto(String nombre, double precio) {
+        this(nombre, precio, MONEDA_POR_DEFECTO);
+    }
+    
+    /**
+     * Constructor que inicializa un producto con nombre, precio y moneda del precio.
+     * 
+     * @param nombre El nombre del producto. No puede ser null.
+     * @param precio El precio del producto. Debe ser >= 0.
+     * @param moneda La moneda del precio. No puede ser null.
+     * @throws NullPointerException si nombre o moneda son null
+     * @throws IllegalArgumentException si precio es negativo
+     */
+    public Producto(String nombre, double precio, Currency moneda) {
         this.nombre = Objects.requireNonNull(nombre, "El nombre del producto no puede ser null");
+        this.moneda = Objects.requireNonNull(moneda, "La moneda del producto no puede ser null");
         
         if (precio < 0) {
             throw new IllegalArgumentException("El precio no puede ser negativo: " + precio);
         }
         
         this.precio = precio;
+        this.hash = 31 * (31 * (31 + nombre.hashCode()) + Double.hashCode(precio)) + moneda.hashCode();
     }
     
     /**
@@ -67,13 +104,26 @@ public abstract class Producto {
         return precio;
     }
     
+    /**
+     * Obtiene la moneda en la que está expresado el precio.
+     * 
+     * @return La moneda del precio
+     */
+    public Currency getMoneda() {
+        return moneda;
+    }
+    
     /**
      * Representación en cadena del producto.
      * 
-     * @return Una cadena con el nombre y precio del producto
+     * @return Una cadena con el nombre y precio del producto; si el precio no está en la
+     *         moneda por defecto, se agrega su código (ej: "Pan - $5.00 USD")
      */
     @Override
     public String toString() {
+        if (moneda != MONEDA_POR_DEFECTO) {
+            return String.format("%s - $%.2f %s", nombre, precio, moneda.getCurrencyCode());
+        }
         return String.format("%s - $%.2f", nombre, precio);
     }
     
@@ -81,7 +131,7 @@ public abstract class Producto {
      * Compara este producto con otro objeto para determinar igualdad.
      * 
      * @param obj El objeto a comparar
-     * @return true si los productos tienen el mismo nombre y precio
+     * @return true si los productos tienen el mismo nombre, precio y moneda
      */
     @Override
     public boolean equals(Object obj) {
@@ -93,17 +143,21 @@ public abstract class Producto {
         }
         Producto producto = (Producto) obj;
         return Double.compare(producto.precio, precio) == 0 &&
-               Objects.equals(nombre, producto.nombre);
+               Objects.equals(nombre, producto.nombre) &&
+               moneda.equals(producto.moneda);
     }
     
     /**
      * Calcula el código hash del producto.
      * 
-     * @return El código hash basado en nombre y precio
+     * <p>Da el mismo valor que {@code Objects.hash(nombre, precio, moneda)}, sin crear el
+     * arreglo de argumentos ni encajonar el precio en cada llamada.
+     * 
+     * @return El código hash basado en nombre, precio y moneda
      */
     @Override
     public int hashCode() {
-        return Objects.hash(nombre, precio);
+        return hash;
     }
 }
 
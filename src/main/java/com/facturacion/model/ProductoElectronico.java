@@ -1,5 +1,7 @@
 package com.facturacion.model;
 
+import java.util.Currency;
+
 /**
  * Representa un producto de la categoría Electrónica.
  * 
@@ -25,6 +27,19 @@ public class ProductoElectronico extends Producto {
         super(nombre, precio);
     }
     
+    /**
+     * Constructor que crea un producto electrónico con precio en una moneda determinada.
+     * 
+     * @param nombre El nombre del producto. No puede ser null.
+     * @param precio El precio del producto. Debe ser >= 0.
+     * @param moneda La moneda del precio. No puede ser null.
+     * @throws NullPointerException si nombre o moneda son null
+     * @throws IllegalArgumentException si precio es negativo
+     */
+    public ProductoElectronico(String nombre, double precio, Currency moneda) {
+        super(nombre, precio, moneda);
+    }
+    
     /**
      * Representación en cadena del producto electrónico.
      * 
@@ -0,0 +1,155 @@
+package com.facturacion.moneda;
+
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Acumulador de subtotales e impuestos separados por la moneda de cada línea.
+ *
+ * <p>El cálculo de impuestos suma cada línea en la moneda original de su precio, dentro
+ * de un balde por moneda, sin convertir nada. La conversión se hace al final, una vez por
+ * balde ({@link #totalesEn}), de modo que convertir no agrega trabajo por línea: con
+ * millones de líneas en dos o tres monedas se hacen dos o tres multiplicaciones.
+ *
+ * <p>Los baldes se guardan en arreglos pequeños recorridos linealmente, y se recuerda el
+ * último balde usado, porque las líneas consecutivas casi siempre comparten moneda. No es
+ * seguro usar una misma instancia desde varios hilos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class AcumuladorMonedas {
+
+    /**
+     * Moneda de cada balde.
+     */
+    private Currency[] monedas = new Currency[4];
+
+    /**
+     * Subtotal de cada balde, en su moneda.
+     */
+    private double[] subtotales = new double[4];
+
+    /**
+     * Impuestos de cada balde, en su moneda.
+     */
+    private double[] impuestos = new double[4];
+
+    /**
+     * Cantidad de baldes en uso.
+     */
+    private int baldes;
+
+    /**
+     * Último balde usado.
+     */
+    private int ultimo;
+
+    /**
+     * Suma una línea en el balde de su moneda.
+     *
+     * @param moneda La moneda del precio. No puede ser null.
+     * @param precio El precio de la línea
+     * @param impuesto El impuesto de la línea, en la misma moneda
+     * @throws NullPointerException si moneda es null
+     */
+    public void agregar(Currency moneda, double precio, double impuesto) {
+        int balde = balde(moneda);
+        subtotales[balde] += precio;
+        impuestos[balde] += impuesto;
+    }
+
+    /**
+     * Suma los baldes de otro acumulador a los de éste.
+     *
+     * @param otro El acumulador a sumar. No puede ser null.
+     * @throws NullPointerException si otro es null
+     */
+    public void combinar(AcumuladorMonedas otro) {
+        Objects.requireNonNull(otro, "El acumulador a combinar no puede ser null");
+        for (int i = 0; i < otro.baldes; i++) {
+            agregar(otro.monedas[i], otro.subtotales[i], otro.impuestos[i]);
+        }
+    }
+
+    /**
+     * Obtiene los totales de una moneda sin convertir (los de sus líneas en esa moneda).
+     *
+     * @param moneda La moneda. No puede ser null.
+     * @return Los totales de las líneas en esa moneda, con versión de tasas 0
+     * @throws NullPointerException si moneda es null
+     */
+    public TotalesMoneda totalesLocales(Currency moneda) {
+        Objects.requireNonNull(moneda, "La moneda no puede ser null");
+        for (int i = 0; i < baldes; i++) {
+            if (monedas[i] == moneda) {
+                return new TotalesMoneda(moneda, subtotales[i], impuestos[i], 0);
+            }
+        }
+        return new TotalesMoneda(moneda, 0.0, 0.0, 0);
+    }
+
+    /**
+     * Convierte todos los baldes a una moneda, una conversión por balde.
+     *
+     * @param destino La moneda de destino. No puede ser null.
+     * @param tasas La tabla de tasas a usar. No puede ser null.
+     * @return Los totales expresados en la moneda de destino
+     * @throws NullPointerException si destino o tasas son null
+     * @throws IllegalStateException si la tabla no tiene tasa para alguna moneda usada
+     */
+    public TotalesMoneda totalesEn(Currency destino, TablaTasas tasas) {
+        Objects.requireNonNull(destino, "La moneda de destino no puede ser null");
+        Objects.requireNonNull(tasas, "La tabla de tasas no puede ser null");
+        double subtotal = 0.0;
+        double impuesto = 0.0;
+        for (int i = 0; i < baldes; i++) {
+            double factor = tasas.factor(monedas[i], destino);
+            subtotal += subtotales[i] * factor;
+            impuesto += impuestos[i] * factor;
+        }
+        return new TotalesMoneda(destino, subtotal, impuesto, tasas.getVersion());
+    }
+
+    /**
+     * Obtiene las monedas con líneas acumuladas.
+     *
+     * @return Las monedas, en orden de primera aparición
+     */
+    public Currency[] getMonedas() {
+        return Arrays.copyOf(monedas, baldes);
+    }
+
+    /**
+     * Vacía el acumulador para reutilizarlo.
+     */
+    public void limpiar() {
+        Arrays.fill(monedas, 0, baldes, null);
+        Arrays.fill(subtotales, 0, baldes, 0.0);
+        Arrays.fill(impuestos, 0, baldes, 0.0);
+        baldes = 0;
+        ultimo = 0;
+    }
+
+    private int balde(Currency moneda) {
+        if (ultimo < baldes && monedas[ultimo] == moneda) {
+            return ultimo;
+        }
+        Objects.requireNonNull(moneda, "La moneda no puede ser null");
+        for (int i = 0; i < baldes; i++) {
+            if (monedas[i] == moneda) {
+                ultimo = i;
+                return i;
+            }
+        }
+        if (baldes == monedas.length) {
+            monedas = Arrays.copyOf(monedas, baldes * 2);
+            subtotales = Arrays.copyOf(subtotales, baldes * 2);
+            impuestos = Arrays.copyOf(impuestos, baldes * 2);
+        }
+        monedas[baldes] = moneda;
+        ultimo = baldes;
+        return baldes++;
+    }
+}
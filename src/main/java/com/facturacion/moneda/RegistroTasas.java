@@ -0,0 +1,59 @@
+package com.facturacion.moneda;
+
+import java.util.Currency;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Registro de la tabla de tasas de cambio vigente.
+ *
+ * <p>Guarda la tabla en una referencia atómica: publicar tasas nuevas reemplaza la tabla
+ * completa por otra con la versión siguiente, y los lectores obtienen la tabla vigente sin
+ * bloqueos. Quien calcula un total debe obtener la tabla una sola vez y usarla para todos
+ * sus importes, de modo que no mezcle tasas de dos versiones.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class RegistroTasas {
+
+    /**
+     * Tabla vigente.
+     */
+    private final AtomicReference<TablaTasas> vigente;
+
+    /**
+     * Constructor que crea un registro con una tabla inicial (versión 1).
+     *
+     * @param base La moneda base de las tasas. No puede ser null.
+     * @param tasas Unidades de la moneda base por unidad de cada moneda. No puede ser null.
+     * @throws NullPointerException si base o tasas son null
+     * @throws IllegalArgumentException si alguna tasa no es válida
+     */
+    public RegistroTasas(Currency base, Map<Currency, Double> tasas) {
+        this.vigente = new AtomicReference<>(new TablaTasas(1, base, tasas));
+    }
+
+    /**
+     * Obtiene la tabla de tasas vigente.
+     *
+     * @return La tabla vigente
+     */
+    public TablaTasas getTabla() {
+        return vigente.get();
+    }
+
+    /**
+     * Publica tasas nuevas, con la misma moneda base, como una tabla de la versión siguiente.
+     *
+     * @param tasas Unidades de la moneda base por unidad de cada moneda. No puede ser null.
+     * @return La tabla publicada
+     * @throws NullPointerException si tasas es null
+     * @throws IllegalArgumentException si alguna tasa no es válida
+     */
+    public TablaTasas publicar(Map<Currency, Double> tasas) {
+        Objects.requireNonNull(tasas, "Las tasas no pueden ser null");
+        return vigente.updateAndGet(actual -> new TablaTasas(actual.getVersion() + 1, actual.getBase(), tasas));
+    }
+}
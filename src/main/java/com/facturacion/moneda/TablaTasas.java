@@ -0,0 +1,136 @@
+package com.facturacion.moneda;
+
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Tabla inmutable de tasas de cambio, identificada por un número de versión.
+ *
+ * <p>Cada tasa indica cuántas unidades de la moneda base equivalen a una unidad de la
+ * moneda correspondiente; la moneda base tiene tasa 1. Convertir entre dos monedas
+ * cualesquiera usa las dos tasas, sin necesidad de guardar cada par.
+ *
+ * <p>Al ser inmutable, una misma tabla puede usarse desde muchos hilos y todos los
+ * importes de un cálculo se convierten con las mismas tasas, aunque mientras tanto se
+ * publique una tabla nueva en el {@link RegistroTasas}. La versión permite informar con
+ * qué tasas se obtuvo un total.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class TablaTasas {
+
+    /**
+     * Versión de la tabla; crece con cada publicación.
+     */
+    private final long version;
+
+    /**
+     * Moneda base de las tasas.
+     */
+    private final Currency base;
+
+    /**
+     * Unidades de la moneda base por unidad de cada moneda.
+     */
+    private final Map<Currency, Double> tasas;
+
+    /**
+     * Constructor que crea una tabla de tasas.
+     *
+     * @param version La versión de la tabla
+     * @param base La moneda base. No puede ser null.
+     * @param tasas Unidades de la moneda base por unidad de cada moneda. No puede ser null;
+     *              la moneda base se agrega con tasa 1 si no está.
+     * @throws NullPointerException si base o tasas son null
+     * @throws IllegalArgumentException si alguna tasa no es un número positivo y finito, o
+     *                                  la tasa de la moneda base no es 1
+     */
+    public TablaTasas(long version, Currency base, Map<Currency, Double> tasas) {
+        this.version = version;
+        this.base = Objects.requireNonNull(base, "La moneda base no puede ser null");
+        Map<Currency, Double> copia = new HashMap<>(Objects.requireNonNull(tasas, "Las tasas no pueden ser null"));
+        copia.forEach((moneda, tasa) -> {
+            Objects.requireNonNull(moneda, "La moneda no puede ser null");
+            if (tasa == null || !(tasa > 0) || Double.isInfinite(tasa)) {
+                throw new IllegalArgumentException("Tasa de cambio no válida para " + moneda + ": " + tasa);
+            }
+        });
+        Double tasaBase = copia.putIfAbsent(base, 1.0);
+        if (tasaBase != null && tasaBase != 1.0) {
+            throw new IllegalArgumentException("La tasa de la moneda base debe ser 1: " + tasaBase);
+        }
+        this.tasas = Collections.unmodifiableMap(copia);
+    }
+
+    /**
+     * Obtiene el factor que convierte importes de una moneda a otra.
+     *
+     * @param desde La moneda de origen. No puede ser null.
+     * @param hacia La moneda de destino. No puede ser null.
+     * @return El factor por el que se multiplica un importe en la moneda de origen
+     * @throws NullPointerException si desde o hacia son null
+     * @throws IllegalStateException si la tabla no tiene tasa para alguna de las monedas
+     */
+    public double factor(Currency desde, Currency hacia) {
+        Objects.requireNonNull(desde, "La moneda de origen no puede ser null");
+        Objects.requireNonNull(hacia, "La moneda de destino no puede ser null");
+        if (desde == hacia) {
+            return 1.0;
+        }
+        return tasa(desde) / tasa(hacia);
+    }
+
+    /**
+     * Convierte un importe de una moneda a otra.
+     *
+     * @param importe El importe a convertir
+     * @param desde La moneda de origen. No puede ser null.
+     * @param hacia La moneda de destino. No puede ser null.
+     * @return El importe en la moneda de destino
+     * @throws NullPointerException si desde o hacia son null
+     * @throws IllegalStateException si la tabla no tiene tasa para alguna de las monedas
+     */
+    public double convertir(double importe, Currency desde, Currency hacia) {
+        return importe * factor(desde, hacia);
+    }
+
+    /**
+     * Obtiene la versión de la tabla.
+     *
+     * @return La versión
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Obtiene la moneda base de las tasas.
+     *
+     * @return La moneda base
+     */
+    public Currency getBase() {
+        return base;
+    }
+
+    /**
+     * Obtiene las tasas de la tabla.
+     *
+     * @return Unidades de la moneda base por unidad de cada moneda (no modificable)
+     */
+    public Map<Currency, Double> getTasas() {
+        return tasas;
+    }
+
+    private double tasa(Currency moneda) {
+        Double tasa = tasas.get(moneda);
+        if (tasa == null) {
+            throw new IllegalStateException(String.format(
+                "La tabla de tasas (versión %d) no tiene tasa para la moneda: %s", version, moneda));
+        }
+        return tasa;
+    }
+}
@@ -0,0 +1,26 @@
+package com.facturacion.moneda;
+
+import java.util.Currency;
+
+/**
+ * Totales de una o varias facturas expresados en una moneda.
+ *
+ * @param moneda La moneda de los importes
+ * @param subtotal La suma de precios sin impuestos
+ * @param impuestos La suma de impuestos
+ * @param versionTasas La versión de la tabla de tasas usada en la conversión
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record TotalesMoneda(Currency moneda, double subtotal, double impuestos, long versionTasas) {
+
+    /**
+     * Calcula el total (subtotal + impuestos).
+     *
+     * @return El total
+     */
+    public double total() {
+        return subtotal + impuestos;
+    }
+}
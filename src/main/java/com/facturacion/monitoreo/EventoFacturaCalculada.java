@@ -0,0 +1,86 @@
+package com.facturacion.monitoreo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento de JDK Flight Recorder emitido al calcular los totales de una factura.
+ *
+ * <p>Por defecto solo se registran las facturas que tardan al menos 10 ms, de modo que
+ * una grabación de producción muestra cuáles son lentas sin registrar cada venta; la
+ * configuración {@code facturacion.jfc} baja el umbral a 0 para ver todas. Cuando el
+ * evento no está habilitado, crearlo y confirmarlo no tiene costo apreciable.
+ *
+ * <p>Quien calcula una factura usa {@link #iniciar()} antes del cálculo y
+ * {@link #registrar} después, de modo que todos los cálculos emiten el evento igual.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@Name("com.facturacion.FacturaCalculada")
+@Label("Factura calculada")
+@Category({"Facturación", "Cálculo"})
+@Description("Cálculo de subtotal, impuestos y total de una factura")
+@StackTrace(false)
+@Threshold("10 ms")
+public class EventoFacturaCalculada extends Event {
+
+    /**
+     * Cantidad de productos de la factura.
+     */
+    @Label("Líneas")
+    public int lineas;
+
+    /**
+     * Subtotal calculado.
+     */
+    @Label("Subtotal")
+    public double subtotal;
+
+    /**
+     * Impuestos calculados.
+     */
+    @Label("Impuestos")
+    public double impuestos;
+
+    /**
+     * Total calculado.
+     */
+    @Label("Total")
+    public double total;
+
+    /**
+     * Crea el evento y empieza a medir el cálculo.
+     *
+     * @return El evento iniciado
+     */
+    public static EventoFacturaCalculada iniciar() {
+        EventoFacturaCalculada evento = new EventoFacturaCalculada();
+        evento.begin();
+        return evento;
+    }
+
+    /**
+     * Termina de medir el cálculo y lo registra si supera el umbral configurado.
+     *
+     * @param evento El evento devuelto por {@link #iniciar()}
+     * @param lineas Cantidad de productos de la factura
+     * @param subtotal Subtotal calculado
+     * @param impuestos Impuestos calculados
+     */
+    public static void registrar(EventoFacturaCalculada evento, int lineas, double subtotal, double impuestos) {
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.lineas = lineas;
+            evento.subtotal = subtotal;
+            evento.impuestos = impuestos;
+            evento.total = subtotal + impuestos;
+            evento.commit();
+        }
+    }
+}
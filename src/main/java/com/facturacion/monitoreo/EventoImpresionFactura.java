@@ -0,0 +1,40 @@
+package com.facturacion.monitoreo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento de JDK Flight Recorder emitido al dar formato a una factura para imprimirla.
+ *
+ * <p>Mide el armado del texto; el envío a la salida se mide aparte con
+ * {@link EventoVaciadoImpresion}, para distinguir una factura costosa de formatear de una
+ * salida lenta. Por defecto solo se registran las impresiones de al menos 10 ms.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@Name("com.facturacion.ImpresionFactura")
+@Label("Impresión de factura")
+@Category({"Facturación", "Impresión"})
+@Description("Formato del detalle de una factura")
+@StackTrace(false)
+@Threshold("10 ms")
+public class EventoImpresionFactura extends Event {
+
+    /**
+     * Clase del printer que formateó la factura.
+     */
+    @Label("Printer")
+    public String printer;
+
+    /**
+     * Cantidad de productos impresos.
+     */
+    @Label("Líneas")
+    public int lineas;
+}
@@ -0,0 +1,50 @@
+package com.facturacion.monitoreo;
+
+import com.facturacion.model.Producto;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de JDK Flight Recorder emitido cuando no hay una regla de impuesto para la clase
+ * de un producto.
+ *
+ * <p>Incluye la traza de la llamada, para ubicar qué flujo agregó el producto sin regla.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@Name("com.facturacion.ReglaNoEncontrada")
+@Label("Regla de impuesto no encontrada")
+@Category({"Facturación", "Cálculo"})
+@Description("Búsqueda de una regla de impuesto sin resultado")
+public class EventoReglaNoEncontrada extends Event {
+
+    /**
+     * Nombre de la clase del producto sin regla.
+     */
+    @Label("Clase de producto")
+    public String claseProducto;
+
+    /**
+     * Nombre del producto sin regla.
+     */
+    @Label("Producto")
+    public String producto;
+
+    /**
+     * Registra la búsqueda fallida de la regla de un producto, si el evento está habilitado.
+     *
+     * @param producto El producto sin regla de impuesto
+     */
+    public static void registrar(Producto producto) {
+        EventoReglaNoEncontrada evento = new EventoReglaNoEncontrada();
+        if (evento.isEnabled()) {
+            evento.claseProducto = producto.getClass().getName();
+            evento.producto = producto.getNombre();
+            evento.commit();
+        }
+    }
+}
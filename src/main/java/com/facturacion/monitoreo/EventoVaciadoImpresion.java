@@ -0,0 +1,38 @@
+package com.facturacion.monitoreo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento de JDK Flight Recorder emitido al enviar a la salida una factura impresa.
+ *
+ * <p>Por defecto solo se registran los vaciados de al menos 10 ms.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@Name("com.facturacion.VaciadoImpresion")
+@Label("Vaciado de impresión")
+@Category({"Facturación", "Impresión"})
+@Description("Escritura y vaciado de una factura impresa en su salida")
+@StackTrace(false)
+@Threshold("10 ms")
+public class EventoVaciadoImpresion extends Event {
+
+    /**
+     * Clase del printer que escribió la factura.
+     */
+    @Label("Printer")
+    public String printer;
+
+    /**
+     * Caracteres escritos, o -1 si el printer escribe línea a línea y no los cuenta.
+     */
+    @Label("Caracteres")
+    public long caracteres;
+}
@@ -0,0 +1,261 @@
+package com.facturacion.numeracion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asignador durable de bloques de números de factura, compartido por hilos y procesos.
+ *
+ * <p>Guarda en un archivo local el siguiente número libre de cada serie. Arrendar un bloque
+ * toma un bloqueo exclusivo del sistema operativo sobre un archivo auxiliar
+ * ({@code archivo.lock}), lee el estado, avanza la serie en el tamaño del bloque y guarda
+ * el estado de forma atómica (archivo temporal forzado a disco y renombrado), igual que el
+ * punto de control del modo por lotes. Así, varios procesos que usan el mismo archivo
+ * reciben rangos disjuntos, y un número arrendado no se vuelve a entregar aunque el
+ * proceso termine de forma abrupta.
+ *
+ * <p>Arrendar es una operación lenta (una escritura forzada a disco), pensada para hacerse
+ * una vez cada muchos números: la asignación de cada número la hace
+ * {@link NumeradorFacturas} dentro del bloque, sin sincronización. Dentro de una misma JVM
+ * los arriendos sobre un mismo archivo se serializan con un monitor, porque el sistema
+ * operativo no distingue bloqueos de dos canales del mismo proceso.
+ *
+ * <p>El archivo es texto {@code clave=valor}: una línea {@code version} y una línea
+ * {@code serie.NOMBRE=siguiente} por serie.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class AsignadorBloques implements Closeable {
+
+    /**
+     * Versión del formato del archivo de estado.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Prefijo de las claves de serie en el archivo de estado.
+     */
+    private static final String PREFIJO_SERIE = "serie.";
+
+    /**
+     * Longitud máxima del nombre de una serie.
+     */
+    private static final int LONGITUD_MAXIMA_SERIE = 32;
+
+    /**
+     * Monitor de cada archivo de estado abierto en esta JVM.
+     */
+    private static final Map<Path, Object> MONITORES = new ConcurrentHashMap<>();
+
+    /**
+     * Archivo con el siguiente número libre de cada serie.
+     */
+    private final Path archivo;
+
+    /**
+     * Canal del archivo auxiliar sobre el que se toma el bloqueo entre procesos.
+     */
+    private final FileChannel canalBloqueo;
+
+    /**
+     * Monitor compartido por los asignadores de este archivo en la JVM.
+     */
+    private final Object monitor;
+
+    /**
+     * Indica si el asignador fue cerrado.
+     */
+    private volatile boolean cerrado;
+
+    /**
+     * Constructor que abre un asignador sobre un archivo de estado.
+     *
+     * <p>Si el archivo no existe, todas las series empiezan en 1; se crea con el primer
+     * arriendo.
+     *
+     * @param archivo El archivo de estado. No puede ser null.
+     * @throws NullPointerException si archivo es null
+     * @throws IOException si no se puede abrir el archivo auxiliar de bloqueo
+     */
+    public AsignadorBloques(Path archivo) throws IOException {
+        this.archivo = Objects.requireNonNull(archivo, "El archivo no puede ser null").toAbsolutePath().normalize();
+        this.canalBloqueo = FileChannel.open(this.archivo.resolveSibling(this.archivo.getFileName() + ".lock"),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.monitor = MONITORES.computeIfAbsent(this.archivo, clave -> new Object());
+    }
+
+    /**
+     * Arrienda el siguiente bloque de números de una serie.
+     *
+     * @param serie La serie. No puede ser null.
+     * @param tamano La cantidad de números del bloque
+     * @return El bloque arrendado, a continuación de todos los arrendados antes en la serie
+     * @throws NullPointerException si serie es null
+     * @throws IllegalArgumentException si la serie no es válida o el tamaño no es positivo
+     * @throws IllegalStateException si el asignador está cerrado o el archivo de estado no es válido
+     * @throws IOException si falla la lectura o escritura del archivo de estado
+     */
+    public BloqueNumeros arrendar(String serie, int tamano) throws IOException {
+        validarSerie(serie);
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño del bloque debe ser positivo: " + tamano);
+        }
+        synchronized (monitor) {
+            verificarAbierto();
+            FileLock bloqueo = canalBloqueo.lock();
+            try {
+                Map<String, Long> estado = leerEstado();
+                long inicio = estado.getOrDefault(serie, 1L);
+                long fin;
+                try {
+                    fin = Math.addExact(inicio, tamano);
+                } catch (ArithmeticException e) {
+                    throw new IllegalStateException("La serie " + serie + " agotó sus números", e);
+                }
+                estado.put(serie, fin);
+                guardarEstado(estado);
+                return new BloqueNumeros(serie, inicio, fin);
+            } finally {
+                bloqueo.release();
+            }
+        }
+    }
+
+    /**
+     * Obtiene el siguiente número que se arrendará de una serie, sin arrendarlo.
+     *
+     * @param serie La serie. No puede ser null.
+     * @return El siguiente número libre de la serie
+     * @throws NullPointerException si serie es null
+     * @throws IllegalArgumentException si la serie no es válida
+     * @throws IllegalStateException si el asignador está cerrado o el archivo de estado no es válido
+     * @throws IOException si falla la lectura del archivo de estado
+     */
+    public long getSiguiente(String serie) throws IOException {
+        validarSerie(serie);
+        synchronized (monitor) {
+            verificarAbierto();
+            FileLock bloqueo = canalBloqueo.lock();
+            try {
+                return leerEstado().getOrDefault(serie, 1L);
+            } finally {
+                bloqueo.release();
+            }
+        }
+    }
+
+    /**
+     * Obtiene el archivo de estado.
+     *
+     * @return La ruta absoluta del archivo de estado
+     */
+    public Path getArchivo() {
+        return archivo;
+    }
+
+    /**
+     * Cierra el canal de bloqueo. Los bloques ya arrendados siguen siendo válidos.
+     *
+     * @throws IOException si falla el cierre
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (monitor) {
+            cerrado = true;
+            canalBloqueo.close();
+        }
+    }
+
+    /**
+     * Verifica que un nombre de serie sea válido: entre 1 y 32 letras o dígitos ASCII,
+     * guiones o guiones bajos.
+     *
+     * @param serie La serie a verificar
+     * @throws NullPointerException si serie es null
+     * @throws IllegalArgumentException si la serie no es válida
+     */
+    static void validarSerie(String serie) {
+        Objects.requireNonNull(serie, "La serie no puede ser null");
+        boolean valida = !serie.isEmpty() && serie.length() <= LONGITUD_MAXIMA_SERIE;
+        for (int i = 0; valida && i < serie.length(); i++) {
+            char c = serie.charAt(i);
+            valida = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+        }
+        if (!valida) {
+            throw new IllegalArgumentException(
+                "La serie debe tener entre 1 y " + LONGITUD_MAXIMA_SERIE + " letras, dígitos, '-' o '_': " + serie);
+        }
+    }
+
+    private void verificarAbierto() {
+        if (cerrado) {
+            throw new IllegalStateException("El asignador de bloques está cerrado");
+        }
+    }
+
+    private Map<String, Long> leerEstado() throws IOException {
+        Map<String, Long> estado = new TreeMap<>();
+        String texto;
+        try {
+            texto = Files.readString(archivo, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return estado;
+        }
+        boolean conVersion = false;
+        try {
+            for (String linea : texto.split("\n")) {
+                int igual = linea.indexOf('=');
+                if (igual <= 0) {
+                    continue;
+                }
+                String clave = linea.substring(0, igual);
+                String valor = linea.substring(igual + 1);
+                if (clave.equals("version")) {
+                    if (Integer.parseInt(valor) != VERSION) {
+                        throw new IllegalArgumentException("versión no soportada: " + valor);
+                    }
+                    conVersion = true;
+                } else if (clave.startsWith(PREFIJO_SERIE)) {
+                    estado.put(clave.substring(PREFIJO_SERIE.length()), Long.parseLong(valor));
+                }
+            }
+            if (!conVersion) {
+                throw new IllegalArgumentException("falta la clave 'version'");
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Archivo de numeración no válido en " + archivo + ": " + e.getMessage(), e);
+        }
+        return estado;
+    }
+
+    private void guardarEstado(Map<String, Long> estado) throws IOException {
+        StringBuilder texto = new StringBuilder("version=").append(VERSION).append('\n');
+        for (Map.Entry<String, Long> serie : estado.entrySet()) {
+            texto.append(PREFIJO_SERIE).append(serie.getKey()).append('=').append(serie.getValue()).append('\n');
+        }
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer contenido = ByteBuffer.wrap(texto.toString().getBytes(StandardCharsets.UTF_8));
+            while (contenido.hasRemaining()) {
+                canal.write(contenido);
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
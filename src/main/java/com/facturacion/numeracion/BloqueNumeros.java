@@ -0,0 +1,40 @@
+package com.facturacion.numeracion;
+
+/**
+ * Rango consecutivo de números de factura arrendado a un trabajador.
+ *
+ * <p>Los números van de {@code inicio} (incluido) a {@code fin} (excluido). Quien recibe
+ * el bloque es su único dueño: ningún otro hilo ni proceso recibirá esos números.
+ *
+ * @param serie La serie de numeración
+ * @param inicio El primer número del bloque
+ * @param fin El número siguiente al último del bloque
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record BloqueNumeros(String serie, long inicio, long fin) {
+
+    /**
+     * Constructor canónico que valida el bloque.
+     *
+     * @throws NullPointerException si serie es null
+     * @throws IllegalArgumentException si la serie no es válida o el rango está vacío
+     */
+    public BloqueNumeros {
+        AsignadorBloques.validarSerie(serie);
+        if (inicio <= 0 || fin <= inicio) {
+            throw new IllegalArgumentException(
+                String.format("Rango de números no válido: [%d, %d)", inicio, fin));
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de números del bloque.
+     *
+     * @return La cantidad de números
+     */
+    public long tamano() {
+        return fin - inicio;
+    }
+}
@@ -0,0 +1,172 @@
+package com.facturacion.numeracion;
+
+import com.facturacion.factura.Factura;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Numerador de facturas de una serie para trabajadores en paralelo.
+ *
+ * <p>Un contador sincronizado compartido obligaría a todos los hilos a turnarse en cada
+ * factura. Aquí cada hilo arrienda a {@link AsignadorBloques} un bloque de números
+ * consecutivos y los entrega de a uno desde su propio cursor: asignar un número es
+ * incrementar un campo del hilo, sin bloqueos ni operaciones atómicas. Solo al agotarse
+ * el bloque se vuelve al asignador, una vez cada {@code tamanoBloque} facturas.
+ *
+ * <p>Garantías de la numeración:
+ * <ul>
+ *   <li>Cada número se entrega una sola vez, aunque varios procesos compartan el archivo
+ *       del asignador.</li>
+ *   <li>Los números que entrega un mismo hilo son estrictamente crecientes, y dentro de un
+ *       bloque no tienen huecos.</li>
+ *   <li>Los hilos se intercalan: la serie completa puede tener huecos al final de los
+ *       bloques que un trabajador no llegó a agotar.</li>
+ * </ul>
+ *
+ * <p>Cumple con <strong>Single Responsibility Principle (SRP)</strong>: la durabilidad y
+ * la exclusión entre procesos quedan en {@link AsignadorBloques}; esta clase solo reparte
+ * los números de cada bloque.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class NumeradorFacturas {
+
+    /**
+     * Tamaño de bloque cuando no se indica otro.
+     */
+    public static final int TAMANO_BLOQUE_POR_DEFECTO = 1024;
+
+    /**
+     * Asignador del que se arriendan los bloques.
+     */
+    private final AsignadorBloques asignador;
+
+    /**
+     * Serie que se numera.
+     */
+    private final String serie;
+
+    /**
+     * Cantidad de números de cada bloque arrendado.
+     */
+    private final int tamanoBloque;
+
+    /**
+     * Bloque en curso de cada hilo.
+     */
+    private final ThreadLocal<Cursor> cursores = ThreadLocal.withInitial(Cursor::new);
+
+    /**
+     * Bloques arrendados por todos los hilos.
+     */
+    private final LongAdder bloquesArrendados = new LongAdder();
+
+    /**
+     * Constructor que crea un numerador con el tamaño de bloque por defecto.
+     *
+     * @param asignador El asignador de bloques. No puede ser null.
+     * @param serie La serie a numerar. No puede ser null.
+     * @throws NullPointerException si asignador o serie son null
+     * @throws IllegalArgumentException si la serie no es válida
+     */
+    public NumeradorFacturas(AsignadorBloques asignador, String serie) {
+        this(asignador, serie, TAMANO_BLOQUE_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor que crea un numerador.
+     *
+     * <p>Un bloque más grande reduce las visitas al asignador, pero deja huecos más
+     * grandes cuando un trabajador termina sin agotarlo.
+     *
+     * @param asignador El asignador de bloques. No puede ser null.
+     * @param serie La serie a numerar. No puede ser null.
+     * @param tamanoBloque La cantidad de números de cada bloque arrendado
+     * @throws NullPointerException si asignador o serie son null
+     * @throws IllegalArgumentException si la serie no es válida o el tamaño no es positivo
+     */
+    public NumeradorFacturas(AsignadorBloques asignador, String serie, int tamanoBloque) {
+        this.asignador = Objects.requireNonNull(asignador, "El asignador no puede ser null");
+        AsignadorBloques.validarSerie(serie);
+        if (tamanoBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño del bloque debe ser positivo: " + tamanoBloque);
+        }
+        this.serie = serie;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Entrega el siguiente número del bloque del hilo actual, arrendando otro si se agotó.
+     *
+     * @return El número asignado
+     * @throws UncheckedIOException si falla el arriendo de un bloque
+     * @throws IllegalStateException si el asignador está cerrado o la serie agotó sus números
+     */
+    public long siguiente() {
+        Cursor cursor = cursores.get();
+        if (cursor.siguiente == cursor.fin) {
+            renovar(cursor);
+        }
+        return cursor.siguiente++;
+    }
+
+    /**
+     * Asigna a una factura el siguiente número de la serie.
+     *
+     * @param factura La factura a numerar. No puede ser null.
+     * @return El número asignado
+     * @throws NullPointerException si factura es null
+     * @throws IllegalStateException si la factura ya tiene número
+     * @throws UncheckedIOException si falla el arriendo de un bloque
+     */
+    public NumeroFactura numerar(Factura factura) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        if (factura.getNumero() != null) {
+            throw new IllegalStateException("La factura ya tiene número: " + factura.getNumero());
+        }
+        NumeroFactura numero = new NumeroFactura(serie, siguiente());
+        factura.asignarNumero(numero);
+        return numero;
+    }
+
+    /**
+     * Obtiene la serie que se numera.
+     *
+     * @return La serie
+     */
+    public String getSerie() {
+        return serie;
+    }
+
+    /**
+     * Obtiene la cantidad de bloques arrendados por todos los hilos.
+     *
+     * @return Los bloques arrendados
+     */
+    public long getBloquesArrendados() {
+        return bloquesArrendados.sum();
+    }
+
+    private void renovar(Cursor cursor) {
+        BloqueNumeros bloque;
+        try {
+            bloque = asignador.arrendar(serie, tamanoBloque);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo arrendar un bloque de la serie " + serie, e);
+        }
+        bloquesArrendados.increment();
+        cursor.siguiente = bloque.inicio();
+        cursor.fin = bloque.fin();
+    }
+
+    /**
+     * Posición de un hilo dentro de su bloque. Solo la usa el hilo dueño.
+     */
+    private static final class Cursor {
+        private long siguiente;
+        private long fin;
+    }
+}
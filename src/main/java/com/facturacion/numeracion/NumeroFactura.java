@@ -0,0 +1,61 @@
+package com.facturacion.numeracion;
+
+import java.util.Objects;
+
+/**
+ * Identificador de una factura: su serie y su número dentro de la serie.
+ *
+ * @param serie La serie de numeración (por ejemplo "A" o "POS-02")
+ * @param numero El número de la factura dentro de la serie, desde 1
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record NumeroFactura(String serie, long numero) {
+
+    /**
+     * Constructor canónico que valida el identificador.
+     *
+     * @throws NullPointerException si serie es null
+     * @throws IllegalArgumentException si la serie no es válida o el número no es positivo
+     */
+    public NumeroFactura {
+        AsignadorBloques.validarSerie(serie);
+        if (numero <= 0) {
+            throw new IllegalArgumentException("El número de factura debe ser positivo: " + numero);
+        }
+    }
+
+    /**
+     * Representación del identificador con la forma {@code serie-numero}.
+     *
+     * @return El identificador, por ejemplo {@code A-1024}
+     */
+    @Override
+    public String toString() {
+        return serie + "-" + numero;
+    }
+
+    /**
+     * Interpreta un identificador con la forma {@code serie-numero}.
+     *
+     * <p>La serie puede contener guiones: el número empieza después del último.
+     *
+     * @param texto El identificador. No puede ser null.
+     * @return El identificador interpretado
+     * @throws NullPointerException si texto es null
+     * @throws IllegalArgumentException si el texto no tiene un formato válido
+     */
+    public static NumeroFactura parsear(String texto) {
+        Objects.requireNonNull(texto, "El identificador no puede ser null");
+        int guion = texto.lastIndexOf('-');
+        if (guion <= 0) {
+            throw new IllegalArgumentException("Se esperaba 'serie-numero': " + texto);
+        }
+        try {
+            return new NumeroFactura(texto.substring(0, guion), Long.parseLong(texto.substring(guion + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El número de factura debe ser un entero: " + texto, e);
+        }
+    }
+}
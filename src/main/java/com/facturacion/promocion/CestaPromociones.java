@@ -0,0 +1,201 @@
+package com.facturacion.promocion;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cesta de compra que mantiene los descuentos de sus promociones a medida que se agregan
+ * productos.
+ *
+ * <p>Cada {@link #agregarProducto} reevalúa solo lo que la nueva línea puede cambiar: el
+ * descuento de su categoría y las promociones por cantidad de su SKU. El descuento total
+ * ({@link #getDescuento()}) se obtiene en tiempo constante más una búsqueda binaria sobre
+ * los umbrales, por lo que puede mostrarse después de cada línea sin recalcular la cesta.
+ *
+ * <p>Los descuentos se aplican en este orden, antes de los impuestos:
+ * <ol>
+ *   <li>El porcentaje de la categoría de cada línea.</li>
+ *   <li>Las unidades gratuitas de las promociones por cantidad, valoradas al menor precio
+ *       (ya descontado) de ese SKU en la cesta. Si un SKU tiene varias promociones, se
+ *       aplica la que más unidades regala.</li>
+ *   <li>El porcentaje del mayor umbral alcanzado por el importe resultante.</li>
+ * </ol>
+ * {@link #calcularTotales()} reparte los descuentos de cantidad y de umbral entre las
+ * líneas en proporción a su importe y calcula el impuesto de cada línea sobre su precio
+ * con descuento, con la regla de impuesto de la factura.
+ *
+ * <p>No es segura para uso concurrente; cada caja usa su propia cesta.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class CestaPromociones {
+
+    /**
+     * Motor con las promociones indexadas.
+     */
+    private final MotorPromociones motor;
+
+    /**
+     * Factura donde se agregan los productos.
+     */
+    private final Factura factura;
+
+    /**
+     * Estado de las promociones por cantidad de cada SKU que tiene alguna.
+     */
+    private final Map<String, EstadoSku> estados = new HashMap<>();
+
+    /**
+     * Suma de precios sin descuento.
+     */
+    private double subtotal;
+
+    /**
+     * Suma de los descuentos de categoría y de cantidad.
+     */
+    private double descuentoLineas;
+
+    /**
+     * Estado incremental de un SKU con promociones por cantidad.
+     */
+    private static final class EstadoSku {
+        private final PromocionCantidad[] promociones;
+        private int unidades;
+        private double precioMinimo = Double.POSITIVE_INFINITY;
+        private double sumaNeta;
+        private double descuento;
+
+        private EstadoSku(PromocionCantidad[] promociones) {
+            this.promociones = promociones;
+        }
+
+        private int unidadesGratis() {
+            int gratis = 0;
+            for (PromocionCantidad promocion : promociones) {
+                gratis = Math.max(gratis, promocion.unidadesGratis(unidades));
+            }
+            return gratis;
+        }
+    }
+
+    /**
+     * Constructor que crea una cesta sobre una factura.
+     *
+     * @param motor El motor de promociones. No puede ser null.
+     * @param factura La factura donde se agregan los productos. No puede ser null; si ya
+     *                tiene productos, se evalúan al crear la cesta.
+     * @throws NullPointerException si motor o factura son null
+     */
+    public CestaPromociones(MotorPromociones motor, Factura factura) {
+        this.motor = Objects.requireNonNull(motor, "El motor de promociones no puede ser null");
+        this.factura = Objects.requireNonNull(factura, "La factura no puede ser null");
+        for (int i = 0; i < factura.getCantidadProductos(); i++) {
+            evaluar(factura.getProducto(i));
+        }
+    }
+
+    /**
+     * Agrega un producto a la factura y actualiza los descuentos.
+     *
+     * @param producto El producto a agregar. No puede ser null.
+     * @throws NullPointerException si producto es null
+     */
+    public void agregarProducto(Producto producto) {
+        factura.agregarProducto(producto);
+        evaluar(producto);
+    }
+
+    /**
+     * Obtiene el descuento total vigente de la cesta.
+     *
+     * @return La suma de todos los descuentos
+     */
+    public double getDescuento() {
+        double neto = subtotal - descuentoLineas;
+        return descuentoLineas + neto * motor.porcentajeUmbral(neto) / 100.0;
+    }
+
+    /**
+     * Obtiene la suma de precios sin descuento.
+     *
+     * @return El subtotal
+     */
+    public double getSubtotal() {
+        return subtotal;
+    }
+
+    /**
+     * Obtiene la factura de la cesta.
+     *
+     * @return La factura
+     */
+    public Factura getFactura() {
+        return factura;
+    }
+
+    /**
+     * Calcula subtotal, descuentos e impuestos sobre los precios con descuento, en una
+     * pasada por las líneas.
+     *
+     * @return Los totales de la cesta
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     */
+    public TotalesPromocion calcularTotales() {
+        double neto = subtotal - descuentoLineas;
+        double factorUmbral = 1.0 - motor.porcentajeUmbral(neto) / 100.0;
+        double impuestos = 0.0;
+        double totalNeto = 0.0;
+        for (int i = 0, n = factura.getCantidadProductos(); i < n; i++) {
+            Producto producto = factura.getProducto(i);
+            double precio = producto.getPrecio();
+            double linea = precio * (1.0 - motor.porcentajeCategoria(producto) / 100.0);
+            EstadoSku estado = estados.get(producto.getNombre());
+            if (estado != null && estado.descuento > 0) {
+                linea -= estado.descuento * linea / estado.sumaNeta;
+            }
+            linea *= factorUmbral;
+            totalNeto += linea;
+            impuestos += impuestoSobre(producto, linea);
+        }
+        return new TotalesPromocion(subtotal, subtotal - totalNeto, impuestos);
+    }
+
+    private void evaluar(Producto producto) {
+        double precio = producto.getPrecio();
+        double neto = precio * (1.0 - motor.porcentajeCategoria(producto) / 100.0);
+        subtotal += precio;
+        descuentoLineas += precio - neto;
+
+        String sku = producto.getNombre();
+        EstadoSku estado = estados.get(sku);
+        if (estado == null) {
+            PromocionCantidad[] promociones = motor.promocionesDe(sku);
+            if (promociones == null) {
+                return;
+            }
+            estado = new EstadoSku(promociones);
+            estados.put(sku, estado);
+        }
+        estado.unidades++;
+        estado.sumaNeta += neto;
+        estado.precioMinimo = Math.min(estado.precioMinimo, neto);
+        double descuento = estado.unidadesGratis() * estado.precioMinimo;
+        descuentoLineas += descuento - estado.descuento;
+        estado.descuento = descuento;
+    }
+
+    private double impuestoSobre(Producto producto, double precioConDescuento) {
+        if (precioConDescuento == producto.getPrecio()) {
+            return factura.obtenerImpuesto(producto).calcularImpuesto(producto);
+        }
+        // El impuesto se calcula con la regla de la factura sobre una copia con el precio final
+        Producto conDescuento = CategoriaProducto.de(producto)
+            .crear(producto.getNombre(), Math.max(precioConDescuento, 0.0), producto.getMoneda());
+        return factura.obtenerImpuesto(producto).calcularImpuesto(conDescuento);
+    }
+}
@@ -0,0 +1,170 @@
+package com.facturacion.promocion;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Motor de promociones: indexa las promociones activas para evaluarlas por línea en
+ * tiempo constante, sin recorrer todas las promociones por cada producto.
+ *
+ * <ul>
+ *   <li>Las promociones por cantidad se agrupan por SKU en un mapa hash: al agregar una
+ *       línea solo se consultan las de su producto.</li>
+ *   <li>De las promociones por categoría se guarda el mejor porcentaje de cada categoría
+ *       (los descuentos de categoría no se acumulan entre sí).</li>
+ *   <li>Las promociones por umbral se ordenan por umbral junto con el mejor porcentaje
+ *       alcanzable hasta cada umbral, de modo que el descuento aplicable a un importe se
+ *       obtiene con una búsqueda binaria.</li>
+ * </ul>
+ *
+ * <p>El motor es inmutable y puede compartirse entre hilos y cestas; el estado de cada
+ * compra vive en una {@link CestaPromociones}. Cumple con <strong>Open/Closed Principle
+ * (OCP)</strong> respecto de {@link Factura}: los descuentos se agregan sin modificar el
+ * cálculo de la factura ni las reglas de impuesto.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class MotorPromociones {
+
+    /**
+     * Categorías de producto, copiadas una sola vez: {@code values()} crea un arreglo
+     * nuevo en cada llamada y se consultaría por cada línea.
+     */
+    private static final CategoriaProducto[] CATEGORIAS = CategoriaProducto.values();
+
+    /**
+     * Promociones por cantidad, agrupadas por SKU.
+     */
+    private final Map<String, PromocionCantidad[]> porSku;
+
+    /**
+     * Mejor porcentaje de descuento de cada categoría, indexado por código.
+     */
+    private final double[] porcentajePorCategoria = new double[4];
+
+    /**
+     * Umbrales de las promociones por umbral, en orden creciente.
+     */
+    private final double[] umbrales;
+
+    /**
+     * Mejor porcentaje alcanzable con un importe igual o superior a cada umbral.
+     */
+    private final double[] mejorPorcentajeHasta;
+
+    /**
+     * Cantidad total de promociones activas.
+     */
+    private final int cantidad;
+
+    /**
+     * Constructor que indexa las promociones activas.
+     *
+     * @param promociones Las promociones activas. No puede ser null ni contener null.
+     * @throws NullPointerException si promociones o alguna promoción es null
+     */
+    public MotorPromociones(Collection<? extends Promocion> promociones) {
+        Objects.requireNonNull(promociones, "Las promociones no pueden ser null");
+        Map<String, List<PromocionCantidad>> cantidades = new HashMap<>();
+        List<PromocionUmbral> porUmbral = new ArrayList<>();
+        for (Promocion promocion : promociones) {
+            Objects.requireNonNull(promocion, "La promoción no puede ser null");
+            if (promocion instanceof PromocionCantidad p) {
+                cantidades.computeIfAbsent(p.sku(), k -> new ArrayList<>()).add(p);
+            } else if (promocion instanceof PromocionCategoria p) {
+                int codigo = p.categoria().getCodigo();
+                porcentajePorCategoria[codigo] = Math.max(porcentajePorCategoria[codigo], p.porcentaje());
+            } else if (promocion instanceof PromocionUmbral p) {
+                porUmbral.add(p);
+            }
+        }
+        this.porSku = new HashMap<>();
+        cantidades.forEach((sku, lista) -> porSku.put(sku, lista.toArray(new PromocionCantidad[0])));
+
+        porUmbral.sort((a, b) -> Double.compare(a.umbral(), b.umbral()));
+        this.umbrales = new double[porUmbral.size()];
+        this.mejorPorcentajeHasta = new double[porUmbral.size()];
+        double mejor = 0.0;
+        for (int i = 0; i < porUmbral.size(); i++) {
+            umbrales[i] = porUmbral.get(i).umbral();
+            mejor = Math.max(mejor, porUmbral.get(i).porcentaje());
+            mejorPorcentajeHasta[i] = mejor;
+        }
+        this.cantidad = promociones.size();
+    }
+
+    /**
+     * Crea una cesta vacía sobre una factura nueva.
+     *
+     * @param factura La factura donde se agregan los productos. No puede ser null; si ya
+     *                tiene productos, se evalúan al crear la cesta.
+     * @return La cesta
+     * @throws NullPointerException si factura es null
+     */
+    public CestaPromociones crearCesta(Factura factura) {
+        return new CestaPromociones(this, factura);
+    }
+
+    /**
+     * Obtiene la cantidad de promociones activas.
+     *
+     * @return La cantidad de promociones
+     */
+    public int getCantidadPromociones() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene las promociones por cantidad de un SKU.
+     *
+     * @param sku El nombre del producto
+     * @return Las promociones del SKU, o null si no tiene
+     */
+    PromocionCantidad[] promocionesDe(String sku) {
+        return porSku.get(sku);
+    }
+
+    /**
+     * Obtiene el porcentaje de descuento de categoría aplicable a un producto.
+     *
+     * @param producto El producto
+     * @return El porcentaje (0 si no hay promoción para su categoría)
+     */
+    double porcentajeCategoria(Producto producto) {
+        Class<?> clase = producto.getClass();
+        for (CategoriaProducto categoria : CATEGORIAS) {
+            if (categoria.getClaseProducto() == clase) {
+                return porcentajePorCategoria[categoria.getCodigo()];
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Obtiene el mejor porcentaje de descuento por umbral aplicable a un importe.
+     *
+     * @param importe El importe de la cesta
+     * @return El porcentaje (0 si no alcanza ningún umbral)
+     */
+    double porcentajeUmbral(double importe) {
+        int posicion = Arrays.binarySearch(umbrales, importe);
+        int ultimoAlcanzado = posicion >= 0 ? ultimoIgual(posicion, importe) : -posicion - 2;
+        return ultimoAlcanzado < 0 ? 0.0 : mejorPorcentajeHasta[ultimoAlcanzado];
+    }
+
+    private int ultimoIgual(int posicion, double importe) {
+        while (posicion + 1 < umbrales.length && umbrales[posicion + 1] == importe) {
+            posicion++;
+        }
+        return posicion;
+    }
+}
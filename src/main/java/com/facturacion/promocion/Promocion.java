@@ -0,0 +1,21 @@
+package com.facturacion.promocion;
+
+/**
+ * Promoción que puede aplicarse a una cesta de productos antes de calcular impuestos.
+ *
+ * <p>Las promociones son datos inmutables; cómo se evalúan lo decide
+ * {@link MotorPromociones}, que las indexa según su tipo. La jerarquía es cerrada porque
+ * el motor necesita conocer cada tipo para indexarlo.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public sealed interface Promocion permits PromocionCantidad, PromocionCategoria, PromocionUmbral {
+
+    /**
+     * Obtiene el identificador de la promoción.
+     *
+     * @return El identificador
+     */
+    String id();
+}
@@ -0,0 +1,46 @@
+package com.facturacion.promocion;
+
+import java.util.Objects;
+
+/**
+ * Promoción "lleve N y reciba M gratis" sobre un producto (SKU): por cada grupo de
+ * {@code compra + gratis} unidades del mismo producto, {@code gratis} unidades no se cobran.
+ *
+ * <p>El SKU es el nombre del producto, tal como lo devuelve
+ * {@link com.facturacion.model.Producto#getNombre()}.
+ *
+ * @param id El identificador de la promoción
+ * @param sku El nombre del producto al que se aplica
+ * @param compra Las unidades que se pagan en cada grupo
+ * @param gratis Las unidades gratuitas en cada grupo
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record PromocionCantidad(String id, String sku, int compra, int gratis) implements Promocion {
+
+    /**
+     * Valida los datos de la promoción.
+     *
+     * @throws NullPointerException si id o sku son null
+     * @throws IllegalArgumentException si compra o gratis no son positivos
+     */
+    public PromocionCantidad {
+        Objects.requireNonNull(id, "El identificador no puede ser null");
+        Objects.requireNonNull(sku, "El SKU no puede ser null");
+        if (compra <= 0 || gratis <= 0) {
+            throw new IllegalArgumentException(
+                String.format("Las unidades de la promoción deben ser positivas: %d + %d", compra, gratis));
+        }
+    }
+
+    /**
+     * Calcula cuántas unidades son gratuitas para una cantidad comprada.
+     *
+     * @param cantidad La cantidad de unidades del producto en la cesta
+     * @return Las unidades gratuitas
+     */
+    public int unidadesGratis(int cantidad) {
+        return cantidad / (compra + gratis) * gratis;
+    }
+}
@@ -0,0 +1,29 @@
+package com.facturacion.promocion;
+
+import com.facturacion.model.CategoriaProducto;
+import java.util.Objects;
+
+/**
+ * Promoción de descuento porcentual sobre todos los productos de una categoría.
+ *
+ * @param id El identificador de la promoción
+ * @param categoria La categoría a la que se aplica
+ * @param porcentaje El porcentaje de descuento (mayor que 0 y hasta 100)
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record PromocionCategoria(String id, CategoriaProducto categoria, double porcentaje) implements Promocion {
+
+    /**
+     * Valida los datos de la promoción.
+     *
+     * @throws NullPointerException si id o categoria son null
+     * @throws IllegalArgumentException si el porcentaje no está en (0, 100]
+     */
+    public PromocionCategoria {
+        Objects.requireNonNull(id, "El identificador no puede ser null");
+        Objects.requireNonNull(categoria, "La categoría no puede ser null");
+        PromocionUmbral.validarPorcentaje(porcentaje);
+    }
+}
@@ -0,0 +1,43 @@
+package com.facturacion.promocion;
+
+import java.util.Objects;
+
+/**
+ * Promoción de descuento porcentual sobre toda la cesta cuando su importe (después de los
+ * descuentos por producto y categoría) alcanza un umbral.
+ *
+ * @param id El identificador de la promoción
+ * @param umbral El importe mínimo de la cesta
+ * @param porcentaje El porcentaje de descuento (mayor que 0 y hasta 100)
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record PromocionUmbral(String id, double umbral, double porcentaje) implements Promocion {
+
+    /**
+     * Valida los datos de la promoción.
+     *
+     * @throws NullPointerException si id es null
+     * @throws IllegalArgumentException si el umbral es negativo o el porcentaje no está en (0, 100]
+     */
+    public PromocionUmbral {
+        Objects.requireNonNull(id, "El identificador no puede ser null");
+        if (!(umbral >= 0)) {
+            throw new IllegalArgumentException("El umbral no puede ser negativo: " + umbral);
+        }
+        validarPorcentaje(porcentaje);
+    }
+
+    /**
+     * Valida que un porcentaje de descuento esté en (0, 100].
+     *
+     * @param porcentaje El porcentaje
+     * @throws IllegalArgumentException si el porcentaje no es válido
+     */
+    static void validarPorcentaje(double porcentaje) {
+        if (!(porcentaje > 0 && porcentaje <= 100)) {
+            throw new IllegalArgumentException("El porcentaje de descuento debe estar entre 0 y 100: " + porcentaje);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.facturacion.promocion;
+
+/**
+ * Totales de una cesta con promociones aplicadas.
+ *
+ * @param subtotal La suma de precios sin descuentos ni impuestos
+ * @param descuento La suma de todos los descuentos
+ * @param impuestos Los impuestos, calculados sobre los precios con descuento
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record TotalesPromocion(double subtotal, double descuento, double impuestos) {
+
+    /**
+     * Calcula el total a pagar (subtotal - descuento + impuestos).
+     *
+     * @return El total
+     */
+    public double total() {
+        return subtotal - descuento + impuestos;
+    }
+}
@@ -0,0 +1,67 @@
+package com.facturacion.serializacion;
+
+import com.facturacion.model.Producto;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Decodificador incremental del formato producido por {@link BinaryInvoiceSerializer}.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class BinaryInvoiceDecoder implements InvoiceDecoder {
+
+    /**
+     * Decodifica el siguiente registro binario completo.
+     *
+     * @param origen El buffer de origen. No puede ser null.
+     * @return La factura decodificada, o null si el registro aún no está completo
+     * @throws NullPointerException si origen es null
+     * @throws IllegalArgumentException si el registro está mal formado
+     */
+    @Override
+    public FacturaSerializada decodificar(ByteBuffer origen) {
+        Objects.requireNonNull(origen, "El buffer de origen no puede ser null");
+        if (origen.remaining() < Integer.BYTES) {
+            return null;
+        }
+        int inicio = origen.position();
+        int longitud = origen.getInt(inicio);
+        if (longitud < 0) {
+            throw new IllegalArgumentException("Longitud de registro no válida: " + longitud);
+        }
+        if (origen.remaining() - Integer.BYTES < longitud) {
+            return null;
+        }
+
+        int fin = inicio + Integer.BYTES + longitud;
+        int limiteOriginal = origen.limit();
+        origen.position(inicio + Integer.BYTES).limit(fin);
+        try {
+            int cantidad = Varint.leerInt(origen);
+            if (cantidad < 0 || cantidad > longitud) {
+                throw new IllegalArgumentException("Cantidad de productos no válida: " + cantidad);
+            }
+            List<Producto> productos = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                productos.add(ProductoCodec.leerBinario(origen));
+            }
+            double subtotal = origen.getDouble();
+            double impuestos = origen.getDouble();
+            double total = origen.getDouble();
+            if (origen.hasRemaining()) {
+                throw new IllegalArgumentException("El registro contiene bytes sobrantes");
+            }
+            return new FacturaSerializada(productos, subtotal, impuestos, total);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Registro binario truncado en la posición " + inicio, e);
+        } finally {
+            origen.limit(limiteOriginal);
+            origen.position(fin);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.facturacion.serializacion;
+
+import com.facturacion.factura.Factura;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Serializador binario compacto de facturas, con prefijo de longitud por registro.
+ *
+ * <p>Formato de cada registro (enteros de tamaño fijo en el orden de bytes del buffer):
+ * <pre>
+ *   int     longitud del resto del registro en bytes
+ *   varint  cantidad de productos
+ *   ...     cada producto según {@link ProductoCodec#escribirBinario}
+ *   double  subtotal
+ *   double  total de impuestos
+ *   double  total
+ * </pre>
+ *
+ * <p>El prefijo de longitud permite a {@link BinaryInvoiceDecoder} saber si un registro
+ * llegó completo antes de decodificarlo, y a otros lectores saltar registros sin
+ * interpretarlos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class BinaryInvoiceSerializer implements InvoiceSerializer {
+
+    /**
+     * Serializa en formato binario una factura cuyos totales ya fueron calculados.
+     *
+     * @param factura La factura a serializar. No puede ser null.
+     * @param subtotal El subtotal de la factura
+     * @param impuestos El total de impuestos de la factura
+     * @param destino El buffer de destino. No puede ser null.
+     * @throws NullPointerException si factura o destino son null
+     * @throws BufferOverflowException si el registro no cabe en el buffer
+     */
+    @Override
+    public void serializar(Factura factura, double subtotal, double impuestos, ByteBuffer destino) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        Objects.requireNonNull(destino, "El buffer de destino no puede ser null");
+        int cantidad = factura.getCantidadProductos();
+
+        int inicio = destino.position();
+        if (destino.remaining() < Integer.BYTES) {
+            throw new BufferOverflowException();
+        }
+        try {
+            destino.position(inicio + Integer.BYTES);
+            Varint.escribirInt(destino, cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                ProductoCodec.escribirBinario(factura.getProducto(i), destino);
+            }
+            destino.putDouble(subtotal);
+            destino.putDouble(impuestos);
+            destino.putDouble(subtotal + impuestos);
+            destino.putInt(inicio, destino.position() - inicio - Integer.BYTES);
+        } catch (BufferOverflowException | IllegalArgumentException e) {
+            destino.position(inicio);
+            throw e;
+        }
+    }
+}
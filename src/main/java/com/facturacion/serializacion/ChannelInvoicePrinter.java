@@ -0,0 +1,160 @@
+package com.facturacion.serializacion;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.factura.InvoicePrinter;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.Producto;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Implementación de InvoicePrinter que serializa facturas hacia un canal de bytes.
+ *
+ * <p>Las facturas se acumulan en un único {@link ByteBuffer} reutilizable y se escriben en
+ * el canal cuando el buffer se llena o al llamar a {@link #flush()}. El formato lo decide
+ * el {@link InvoiceSerializer} inyectado por constructor, cumpliendo con
+ * <strong>Dependency Inversion Principle (DIP)</strong>.
+ *
+ * <p>Si una factura no cabe en un buffer vacío, el buffer se reemplaza por uno del doble de
+ * capacidad y se conserva para las siguientes facturas.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class ChannelInvoicePrinter implements InvoicePrinter, Flushable, Closeable {
+
+    /**
+     * Capacidad inicial por defecto del buffer, en bytes.
+     */
+    public static final int CAPACIDAD_POR_DEFECTO = 64 * 1024;
+
+    /**
+     * Canal donde se escriben las facturas serializadas.
+     */
+    private final WritableByteChannel canal;
+
+    /**
+     * Serializador que define el formato de salida.
+     */
+    private final InvoiceSerializer serializador;
+
+    /**
+     * Buffer reutilizable donde se acumulan los registros pendientes de escribir.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Constructor que usa la capacidad de buffer por defecto.
+     *
+     * @param canal El canal de salida. No puede ser null.
+     * @param serializador El serializador a utilizar. No puede ser null.
+     * @throws NullPointerException si canal o serializador son null
+     */
+    public ChannelInvoicePrinter(WritableByteChannel canal, InvoiceSerializer serializador) {
+        this(canal, serializador, CAPACIDAD_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor que permite indicar la capacidad inicial del buffer.
+     *
+     * @param canal El canal de salida. No puede ser null.
+     * @param serializador El serializador a utilizar. No puede ser null.
+     * @param capacidad La capacidad inicial del buffer en bytes. Debe ser > 0.
+     * @throws NullPointerException si canal o serializador son null
+     * @throws IllegalArgumentException si capacidad no es positiva
+     */
+    public ChannelInvoicePrinter(WritableByteChannel canal, InvoiceSerializer serializador, int capacidad) {
+        this.canal = Objects.requireNonNull(canal, "El canal de salida no puede ser null");
+        this.serializador = Objects.requireNonNull(serializador, "El serializador no puede ser null");
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacidad);
+        }
+        this.buffer = ByteBuffer.allocateDirect(capacidad);
+    }
+
+    /**
+     * Serializa la factura en el buffer, escribiendo en el canal si es necesario.
+     *
+     * <p>Los impuestos se calculan con el mapa de reglas recibido, igual que en las demás
+     * implementaciones de InvoicePrinter, y se calculan una sola vez aunque haya que vaciar
+     * el buffer y reintentar.
+     *
+     * @param factura La factura a imprimir. No puede ser null.
+     * @param reglasImpuesto Mapa de reglas de impuesto. No puede ser null.
+     * @throws NullPointerException si factura o reglasImpuesto son null
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto en el mapa
+     * @throws UncheckedIOException si falla la escritura en el canal
+     */
+    @Override
+    public void imprimir(Factura factura, Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        Objects.requireNonNull(reglasImpuesto, "Las reglas de impuesto no pueden ser null");
+
+        double subtotal = factura.calcularSubtotal();
+        double impuestos = 0.0;
+        for (int i = 0, n = factura.getCantidadProductos(); i < n; i++) {
+            Producto producto = factura.getProducto(i);
+            impuestos += ReglasImpuesto.obtener(reglasImpuesto, producto).calcularImpuesto(producto);
+        }
+
+        while (true) {
+            try {
+                serializador.serializar(factura, subtotal, impuestos, buffer);
+                return;
+            } catch (BufferOverflowException e) {
+                if (buffer.position() > 0) {
+                    vaciar();
+                } else {
+                    buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                }
+            }
+        }
+    }
+
+    /**
+     * Escribe en el canal todos los registros pendientes.
+     *
+     * @throws UncheckedIOException si falla la escritura en el canal
+     */
+    @Override
+    public void flush() {
+        vaciar();
+    }
+
+    /**
+     * Escribe los registros pendientes y cierra el canal.
+     *
+     * @throws IOException si falla la escritura o el cierre del canal
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            vaciar();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            canal.close();
+        }
+    }
+
+    private void vaciar() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al escribir facturas en el canal", e);
+        } finally {
+            buffer.clear();
+        }
+    }
+}
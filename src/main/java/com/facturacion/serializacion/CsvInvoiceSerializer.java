@@ -0,0 +1,55 @@
+package com.facturacion.serializacion;
+
+import com.facturacion.factura.Factura;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Serializador de totales de factura en texto delimitado por punto y coma.
+ *
+ * <p>Escribe una línea por factura con la forma {@code productos;subtotal;impuestos;total},
+ * por ejemplo {@code 6;1665500.00;395175.00;2060675.00}. No incluye el detalle de los
+ * productos, por lo que es el formato más compacto para conciliaciones y hojas de cálculo.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class CsvInvoiceSerializer implements InvoiceSerializer {
+
+    /**
+     * Encabezado con los nombres de las columnas, terminado en salto de línea.
+     */
+    public static final String ENCABEZADO = "productos;subtotal;impuestos;total\n";
+
+    /**
+     * Serializa los totales de una factura como una línea de texto.
+     *
+     * @param factura La factura a serializar. No puede ser null.
+     * @param subtotal El subtotal de la factura
+     * @param impuestos El total de impuestos de la factura
+     * @param destino El buffer de destino. No puede ser null.
+     * @throws NullPointerException si factura o destino son null
+     * @throws BufferOverflowException si la línea no cabe en el buffer
+     */
+    @Override
+    public void serializar(Factura factura, double subtotal, double impuestos, ByteBuffer destino) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        Objects.requireNonNull(destino, "El buffer de destino no puede ser null");
+
+        int inicio = destino.position();
+        try {
+            EscritorJson.entero(destino, factura.getCantidadProductos());
+            destino.put((byte) ';');
+            EscritorJson.numero(destino, subtotal);
+            destino.put((byte) ';');
+            EscritorJson.numero(destino, impuestos);
+            destino.put((byte) ';');
+            EscritorJson.numero(destino, subtotal + impuestos);
+            destino.put((byte) '\n');
+        } catch (BufferOverflowException | IllegalArgumentException e) {
+            destino.position(inicio);
+            throw e;
+        }
+    }
+}
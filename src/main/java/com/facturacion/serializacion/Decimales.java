@@ -0,0 +1,100 @@
+package com.facturacion.serializacion;
+
+/**
+ * Conversión rápida de texto decimal a {@code double} sin expresiones regulares.
+ *
+ * <p>Los montos de una factura casi siempre tienen pocos dígitos y a lo sumo dos
+ * decimales. En ese caso la mantisa y la potencia de diez son exactamente representables
+ * como {@code double}, y una sola división (correctamente redondeada por IEEE 754)
+ * produce el mismo resultado que {@link Double#parseDouble}. Los casos fuera de ese
+ * rango (exponentes, más de 15 dígitos) se delegan al analizador estándar.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class Decimales {
+
+    /**
+     * Cantidad máxima de dígitos significativos que se acumulan de forma exacta.
+     */
+    static final int MAX_DIGITOS_EXACTOS = 15;
+
+    /**
+     * Potencias de diez exactamente representables como double.
+     */
+    private static final double[] POTENCIAS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private Decimales() {
+    }
+
+    /**
+     * Analiza un número decimal contenido en un fragmento de texto.
+     *
+     * <p>Acepta un signo opcional, dígitos y una parte fraccionaria opcional. Cualquier
+     * otro formato válido para {@link Double#parseDouble} (exponentes, "Infinity") se
+     * resuelve mediante el analizador estándar.
+     *
+     * @param texto El texto que contiene el número
+     * @param desde Índice del primer carácter (inclusive)
+     * @param hasta Índice final (exclusivo)
+     * @return El valor analizado
+     * @throws NumberFormatException si el fragmento no es un número válido
+     */
+    public static double parsear(CharSequence texto, int desde, int hasta) {
+        int i = desde;
+        boolean negativo = false;
+        if (i < hasta && (texto.charAt(i) == '-' || texto.charAt(i) == '+')) {
+            negativo = texto.charAt(i) == '-';
+            i++;
+        }
+        int inicioDigitos = i;
+        long mantisa = 0;
+        int digitos = 0;
+        int decimales = -1;
+        for (; i < hasta; i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantisa = mantisa * 10 + (c - '0');
+                if (mantisa != 0 || decimales >= 0) {
+                    digitos++;
+                }
+                if (decimales >= 0) {
+                    decimales++;
+                }
+            } else if (c == '.' && decimales < 0) {
+                decimales = 0;
+            } else {
+                return Double.parseDouble(texto.subSequence(desde, hasta).toString().trim());
+            }
+        }
+        int caracteres = hasta - inicioDigitos;
+        if (caracteres == 0 || (decimales >= 0 && caracteres == 1)) {
+            throw new NumberFormatException("Número no válido: \"" + texto.subSequence(desde, hasta) + "\"");
+        }
+        if (digitos > MAX_DIGITOS_EXACTOS) {
+            return Double.parseDouble(texto.subSequence(desde, hasta).toString());
+        }
+        return componer(mantisa, Math.max(decimales, 0), negativo);
+    }
+
+    /**
+     * Construye el double correspondiente a {@code mantisa / 10^decimales}.
+     *
+     * <p>El resultado es exacto (igual al de {@link Double#parseDouble}) siempre que la
+     * mantisa tenga a lo sumo {@value #MAX_DIGITOS_EXACTOS} dígitos.
+     *
+     * @param mantisa Los dígitos del número sin punto decimal
+     * @param decimales La cantidad de dígitos después del punto decimal
+     * @param negativo true si el número es negativo
+     * @return El valor correspondiente
+     */
+    static double componer(long mantisa, int decimales, boolean negativo) {
+        double valor = decimales < POTENCIAS.length
+            ? mantisa / POTENCIAS[decimales]
+            : Double.parseDouble(mantisa + "e-" + decimales);
+        return negativo ? -valor : valor;
+    }
+}
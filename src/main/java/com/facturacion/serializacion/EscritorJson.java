@@ -0,0 +1,145 @@
+package com.facturacion.serializacion;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Primitivas para escribir JSON directamente sobre un {@link ByteBuffer}.
+ *
+ * <p>Los codificadores escritos a mano usan estas operaciones en lugar de construir
+ * cadenas intermedias o recurrir a reflexión. Los montos con a lo sumo dos decimales se
+ * escriben por un camino rápido sin asignaciones; el resto recurre a
+ * {@link Double#toString(double)}, que garantiza la ida y vuelta exacta.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class EscritorJson {
+
+    /**
+     * Dígitos hexadecimales para los escapes {@code \\uXXXX}.
+     */
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Límite por debajo del cual el monto en centavos cabe exactamente en un double.
+     */
+    private static final double LIMITE_CAMINO_RAPIDO = 1e13;
+
+    private EscritorJson() {
+    }
+
+    /**
+     * Escribe una cadena ASCII sin comillas ni escapes (nombres de campo, literales).
+     *
+     * @param destino El buffer de destino
+     * @param texto La cadena ASCII a escribir
+     * @throws BufferOverflowException si el buffer no tiene espacio suficiente
+     */
+    public static void ascii(ByteBuffer destino, String texto) {
+        int longitud = texto.length();
+        if (destino.remaining() < longitud) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < longitud; i++) {
+            destino.put((byte) texto.charAt(i));
+        }
+    }
+
+    /**
+     * Escribe una cadena JSON entre comillas, escapando los caracteres necesarios.
+     *
+     * @param destino El buffer de destino
+     * @param texto La cadena a escribir
+     * @throws BufferOverflowException si el buffer no tiene espacio suficiente
+     */
+    public static void cadena(ByteBuffer destino, String texto) {
+        destino.put((byte) '"');
+        int longitud = texto.length();
+        int inicioTramo = 0;
+        for (int i = 0; i < longitud; i++) {
+            char c = texto.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                Utf8.escribir(texto, inicioTramo, i, destino);
+                escapar(destino, c);
+                inicioTramo = i + 1;
+            }
+        }
+        Utf8.escribir(texto, inicioTramo, longitud, destino);
+        destino.put((byte) '"');
+    }
+
+    /**
+     * Escribe un número JSON.
+     *
+     * @param destino El buffer de destino
+     * @param valor El valor a escribir; debe ser finito
+     * @throws BufferOverflowException si el buffer no tiene espacio suficiente
+     * @throws IllegalArgumentException si el valor es NaN o infinito
+     */
+    public static void numero(ByteBuffer destino, double valor) {
+        if (Double.isNaN(valor) || Double.isInfinite(valor)) {
+            throw new IllegalArgumentException("JSON no admite el valor: " + valor);
+        }
+        double magnitud = Math.abs(valor);
+        if (magnitud < LIMITE_CAMINO_RAPIDO) {
+            long centavos = Math.round(magnitud * 100.0);
+            if (centavos / 100.0 == magnitud) {
+                if (valor < 0) {
+                    destino.put((byte) '-');
+                }
+                entero(destino, centavos / 100);
+                destino.put((byte) '.');
+                int fraccion = (int) (centavos % 100);
+                destino.put((byte) ('0' + fraccion / 10));
+                destino.put((byte) ('0' + fraccion % 10));
+                return;
+            }
+        }
+        ascii(destino, Double.toString(valor));
+    }
+
+    /**
+     * Escribe un entero no negativo en base decimal.
+     *
+     * @param destino El buffer de destino
+     * @param valor El valor, mayor o igual a cero
+     * @throws BufferOverflowException si el buffer no tiene espacio suficiente
+     */
+    public static void entero(ByteBuffer destino, long valor) {
+        int digitos = 1;
+        for (long resto = valor; resto >= 10; resto /= 10) {
+            digitos++;
+        }
+        if (destino.remaining() < digitos) {
+            throw new BufferOverflowException();
+        }
+        int inicio = destino.position();
+        for (int i = inicio + digitos - 1; i >= inicio; i--) {
+            destino.put(i, (byte) ('0' + valor % 10));
+            valor /= 10;
+        }
+        destino.position(inicio + digitos);
+    }
+
+    private static void escapar(ByteBuffer destino, char c) {
+        destino.put((byte) '\\');
+        switch (c) {
+            case '"' -> destino.put((byte) '"');
+            case '\\' -> destino.put((byte) '\\');
+            case '\n' -> destino.put((byte) 'n');
+            case '\r' -> destino.put((byte) 'r');
+            case '\t' -> destino.put((byte) 't');
+            case '\b' -> destino.put((byte) 'b');
+            case '\f' -> destino.put((byte) 'f');
+            default -> {
+                destino.put((byte) 'u');
+                destino.put((byte) '0');
+                destino.put((byte) '0');
+                destino.put(HEX[c >> 4]);
+                destino.put(HEX[c & 0xF]);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.facturacion.serializacion;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Resultado de decodificar una factura: sus productos y los totales calculados por el
+ * sistema que la serializó.
+ *
+ * <p>Los totales se conservan tal como fueron transmitidos, de modo que el receptor puede
+ * usarlos directamente o reconstruir una {@link Factura} con sus propias reglas de
+ * impuesto mediante {@link #aFactura(Map)}.
+ *
+ * @param productos Los productos de la factura, en orden
+ * @param subtotal El subtotal calculado (suma de precios sin impuestos)
+ * @param impuestos El total de impuestos calculado
+ * @param total El total calculado (subtotal + impuestos)
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record FacturaSerializada(List<Producto> productos, double subtotal, double impuestos, double total) {
+
+    /**
+     * Constructor canónico que valida los productos y los expone como lista inmodificable.
+     *
+     * @throws NullPointerException si productos es null
+     */
+    public FacturaSerializada {
+        productos = Collections.unmodifiableList(
+            Objects.requireNonNull(productos, "Los productos no pueden ser null"));
+    }
+
+    /**
+     * Reconstruye una factura con los productos decodificados.
+     *
+     * @param reglasImpuesto Las reglas de impuesto de la nueva factura. No puede ser null.
+     * @return Una factura nueva con los mismos productos
+     * @throws NullPointerException si reglasImpuesto es null
+     */
+    public Factura aFactura(Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        Factura factura = new Factura(reglasImpuesto);
+        for (Producto producto : productos) {
+            factura.agregarProducto(producto);
+        }
+        return factura;
+    }
+}
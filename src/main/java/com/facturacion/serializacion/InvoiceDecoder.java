@@ -0,0 +1,27 @@
+package com.facturacion.serializacion;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interfaz para decodificar, de forma incremental, facturas serializadas por un
+ * {@link InvoiceSerializer}.
+ *
+ * <p>Los decodificadores están pensados para leer de un flujo: si el buffer contiene solo
+ * una parte del siguiente registro, devuelven null sin consumir nada, y el llamador puede
+ * compactar el buffer, leer más bytes y volver a intentarlo.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public interface InvoiceDecoder {
+
+    /**
+     * Decodifica el siguiente registro completo a partir de la posición actual del buffer.
+     *
+     * @param origen El buffer de origen. No puede ser null.
+     * @return La factura decodificada, o null si el buffer no contiene un registro completo
+     * @throws NullPointerException si origen es null
+     * @throws IllegalArgumentException si el registro está mal formado
+     */
+    FacturaSerializada decodificar(ByteBuffer origen);
+}
@@ -0,0 +1,54 @@
+package com.facturacion.serializacion;
+
+import com.facturacion.factura.Factura;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Interfaz para serializar facturas calculadas sobre un buffer de bytes reutilizable.
+ *
+ * <p>Al igual que {@link com.facturacion.factura.InvoicePrinter}, cumple con
+ * <strong>Interface Segregation Principle (ISP)</strong>: define únicamente la operación
+ * de serialización, y cada formato (JSON, binario) es una implementación intercambiable.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public interface InvoiceSerializer {
+
+    /**
+     * Serializa una factura, con sus productos y totales calculados, a partir de la
+     * posición actual del buffer.
+     *
+     * <p>Si el registro no cabe en el espacio restante se lanza
+     * {@link java.nio.BufferOverflowException} y la posición del buffer queda como estaba,
+     * de modo que el llamador puede vaciar el buffer y reintentar.
+     *
+     * @param factura La factura a serializar. No puede ser null.
+     * @param destino El buffer de destino. No puede ser null.
+     * @throws NullPointerException si factura o destino son null
+     * @throws IllegalStateException si algún producto no tiene una regla de impuesto registrada
+     * @throws java.nio.BufferOverflowException si el registro no cabe en el buffer
+     */
+    default void serializar(Factura factura, ByteBuffer destino) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        double subtotal = factura.calcularSubtotal();
+        serializar(factura, subtotal, factura.calcularTotalImpuestos(), destino);
+    }
+
+    /**
+     * Serializa una factura cuyos totales ya fueron calculados por el llamador.
+     *
+     * <p>Permite a quien ya necesitó el subtotal y los impuestos (por ejemplo, para
+     * acumularlos) no recalcularlos al serializar. Se aplican las mismas garantías sobre
+     * la posición del buffer que en {@link #serializar(Factura, ByteBuffer)}.
+     *
+     * @param factura La factura a serializar. No puede ser null.
+     * @param subtotal El subtotal de la factura
+     * @param impuestos El total de impuestos de la factura
+     * @param destino El buffer de destino. No puede ser null.
+     * @throws NullPointerException si factura o destino son null
+     * @throws java.nio.BufferOverflowException si el registro no cabe en el buffer
+     */
+    void serializar(Factura factura, double subtotal, double impuestos, ByteBuffer destino);
+}
@@ -0,0 +1,84 @@
+package com.facturacion.serializacion;
+
+import com.facturacion.model.Producto;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Decodificador incremental del formato producido por {@link JsonInvoiceSerializer}.
+ *
+ * <p>Un registro se considera completo cuando el buffer contiene su salto de línea final.
+ * Las claves pueden aparecer en cualquier orden y las desconocidas se ignoran, de modo que
+ * el formato puede ampliarse sin romper a los lectores existentes.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class JsonInvoiceDecoder implements InvoiceDecoder {
+
+    /**
+     * Claves reconocidas en el objeto de factura.
+     */
+    private static final String[] CLAVES = {"productos", "subtotal", "impuestos", "total"};
+
+    /**
+     * Decodifica la siguiente línea JSON completa.
+     *
+     * @param origen El buffer de origen. No puede ser null.
+     * @return La factura decodificada, o null si la línea aún no está completa
+     * @throws NullPointerException si origen es null
+     * @throws IllegalArgumentException si el registro está mal formado
+     */
+    @Override
+    public FacturaSerializada decodificar(ByteBuffer origen) {
+        Objects.requireNonNull(origen, "El buffer de origen no puede ser null");
+        int inicio = origen.position();
+        int limiteOriginal = origen.limit();
+        int finLinea = inicio;
+        while (finLinea < limiteOriginal && origen.get(finLinea) != '\n') {
+            finLinea++;
+        }
+        if (finLinea == limiteOriginal) {
+            return null;
+        }
+
+        origen.limit(finLinea);
+        try {
+            LectorJson lector = new LectorJson(origen);
+            List<Producto> productos = new ArrayList<>();
+            double subtotal = 0.0;
+            double impuestos = 0.0;
+            double total = 0.0;
+            lector.esperar('{');
+            if (!lector.consumirSi('}')) {
+                do {
+                    switch (lector.leerClave(CLAVES)) {
+                        case 0 -> {
+                            lector.esperar('[');
+                            if (!lector.consumirSi(']')) {
+                                do {
+                                    productos.add(ProductoCodec.leerJson(lector));
+                                } while (lector.consumirSi(','));
+                                lector.esperar(']');
+                            }
+                        }
+                        case 1 -> subtotal = lector.leerNumero();
+                        case 2 -> impuestos = lector.leerNumero();
+                        case 3 -> total = lector.leerNumero();
+                        default -> lector.saltarValor();
+                    }
+                } while (lector.consumirSi(','));
+                lector.esperar('}');
+            }
+            if (lector.siguiente() != -1) {
+                throw new IllegalArgumentException("Contenido inesperado después del objeto JSON");
+            }
+            return new FacturaSerializada(productos, subtotal, impuestos, total);
+        } finally {
+            origen.limit(limiteOriginal);
+            origen.position(finLinea + 1);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.facturacion.serializacion;
+
+import com.facturacion.factura.Factura;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Serializador JSON de facturas, un objeto por línea (JSON delimitado por saltos de línea).
+ *
+ * <p>Cada registro tiene la forma:
+ * <pre>
+ * {"productos":[{"categoria":"ALIMENTO","nombre":"Pan","precio":5000.00}],
+ *  "subtotal":5000.00,"impuestos":250.00,"total":5250.00}
+ * </pre>
+ * seguido de {@code '\n'} (sin los saltos intermedios mostrados aquí). La escritura se
+ * hace directamente en UTF-8 sobre el buffer, sin reflexión ni cadenas intermedias.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class JsonInvoiceSerializer implements InvoiceSerializer {
+
+    /**
+     * Serializa en formato JSON una factura cuyos totales ya fueron calculados.
+     *
+     * @param factura La factura a serializar. No puede ser null.
+     * @param subtotal El subtotal de la factura
+     * @param impuestos El total de impuestos de la factura
+     * @param destino El buffer de destino. No puede ser null.
+     * @throws NullPointerException si factura o destino son null
+     * @throws BufferOverflowException si el registro no cabe en el buffer
+     */
+    @Override
+    public void serializar(Factura factura, double subtotal, double impuestos, ByteBuffer destino) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        Objects.requireNonNull(destino, "El buffer de destino no puede ser null");
+        int cantidad = factura.getCantidadProductos();
+
+        int inicio = destino.position();
+        try {
+            EscritorJson.ascii(destino, "{\"productos\":[");
+            for (int i = 0; i < cantidad; i++) {
+                if (i > 0) {
+                    destino.put((byte) ',');
+                }
+                ProductoCodec.escribirJson(factura.getProducto(i), destino);
+            }
+            EscritorJson.ascii(destino, "],\"subtotal\":");
+            EscritorJson.numero(destino, subtotal);
+            EscritorJson.ascii(destino, ",\"impuestos\":");
+            EscritorJson.numero(destino, impuestos);
+            EscritorJson.ascii(destino, ",\"total\":");
+            EscritorJson.numero(destino, subtotal + impuestos);
+            destino.put((byte) '}');
+            destino.put((byte) '\n');
+        } catch (BufferOverflowException | IllegalArgumentException e) {
+            destino.position(inicio);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.facturacion.serializacion;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Analizador JSON de tipo "pull" que recorre un {@link ByteBuffer} sin construir un árbol.
+ *
+ * <p>Los decodificadores escritos a mano piden al lector exactamente lo que esperan
+ * (un objeto, una clave, un número) en el orden en que lo esperan. Las claves se comparan
+ * byte a byte contra una tabla de nombres conocidos, de modo que reconocer un campo no
+ * genera basura. Los campos desconocidos se saltan con {@link #saltarValor()}.
+ *
+ * <p>El lector avanza la posición del buffer a medida que consume la entrada. Los errores
+ * de formato se informan con {@link IllegalArgumentException}.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class LectorJson {
+
+    /**
+     * Tabla vacía usada al saltar objetos cuyas claves no interesan.
+     */
+    private static final String[] SIN_CLAVES = new String[0];
+
+    /**
+     * Buffer que contiene el texto JSON en UTF-8.
+     */
+    private final ByteBuffer origen;
+
+    /**
+     * Constructor que crea un lector sobre la región pendiente del buffer.
+     *
+     * @param origen El buffer con el texto JSON. No puede ser null.
+     * @throws NullPointerException si origen es null
+     */
+    public LectorJson(ByteBuffer origen) {
+        this.origen = Objects.requireNonNull(origen, "El buffer de origen no puede ser null");
+    }
+
+    /**
+     * Consume el carácter esperado, ignorando los espacios previos.
+     *
+     * @param esperado El carácter estructural esperado ({, }, [, ], :, ,)
+     * @throws IllegalArgumentException si la entrada contiene otro carácter
+     */
+    public void esperar(char esperado) {
+        int actual = siguiente();
+        if (actual != esperado) {
+            throw error("se esperaba '" + esperado + "'");
+        }
+        origen.get();
+    }
+
+    /**
+     * Consume el carácter indicado si es el siguiente en la entrada.
+     *
+     * @param caracter El carácter a consumir
+     * @return true si el carácter estaba presente y fue consumido
+     */
+    public boolean consumirSi(char caracter) {
+        if (siguiente() == caracter) {
+            origen.get();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Devuelve el siguiente carácter significativo sin consumirlo.
+     *
+     * @return El siguiente byte distinto de espacio, o -1 si la entrada terminó
+     */
+    public int siguiente() {
+        while (origen.hasRemaining()) {
+            byte b = origen.get(origen.position());
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return b;
+            }
+            origen.position(origen.position() + 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Lee una clave de objeto y el separador ':' que la sigue, identificándola contra
+     * una tabla de claves conocidas sin crear cadenas.
+     *
+     * @param claves Las claves conocidas, en ASCII
+     * @return El índice de la clave en la tabla, o -1 si la clave no es conocida
+     * @throws IllegalArgumentException si la entrada no contiene una clave válida
+     */
+    public int leerClave(String[] claves) {
+        int indice = leerCadenaConocida(claves);
+        esperar(':');
+        return indice;
+    }
+
+    /**
+     * Lee una cadena JSON y la identifica contra una tabla de valores conocidos sin crear
+     * cadenas. Útil para claves y para valores enumerados.
+     *
+     * @param valores Los valores conocidos, en ASCII
+     * @return El índice del valor en la tabla, o -1 si el valor no es conocido
+     * @throws IllegalArgumentException si la entrada no contiene una cadena válida
+     */
+    public int leerCadenaConocida(String[] valores) {
+        esperar('"');
+        int inicio = origen.position();
+        int fin = inicio;
+        int limite = origen.limit();
+        boolean conEscapes = false;
+        while (fin < limite && origen.get(fin) != '"') {
+            if (origen.get(fin) == '\\') {
+                conEscapes = true;
+                fin++;
+            }
+            fin++;
+        }
+        if (fin >= limite) {
+            throw error("cadena sin terminar");
+        }
+        if (conEscapes) {
+            origen.position(inicio - 1);
+            String valor = leerCadena();
+            for (int k = 0; k < valores.length; k++) {
+                if (valores[k].equals(valor)) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+        origen.position(fin + 1);
+        for (int k = 0; k < valores.length; k++) {
+            if (coincide(valores[k], inicio, fin)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Lee una cadena JSON, resolviendo los escapes.
+     *
+     * @return La cadena leída
+     * @throws IllegalArgumentException si la entrada no contiene una cadena válida
+     */
+    public String leerCadena() {
+        esperar('"');
+        int inicio = origen.position();
+        int limite = origen.limit();
+        for (int i = inicio; i < limite; i++) {
+            byte b = origen.get(i);
+            if (b == '"') {
+                String texto = Utf8.leer(origen, i - inicio);
+                origen.get();
+                return texto;
+            }
+            if (b == '\\') {
+                return leerCadenaConEscapes(inicio);
+            }
+        }
+        throw error("cadena sin terminar");
+    }
+
+    /**
+     * Lee un número JSON.
+     *
+     * @return El valor leído
+     * @throws IllegalArgumentException si la entrada no contiene un número válido
+     */
+    public double leerNumero() {
+        siguiente();
+        int inicio = origen.position();
+        int limite = origen.limit();
+        int i = inicio;
+        boolean negativo = false;
+        if (i < limite && origen.get(i) == '-') {
+            negativo = true;
+            i++;
+        }
+        long mantisa = 0;
+        int digitos = 0;
+        int decimales = -1;
+        int inicioDigitos = i;
+        boolean general = false;
+        for (; i < limite; i++) {
+            byte b = origen.get(i);
+            if (b >= '0' && b <= '9') {
+                mantisa = mantisa * 10 + (b - '0');
+                if (mantisa != 0 || decimales >= 0) {
+                    digitos++;
+                }
+                if (decimales >= 0) {
+                    decimales++;
+                }
+            } else if (b == '.' && decimales < 0) {
+                decimales = 0;
+            } else if (b == 'e' || b == 'E' || b == '+' || (b == '-' && general)) {
+                general = true;
+            } else {
+                break;
+            }
+        }
+        if (i == inicioDigitos || decimales == 0) {
+            throw error("número no válido");
+        }
+        origen.position(i);
+        if (general || digitos > Decimales.MAX_DIGITOS_EXACTOS) {
+            StringBuilder texto = new StringBuilder(i - inicio);
+            for (int k = inicio; k < i; k++) {
+                texto.append((char) origen.get(k));
+            }
+            try {
+                return Double.parseDouble(texto.toString());
+            } catch (NumberFormatException e) {
+                throw error("número no válido: " + texto);
+            }
+        }
+        return Decimales.componer(mantisa, Math.max(decimales, 0), negativo);
+    }
+
+    /**
+     * Salta el siguiente valor JSON completo (cadena, número, literal, objeto o arreglo).
+     *
+     * @throws IllegalArgumentException si la entrada no contiene un valor válido
+     */
+    public void saltarValor() {
+        int actual = siguiente();
+        switch (actual) {
+            case '"' -> leerCadena();
+            case '{' -> {
+                origen.get();
+                if (!consumirSi('}')) {
+                    do {
+                        leerClave(SIN_CLAVES);
+                        saltarValor();
+                    } while (consumirSi(','));
+                    esperar('}');
+                }
+            }
+            case '[' -> {
+                origen.get();
+                if (!consumirSi(']')) {
+                    do {
+                        saltarValor();
+                    } while (consumirSi(','));
+                    esperar(']');
+                }
+            }
+            case 't' -> literal("true");
+            case 'f' -> literal("false");
+            case 'n' -> literal("null");
+            default -> leerNumero();
+        }
+    }
+
+    private void literal(String texto) {
+        int inicio = origen.position();
+        if (origen.remaining() < texto.length() || !coincide(texto, inicio, inicio + texto.length())) {
+            throw error("literal no válido");
+        }
+        origen.position(inicio + texto.length());
+    }
+
+    private boolean coincide(String clave, int inicio, int fin) {
+        if (clave.length() != fin - inicio) {
+            return false;
+        }
+        for (int k = 0; k < clave.length(); k++) {
+            if (origen.get(inicio + k) != clave.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String leerCadenaConEscapes(int inicio) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StringBuilder texto = new StringBuilder();
+        int i = inicio;
+        int limite = origen.limit();
+        while (i < limite) {
+            byte b = origen.get(i++);
+            if (b == '"') {
+                origen.position(i);
+                return texto.append(bytes.toString(StandardCharsets.UTF_8)).toString();
+            }
+            if (b != '\\') {
+                bytes.write(b);
+                continue;
+            }
+            if (i >= limite) {
+                break;
+            }
+            byte escape = origen.get(i++);
+            char c = switch (escape) {
+                case '"' -> '"';
+                case '\\' -> '\\';
+                case '/' -> '/';
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                case 't' -> '\t';
+                case 'u' -> {
+                    if (i + 4 > limite) {
+                        throw error("escape unicode incompleto");
+                    }
+                    int valor = 0;
+                    for (int k = 0; k < 4; k++) {
+                        valor = valor * 16 + Character.digit(origen.get(i++), 16);
+                    }
+                    if (valor < 0) {
+                        throw error("escape unicode no válido");
+                    }
+                    yield (char) valor;
+                }
+                default -> throw error("escape no válido");
+            };
+            texto.append(bytes.toString(StandardCharsets.UTF_8)).append(c);
+            bytes.reset();
+        }
+        throw error("cadena sin terminar");
+    }
+
+    private IllegalArgumentException error(String detalle) {
+        return new IllegalArgumentException(
+            String.format("JSON mal formado en la posición %d: %s", origen.position(), detalle));
+    }
+}
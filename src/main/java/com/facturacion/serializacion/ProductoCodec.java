@@ -0,0 +1,165 @@
+package com.facturacion.serializacion;
+
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+
+/**
+ * Codec escrito a mano para las subclases de {@link Producto}.
+ *
+ * <p>La subclase concreta se identifica mediante {@link CategoriaProducto}, sin reflexión.
+ * En binario un producto ocupa un byte de categoría, la longitud del nombre en varint,
+ * el nombre en UTF-8 y el precio como double de 8 bytes. En JSON se representa como
+ * {@code {"categoria":"ALIMENTO","nombre":"Pan","precio":5000.00}}.
+ *
+ * <p>La moneda del precio solo se escribe si no es {@link Producto#MONEDA_POR_DEFECTO},
+ * de modo que los registros en la moneda por defecto no cambian: en binario se marca con
+ * el bit {@link #MARCA_MONEDA} del byte de categoría y se agregan los 3 caracteres ASCII
+ * del código ISO 4217 después del precio; en JSON se agrega la clave {@code "moneda"}.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class ProductoCodec {
+
+    /**
+     * Claves reconocidas en la representación JSON de un producto.
+     */
+    private static final String[] CLAVES_JSON = {"categoria", "nombre", "precio", "moneda"};
+
+    /**
+     * Bit del byte de categoría que indica que el precio no está en la moneda por defecto.
+     */
+    static final int MARCA_MONEDA = 0x80;
+
+    /**
+     * Nombres de las categorías en el orden de {@link CategoriaProducto#values()}.
+     */
+    private static final String[] NOMBRES_CATEGORIA = new String[CategoriaProducto.values().length];
+
+    /**
+     * Categorías en el mismo orden que {@link #NOMBRES_CATEGORIA}.
+     */
+    private static final CategoriaProducto[] CATEGORIAS = CategoriaProducto.values();
+
+    /**
+     * Prefijo JSON precalculado para cada categoría, indexado por código.
+     */
+    private static final byte[][] PREFIJOS_JSON = new byte[4][];
+
+    static {
+        for (CategoriaProducto categoria : CATEGORIAS) {
+            NOMBRES_CATEGORIA[categoria.ordinal()] = categoria.name();
+            PREFIJOS_JSON[categoria.getCodigo()] = ("{\"categoria\":\"" + categoria.name() + "\",\"nombre\":")
+                .getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private ProductoCodec() {
+    }
+
+    /**
+     * Escribe un producto en formato binario.
+     *
+     * @param producto El producto a escribir
+     * @param destino El buffer de destino
+     * @throws IllegalArgumentException si el producto no pertenece a una categoría conocida
+     * @throws java.nio.BufferOverflowException si el buffer no tiene espacio suficiente
+     */
+    public static void escribirBinario(Producto producto, ByteBuffer destino) {
+        CategoriaProducto categoria = CategoriaProducto.de(producto);
+        String nombre = producto.getNombre();
+        Currency moneda = producto.getMoneda();
+        boolean otraMoneda = moneda != Producto.MONEDA_POR_DEFECTO;
+        destino.put((byte) (categoria.getCodigo() | (otraMoneda ? MARCA_MONEDA : 0)));
+        Varint.escribirInt(destino, Utf8.longitud(nombre));
+        Utf8.escribir(nombre, destino);
+        destino.putDouble(producto.getPrecio());
+        if (otraMoneda) {
+            String codigo = moneda.getCurrencyCode();
+            for (int i = 0; i < codigo.length(); i++) {
+                destino.put((byte) codigo.charAt(i));
+            }
+        }
+    }
+
+    /**
+     * Lee un producto en formato binario.
+     *
+     * @param origen El buffer de origen
+     * @return El producto leído
+     * @throws IllegalArgumentException si la categoría, el precio o la moneda no son válidos
+     * @throws java.nio.BufferUnderflowException si el buffer termina antes que el producto
+     */
+    public static Producto leerBinario(ByteBuffer origen) {
+        int cabecera = origen.get() & 0xFF;
+        CategoriaProducto categoria = CategoriaProducto.porCodigo(cabecera & ~MARCA_MONEDA);
+        String nombre = Utf8.leer(origen, Varint.leerInt(origen));
+        double precio = origen.getDouble();
+        if ((cabecera & MARCA_MONEDA) == 0) {
+            return categoria.crear(nombre, precio);
+        }
+        char[] codigo = {(char) origen.get(), (char) origen.get(), (char) origen.get()};
+        return categoria.crear(nombre, precio, Currency.getInstance(new String(codigo)));
+    }
+
+    /**
+     * Escribe un producto en formato JSON.
+     *
+     * @param producto El producto a escribir
+     * @param destino El buffer de destino
+     * @throws IllegalArgumentException si el producto no pertenece a una categoría conocida
+     * @throws java.nio.BufferOverflowException si el buffer no tiene espacio suficiente
+     */
+    public static void escribirJson(Producto producto, ByteBuffer destino) {
+        destino.put(PREFIJOS_JSON[CategoriaProducto.de(producto).getCodigo()]);
+        EscritorJson.cadena(destino, producto.getNombre());
+        EscritorJson.ascii(destino, ",\"precio\":");
+        EscritorJson.numero(destino, producto.getPrecio());
+        if (producto.getMoneda() != Producto.MONEDA_POR_DEFECTO) {
+            EscritorJson.ascii(destino, ",\"moneda\":\"");
+            EscritorJson.ascii(destino, producto.getMoneda().getCurrencyCode());
+            destino.put((byte) '"');
+        }
+        destino.put((byte) '}');
+    }
+
+    /**
+     * Lee un producto en formato JSON. Las claves pueden aparecer en cualquier orden.
+     *
+     * @param lector El lector posicionado al inicio del objeto
+     * @return El producto leído
+     * @throws IllegalArgumentException si el objeto no es válido o le falta algún campo
+     */
+    public static Producto leerJson(LectorJson lector) {
+        CategoriaProducto categoria = null;
+        String nombre = null;
+        double precio = Double.NaN;
+        Currency moneda = Producto.MONEDA_POR_DEFECTO;
+        lector.esperar('{');
+        if (!lector.consumirSi('}')) {
+            do {
+                switch (lector.leerClave(CLAVES_JSON)) {
+                    case 0 -> {
+                        int indice = lector.leerCadenaConocida(NOMBRES_CATEGORIA);
+                        if (indice < 0) {
+                            throw new IllegalArgumentException("Categoría de producto desconocida");
+                        }
+                        categoria = CATEGORIAS[indice];
+                    }
+                    case 1 -> nombre = lector.leerCadena();
+                    case 2 -> precio = lector.leerNumero();
+                    case 3 -> moneda = Currency.getInstance(lector.leerCadena());
+                    default -> lector.saltarValor();
+                }
+            } while (lector.consumirSi(','));
+            lector.esperar('}');
+        }
+        if (categoria == null || nombre == null || Double.isNaN(precio)) {
+            throw new IllegalArgumentException("Producto JSON incompleto: se requieren categoria, nombre y precio");
+        }
+        return categoria.crear(nombre, precio, moneda);
+    }
+}
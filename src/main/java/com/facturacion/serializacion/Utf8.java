@@ -0,0 +1,119 @@
+package com.facturacion.serializacion;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codificación UTF-8 de cadenas directamente sobre un {@link ByteBuffer}.
+ *
+ * <p>Evita el arreglo intermedio que produce {@link String#getBytes}, de modo que
+ * serializar un nombre de producto no genera basura. Los sustitutos sueltos se
+ * reemplazan por '?', igual que hace el codificador estándar.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class Utf8 {
+
+    private Utf8() {
+    }
+
+    /**
+     * Calcula la longitud en bytes de una cadena codificada en UTF-8.
+     *
+     * @param texto La cadena
+     * @return La cantidad de bytes que ocupa en UTF-8
+     */
+    public static int longitud(String texto) {
+        int longitud = texto.length();
+        int bytes = longitud;
+        for (int i = 0; i < longitud; i++) {
+            char c = texto.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < longitud
+                        && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    bytes += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    // Los sustitutos sueltos se codifican como '?' y ocupan un solo byte
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Escribe una cadena en UTF-8 en la posición actual del buffer.
+     *
+     * @param texto La cadena a escribir
+     * @param destino El buffer de destino
+     * @throws BufferOverflowException si el buffer no tiene espacio suficiente
+     */
+    public static void escribir(String texto, ByteBuffer destino) {
+        escribir(texto, 0, texto.length(), destino);
+    }
+
+    /**
+     * Escribe en UTF-8 el tramo {@code [desde, hasta)} de una cadena.
+     *
+     * @param texto La cadena que contiene el tramo
+     * @param desde Índice del primer carácter (inclusive)
+     * @param hasta Índice final (exclusivo)
+     * @param destino El buffer de destino
+     * @throws BufferOverflowException si el buffer no tiene espacio suficiente
+     */
+    public static void escribir(String texto, int desde, int hasta, ByteBuffer destino) {
+        for (int i = desde; i < hasta; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                destino.put((byte) c);
+            } else if (c < 0x800) {
+                destino.put((byte) (0xC0 | (c >> 6)));
+                destino.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < hasta
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int puntoCodigo = Character.toCodePoint(c, texto.charAt(++i));
+                destino.put((byte) (0xF0 | (puntoCodigo >> 18)));
+                destino.put((byte) (0x80 | ((puntoCodigo >> 12) & 0x3F)));
+                destino.put((byte) (0x80 | ((puntoCodigo >> 6) & 0x3F)));
+                destino.put((byte) (0x80 | (puntoCodigo & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                destino.put((byte) '?');
+            } else {
+                destino.put((byte) (0xE0 | (c >> 12)));
+                destino.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                destino.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Lee una cadena UTF-8 de la longitud indicada desde la posición actual del buffer.
+     *
+     * @param origen El buffer de origen
+     * @param longitud La cantidad de bytes a leer
+     * @return La cadena decodificada
+     * @throws BufferUnderflowException si el buffer no contiene suficientes bytes
+     */
+    public static String leer(ByteBuffer origen, int longitud) {
+        if (longitud > origen.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String texto;
+        if (origen.hasArray()) {
+            texto = new String(origen.array(), origen.arrayOffset() + origen.position(),
+                longitud, StandardCharsets.UTF_8);
+            origen.position(origen.position() + longitud);
+        } else {
+            byte[] bytes = new byte[longitud];
+            origen.get(bytes);
+            texto = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return texto;
+    }
+}
@@ -0,0 +1,126 @@
+package com.facturacion.serializacion;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Utilidades para codificar enteros con longitud variable (LEB128 sin signo).
+ *
+ * <p>Cada byte aporta 7 bits de valor y usa el bit más significativo para indicar si
+ * continúa el número, de modo que los valores pequeños (longitudes de nombres, cantidad
+ * de líneas, diferencias de precio) ocupan uno o dos bytes. Los valores con signo se
+ * transforman previamente con codificación zigzag.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class Varint {
+
+    private Varint() {
+    }
+
+    /**
+     * Escribe un entero sin signo en formato varint.
+     *
+     * @param destino El buffer de destino
+     * @param valor El valor a escribir (interpretado sin signo)
+     * @throws java.nio.BufferOverflowException si el buffer no tiene espacio suficiente
+     */
+    public static void escribirInt(ByteBuffer destino, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    /**
+     * Lee un entero sin signo en formato varint.
+     *
+     * @param origen El buffer de origen
+     * @return El valor leído
+     * @throws java.nio.BufferUnderflowException si el buffer termina antes que el número
+     * @throws IllegalArgumentException si el número ocupa más de 5 bytes
+     */
+    public static int leerInt(ByteBuffer origen) {
+        int resultado = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            byte b = origen.get();
+            resultado |= (b & 0x7F) << desplazamiento;
+            if (b >= 0) {
+                return resultado;
+            }
+        }
+        throw new IllegalArgumentException("Varint de 32 bits mal formado");
+    }
+
+    /**
+     * Escribe un entero largo sin signo en formato varint.
+     *
+     * @param destino El buffer de destino
+     * @param valor El valor a escribir (interpretado sin signo)
+     * @throws java.nio.BufferOverflowException si el buffer no tiene espacio suficiente
+     */
+    public static void escribirLong(ByteBuffer destino, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    /**
+     * Lee un entero largo sin signo en formato varint.
+     *
+     * @param origen El buffer de origen
+     * @return El valor leído
+     * @throws java.nio.BufferUnderflowException si el buffer termina antes que el número
+     * @throws IllegalArgumentException si el número ocupa más de 10 bytes
+     */
+    public static long leerLong(ByteBuffer origen) {
+        long resultado = 0;
+        for (int desplazamiento = 0; desplazamiento < 70; desplazamiento += 7) {
+            byte b = origen.get();
+            resultado |= (long) (b & 0x7F) << desplazamiento;
+            if (b >= 0) {
+                return resultado;
+            }
+        }
+        throw new IllegalArgumentException("Varint de 64 bits mal formado");
+    }
+
+    /**
+     * Calcula cuántos bytes ocupa un entero sin signo en formato varint.
+     *
+     * @param valor El valor (interpretado sin signo)
+     * @return La cantidad de bytes, entre 1 y 5
+     */
+    public static int longitud(int valor) {
+        int bytes = 1;
+        while ((valor & ~0x7F) != 0) {
+            valor >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    /**
+     * Transforma un valor con signo para que los valores de magnitud pequeña,
+     * positivos o negativos, produzcan varints cortos.
+     *
+     * @param valor El valor con signo
+     * @return El valor codificado en zigzag
+     */
+    public static long zigZag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    /**
+     * Revierte la codificación zigzag.
+     *
+     * @param valor El valor codificado en zigzag
+     * @return El valor con signo original
+     */
+    public static long deZigZag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+}
@@ -0,0 +1,154 @@
+package com.facturacion.servicio;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.model.Producto;
+import com.facturacion.serializacion.EscritorJson;
+import com.facturacion.serializacion.LectorJson;
+import com.facturacion.serializacion.ProductoCodec;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Codificación JSON de las solicitudes y respuestas de {@link ServicioPrecios}.
+ *
+ * <p>La solicitud es una cesta con los productos en el mismo formato que
+ * {@link com.facturacion.serializacion.JsonInvoiceSerializer}:
+ * <pre>
+ * {"productos":[{"categoria":"ALIMENTO","nombre":"Pan","precio":5000.00}]}
+ * </pre>
+ * y la respuesta contiene los totales calculados:
+ * <pre>
+ * {"lineas":1,"subtotal":5000.00,"impuestos":250.00,"total":5250.00}
+ * </pre>
+ * Los montos se escriben con {@link EscritorJson#numero}, que conserva exactamente el
+ * {@code double} calculado por {@link Factura}. Lectura y escritura trabajan sobre
+ * {@link ByteBuffer} sin árboles ni cadenas intermedias, con las mismas primitivas que los
+ * serializadores de archivos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public final class CodecPrecios {
+
+    /**
+     * Claves reconocidas en el objeto de la cesta.
+     */
+    private static final String[] CLAVES = {"productos"};
+
+    /**
+     * Longitud máxima de los mensajes de error devueltos al cliente.
+     */
+    static final int LONGITUD_MAXIMA_MENSAJE = 200;
+
+    private CodecPrecios() {
+    }
+
+    /**
+     * Lee una cesta y agrega sus productos a una factura.
+     *
+     * @param origen El buffer con el JSON de la cesta. No puede ser null.
+     * @param destino La factura donde se agregan los productos. No puede ser null.
+     * @throws NullPointerException si algún parámetro es null
+     * @throws IllegalArgumentException si la cesta no es un JSON válido
+     */
+    public static void leerCesta(ByteBuffer origen, Factura destino) {
+        Objects.requireNonNull(destino, "La factura de destino no puede ser null");
+        leerCesta(origen, destino::agregarProducto);
+    }
+
+    /**
+     * Lee una cesta y entrega cada producto a un consumidor, en orden.
+     *
+     * @param origen El buffer con el JSON de la cesta. No puede ser null.
+     * @param destino El consumidor de los productos. No puede ser null.
+     * @throws NullPointerException si algún parámetro es null
+     * @throws IllegalArgumentException si la cesta no es un JSON válido
+     */
+    public static void leerCesta(ByteBuffer origen, Consumer<? super Producto> destino) {
+        Objects.requireNonNull(destino, "El destino de los productos no puede ser null");
+        LectorJson lector = new LectorJson(origen);
+        lector.esperar('{');
+        if (!lector.consumirSi('}')) {
+            do {
+                if (lector.leerClave(CLAVES) == 0) {
+                    lector.esperar('[');
+                    if (!lector.consumirSi(']')) {
+                        do {
+                            destino.accept(ProductoCodec.leerJson(lector));
+                        } while (lector.consumirSi(','));
+                        lector.esperar(']');
+                    }
+                } else {
+                    lector.saltarValor();
+                }
+            } while (lector.consumirSi(','));
+            lector.esperar('}');
+        }
+        if (lector.siguiente() != -1) {
+            throw new IllegalArgumentException("Contenido inesperado después del objeto JSON");
+        }
+    }
+
+    /**
+     * Escribe la cesta de una factura, en el formato que espera {@link #leerCesta}.
+     *
+     * @param factura La factura. No puede ser null.
+     * @param destino El buffer de destino. No puede ser null.
+     * @throws NullPointerException si algún parámetro es null
+     * @throws BufferOverflowException si la cesta no cabe en el buffer
+     */
+    public static void escribirCesta(Factura factura, ByteBuffer destino) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        EscritorJson.ascii(destino, "{\"productos\":[");
+        for (int i = 0, n = factura.getCantidadProductos(); i < n; i++) {
+            if (i > 0) {
+                destino.put((byte) ',');
+            }
+            ProductoCodec.escribirJson(factura.getProducto(i), destino);
+        }
+        EscritorJson.ascii(destino, "]}");
+    }
+
+    /**
+     * Escribe los totales de una factura.
+     *
+     * @param lineas Cantidad de líneas de la factura
+     * @param subtotal El subtotal
+     * @param impuestos El total de impuestos
+     * @param total El total
+     * @param destino El buffer de destino. No puede ser null.
+     * @throws BufferOverflowException si la respuesta no cabe en el buffer
+     */
+    public static void escribirTotales(int lineas, double subtotal, double impuestos, double total,
+                                       ByteBuffer destino) {
+        EscritorJson.ascii(destino, "{\"lineas\":");
+        EscritorJson.entero(destino, lineas);
+        EscritorJson.ascii(destino, ",\"subtotal\":");
+        EscritorJson.numero(destino, subtotal);
+        EscritorJson.ascii(destino, ",\"impuestos\":");
+        EscritorJson.numero(destino, impuestos);
+        EscritorJson.ascii(destino, ",\"total\":");
+        EscritorJson.numero(destino, total);
+        destino.put((byte) '}');
+    }
+
+    /**
+     * Escribe un mensaje de error, recortado a {@link #LONGITUD_MAXIMA_MENSAJE} caracteres
+     * para no devolver cestas completas dentro del mensaje.
+     *
+     * @param mensaje El mensaje. Si es null se escribe "Error".
+     * @param destino El buffer de destino. No puede ser null.
+     * @throws BufferOverflowException si el mensaje no cabe en el buffer
+     */
+    public static void escribirError(String mensaje, ByteBuffer destino) {
+        String texto = mensaje == null ? "Error" : mensaje;
+        if (texto.length() > LONGITUD_MAXIMA_MENSAJE) {
+            texto = texto.substring(0, LONGITUD_MAXIMA_MENSAJE) + "...";
+        }
+        EscritorJson.ascii(destino, "{\"error\":");
+        EscritorJson.cadena(destino, texto);
+        destino.put((byte) '}');
+    }
+}
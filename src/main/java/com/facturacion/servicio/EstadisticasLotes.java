@@ -0,0 +1,57 @@
+package com.facturacion.servicio;
+
+import java.util.Arrays;
+
+/**
+ * Estadísticas de los lotes formados por {@link LoteadorPrecios}.
+ *
+ * <p>La distribución agrupa los lotes por potencias de dos: la posición {@code i} cuenta
+ * los lotes de entre {@code 2^i} y {@code 2^(i+1) - 1} cestas.
+ *
+ * @param lotes Cantidad de lotes procesados
+ * @param cestas Cantidad de cestas cotizadas
+ * @param tamanoMaximo Mayor tamaño de lote alcanzado
+ * @param distribucion Cantidad de lotes por rango de tamaño
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record EstadisticasLotes(long lotes, long cestas, int tamanoMaximo, long[] distribucion) {
+
+    /**
+     * Constructor que copia la distribución para mantener la inmutabilidad.
+     */
+    public EstadisticasLotes {
+        distribucion = distribucion.clone();
+    }
+
+    /**
+     * Calcula el tamaño promedio de los lotes.
+     *
+     * @return Las cestas por lote, o 0 si no hubo lotes
+     */
+    public double tamanoPromedio() {
+        return lotes == 0 ? 0.0 : (double) cestas / lotes;
+    }
+
+    /**
+     * Obtiene la distribución de tamaños de lote.
+     *
+     * @return Una copia de la distribución
+     */
+    @Override
+    public long[] distribucion() {
+        return distribucion.clone();
+    }
+
+    /**
+     * Representación en cadena de las estadísticas.
+     *
+     * @return Una cadena con lotes, promedio, máximo y distribución
+     */
+    @Override
+    public String toString() {
+        return String.format("lotes=%d cestas=%d promedio=%.2f maximo=%d distribucion=%s",
+            lotes, cestas, tamanoPromedio(), tamanoMaximo, Arrays.toString(distribucion));
+    }
+}
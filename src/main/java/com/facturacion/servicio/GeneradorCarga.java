@@ -0,0 +1,233 @@
+package com.facturacion.servicio;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.model.CategoriaProducto;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Generador de carga para {@link ServicioPrecios}: envía la misma cesta desde varias
+ * conexiones concurrentes en bucle cerrado y mide rendimiento y latencia.
+ *
+ * <p>Cada conexión espera la respuesta antes de enviar la siguiente solicitud, así que la
+ * concurrencia es exactamente la cantidad de conexiones. Primero se ejecuta un
+ * calentamiento cuyos resultados se descartan (compilación JIT, conexiones abiertas) y
+ * luego la medición. Las latencias de cada conexión se guardan completas y se ordenan al
+ * final, de modo que los percentiles son exactos y no aproximados por un histograma.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class GeneradorCarga {
+
+    /**
+     * Capacidad inicial del registro de latencias de cada conexión.
+     */
+    private static final int CAPACIDAD_INICIAL_LATENCIAS = 64 * 1024;
+
+    /**
+     * Recurso al que se envían las solicitudes.
+     */
+    private final URI destino;
+
+    /**
+     * Cuerpo de cada solicitud.
+     */
+    private final byte[] cesta;
+
+    /**
+     * Cantidad de conexiones concurrentes.
+     */
+    private final int conexiones;
+
+    /**
+     * Cliente HTTP compartido por las conexiones.
+     */
+    private final HttpClient cliente;
+
+    /**
+     * Constructor que crea un generador de carga.
+     *
+     * @param destino El recurso de precios (por ejemplo {@code http://localhost:8080/precio}). No puede ser null.
+     * @param cesta El cuerpo JSON de cada solicitud. No puede ser null.
+     * @param conexiones Cantidad de conexiones concurrentes. Debe ser > 0.
+     * @throws NullPointerException si destino o cesta son null
+     * @throws IllegalArgumentException si conexiones no es positivo
+     */
+    public GeneradorCarga(URI destino, byte[] cesta, int conexiones) {
+        this.destino = Objects.requireNonNull(destino, "El destino no puede ser null");
+        this.cesta = Objects.requireNonNull(cesta, "La cesta no puede ser null").clone();
+        if (conexiones <= 0) {
+            throw new IllegalArgumentException("La cantidad de conexiones debe ser positiva: " + conexiones);
+        }
+        this.conexiones = conexiones;
+        this.cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    /**
+     * Crea una cesta de ejemplo con líneas de las tres categorías.
+     *
+     * @param lineas Cantidad de líneas. Debe ser >= 0.
+     * @return El cuerpo JSON de la cesta
+     */
+    public static byte[] cestaDeEjemplo(int lineas) {
+        Factura factura = new Factura(new HashMap<>());
+        for (int i = 0; i < lineas; i++) {
+            CategoriaProducto categoria = CategoriaProducto.porCodigo(1 + i % 3);
+            factura.agregarProducto(categoria.crear("Producto " + i, 1000.0 + i * 250.5));
+        }
+        ByteBuffer destino = ByteBuffer.allocate(64 + lineas * 96);
+        CodecPrecios.escribirCesta(factura, destino);
+        return Arrays.copyOf(destino.array(), destino.position());
+    }
+
+    /**
+     * Ejecuta la prueba de carga.
+     *
+     * @param calentamiento Duración del calentamiento, cuyos resultados se descartan. No puede ser null.
+     * @param medicion Duración de la medición. No puede ser null.
+     * @return El resultado de la medición
+     * @throws NullPointerException si alguna duración es null
+     * @throws InterruptedException si se interrumpe la espera de las conexiones
+     */
+    public ResultadoCarga ejecutar(Duration calentamiento, Duration medicion) throws InterruptedException {
+        Objects.requireNonNull(calentamiento, "El calentamiento no puede ser null");
+        Objects.requireNonNull(medicion, "La medición no puede ser null");
+        HttpRequest solicitud = HttpRequest.newBuilder(destino)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(cesta))
+            .build();
+        long inicio = System.nanoTime();
+        long inicioMedicion = inicio + calentamiento.toNanos();
+        long fin = inicioMedicion + medicion.toNanos();
+
+        List<Conexion> activas = new ArrayList<>(conexiones);
+        List<Thread> hilos = new ArrayList<>(conexiones);
+        for (int i = 0; i < conexiones; i++) {
+            Conexion conexion = new Conexion(solicitud, inicioMedicion, fin);
+            Thread hilo = new Thread(conexion, "generador-carga-" + (i + 1));
+            activas.add(conexion);
+            hilos.add(hilo);
+            hilo.start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        long solicitudes = 0;
+        long errores = 0;
+        for (Conexion conexion : activas) {
+            solicitudes += conexion.cantidad;
+            errores += conexion.errores;
+        }
+        long[] latencias = new long[(int) solicitudes];
+        int posicion = 0;
+        for (Conexion conexion : activas) {
+            System.arraycopy(conexion.latencias, 0, latencias, posicion, conexion.cantidad);
+            posicion += conexion.cantidad;
+        }
+        Arrays.sort(latencias);
+        return new ResultadoCarga(solicitudes, errores, fin - inicioMedicion,
+            percentil(latencias, 0.50), percentil(latencias, 0.99), percentil(latencias, 0.999),
+            latencias.length == 0 ? 0 : latencias[latencias.length - 1]);
+    }
+
+    /**
+     * Obtiene un percentil de latencias ordenadas (método del rango más cercano).
+     *
+     * @param ordenadas Las latencias ordenadas de menor a mayor
+     * @param fraccion El percentil como fracción (0,99 para p99)
+     * @return La latencia del percentil, o 0 si no hay latencias
+     */
+    static long percentil(long[] ordenadas, double fraccion) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int rango = (int) Math.ceil(fraccion * ordenadas.length);
+        return ordenadas[Math.max(0, rango - 1)];
+    }
+
+    /**
+     * Conexión que envía solicitudes en bucle cerrado hasta el fin de la prueba.
+     */
+    private final class Conexion implements Runnable {
+
+        /**
+         * Solicitud a enviar.
+         */
+        private final HttpRequest solicitud;
+
+        /**
+         * Instante, en nanosegundos, a partir del cual se registran las latencias.
+         */
+        private final long inicioMedicion;
+
+        /**
+         * Instante, en nanosegundos, en que termina la prueba.
+         */
+        private final long fin;
+
+        /**
+         * Latencias registradas.
+         */
+        private long[] latencias = new long[CAPACIDAD_INICIAL_LATENCIAS];
+
+        /**
+         * Cantidad de latencias registradas.
+         */
+        private int cantidad;
+
+        /**
+         * Solicitudes fallidas durante la medición.
+         */
+        private long errores;
+
+        Conexion(HttpRequest solicitud, long inicioMedicion, long fin) {
+            this.solicitud = solicitud;
+            this.inicioMedicion = inicioMedicion;
+            this.fin = fin;
+        }
+
+        @Override
+        public void run() {
+            long antes = System.nanoTime();
+            while (antes < fin) {
+                boolean correcta;
+                try {
+                    correcta = cliente.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                } catch (IOException e) {
+                    correcta = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long despues = System.nanoTime();
+                // Solo cuentan las solicitudes que empezaron y terminaron dentro de la medición
+                if (antes >= inicioMedicion && despues <= fin) {
+                    if (!correcta) {
+                        errores++;
+                    } else {
+                        if (cantidad == latencias.length) {
+                            latencias = Arrays.copyOf(latencias, latencias.length * 2);
+                        }
+                        latencias[cantidad++] = despues - antes;
+                    }
+                }
+                antes = despues;
+            }
+        }
+    }
+}
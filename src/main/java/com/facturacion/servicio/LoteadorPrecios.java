@@ -0,0 +1,309 @@
+package com.facturacion.servicio;
+
+import com.facturacion.factura.SumaCompensada;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.TablaImpuestos;
+import com.facturacion.model.Producto;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Etapa de agrupación (micro-batching) para cotizar muchas cestas pequeñas que llegan de
+ * forma concurrente.
+ *
+ * <p>Cada llamador entrega su cesta con {@link #cotizar(List)} y recibe un
+ * {@link CompletableFuture} propio. Un único hilo despachador reúne las cestas pendientes
+ * hasta juntar {@code tamanoMaximoLote} o hasta que pasan {@code esperaMaxima} desde la
+ * primera cesta del lote, y las cotiza todas en una pasada con una {@link TablaImpuestos}
+ * compartida, sin crear una {@link com.facturacion.factura.Factura} por cesta.
+ *
+ * <p>Lotes más grandes amortizan mejor la entrega entre hilos; una espera mayor permite
+ * formarlos con poco tráfico a costa de latencia. Con espera cero solo se agrupan las
+ * cestas que ya estaban en cola, sin demorar ninguna. {@link #getEstadisticas()} informa
+ * los tamaños de lote alcanzados para ajustar ambos valores.
+ *
+ * <p>Los totales son idénticos a los de {@link com.facturacion.factura.Factura}: cada
+ * cesta suma sus precios e impuestos en el mismo orden, y los precios con la misma suma
+ * compensada ({@link SumaCompensada}). Un error en una cesta (por ejemplo,
+ * un producto sin regla) solo completa con error el futuro de esa cesta.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class LoteadorPrecios implements Closeable {
+
+    /**
+     * Cestas en cola por cada posición de lote antes de bloquear a los llamadores.
+     */
+    private static final int COLA_POR_LOTE = 16;
+
+    /**
+     * Capacidad máxima de la cola de cestas pendientes.
+     */
+    private static final int CAPACIDAD_MAXIMA_COLA = 64 * 1024;
+
+    /**
+     * Rangos de la distribución de tamaños de lote (potencias de dos hasta 2^31).
+     */
+    private static final int RANGOS_DISTRIBUCION = 32;
+
+    /**
+     * Reglas de impuesto compiladas.
+     */
+    private final TablaImpuestos tabla;
+
+    /**
+     * Cantidad máxima de cestas por lote.
+     */
+    private final int tamanoMaximoLote;
+
+    /**
+     * Espera máxima desde la primera cesta del lote, en nanosegundos.
+     */
+    private final long esperaMaximaNanos;
+
+    /**
+     * Cestas pendientes.
+     */
+    private final BlockingQueue<Solicitud> cola;
+
+    /**
+     * Hilo que forma y cotiza los lotes.
+     */
+    private final Thread despachador;
+
+    /**
+     * Indica si el loteador fue cerrado.
+     */
+    private volatile boolean cerrado;
+
+    /**
+     * Cantidad de lotes procesados.
+     */
+    private final AtomicLong lotes = new AtomicLong();
+
+    /**
+     * Cantidad de cestas cotizadas.
+     */
+    private final AtomicLong cestas = new AtomicLong();
+
+    /**
+     * Mayor tamaño de lote alcanzado.
+     */
+    private final AtomicInteger tamanoMaximo = new AtomicInteger();
+
+    /**
+     * Lotes por rango de tamaño.
+     */
+    private final AtomicLongArray distribucion = new AtomicLongArray(RANGOS_DISTRIBUCION);
+
+    /**
+     * Constructor que crea e inicia el loteador.
+     *
+     * @param reglasImpuesto Las reglas de impuesto. No puede ser null.
+     * @param tamanoMaximoLote Cantidad máxima de cestas por lote. Debe ser > 0.
+     * @param esperaMaxima Tiempo máximo que espera la primera cesta de un lote a que
+     *                     lleguen otras. No puede ser null ni negativo.
+     * @throws NullPointerException si reglasImpuesto o esperaMaxima son null
+     * @throws IllegalArgumentException si tamanoMaximoLote no es positivo o la espera es negativa
+     */
+    public LoteadorPrecios(Map<Class<? extends Producto>, Impuesto> reglasImpuesto,
+                           int tamanoMaximoLote, Duration esperaMaxima) {
+        this.tabla = TablaImpuestos.compilar(reglasImpuesto);
+        Objects.requireNonNull(esperaMaxima, "La espera máxima no puede ser null");
+        if (tamanoMaximoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo de lote debe ser positivo: " + tamanoMaximoLote);
+        }
+        if (esperaMaxima.isNegative()) {
+            throw new IllegalArgumentException("La espera máxima no puede ser negativa: " + esperaMaxima);
+        }
+        this.tamanoMaximoLote = tamanoMaximoLote;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.cola = new ArrayBlockingQueue<>(
+            (int) Math.min((long) tamanoMaximoLote * COLA_POR_LOTE, CAPACIDAD_MAXIMA_COLA));
+        this.despachador = new Thread(this::despachar, "loteador-precios");
+        this.despachador.setDaemon(true);
+        this.despachador.start();
+    }
+
+    /**
+     * Entrega una cesta para cotizarla en el próximo lote.
+     *
+     * <p>La lista no se copia: el llamador no debe modificarla hasta que el futuro se
+     * complete. Si la cola está llena, la llamada espera a que haya lugar.
+     *
+     * @param productos Los productos de la cesta. No puede ser null.
+     * @return El futuro con los totales de la cesta
+     * @throws NullPointerException si productos es null
+     * @throws IllegalStateException si el loteador está cerrado
+     */
+    public CompletableFuture<TotalesCesta> cotizar(List<? extends Producto> productos) {
+        Solicitud solicitud = new Solicitud(Objects.requireNonNull(productos, "Los productos no pueden ser null"));
+        if (cerrado) {
+            throw new IllegalStateException("El loteador de precios está cerrado");
+        }
+        try {
+            cola.put(solicitud);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            solicitud.resultado.completeExceptionally(e);
+            return solicitud.resultado;
+        }
+        if (cerrado && cola.remove(solicitud)) {
+            solicitud.resultado.completeExceptionally(new IllegalStateException("El loteador de precios está cerrado"));
+        }
+        return solicitud.resultado;
+    }
+
+    /**
+     * Obtiene las estadísticas de los lotes formados hasta el momento.
+     *
+     * @return Las estadísticas
+     */
+    public EstadisticasLotes getEstadisticas() {
+        long[] rangos = new long[RANGOS_DISTRIBUCION];
+        int usados = 0;
+        for (int i = 0; i < RANGOS_DISTRIBUCION; i++) {
+            rangos[i] = distribucion.get(i);
+            if (rangos[i] != 0) {
+                usados = i + 1;
+            }
+        }
+        return new EstadisticasLotes(lotes.get(), cestas.get(), tamanoMaximo.get(),
+            Arrays.copyOf(rangos, usados));
+    }
+
+    /**
+     * Obtiene la cantidad máxima de cestas por lote.
+     *
+     * @return El tamaño máximo de lote
+     */
+    public int getTamanoMaximoLote() {
+        return tamanoMaximoLote;
+    }
+
+    /**
+     * Obtiene la espera máxima de la primera cesta de un lote.
+     *
+     * @return La espera máxima
+     */
+    public Duration getEsperaMaxima() {
+        return Duration.ofNanos(esperaMaximaNanos);
+    }
+
+    /**
+     * Detiene el despachador. Las cestas que aún estaban en cola se completan con
+     * {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        despachador.interrupt();
+        try {
+            despachador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Solicitud pendiente;
+        while ((pendiente = cola.poll()) != null) {
+            pendiente.resultado.completeExceptionally(new IllegalStateException("El loteador de precios está cerrado"));
+        }
+    }
+
+    /**
+     * Bucle del despachador: forma lotes y los cotiza hasta que se cierra el loteador.
+     */
+    private void despachar() {
+        List<Solicitud> lote = new ArrayList<>(Math.min(tamanoMaximoLote, CAPACIDAD_MAXIMA_COLA));
+        try {
+            while (!cerrado) {
+                lote.add(cola.take());
+                long limite = System.nanoTime() + esperaMaximaNanos;
+                while (lote.size() < tamanoMaximoLote) {
+                    if (cola.drainTo(lote, tamanoMaximoLote - lote.size()) > 0) {
+                        continue;
+                    }
+                    long restante = limite - System.nanoTime();
+                    if (restante <= 0) {
+                        break;
+                    }
+                    Solicitud siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                }
+                cotizarLote(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException e) {
+            // Cierre del loteador: las cestas del lote en formación se rechazan
+            for (Solicitud solicitud : lote) {
+                solicitud.resultado.completeExceptionally(new IllegalStateException("El loteador de precios está cerrado"));
+            }
+        }
+    }
+
+    /**
+     * Cotiza todas las cestas de un lote en una pasada y completa sus futuros.
+     *
+     * @param lote Las cestas del lote
+     */
+    private void cotizarLote(List<Solicitud> lote) {
+        int tamano = lote.size();
+        // Las estadísticas se actualizan antes de completar los futuros, para que quien
+        // espera un resultado las vea incluyendo su propio lote
+        lotes.incrementAndGet();
+        cestas.addAndGet(tamano);
+        tamanoMaximo.accumulateAndGet(tamano, Math::max);
+        distribucion.incrementAndGet(31 - Integer.numberOfLeadingZeros(tamano));
+        for (int i = 0; i < tamano; i++) {
+            Solicitud solicitud = lote.get(i);
+            List<? extends Producto> productos = solicitud.productos;
+            try {
+                double subtotal = SumaCompensada.sumarPrecios(productos);
+                double impuestos = 0.0;
+                int lineas = productos.size();
+                for (int j = 0; j < lineas; j++) {
+                    Producto producto = productos.get(j);
+                    impuestos += tabla.resolver(producto).calcularImpuesto(producto);
+                }
+                solicitud.resultado.complete(new TotalesCesta(lineas, subtotal, impuestos, subtotal + impuestos));
+            } catch (RuntimeException e) {
+                solicitud.resultado.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Cesta pendiente con el futuro de su resultado.
+     */
+    private static final class Solicitud {
+
+        /**
+         * Productos de la cesta.
+         */
+        private final List<? extends Producto> productos;
+
+        /**
+         * Futuro que recibe los totales de la cesta.
+         */
+        private final CompletableFuture<TotalesCesta> resultado = new CompletableFuture<>();
+
+        Solicitud(List<? extends Producto> productos) {
+            this.productos = productos;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.facturacion.servicio;
+
+import java.io.PrintStream;
+
+/**
+ * Resultado de una prueba de carga de {@link GeneradorCarga}.
+ *
+ * @param solicitudes Solicitudes respondidas con 200 durante la medición
+ * @param errores Solicitudes fallidas o con otro código de estado
+ * @param nanos Duración de la medición, en nanosegundos
+ * @param p50 Latencia mediana, en nanosegundos
+ * @param p99 Percentil 99 de la latencia, en nanosegundos
+ * @param p999 Percentil 99,9 de la latencia, en nanosegundos
+ * @param maxima Latencia máxima, en nanosegundos
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record ResultadoCarga(long solicitudes, long errores, long nanos,
+                             long p50, long p99, long p999, long maxima) {
+
+    /**
+     * Calcula el rendimiento de la prueba.
+     *
+     * @return Solicitudes respondidas por segundo
+     */
+    public double solicitudesPorSegundo() {
+        return nanos == 0 ? 0.0 : solicitudes * 1e9 / nanos;
+    }
+
+    /**
+     * Imprime el resultado en formato legible.
+     *
+     * @param salida El flujo de destino
+     */
+    public void imprimir(PrintStream salida) {
+        salida.printf("Solicitudes: %d  Errores: %d  Duración: %.1f s%n", solicitudes, errores, nanos / 1e9);
+        salida.printf("Rendimiento: %.0f solicitudes/s%n", solicitudesPorSegundo());
+        salida.printf("Latencia: p50 %.3f ms  p99 %.3f ms  p999 %.3f ms  máx %.3f ms%n",
+            p50 / 1e6, p99 / 1e6, p999 / 1e6, maxima / 1e6);
+    }
+}
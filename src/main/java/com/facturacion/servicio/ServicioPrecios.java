@@ -0,0 +1,349 @@
+package com.facturacion.servicio;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.factura.PoolFacturas;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servicio HTTP local que calcula los totales de una cesta tal como lo hace
+ * {@link Factura#calcularTotal()}.
+ *
+ * <p>Atiende {@code POST /precio} con una cesta JSON y responde con líneas, subtotal,
+ * impuestos y total (formato en {@link CodecPrecios}). Los errores de la cesta se
+ * responden con 400, las cestas de más de {@link #TAMANO_MAXIMO_CESTA} bytes con 413 y
+ * los demás métodos con 405.
+ *
+ * <p>Se construye sobre el {@link HttpServer} del JDK, sin dependencias externas. Las
+ * solicitudes se atienden en un grupo fijo de hilos con una cola acotada; cuando la cola
+ * se llena, el hilo que acepta conexiones ejecuta la solicitud él mismo, lo que frena la
+ * aceptación en lugar de acumular trabajo sin límite. Cada hilo reutiliza su factura
+ * ({@link PoolFacturas}) y sus buffers de entrada y salida, de modo que atender una
+ * solicitud solo asigna los productos de la cesta. El servidor del JDK escribe encabezados
+ * y cuerpo por separado, así que con el algoritmo de Nagle activo cada respuesta espera el
+ * ACK retardado del cliente (~40 ms); la aplicación debe desactivarlo con la propiedad de
+ * sistema {@code sun.net.httpserver.nodelay}, que el JDK lee una sola vez al crear el
+ * primer {@link HttpServer} del proceso. Esta clase no cambia propiedades globales.
+ *
+ * <p>Opcionalmente, las cestas se cotizan a través de un {@link LoteadorPrecios}, que las
+ * agrupa con las de otros hilos y las calcula en una sola pasada.
+ *
+ * <p>Cumple con <strong>Dependency Inversion Principle (DIP)</strong>: recibe las reglas de
+ * impuesto por constructor, igual que {@link Factura}.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class ServicioPrecios implements Closeable {
+
+    /**
+     * Ruta del recurso de cálculo de precios.
+     */
+    public static final String RUTA = "/precio";
+
+    /**
+     * Tamaño máximo aceptado para el cuerpo de una solicitud, en bytes.
+     */
+    public static final int TAMANO_MAXIMO_CESTA = 1024 * 1024;
+
+    /**
+     * Solicitudes en cola por cada hilo de atención antes de aplicar contrapresión.
+     */
+    private static final int COLA_POR_HILO = 64;
+
+    /**
+     * Capacidad inicial del buffer de entrada de cada hilo.
+     */
+    private static final int CAPACIDAD_INICIAL_ENTRADA = 4096;
+
+    /**
+     * Capacidad máxima del buffer de entrada que un hilo conserva entre solicitudes.
+     */
+    private static final int CAPACIDAD_MAXIMA_RETENIDA = 64 * 1024;
+
+    /**
+     * Capacidad del buffer de respuesta de cada hilo; alcanza para los totales y para un
+     * mensaje de error recortado.
+     */
+    private static final int CAPACIDAD_RESPUESTA = 1024;
+
+    /**
+     * Segundos que {@link #close()} espera a que terminen las solicitudes en curso.
+     */
+    private static final int SEGUNDOS_CIERRE = 1;
+
+    /**
+     * Servidor HTTP del JDK.
+     */
+    private final HttpServer servidor;
+
+    /**
+     * Hilos que atienden las solicitudes.
+     */
+    private final ThreadPoolExecutor ejecutor;
+
+    /**
+     * Facturas reutilizables de cada hilo.
+     */
+    private final PoolFacturas pool;
+
+    /**
+     * Etapa de agrupación de cestas, o null para cotizar cada cesta en su propio hilo.
+     */
+    private final LoteadorPrecios loteador;
+
+    /**
+     * Lista de productos de cada hilo, para entregar la cesta al loteador.
+     */
+    private final ThreadLocal<List<Producto>> cestas = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * Buffer de entrada de cada hilo.
+     */
+    private final ThreadLocal<byte[]> entradas = ThreadLocal.withInitial(() -> new byte[CAPACIDAD_INICIAL_ENTRADA]);
+
+    /**
+     * Buffer de respuesta de cada hilo.
+     */
+    private final ThreadLocal<ByteBuffer> respuestas = ThreadLocal.withInitial(() -> ByteBuffer.allocate(CAPACIDAD_RESPUESTA));
+
+    /**
+     * Constructor que crea el servicio sin iniciarlo.
+     *
+     * @param direccion La dirección donde escuchar; puerto 0 elige uno libre. No puede ser null.
+     * @param reglasImpuesto Las reglas de impuesto a aplicar. No puede ser null.
+     * @param hilos Cantidad de hilos que atienden solicitudes. Debe ser > 0.
+     * @throws NullPointerException si direccion o reglasImpuesto son null
+     * @throws IllegalArgumentException si hilos no es positivo
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServicioPrecios(InetSocketAddress direccion, Map<Class<? extends Producto>, Impuesto> reglasImpuesto,
+                           int hilos) throws IOException {
+        this(direccion, reglasImpuesto, hilos, null);
+    }
+
+    /**
+     * Constructor que crea el servicio sin iniciarlo, cotizando las cestas a través de una
+     * etapa de agrupación.
+     *
+     * <p>El servicio no cierra el loteador; quien lo creó debe cerrarlo después de
+     * {@link #close()}.
+     *
+     * @param direccion La dirección donde escuchar; puerto 0 elige uno libre. No puede ser null.
+     * @param reglasImpuesto Las reglas de impuesto para las cestas cotizadas sin loteador. No puede ser null.
+     * @param hilos Cantidad de hilos que atienden solicitudes. Debe ser > 0.
+     * @param loteador La etapa de agrupación, o null para cotizar cada cesta por separado
+     * @throws NullPointerException si direccion o reglasImpuesto son null
+     * @throws IllegalArgumentException si hilos no es positivo
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServicioPrecios(InetSocketAddress direccion, Map<Class<? extends Producto>, Impuesto> reglasImpuesto,
+                           int hilos, LoteadorPrecios loteador) throws IOException {
+        Objects.requireNonNull(direccion, "La dirección no puede ser null");
+        if (hilos <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos debe ser positiva: " + hilos);
+        }
+        this.pool = new PoolFacturas(reglasImpuesto);
+        this.loteador = loteador;
+        AtomicInteger numero = new AtomicInteger();
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(hilos * COLA_POR_HILO),
+            tarea -> {
+                Thread hilo = new Thread(tarea, "servicio-precios-" + numero.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        this.servidor = HttpServer.create(direccion, 0);
+        this.servidor.createContext(RUTA, new ManejadorPrecios());
+        this.servidor.setExecutor(ejecutor);
+    }
+
+    /**
+     * Empieza a atender solicitudes.
+     */
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Obtiene el puerto donde escucha el servicio.
+     *
+     * @return El puerto local
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Detiene el servicio, esperando brevemente a que terminen las solicitudes en curso.
+     */
+    @Override
+    public void close() {
+        servidor.stop(SEGUNDOS_CIERRE);
+        ejecutor.shutdown();
+    }
+
+    /**
+     * Atiende una solicitud de precio.
+     *
+     * @param intercambio El intercambio HTTP
+     * @throws IOException si falla la comunicación con el cliente
+     */
+    private void atender(HttpExchange intercambio) throws IOException {
+        ByteBuffer respuesta = respuestas.get();
+        respuesta.clear();
+        int estado;
+        if (!"POST".equals(intercambio.getRequestMethod())) {
+            intercambio.getResponseHeaders().set("Allow", "POST");
+            CodecPrecios.escribirError("Método no permitido: " + intercambio.getRequestMethod(), respuesta);
+            estado = 405;
+        } else {
+            ByteBuffer cesta = leerCuerpo(intercambio.getRequestBody());
+            if (cesta == null) {
+                CodecPrecios.escribirError("La cesta supera " + TAMANO_MAXIMO_CESTA + " bytes", respuesta);
+                estado = 413;
+            } else {
+                estado = calcular(cesta, respuesta);
+            }
+        }
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(estado, respuesta.position());
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(respuesta.array(), 0, respuesta.position());
+        }
+    }
+
+    /**
+     * Calcula los totales de una cesta y escribe la respuesta.
+     *
+     * @param cesta El cuerpo de la solicitud
+     * @param respuesta El buffer de respuesta
+     * @return El código de estado HTTP
+     */
+    private int calcular(ByteBuffer cesta, ByteBuffer respuesta) {
+        if (loteador != null) {
+            return calcularEnLote(cesta, respuesta);
+        }
+        Factura factura = pool.obtener();
+        try {
+            CodecPrecios.leerCesta(cesta, factura);
+            double subtotal = factura.calcularSubtotal();
+            double impuestos = factura.calcularTotalImpuestos();
+            CodecPrecios.escribirTotales(factura.getCantidadProductos(), subtotal, impuestos,
+                subtotal + impuestos, respuesta);
+            return 200;
+        } catch (IllegalArgumentException | IllegalStateException | BufferOverflowException e) {
+            respuesta.clear();
+            CodecPrecios.escribirError(e.getMessage(), respuesta);
+            return 400;
+        } finally {
+            pool.devolver(factura);
+        }
+    }
+
+    /**
+     * Calcula los totales de una cesta a través del loteador y escribe la respuesta.
+     *
+     * @param cesta El cuerpo de la solicitud
+     * @param respuesta El buffer de respuesta
+     * @return El código de estado HTTP
+     */
+    private int calcularEnLote(ByteBuffer cesta, ByteBuffer respuesta) {
+        List<Producto> productos = cestas.get();
+        try {
+            CodecPrecios.leerCesta(cesta, productos::add);
+            TotalesCesta totales = loteador.cotizar(productos).get();
+            CodecPrecios.escribirTotales(totales.lineas(), totales.subtotal(), totales.impuestos(),
+                totales.total(), respuesta);
+            return 200;
+        } catch (ExecutionException e) {
+            respuesta.clear();
+            CodecPrecios.escribirError(e.getCause().getMessage(), respuesta);
+            return 400;
+        } catch (IllegalArgumentException | IllegalStateException | BufferOverflowException e) {
+            respuesta.clear();
+            CodecPrecios.escribirError(e.getMessage(), respuesta);
+            return 400;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respuesta.clear();
+            CodecPrecios.escribirError("Solicitud interrumpida", respuesta);
+            return 503;
+        } finally {
+            productos.clear();
+        }
+    }
+
+    /**
+     * Lee el cuerpo completo de la solicitud.
+     *
+     * <p>Usa el buffer de entrada del hilo; si la cesta no cabe, lo agranda, pero solo
+     * conserva buffers de hasta {@link #CAPACIDAD_MAXIMA_RETENIDA} bytes para que una
+     * cesta excepcional no deje esa memoria retenida en el hilo.
+     *
+     * @param cuerpo El flujo del cuerpo
+     * @return El cuerpo leído, o null si supera el tamaño máximo
+     * @throws IOException si falla la lectura
+     */
+    private ByteBuffer leerCuerpo(InputStream cuerpo) throws IOException {
+        byte[] entrada = entradas.get();
+        int longitud = 0;
+        while (true) {
+            if (longitud == entrada.length) {
+                if (entrada.length == TAMANO_MAXIMO_CESTA) {
+                    if (cuerpo.read() < 0) {
+                        return ByteBuffer.wrap(entrada, 0, longitud);
+                    }
+                    // Se consume el resto para que la conexión pueda reutilizarse
+                    cuerpo.transferTo(OutputStream.nullOutputStream());
+                    return null;
+                }
+                entrada = Arrays.copyOf(entrada, Math.min(entrada.length * 2, TAMANO_MAXIMO_CESTA));
+                if (entrada.length <= CAPACIDAD_MAXIMA_RETENIDA) {
+                    entradas.set(entrada);
+                }
+            }
+            int leidos = cuerpo.read(entrada, longitud, entrada.length - longitud);
+            if (leidos < 0) {
+                return ByteBuffer.wrap(entrada, 0, longitud);
+            }
+            longitud += leidos;
+        }
+    }
+
+    /**
+     * Manejador HTTP del recurso {@link #RUTA}.
+     */
+    private final class ManejadorPrecios implements HttpHandler {
+
+        @Override
+        public void handle(HttpExchange intercambio) throws IOException {
+            try {
+                atender(intercambio);
+            } finally {
+                intercambio.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.facturacion.servicio;
+
+/**
+ * Totales de una cesta cotizada por {@link LoteadorPrecios}.
+ *
+ * @param lineas Cantidad de líneas de la cesta
+ * @param subtotal La suma de los precios
+ * @param impuestos La suma de los impuestos
+ * @param total El total (subtotal + impuestos)
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record TotalesCesta(int lineas, double subtotal, double impuestos, double total) {
+}
@@ -0,0 +1,195 @@
+package com.facturacion.vectorial;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Líneas de factura guardadas en un arreglo primitivo para sumarlas con un
+ * {@link SumadorLineas}, escalar o vectorial.
+ *
+ * <p>Cada línea ocupa un {@code long}: el precio en centavos desplazado
+ * {@link #BITS_CATEGORIA} bits y el código de su {@link CategoriaProducto} en los bits
+ * bajos. Los montos se suman como enteros, de modo que subtotal e impuestos son exactos y
+ * no dependen del orden ni del ancho de los vectores; {@link #calcularTotales} los
+ * devuelve como {@link BigDecimal}.
+ *
+ * <p>El impuesto de cada categoría se calcula una sola vez sobre la suma de sus precios,
+ * con el porcentaje de la regla de la factura. Esto equivale a sumar el impuesto de cada
+ * línea porque las reglas del sistema ({@code IVAAlimento}, {@code IVARopa},
+ * {@code IVAElectronico}) son proporcionales al precio; una regla no proporcional debe
+ * calcularse con {@link Factura}.
+ *
+ * <p>Todas las líneas deben estar en la misma moneda, como en
+ * {@link Factura#calcularSubtotal()}.
+ *
+ * <p>No es segura para uso concurrente mientras se agregan líneas.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public class LineasColumnares {
+
+    /**
+     * Bits bajos reservados para el código de categoría.
+     */
+    public static final int BITS_CATEGORIA = 2;
+
+    /**
+     * Máscara que extrae el código de categoría de una línea codificada.
+     */
+    public static final long MASCARA_CATEGORIA = (1L << BITS_CATEGORIA) - 1;
+
+    /**
+     * Precio máximo representable, en centavos.
+     */
+    static final long MAX_CENTAVOS = Long.MAX_VALUE >> BITS_CATEGORIA;
+
+    /**
+     * Capacidad inicial del arreglo de líneas.
+     */
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    /**
+     * Líneas codificadas.
+     */
+    private long[] lineas = new long[CAPACIDAD_INICIAL];
+
+    /**
+     * Cantidad de líneas agregadas.
+     */
+    private int cantidad;
+
+    /**
+     * Moneda de las líneas, fijada por la primera línea agregada.
+     */
+    private Currency moneda;
+
+    /**
+     * Codifica una línea en un {@code long}.
+     *
+     * @param centavos El precio en centavos. Debe estar entre 0 y {@link #MAX_CENTAVOS}.
+     * @param codigoCategoria El código de la categoría (1 a 3)
+     * @return La línea codificada
+     */
+    public static long codificar(long centavos, int codigoCategoria) {
+        return centavos << BITS_CATEGORIA | codigoCategoria;
+    }
+
+    /**
+     * Agrega todas las líneas de una factura.
+     *
+     * @param factura La factura. No puede ser null.
+     * @throws NullPointerException si factura es null
+     * @throws IllegalArgumentException si algún producto no es de una categoría conocida, su
+     *                                  precio tiene más de dos decimales o las líneas tienen
+     *                                  monedas distintas
+     */
+    public void agregar(Factura factura) {
+        Objects.requireNonNull(factura, "La factura no puede ser null");
+        for (int i = 0, n = factura.getCantidadProductos(); i < n; i++) {
+            agregar(factura.getProducto(i));
+        }
+    }
+
+    /**
+     * Agrega una línea.
+     *
+     * @param producto El producto de la línea. No puede ser null.
+     * @throws NullPointerException si producto es null
+     * @throws IllegalArgumentException si el producto no es de una categoría conocida, su
+     *                                  precio tiene más de dos decimales o está en una moneda
+     *                                  distinta de la de las líneas anteriores
+     */
+    public void agregar(Producto producto) {
+        CategoriaProducto categoria = CategoriaProducto.de(producto);
+        if (moneda == null) {
+            moneda = producto.getMoneda();
+        } else if (!moneda.equals(producto.getMoneda())) {
+            throw new IllegalArgumentException(String.format(
+                "Todas las líneas deben estar en %s, pero %s está en %s",
+                moneda.getCurrencyCode(), producto.getNombre(), producto.getMoneda().getCurrencyCode()));
+        }
+        double precio = producto.getPrecio();
+        long centavos = Math.round(precio * 100);
+        if (centavos / 100.0 != precio || centavos > MAX_CENTAVOS) {
+            throw new IllegalArgumentException(
+                "El precio " + precio + " no se puede sumar de forma exacta: tiene más de dos decimales");
+        }
+        if (cantidad == lineas.length) {
+            lineas = Arrays.copyOf(lineas, lineas.length * 2);
+        }
+        lineas[cantidad++] = codificar(centavos, categoria.getCodigo());
+    }
+
+    /**
+     * Calcula subtotal e impuestos exactos de todas las líneas.
+     *
+     * @param sumador El núcleo de suma. No puede ser null.
+     * @param reglasImpuesto Las reglas de impuesto por clase de producto. No puede ser null.
+     * @return Los totales exactos
+     * @throws NullPointerException si algún parámetro es null
+     * @throws IllegalStateException si hay líneas de una categoría sin regla de impuesto
+     */
+    public TotalesColumnares calcularTotales(SumadorLineas sumador,
+                                             Map<Class<? extends Producto>, Impuesto> reglasImpuesto) {
+        Objects.requireNonNull(sumador, "El sumador no puede ser null");
+        Objects.requireNonNull(reglasImpuesto, "Las reglas de impuesto no pueden ser null");
+        long[] porCategoria = sumador.sumarPorCategoria(lineas, cantidad);
+        long subtotal = 0;
+        BigDecimal impuestos = BigDecimal.ZERO;
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            long centavos = porCategoria[categoria.getCodigo()];
+            subtotal += centavos;
+            if (centavos == 0) {
+                continue;
+            }
+            Impuesto impuesto = reglasImpuesto.get(categoria.getClaseProducto());
+            if (impuesto == null) {
+                throw ReglasImpuesto.sinRegla(categoria.getClaseProducto());
+            }
+            impuestos = impuestos.add(BigDecimal.valueOf(centavos, 2)
+                .multiply(BigDecimal.valueOf(impuesto.getPorcentaje()))
+                .movePointLeft(2));
+        }
+        return new TotalesColumnares(BigDecimal.valueOf(subtotal, 2), impuestos);
+    }
+
+    /**
+     * Calcula el subtotal exacto de todas las líneas.
+     *
+     * @param sumador El núcleo de suma. No puede ser null.
+     * @return El subtotal exacto
+     * @throws NullPointerException si sumador es null
+     */
+    public BigDecimal calcularSubtotal(SumadorLineas sumador) {
+        Objects.requireNonNull(sumador, "El sumador no puede ser null");
+        return BigDecimal.valueOf(sumador.sumar(lineas, cantidad), 2);
+    }
+
+    /**
+     * Obtiene la cantidad de líneas agregadas.
+     *
+     * @return La cantidad de líneas
+     */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene el arreglo de líneas codificadas, sin copiarlo. Solo las primeras
+     * {@link #getCantidad()} posiciones son válidas.
+     *
+     * @return El arreglo de líneas
+     */
+    long[] getLineas() {
+        return lineas;
+    }
+}
@@ -0,0 +1,42 @@
+package com.facturacion.vectorial;
+
+/**
+ * Implementación escalar de {@link SumadorLineas}: un recorrido simple por las líneas.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+final class SumadorEscalar implements SumadorLineas {
+
+    /**
+     * Instancia única; la clase no tiene estado.
+     */
+    static final SumadorEscalar INSTANCIA = new SumadorEscalar();
+
+    private SumadorEscalar() {
+    }
+
+    @Override
+    public long sumar(long[] lineas, int cantidad) {
+        long suma = 0;
+        for (int i = 0; i < cantidad; i++) {
+            suma += lineas[i] >> LineasColumnares.BITS_CATEGORIA;
+        }
+        return suma;
+    }
+
+    @Override
+    public long[] sumarPorCategoria(long[] lineas, int cantidad) {
+        long[] sumas = new long[4];
+        for (int i = 0; i < cantidad; i++) {
+            long linea = lineas[i];
+            sumas[(int) (linea & LineasColumnares.MASCARA_CATEGORIA)] += linea >> LineasColumnares.BITS_CATEGORIA;
+        }
+        return sumas;
+    }
+
+    @Override
+    public String toString() {
+        return "escalar";
+    }
+}
@@ -0,0 +1,73 @@
+package com.facturacion.vectorial;
+
+/**
+ * Núcleo de suma sobre líneas de factura codificadas en un arreglo de {@code long}.
+ *
+ * <p>Cada línea se codifica con {@link LineasColumnares#codificar(long, int)}: el precio en
+ * centavos desplazado dos bits y el código de {@link com.facturacion.model.CategoriaProducto}
+ * en los dos bits bajos. Así la suma del subtotal y la suma enmascarada por categoría se
+ * hacen sobre un único arreglo, con aritmética entera: el resultado no depende del orden
+ * de la suma y es idéntico en todas las implementaciones.
+ *
+ * <p>Cumple con <strong>Liskov Substitution Principle (LSP)</strong>: la implementación
+ * vectorial y la escalar son intercambiables, y {@link #mejorDisponible()} elige la
+ * vectorial solo si la JVM tiene el módulo {@code jdk.incubator.vector}.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public interface SumadorLineas {
+
+    /**
+     * Nombre del módulo de la Vector API.
+     */
+    String MODULO_VECTOR = "jdk.incubator.vector";
+
+    /**
+     * Suma los precios en centavos de las primeras {@code cantidad} líneas.
+     *
+     * @param lineas Las líneas codificadas
+     * @param cantidad Cantidad de líneas a sumar
+     * @return La suma en centavos
+     */
+    long sumar(long[] lineas, int cantidad);
+
+    /**
+     * Suma los precios en centavos de las primeras {@code cantidad} líneas, separados por
+     * categoría.
+     *
+     * @param lineas Las líneas codificadas
+     * @param cantidad Cantidad de líneas a sumar
+     * @return Un arreglo de 4 posiciones indexado por código de categoría (la posición 0
+     *         queda en cero)
+     */
+    long[] sumarPorCategoria(long[] lineas, int cantidad);
+
+    /**
+     * Obtiene la implementación escalar, disponible en cualquier JVM.
+     *
+     * @return El sumador escalar
+     */
+    static SumadorLineas escalar() {
+        return SumadorEscalar.INSTANCIA;
+    }
+
+    /**
+     * Obtiene la implementación vectorial si la JVM se inició con
+     * {@code --add-modules jdk.incubator.vector}, o la escalar en caso contrario.
+     *
+     * @return El mejor sumador disponible
+     */
+    static SumadorLineas mejorDisponible() {
+        if (ModuleLayer.boot().findModule(MODULO_VECTOR).isEmpty()) {
+            return escalar();
+        }
+        try {
+            // Se carga por reflexión para que las JVM sin el módulo nunca resuelvan la clase
+            return (SumadorLineas) Class.forName("com.facturacion.vectorial.SumadorVectorial")
+                .getDeclaredField("INSTANCIA").get(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return escalar();
+        }
+    }
+}
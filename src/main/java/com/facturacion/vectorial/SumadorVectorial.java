@@ -0,0 +1,101 @@
+package com.facturacion.vectorial;
+
+import com.facturacion.model.CategoriaProducto;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementación de {@link SumadorLineas} con la Vector API ({@code jdk.incubator.vector}).
+ *
+ * <p>Procesa tantas líneas por instrucción como carriles de {@code long} tenga el
+ * procesador (4 con AVX2, 8 con AVX-512). Para la suma por categoría compara los dos bits
+ * bajos de cada carril con el código de cada categoría y acumula con máscara, sin saltos.
+ * Las líneas que no completan un vector se suman de forma escalar.
+ *
+ * <p>Solo se carga si la JVM tiene el módulo; ver {@link SumadorLineas#mejorDisponible()}.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+final class SumadorVectorial implements SumadorLineas {
+
+    /**
+     * Instancia única; la clase no tiene estado.
+     */
+    static final SumadorVectorial INSTANCIA = new SumadorVectorial();
+
+    /**
+     * Forma de vector preferida por el procesador.
+     */
+    private static final VectorSpecies<Long> ESPECIE = LongVector.SPECIES_PREFERRED;
+
+    /**
+     * Código de la categoría Alimento, como {@code long} para comparar carriles.
+     */
+    private static final long ALIMENTO = CategoriaProducto.ALIMENTO.getCodigo();
+
+    /**
+     * Código de la categoría Ropa.
+     */
+    private static final long ROPA = CategoriaProducto.ROPA.getCodigo();
+
+    /**
+     * Código de la categoría Electrónica.
+     */
+    private static final long ELECTRONICA = CategoriaProducto.ELECTRONICA.getCodigo();
+
+    private SumadorVectorial() {
+    }
+
+    @Override
+    public long sumar(long[] lineas, int cantidad) {
+        LongVector acumulado = LongVector.zero(ESPECIE);
+        int limite = ESPECIE.loopBound(cantidad);
+        int i = 0;
+        for (; i < limite; i += ESPECIE.length()) {
+            acumulado = acumulado.add(LongVector.fromArray(ESPECIE, lineas, i)
+                .lanewise(VectorOperators.ASHR, LineasColumnares.BITS_CATEGORIA));
+        }
+        long suma = acumulado.reduceLanes(VectorOperators.ADD);
+        for (; i < cantidad; i++) {
+            suma += lineas[i] >> LineasColumnares.BITS_CATEGORIA;
+        }
+        return suma;
+    }
+
+    @Override
+    public long[] sumarPorCategoria(long[] lineas, int cantidad) {
+        LongVector alimento = LongVector.zero(ESPECIE);
+        LongVector ropa = LongVector.zero(ESPECIE);
+        LongVector electronica = LongVector.zero(ESPECIE);
+        int limite = ESPECIE.loopBound(cantidad);
+        int i = 0;
+        for (; i < limite; i += ESPECIE.length()) {
+            LongVector linea = LongVector.fromArray(ESPECIE, lineas, i);
+            LongVector centavos = linea.lanewise(VectorOperators.ASHR, LineasColumnares.BITS_CATEGORIA);
+            LongVector codigo = linea.and(LineasColumnares.MASCARA_CATEGORIA);
+            VectorMask<Long> esAlimento = codigo.compare(VectorOperators.EQ, ALIMENTO);
+            VectorMask<Long> esRopa = codigo.compare(VectorOperators.EQ, ROPA);
+            VectorMask<Long> esElectronica = codigo.compare(VectorOperators.EQ, ELECTRONICA);
+            alimento = alimento.add(centavos, esAlimento);
+            ropa = ropa.add(centavos, esRopa);
+            electronica = electronica.add(centavos, esElectronica);
+        }
+        long[] sumas = new long[4];
+        sumas[(int) ALIMENTO] = alimento.reduceLanes(VectorOperators.ADD);
+        sumas[(int) ROPA] = ropa.reduceLanes(VectorOperators.ADD);
+        sumas[(int) ELECTRONICA] = electronica.reduceLanes(VectorOperators.ADD);
+        for (; i < cantidad; i++) {
+            long linea = lineas[i];
+            sumas[(int) (linea & LineasColumnares.MASCARA_CATEGORIA)] += linea >> LineasColumnares.BITS_CATEGORIA;
+        }
+        return sumas;
+    }
+
+    @Override
+    public String toString() {
+        return "vectorial (" + ESPECIE.length() + " carriles)";
+    }
+}
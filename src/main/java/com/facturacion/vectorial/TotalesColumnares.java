@@ -0,0 +1,24 @@
+package com.facturacion.vectorial;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales exactos de un conjunto de líneas columnares.
+ *
+ * @param subtotal La suma exacta de los precios
+ * @param impuestos La suma exacta de los impuestos
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+public record TotalesColumnares(BigDecimal subtotal, BigDecimal impuestos) {
+
+    /**
+     * Calcula el total (subtotal + impuestos).
+     *
+     * @return El total exacto
+     */
+    public BigDecimal total() {
+        return subtotal.add(impuestos);
+    }
+}
@@ -0,0 +1,212 @@
+package com.facturacion.almacen;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.numeracion.NumeroFactura;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el almacén de facturas estructurado como registro.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para AlmacenFacturas")
+class AlmacenFacturasTest {
+
+    private static final Map<Class<? extends Producto>, Impuesto> REGLAS = ReglasImpuesto.porDefecto();
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debería guardar, corregir, anular y recuperar facturas al reabrir")
+    void deberiaGuardarCorregirYAnular() throws Exception {
+        // Arrange
+        NumeroFactura a1 = new NumeroFactura("A", 1);
+        NumeroFactura a2 = new NumeroFactura("A", 2);
+        try (AlmacenFacturas almacen = new AlmacenFacturas(directorio, REGLAS)) {
+            // Act
+            almacen.guardar(factura(a1, 1000.0));
+            almacen.guardar(factura(a2, 2000.0));
+            almacen.guardar(factura(a1, 1000.0, 500.0));
+            assertTrue(almacen.anular(a2));
+            assertFalse(almacen.anular(a2));
+
+            // Assert
+            assertEquals(1500.0, almacen.leer(a1).calcularSubtotal());
+            assertNull(almacen.leer(a2));
+        }
+        try (AlmacenFacturas reabierto = new AlmacenFacturas(directorio, REGLAS)) {
+            Factura leida = reabierto.leer(a1);
+            assertEquals(a1, leida.getNumero());
+            assertEquals(2, leida.getCantidadProductos());
+            assertInstanceOf(ProductoElectronico.class, leida.getProducto(1));
+            assertEquals(1000.0 * 1.05 + 500.0 * 1.25, leida.calcularTotal(), 0.001);
+            assertEquals(1, reabierto.getCantidad());
+            assertFalse(reabierto.contiene(a2));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería compactar los segmentos sellados y descartar versiones reemplazadas")
+    void deberiaCompactarSegmentos() throws Exception {
+        // Arrange
+        try (AlmacenFacturas almacen = new AlmacenFacturas(directorio, REGLAS, 1024, AlmacenFacturas.SIN_LIMITE)) {
+            for (int version = 1; version <= 5; version++) {
+                for (long n = 1; n <= 50; n++) {
+                    almacen.guardar(factura(new NumeroFactura("B", n), n * version));
+                }
+            }
+            almacen.anular(new NumeroFactura("B", 7));
+            int segmentosAntes = almacen.getSegmentos();
+
+            // Act
+            ResultadoCompactacion resultado = almacen.compactar();
+
+            // Assert
+            assertTrue(segmentosAntes > 2);
+            assertEquals(2, almacen.getSegmentos());
+            assertEquals(segmentosAntes - 1, resultado.segmentos());
+            assertTrue(resultado.registrosDescartados() > resultado.registrosCopiados());
+            assertTrue(resultado.bytesRecuperados() > 0);
+            assertEquals(49, almacen.getCantidad());
+            assertEquals(50.0 * 5, almacen.leer(new NumeroFactura("B", 50)).calcularSubtotal());
+        }
+        try (AlmacenFacturas reabierto = new AlmacenFacturas(directorio, REGLAS)) {
+            assertEquals(49, reabierto.getCantidad());
+            assertEquals(3.0 * 5, reabierto.leer(new NumeroFactura("B", 3)).calcularSubtotal());
+            assertNull(reabierto.leer(new NumeroFactura("B", 7)));
+        }
+        assertEquals(2, segmentos().size());
+    }
+
+    @Test
+    @DisplayName("Debería ignorar segmentos ya fusionados si la compactación se cortó antes de borrarlos")
+    void deberiaIgnorarSegmentosFusionados() throws Exception {
+        // Arrange
+        Path copias = Files.createDirectory(directorio.resolve("copias"));
+        Path datos = directorio.resolve("datos");
+        NumeroFactura anulada = new NumeroFactura("C", 1);
+        try (AlmacenFacturas almacen = new AlmacenFacturas(datos, REGLAS, 256, AlmacenFacturas.SIN_LIMITE)) {
+            almacen.guardar(factura(anulada, 10.0));
+            for (long n = 2; n <= 30; n++) {
+                almacen.guardar(factura(new NumeroFactura("C", n), n));
+            }
+            almacen.anular(anulada);
+            almacen.sincronizar();
+            for (Path segmento : archivos(datos)) {
+                Files.copy(segmento, copias.resolve(segmento.getFileName()));
+            }
+
+            // Act
+            almacen.compactar();
+        }
+        // Simula un corte después del renombrado, antes de borrar los segmentos fusionados
+        for (Path copia : archivos(copias)) {
+            if (!Files.exists(datos.resolve(copia.getFileName()))) {
+                Files.copy(copia, datos.resolve(copia.getFileName()));
+            }
+        }
+
+        // Assert
+        try (AlmacenFacturas reabierto = new AlmacenFacturas(datos, REGLAS)) {
+            assertNull(reabierto.leer(anulada));
+            assertEquals(29, reabierto.getCantidad());
+            assertEquals(2, reabierto.getSegmentos());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería descartar un registro a medio escribir al final del último segmento")
+    void deberiaDescartarRegistroIncompleto() throws Exception {
+        // Arrange
+        NumeroFactura numero = new NumeroFactura("D", 1);
+        try (AlmacenFacturas almacen = new AlmacenFacturas(directorio, REGLAS)) {
+            almacen.guardar(factura(numero, 99.0));
+        }
+        Path segmento = segmentos().get(0);
+        long tamano = Files.size(segmento);
+        Files.write(segmento, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // Act
+        try (AlmacenFacturas reabierto = new AlmacenFacturas(directorio, REGLAS)) {
+            // Assert
+            assertEquals(99.0, reabierto.leer(numero).calcularSubtotal());
+            assertEquals(tamano, Files.size(segmento));
+            reabierto.guardar(factura(new NumeroFactura("D", 2), 1.0));
+        }
+        try (AlmacenFacturas reabierto = new AlmacenFacturas(directorio, REGLAS)) {
+            assertEquals(2, reabierto.getCantidad());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería limitar la tasa de compactación y compactar en segundo plano")
+    void deberiaLimitarTasaDeCompactacion() throws Exception {
+        // Arrange
+        try (AlmacenFacturas almacen = new AlmacenFacturas(directorio, REGLAS, 2048, 50_000)) {
+            for (long n = 1; n <= 400; n++) {
+                almacen.guardar(factura(new NumeroFactura("E", n % 100 + 1), n));
+            }
+
+            // Act
+            ResultadoCompactacion resultado = almacen.compactar();
+
+            // Assert: a 50 KB/s, copiar lo leído lleva al menos ese tiempo
+            long minimo = (long) (resultado.bytesLeidos() * 1e9 / 50_000 * 0.8);
+            assertTrue(resultado.nanos() >= minimo, resultado.nanos() + " < " + minimo);
+
+            almacen.setLimiteCompactacion(AlmacenFacturas.SIN_LIMITE);
+            for (long n = 1; n <= 400; n++) {
+                almacen.guardar(factura(new NumeroFactura("E", n % 100 + 1), n));
+            }
+            almacen.iniciarCompactacion(Duration.ofMillis(10), 2);
+            long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (almacen.getSegmentos() > 3 && System.nanoTime() < limite) {
+                Thread.sleep(10);
+            }
+            assertTrue(almacen.getSegmentos() <= 3);
+            assertNull(almacen.getErrorCompactacion());
+            assertEquals(100, almacen.getCantidad());
+            assertEquals(400.0, almacen.leer(new NumeroFactura("E", 1)).calcularSubtotal());
+        }
+    }
+
+    private static Factura factura(NumeroFactura numero, double... precios) {
+        Factura factura = new Factura(REGLAS);
+        for (int i = 0; i < precios.length; i++) {
+            factura.agregarProducto(i % 2 == 0
+                ? new ProductoAlimento("Producto " + i, precios[i])
+                : new ProductoElectronico("Producto " + i, precios[i]));
+        }
+        factura.asignarNumero(numero);
+        return factura;
+    }
+
+    private List<Path> segmentos() throws IOException {
+        return archivos(directorio);
+    }
+
+    private static List<Path> archivos(Path carpeta) throws IOException {
+        try (Stream<Path> contenido = Files.list(carpeta)) {
+            return contenido.filter(archivo -> archivo.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
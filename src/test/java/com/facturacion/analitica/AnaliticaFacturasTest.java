@@ -0,0 +1,185 @@
+package com.facturacion.analitica;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la analítica de productos en una sola pasada.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para AnaliticaFacturas y sus sketches")
+class AnaliticaFacturasTest {
+
+    @Test
+    @DisplayName("Debería encontrar los productos con más ingresos sin subestimar sus montos")
+    void deberiaEncontrarTopIngresos() {
+        // Arrange
+        List<Factura> facturas = generarFacturas(new Random(41), 2000);
+        Map<String, Long> exactos = new HashMap<>();
+        Map<String, Long> impuestos = new HashMap<>();
+        for (Factura factura : facturas) {
+            for (Producto producto : factura.getProductos()) {
+                exactos.merge(producto.getNombre(), Math.round(producto.getPrecio() * 100), Long::sum);
+                impuestos.merge(producto.getNombre(),
+                    Math.round(factura.obtenerImpuesto(producto).calcularImpuesto(producto) * 100), Long::sum);
+            }
+        }
+        List<String> esperados = new ArrayList<>(exactos.keySet());
+        esperados.sort(Comparator.comparing((String nombre) -> exactos.get(nombre)).reversed());
+        AnaliticaFacturas analitica = new AnaliticaFacturas(10);
+
+        // Act
+        facturas.forEach(analitica::acumular);
+        List<ProductoDestacado> top = analitica.getTopIngresos();
+
+        // Assert
+        assertEquals(10, top.size());
+        assertEquals(esperados.subList(0, 5), top.subList(0, 5).stream().map(ProductoDestacado::nombre).toList());
+        for (ProductoDestacado destacado : top) {
+            assertTrue(destacado.centavos() >= exactos.get(destacado.nombre()));
+        }
+        String mayorImpuesto = impuestos.keySet().stream()
+            .max(Comparator.comparing(impuestos::get)).orElseThrow();
+        assertEquals(mayorImpuesto, analitica.getTopImpuestos().get(0).nombre());
+    }
+
+    @Test
+    @DisplayName("Debería estimar frecuencias y productos distintos por categoría")
+    void deberiaEstimarFrecuenciasYDistintos() {
+        // Arrange
+        Map<Class<? extends Producto>, Impuesto> reglas = ReglasImpuesto.porDefecto();
+        AnaliticaFacturas analitica = new AnaliticaFacturas(5);
+        Factura factura = new Factura(reglas);
+        for (int i = 0; i < 50_000; i++) {
+            factura.agregarProducto(CategoriaProducto.ROPA.crear("Camisa " + i, 100.0));
+        }
+        for (int i = 0; i < 300; i++) {
+            factura.agregarProducto(CategoriaProducto.ALIMENTO.crear("Pan " + (i % 30), 10.0));
+        }
+
+        // Act
+        analitica.acumular(factura);
+
+        // Assert
+        assertEquals(50_300, analitica.getLineas());
+        assertEquals(50_000, analitica.estimarDistintos(CategoriaProducto.ROPA), 50_000 * 0.05);
+        assertEquals(30, analitica.estimarDistintos(CategoriaProducto.ALIMENTO), 1);
+        assertEquals(0, analitica.estimarDistintos(CategoriaProducto.ELECTRONICA));
+        long frecuenciaPan = analitica.estimarFrecuencia("Pan 7");
+        assertTrue(frecuenciaPan >= 10 && frecuenciaPan <= 10 + 50_300 * Math.E / 4096);
+    }
+
+    @Test
+    @DisplayName("Debería dar el mismo resultado al combinar particiones que en una sola pasada")
+    void deberiaCombinarParticiones() throws IOException {
+        // Arrange
+        List<Factura> facturas = generarFacturas(new Random(7), 1000);
+        AnaliticaFacturas completa = new AnaliticaFacturas(8);
+        facturas.forEach(completa::acumular);
+        List<AnaliticaFacturas> particiones = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            particiones.add(new AnaliticaFacturas(8));
+        }
+        for (int i = 0; i < facturas.size(); i++) {
+            particiones.get(i % 4).acumular(facturas.get(i));
+        }
+
+        // Act
+        AnaliticaFacturas combinada = new AnaliticaFacturas(8);
+        for (AnaliticaFacturas particion : particiones) {
+            combinada.combinar(transmitir(particion));
+        }
+
+        // Assert
+        assertEquals(completa.getLineas(), combinada.getLineas());
+        assertEquals(completa.getTopIngresos(), combinada.getTopIngresos());
+        assertEquals(completa.getTopImpuestos(), combinada.getTopImpuestos());
+        assertEquals(completa.estimarFrecuencia("Producto 3"), combinada.estimarFrecuencia("Producto 3"));
+        for (CategoriaProducto categoria : CategoriaProducto.values()) {
+            assertEquals(completa.estimarDistintos(categoria), combinada.estimarDistintos(categoria));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería mantener exactamente los mayores montos aunque los candidatos se reemplacen")
+    void deberiaMantenerMayoresMontos() {
+        // Arrange
+        Random aleatorio = new Random(41);
+        Map<String, Long> exactos = new HashMap<>();
+        TopProductos ranking = new TopProductos(25, new CountMinSketch(1 << 16, 4));
+
+        // Act
+        for (int i = 0; i < 200_000; i++) {
+            String nombre = "Producto " + aleatorio.nextInt(3000);
+            long centavos = 1 + aleatorio.nextInt(1_000_000);
+            exactos.merge(nombre, centavos, Long::sum);
+            ranking.agregar(nombre, centavos);
+        }
+
+        // Assert
+        List<String> esperados = new ArrayList<>(exactos.keySet());
+        esperados.sort(Comparator.comparing((String nombre) -> exactos.get(nombre)).reversed());
+        assertEquals(esperados.subList(0, 25), ranking.resultado().stream().map(ProductoDestacado::nombre).toList());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar combinar sketches de dimensiones distintas")
+    void deberiaRechazarDimensionesDistintas() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> new CountMinSketch(1024, 4).combinar(new CountMinSketch(2048, 4)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new HyperLogLog(10).combinar(new HyperLogLog(12)));
+        assertThrows(IllegalArgumentException.class, () -> new TopProductos(0));
+        assertEquals(1024, new CountMinSketch(1000, 3).getAncho());
+    }
+
+    /**
+     * Genera facturas cuyos productos siguen una distribución sesgada: pocos productos
+     * concentran la mayor parte de las ventas.
+     */
+    private static List<Factura> generarFacturas(Random aleatorio, int cantidad) {
+        Map<Class<? extends Producto>, Impuesto> reglas = ReglasImpuesto.porDefecto();
+        List<Factura> facturas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Factura factura = new Factura(reglas);
+            for (int j = 0; j < 20; j++) {
+                int producto = (int) Math.floor(Math.pow(aleatorio.nextDouble(), 3) * 5000);
+                CategoriaProducto categoria = CategoriaProducto.porCodigo(1 + producto % 3);
+                factura.agregarProducto(categoria.crear("Producto " + producto, 1000.0 + producto % 7));
+            }
+            facturas.add(factura);
+        }
+        return facturas;
+    }
+
+    /**
+     * Escribe y vuelve a leer una analítica, como al enviarla entre procesos.
+     */
+    private static AnaliticaFacturas transmitir(AnaliticaFacturas analitica) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        analitica.escribir(new DataOutputStream(bytes));
+        return AnaliticaFacturas.leer(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,137 @@
+package com.facturacion.analitica;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoRopa;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para los totales exactos por producto.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para TotalesPorProducto")
+class TotalesPorProductoTest {
+
+    private static final Map<Class<? extends Producto>, Impuesto> REGLAS = ReglasImpuesto.porDefecto();
+
+    @Test
+    @DisplayName("Debería acumular los mismos totales que un HashMap por producto")
+    void deberiaAcumularComoHashMap() {
+        // Arrange
+        List<Factura> facturas = generarFacturas(new Random(48), 3000);
+        Map<Producto, double[]> esperados = new HashMap<>();
+        for (Factura factura : facturas) {
+            for (Producto producto : factura.getProductos()) {
+                double[] totales = esperados.computeIfAbsent(producto, p -> new double[3]);
+                totales[0]++;
+                totales[1] += producto.getPrecio();
+                totales[2] += factura.obtenerImpuesto(producto).calcularImpuesto(producto);
+            }
+        }
+        TotalesPorProducto totales = new TotalesPorProducto(4);
+
+        // Act
+        facturas.forEach(totales::acumular);
+
+        // Assert
+        assertEquals(esperados.size(), totales.getTamano());
+        esperados.forEach((producto, esperado) -> {
+            assertEquals((long) esperado[0], totales.getCantidad(producto));
+            assertEquals(esperado[1], totales.getIngresos(producto), 1e-6);
+            assertEquals(esperado[2], totales.getImpuestos(producto), 1e-6);
+        });
+        int[] visitados = {0};
+        totales.recorrer((producto, cantidad, ingresos, impuestos) -> {
+            visitados[0]++;
+            assertEquals((long) esperados.get(producto)[0], cantidad);
+        });
+        assertEquals(esperados.size(), visitados[0]);
+    }
+
+    @Test
+    @DisplayName("Debería distinguir productos con igual nombre pero distinta clase, precio o moneda")
+    void deberiaDistinguirProductosDistintos() {
+        // Arrange
+        TotalesPorProducto totales = new TotalesPorProducto();
+        Producto pan = new ProductoAlimento("Pan", 1000.0);
+        Producto otroPan = new ProductoAlimento(new String("Pan"), 1000.0);
+
+        // Act
+        totales.agregar(pan, 2, 2000.0, 100.0);
+        totales.agregar(otroPan, 1, 1000.0, 50.0);
+        totales.agregar(new ProductoRopa("Pan", 1000.0), 1, 1000.0, 190.0);
+        totales.agregar(new ProductoAlimento("Pan", 1200.0), 1, 1200.0, 60.0);
+        totales.agregar(new ProductoAlimento("Pan", 1000.0, Currency.getInstance("USD")), 1, 1000.0, 50.0);
+
+        // Assert
+        assertEquals(4, totales.getTamano());
+        assertEquals(3, totales.getCantidad(otroPan));
+        assertEquals(3000.0, totales.getIngresos(pan), 1e-9);
+        assertEquals(150.0, totales.getImpuestos(pan), 1e-9);
+        assertFalse(totales.contiene(new ProductoAlimento("Leche", 1000.0)));
+        assertEquals(0, totales.getCantidad(new ProductoAlimento("Leche", 1000.0)));
+        assertEquals(Objects.hash("Pan", 1000.0, Producto.MONEDA_POR_DEFECTO), pan.hashCode());
+    }
+
+    @Test
+    @DisplayName("Debería combinar totales parciales y limpiar conservando la tabla")
+    void deberiaCombinarYLimpiar() {
+        // Arrange
+        List<Factura> facturas = generarFacturas(new Random(7), 1000);
+        TotalesPorProducto todos = new TotalesPorProducto();
+        TotalesPorProducto primera = new TotalesPorProducto();
+        TotalesPorProducto segunda = new TotalesPorProducto();
+        for (int i = 0; i < facturas.size(); i++) {
+            todos.acumular(facturas.get(i));
+            (i % 2 == 0 ? primera : segunda).acumular(facturas.get(i));
+        }
+
+        // Act
+        primera.combinar(segunda);
+
+        // Assert
+        assertEquals(todos.getTamano(), primera.getTamano());
+        todos.recorrer((producto, cantidad, ingresos, impuestos) -> {
+            assertEquals(cantidad, primera.getCantidad(producto));
+            assertEquals(ingresos, primera.getIngresos(producto), 1e-6);
+            assertEquals(impuestos, primera.getImpuestos(producto), 1e-6);
+        });
+        primera.limpiar();
+        assertEquals(0, primera.getTamano());
+        assertTrue(todos.getTamano() > 0);
+        primera.recorrer((producto, cantidad, ingresos, impuestos) -> fail("No debería quedar ningún total"));
+        assertThrows(IllegalArgumentException.class, () -> new TotalesPorProducto(0));
+        assertThrows(NullPointerException.class, () -> primera.agregar(null, 1, 0.0, 0.0));
+    }
+
+    private static List<Factura> generarFacturas(Random aleatorio, int cantidad) {
+        List<Factura> facturas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Factura factura = new Factura(REGLAS);
+            for (int l = 1 + aleatorio.nextInt(6); l > 0; l--) {
+                int sku = aleatorio.nextInt(700);
+                factura.agregarProducto(CategoriaProducto.porCodigo(1 + sku % 3)
+                    .crear("Producto " + sku, 100.0 + (sku % 40) * 125.0));
+            }
+            facturas.add(factura);
+        }
+        return facturas;
+    }
+}
@@ -0,0 +1,132 @@
+package com.facturacion.app;
+
+import com.facturacion.catalogo.IndiceNombres;
+import com.facturacion.model.ProductoAlimento;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la consola interactiva, alimentada con entrada simulada.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para ConsolaInteractiva")
+class ConsolaInteractivaTest {
+
+    @Test
+    @DisplayName("Debería interpretar enteros a mano y rechazar texto no numérico")
+    void deberiaParsearEnteros() {
+        assertEquals(7, ConsolaInteractiva.parsearEntero(" 7 "));
+        assertEquals(0, ConsolaInteractiva.parsearEntero("0"));
+        assertEquals(-1, ConsolaInteractiva.parsearEntero(""));
+        assertEquals(-1, ConsolaInteractiva.parsearEntero("1a"));
+        assertEquals(-1, ConsolaInteractiva.parsearEntero("-3"));
+        assertEquals(-1, ConsolaInteractiva.parsearEntero("99999999999"));
+    }
+
+    @Test
+    @DisplayName("Debería agregar una ráfaga de productos en modo rápido con un solo redibujado")
+    void deberiaAgregarRafagaEnModoRapido() {
+        // Arrange
+        StringBuilder rafaga = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            rafaga.append("1;Pan ").append(i).append(";1000\n");
+        }
+        rafaga.append("Ropa;Camiseta;abc\n").append("\n").append("3\n").append("0\n");
+
+        // Act
+        String salida = ejecutar(rafaga.toString(), true);
+
+        // Assert
+        assertEquals(1, contar(salida, "+100 | Productos: 100 | Subtotal: $100000.00"), salida);
+        assertTrue(salida.contains("❌ El precio debe ser un número válido"), salida);
+        assertTrue(salida.contains("100 producto(s) agregado(s), 1 error(es)"), salida);
+        assertTrue(salida.contains("TOTAL:                 $      105000.00"), salida);
+    }
+
+    @Test
+    @DisplayName("Debería seguir admitiendo el flujo del menú y terminar al agotarse la entrada")
+    void deberiaAgregarProductoDesdeMenu() {
+        // Act
+        String salida = ejecutar("1\n2\nCamiseta\n25000.5\n3\n", false);
+
+        // Assert
+        assertTrue(salida.contains("✅ Producto agregado exitosamente:"), salida);
+        assertTrue(salida.contains("Subtotal:              $       25000.50"), salida);
+    }
+
+    @Test
+    @DisplayName("Debería agregar un producto elegido entre las sugerencias del catálogo")
+    void deberiaAgregarProductoDesdeCatalogo() {
+        // Arrange
+        IndiceNombres catalogo = IndiceNombres.desdeHistorial(List.of(
+            new ProductoAlimento("Pan Integral", 5000.0),
+            new ProductoAlimento("Pan Blanco", 3000.0),
+            new ProductoAlimento("Pan Blanco", 3000.0)));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ConsolaInteractiva consola = new ConsolaInteractiva(
+            new ByteArrayInputStream("1\npan\n2\n3\n".getBytes(StandardCharsets.UTF_8)),
+            new PrintStream(salida, true, StandardCharsets.UTF_8), catalogo);
+
+        // Act
+        consola.iniciar(false);
+
+        // Assert
+        String texto = salida.toString(StandardCharsets.UTF_8);
+        assertTrue(texto.contains("1. [Alimento] Pan Blanco"), texto);
+        assertTrue(texto.contains("2. [Alimento] Pan Integral"), texto);
+        assertTrue(texto.contains("Subtotal:              $        5000.00"), texto);
+    }
+
+    @Test
+    @DisplayName("Debería deshacer y rehacer agregados, ráfagas y limpiezas")
+    void deberiaDeshacerYRehacer() {
+        // Arrange
+        // Agrega Pan, una ráfaga de dos productos y limpia; deshace la limpieza, la ráfaga, el
+        // Pan y una vez más sin cambios pendientes; rehace el Pan y la ráfaga
+        String entrada = "1\n1\nPan\n1000\n"
+            + "7\n2;Camiseta;20000\n3;Radio;4000\n\n"
+            + "5\ns\n"
+            + "8\n2\n"
+            + "8\n8\n8\n"
+            + "9\n9\n3\n";
+
+        // Act
+        String salida = ejecutar(entrada, false);
+
+        // Assert
+        assertTrue(salida.contains("Cambio deshecho. Productos: 3 | Subtotal: $25000.00"), salida);
+        assertTrue(salida.contains("Productos en la factura (3):"), salida);
+        assertTrue(salida.contains("Cambio deshecho. Productos: 1 | Subtotal: $1000.00"), salida);
+        assertTrue(salida.contains("Cambio deshecho. Productos: 0 | Subtotal: $0.00"), salida);
+        assertTrue(salida.contains("No hay cambios para deshacer."), salida);
+        assertTrue(salida.contains("Cambio rehecho. Productos: 3 | Subtotal: $25000.00"), salida);
+        assertTrue(salida.contains("TOTAL:                 $       29850.00"), salida);
+    }
+
+    private static String ejecutar(String entrada, boolean modoRapido) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ConsolaInteractiva consola = new ConsolaInteractiva(
+            new ByteArrayInputStream(entrada.getBytes(StandardCharsets.UTF_8)),
+            new PrintStream(salida, true, StandardCharsets.UTF_8));
+        consola.iniciar(modoRapido);
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+
+    private static int contar(String texto, String fragmento) {
+        int cantidad = 0;
+        for (int i = texto.indexOf(fragmento); i >= 0; i = texto.indexOf(fragmento, i + 1)) {
+            cantidad++;
+        }
+        return cantidad;
+    }
+}
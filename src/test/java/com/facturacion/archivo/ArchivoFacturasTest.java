@@ -0,0 +1,145 @@
+package com.facturacion.archivo;
+
+import com.facturacion.distribuido.TotalesParciales;
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoRopa;
+import com.facturacion.serializacion.BinaryInvoiceSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el archivo comprimido de facturas.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para EscritorArchivo y LectorArchivo")
+class ArchivoFacturasTest {
+
+    @TempDir
+    Path directorio;
+
+    private Map<Class<? extends Producto>, Impuesto> reglas;
+    private List<Factura> facturas;
+
+    @BeforeEach
+    void setUp() {
+        reglas = ReglasImpuesto.porDefecto();
+        facturas = new ArrayList<>();
+        Random aleatorio = new Random(3);
+        for (int i = 0; i < 2500; i++) {
+            Factura factura = new Factura(reglas);
+            for (int p = 1 + aleatorio.nextInt(5); p > 0; p--) {
+                int sku = aleatorio.nextInt(40);
+                factura.agregarProducto(CategoriaProducto.porCodigo(1 + sku % 3)
+                    .crear("Producto Ñandú " + sku, 500.0 + sku * 1000.25 + (sku == 7 ? 0.01 : 0)));
+            }
+            facturas.add(factura);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería recuperar exactamente las mismas facturas, bloque por bloque")
+    void deberiaRecuperarLasFacturas() throws IOException {
+        // Arrange
+        Path archivo = escribir(300);
+
+        // Act
+        List<Factura> leidas;
+        int bloques;
+        try (LectorArchivo lector = new LectorArchivo(archivo, reglas)) {
+            leidas = lector.leerTodas();
+            bloques = lector.getCantidadBloques();
+        }
+
+        // Assert
+        assertEquals(9, bloques);
+        assertEquals(facturas.size(), leidas.size());
+        for (int i = 0; i < facturas.size(); i++) {
+            assertEquals(facturas.get(i).getProductos(), leidas.get(i).getProductos());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería calcular en paralelo los mismos totales y ocupar menos que el binario")
+    void deberiaCalcularTotalesEnParalelo() throws IOException {
+        // Arrange
+        Path archivo = escribir(100);
+        TotalesParciales esperado = new TotalesParciales();
+        facturas.forEach(esperado::acumular);
+        ByteBuffer binario = ByteBuffer.allocate(1 << 20);
+        BinaryInvoiceSerializer serializador = new BinaryInvoiceSerializer();
+        facturas.forEach(f -> serializador.serializar(f, binario));
+
+        // Act
+        TotalesParciales secuencial;
+        TotalesParciales paralelo;
+        try (LectorArchivo lector = new LectorArchivo(archivo, reglas)) {
+            secuencial = lector.calcularTotales(1);
+            paralelo = lector.calcularTotales(4);
+        }
+
+        // Assert
+        assertEquals(esperado.getLineas(), paralelo.getLineas());
+        assertEquals(esperado.getSubtotal(), paralelo.getSubtotal(), 0.01);
+        assertEquals(esperado.getTotalImpuestos(), paralelo.getTotalImpuestos(), 0.01);
+        assertEquals(secuencial.getImpuestosPorRegla(), paralelo.getImpuestosPorRegla());
+        assertTrue(Files.size(archivo) * 4 < binario.position(),
+            "comprimido: " + Files.size(archivo) + ", binario: " + binario.position());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar precios con más de dos decimales y archivos dañados")
+    void deberiaRechazarDatosNoValidos() throws IOException {
+        // Arrange
+        Factura factura = new Factura(reglas);
+        factura.agregarProducto(new ProductoRopa("Gorra", 10.005));
+        Path archivo = escribir(100);
+        Path truncado = directorio.resolve("truncado.facf");
+        Files.write(truncado, Arrays.copyOf(Files.readAllBytes(archivo), (int) Files.size(archivo) - 3));
+
+        // Act & Assert
+        try (EscritorArchivo escritor = new EscritorArchivo(FileChannel.open(directorio.resolve("otro.facf"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE))) {
+            assertThrows(IllegalArgumentException.class, () -> escritor.escribir(factura));
+        }
+        assertThrows(IOException.class, () -> new LectorArchivo(truncado, reglas));
+        try (LectorArchivo vacio = new LectorArchivo(directorio.resolve("otro.facf"), reglas)) {
+            assertEquals(0, vacio.getCantidadBloques());
+        }
+        Path texto = Files.writeString(directorio.resolve("texto.txt"), "Alimento;Pan;5000");
+        assertThrows(IOException.class, () -> new LectorArchivo(texto, reglas));
+    }
+
+    private Path escribir(int facturasPorBloque) throws IOException {
+        Path archivo = directorio.resolve("facturas-" + facturasPorBloque + ".facf");
+        try (EscritorArchivo escritor = new EscritorArchivo(FileChannel.open(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING),
+                facturasPorBloque)) {
+            for (Factura factura : facturas) {
+                escritor.escribir(factura);
+            }
+        }
+        return archivo;
+    }
+}
@@ -0,0 +1,89 @@
+package com.facturacion.benchmark;
+
+import com.facturacion.analitica.TotalesPorProducto;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de totales por producto: {@link TotalesPorProducto} frente a un
+ * {@code HashMap<Producto, Double>} acumulado con {@code merge}.
+ *
+ * <p>Cada línea es una instancia distinta de {@link Producto}, con su propio nombre, como
+ * las que produce leer facturas de un archivo, de modo que encontrar la clave exige
+ * calcular el hash y comparar con {@code equals}. El mapa solo acumula ingresos; la tabla
+ * acumula cantidad, ingresos e impuestos. El tiempo informado es por línea.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OperationsPerInvocation(AgregacionProductosBenchmark.LINEAS)
+public class AgregacionProductosBenchmark {
+
+    static final int LINEAS = 1 << 20;
+
+    @Param({"1000", "100000"})
+    private int catalogo;
+
+    private Producto[] lineas;
+    private double[] impuestos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Map<Class<? extends Producto>, Impuesto> reglas = ReglasImpuesto.porDefecto();
+        Random aleatorio = new Random(48);
+        lineas = new Producto[LINEAS];
+        impuestos = new double[LINEAS];
+        for (int i = 0; i < LINEAS; i++) {
+            int sku = aleatorio.nextInt(catalogo);
+            Producto producto = CategoriaProducto.porCodigo(1 + sku % 3)
+                .crear("Producto de catálogo " + sku, 1000.0 + (sku % 50) * 250.0);
+            lineas[i] = producto;
+            impuestos[i] = reglas.get(producto.getClass()).calcularImpuesto(producto);
+        }
+    }
+
+    @Benchmark
+    public Map<Producto, Double> hashMap() {
+        Map<Producto, Double> totales = new HashMap<>();
+        for (Producto producto : lineas) {
+            totales.merge(producto, producto.getPrecio(), Double::sum);
+        }
+        return totales;
+    }
+
+    @Benchmark
+    public TotalesPorProducto totalesPorProducto() {
+        TotalesPorProducto totales = new TotalesPorProducto();
+        for (int i = 0; i < lineas.length; i++) {
+            Producto producto = lineas[i];
+            totales.agregar(producto, 1, producto.getPrecio(), impuestos[i]);
+        }
+        return totales;
+    }
+}
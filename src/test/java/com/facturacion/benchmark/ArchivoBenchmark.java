@@ -0,0 +1,139 @@
+package com.facturacion.benchmark;
+
+import com.facturacion.archivo.EscritorArchivo;
+import com.facturacion.archivo.LectorArchivo;
+import com.facturacion.distribuido.TotalesParciales;
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.serializacion.BinaryInvoiceDecoder;
+import com.facturacion.serializacion.BinaryInvoiceSerializer;
+import com.facturacion.serializacion.FacturaSerializada;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark del cálculo de totales desde disco: archivo comprimido por bloques, leído en
+ * paralelo, frente al formato binario sin comprimir leído de forma secuencial.
+ *
+ * <p>Genera 200.000 facturas con un vocabulario de 500 productos y precios que se
+ * repiten, como en un comercio real, y registra el tamaño de cada archivo en la salida
+ * del benchmark.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ArchivoBenchmark {
+
+    private static final int FACTURAS = 200_000;
+
+    @Param({"1", "4"})
+    public int hilos;
+
+    private Map<Class<? extends Producto>, Impuesto> reglas;
+    private Path directorio;
+    private Path comprimido;
+    private Path binario;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        reglas = ReglasImpuesto.porDefecto();
+        directorio = Files.createTempDirectory("archivo-benchmark");
+        comprimido = directorio.resolve("facturas.facf");
+        binario = directorio.resolve("facturas.bin");
+
+        Random aleatorio = new Random(7);
+        BinaryInvoiceSerializer serializador = new BinaryInvoiceSerializer();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        try (EscritorArchivo escritor = new EscritorArchivo(FileChannel.open(comprimido,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+             FileChannel salidaBinaria = FileChannel.open(binario,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < FACTURAS; i++) {
+                Factura factura = new Factura(reglas);
+                for (int p = 1 + aleatorio.nextInt(8); p > 0; p--) {
+                    int sku = aleatorio.nextInt(500);
+                    factura.agregarProducto(CategoriaProducto.porCodigo(1 + sku % 3)
+                        .crear("Producto de catálogo " + sku, 1000.0 + (sku % 50) * 250.0));
+                }
+                escritor.escribir(factura);
+                if (buffer.remaining() < 4096) {
+                    escribirTodo(salidaBinaria, buffer.flip());
+                    buffer.clear();
+                }
+                serializador.serializar(factura, buffer);
+            }
+            escribirTodo(salidaBinaria, buffer.flip());
+        }
+        System.out.printf("%nComprimido: %d bytes, binario: %d bytes%n", Files.size(comprimido), Files.size(binario));
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        Files.deleteIfExists(comprimido);
+        Files.deleteIfExists(binario);
+        Files.deleteIfExists(directorio);
+    }
+
+    @Benchmark
+    public TotalesParciales totalesComprimido() throws IOException {
+        try (LectorArchivo lector = new LectorArchivo(comprimido, reglas)) {
+            return lector.calcularTotales(hilos);
+        }
+    }
+
+    @Benchmark
+    public TotalesParciales totalesBinario() throws IOException {
+        TotalesParciales totales = new TotalesParciales();
+        BinaryInvoiceDecoder decoder = new BinaryInvoiceDecoder();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        try (FileChannel canal = FileChannel.open(binario, StandardOpenOption.READ)) {
+            int leidos;
+            do {
+                leidos = canal.read(buffer);
+                buffer.flip();
+                FacturaSerializada registro;
+                while ((registro = decoder.decodificar(buffer)) != null) {
+                    totales.acumular(registro.aFactura(reglas));
+                }
+                buffer.compact();
+            } while (leidos >= 0);
+        }
+        return totales;
+    }
+
+    private static void escribirTodo(FileChannel canal, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+}
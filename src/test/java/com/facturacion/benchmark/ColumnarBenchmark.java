@@ -0,0 +1,125 @@
+package com.facturacion.benchmark;
+
+import com.facturacion.archivo.EscritorArchivo;
+import com.facturacion.archivo.LectorArchivo;
+import com.facturacion.columnar.EscritorColumnar;
+import com.facturacion.columnar.FiltroColumnar;
+import com.facturacion.columnar.LectorColumnar;
+import com.facturacion.columnar.ResultadoColumnar;
+import com.facturacion.distribuido.TotalesParciales;
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de una consulta analítica (impuestos de la electrónica de un mes) sobre tres
+ * años de facturas: archivo columnar con salto de grupos por estadísticas, el mismo
+ * archivo recorrido completo, y el archivo comprimido por bloques, que obliga a
+ * reconstruir cada factura.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ColumnarBenchmark {
+
+    private static final int FACTURAS = 300_000;
+
+    private static final LocalDate INICIO = LocalDate.of(2022, 1, 1);
+
+    private static final int DIAS = 3 * 365;
+
+    private Map<Class<? extends Producto>, Impuesto> reglas;
+    private Path directorio;
+    private Path columnar;
+    private Path comprimido;
+    private FiltroColumnar filtroMes;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        reglas = ReglasImpuesto.porDefecto();
+        directorio = Files.createTempDirectory("columnar-benchmark");
+        columnar = directorio.resolve("lineas.col");
+        comprimido = directorio.resolve("facturas.facf");
+        filtroMes = FiltroColumnar.todas().mes(YearMonth.of(2023, 3)).categoria(CategoriaProducto.ELECTRONICA);
+
+        Random aleatorio = new Random(47);
+        try (EscritorColumnar escritor = new EscritorColumnar(abrir(columnar));
+             EscritorArchivo archivo = new EscritorArchivo(abrir(comprimido))) {
+            for (int i = 0; i < FACTURAS; i++) {
+                Factura factura = new Factura(reglas);
+                for (int p = 1 + aleatorio.nextInt(8); p > 0; p--) {
+                    int sku = aleatorio.nextInt(500);
+                    factura.agregarProducto(CategoriaProducto.porCodigo(1 + sku % 3)
+                        .crear("Producto de catálogo " + sku, 1000.0 + (sku % 50) * 250.0));
+                }
+                escritor.agregar(factura, INICIO.plusDays((long) i * DIAS / FACTURAS));
+                archivo.escribir(factura);
+            }
+        }
+        System.out.printf("%nColumnar: %d bytes, comprimido: %d bytes%n", Files.size(columnar), Files.size(comprimido));
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        Files.deleteIfExists(columnar);
+        Files.deleteIfExists(comprimido);
+        Files.deleteIfExists(directorio);
+    }
+
+    @Benchmark
+    public ResultadoColumnar columnarConSalto() throws IOException {
+        try (LectorColumnar lector = new LectorColumnar(columnar)) {
+            return lector.agregar(filtroMes);
+        }
+    }
+
+    @Benchmark
+    public ResultadoColumnar columnarCompleto() throws IOException {
+        try (LectorColumnar lector = new LectorColumnar(columnar)) {
+            return lector.agregar(FiltroColumnar.todas());
+        }
+    }
+
+    @Benchmark
+    public TotalesParciales archivoCompleto() throws IOException {
+        try (LectorArchivo lector = new LectorArchivo(comprimido, reglas)) {
+            return lector.calcularTotales(1);
+        }
+    }
+
+    private static FileChannel abrir(Path archivo) throws IOException {
+        return FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
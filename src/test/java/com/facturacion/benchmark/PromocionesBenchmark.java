@@ -0,0 +1,136 @@
+package com.facturacion.benchmark;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.promocion.CestaPromociones;
+import com.facturacion.promocion.MotorPromociones;
+import com.facturacion.promocion.Promocion;
+import com.facturacion.promocion.PromocionCantidad;
+import com.facturacion.promocion.PromocionCategoria;
+import com.facturacion.promocion.PromocionUmbral;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de una caja que muestra el descuento después de cada línea, con miles de
+ * promociones activas: motor indexado con reevaluación incremental frente a recorrer
+ * todas las promociones y todas las líneas en cada paso.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PromocionesBenchmark {
+
+    private static final int LINEAS = 100;
+
+    @Param({"1000", "10000"})
+    public int cantidadPromociones;
+
+    private Map<Class<? extends Producto>, Impuesto> reglas;
+    private List<Promocion> promociones;
+    private MotorPromociones motor;
+    private Producto[] lineas;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        reglas = ReglasImpuesto.porDefecto();
+        promociones = new ArrayList<>();
+        for (int i = 0; i < cantidadPromociones - 2; i++) {
+            promociones.add(new PromocionCantidad("c" + i, "Producto " + i, 1 + i % 3, 1));
+        }
+        promociones.add(new PromocionCategoria("alimento", CategoriaProducto.ALIMENTO, 10.0));
+        promociones.add(new PromocionUmbral("umbral", 50_000.0, 5.0));
+        motor = new MotorPromociones(promociones);
+        lineas = new Producto[LINEAS];
+        for (int i = 0; i < LINEAS; i++) {
+            lineas[i] = new ProductoAlimento("Producto " + (i * 37 % cantidadPromociones), 1000.0 + i);
+        }
+    }
+
+    @Benchmark
+    public double motorIncremental() {
+        CestaPromociones cesta = motor.crearCesta(new Factura(reglas));
+        double descuento = 0.0;
+        for (Producto linea : lineas) {
+            cesta.agregarProducto(linea);
+            descuento = cesta.getDescuento();
+        }
+        return descuento + cesta.calcularTotales().total();
+    }
+
+    @Benchmark
+    public double evaluacionCompleta() {
+        List<Producto> cesta = new ArrayList<>();
+        double descuento = 0.0;
+        for (Producto linea : lineas) {
+            cesta.add(linea);
+            descuento = descuentoCompleto(cesta);
+        }
+        return descuento;
+    }
+
+    /**
+     * Evalúa cada promoción contra toda la cesta, como haría una implementación sin índices.
+     */
+    private double descuentoCompleto(List<Producto> cesta) {
+        double subtotal = 0.0;
+        double porcentajeCategoria = 0.0;
+        double umbralPorcentaje = 0.0;
+        for (Promocion promocion : promociones) {
+            if (promocion instanceof PromocionCategoria p) {
+                porcentajeCategoria = Math.max(porcentajeCategoria, p.porcentaje());
+            }
+        }
+        double neto = 0.0;
+        for (Producto producto : cesta) {
+            subtotal += producto.getPrecio();
+            neto += producto.getPrecio() * (1.0 - porcentajeCategoria / 100.0);
+        }
+        for (Promocion promocion : promociones) {
+            if (promocion instanceof PromocionCantidad p) {
+                int unidades = 0;
+                double minimo = Double.POSITIVE_INFINITY;
+                for (Producto producto : cesta) {
+                    if (producto.getNombre().equals(p.sku())) {
+                        unidades++;
+                        minimo = Math.min(minimo, producto.getPrecio() * (1.0 - porcentajeCategoria / 100.0));
+                    }
+                }
+                if (unidades > 0) {
+                    neto -= p.unidadesGratis(unidades) * minimo;
+                }
+            }
+        }
+        for (Promocion promocion : promociones) {
+            if (promocion instanceof PromocionUmbral p && neto >= p.umbral()) {
+                umbralPorcentaje = Math.max(umbralPorcentaje, p.porcentaje());
+            }
+        }
+        return subtotal - neto * (1.0 - umbralPorcentaje / 100.0);
+    }
+}
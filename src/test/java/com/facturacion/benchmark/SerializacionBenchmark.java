@@ -0,0 +1,112 @@
+package com.facturacion.benchmark;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.IVAAlimento;
+import com.facturacion.impuesto.IVAElectronico;
+import com.facturacion.impuesto.IVARopa;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import com.facturacion.serializacion.BinaryInvoiceDecoder;
+import com.facturacion.serializacion.BinaryInvoiceSerializer;
+import com.facturacion.serializacion.FacturaSerializada;
+import com.facturacion.serializacion.JsonInvoiceDecoder;
+import com.facturacion.serializacion.JsonInvoiceSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Benchmark de los serializadores de facturas, en facturas por segundo en un solo hilo.
+ *
+ * <p>Usa la factura de la demostración (seis productos de las tres categorías). El objetivo
+ * es superar un millón de facturas por segundo en cada formato.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializacionBenchmark {
+
+    private final BinaryInvoiceSerializer binario = new BinaryInvoiceSerializer();
+    private final JsonInvoiceSerializer json = new JsonInvoiceSerializer();
+    private final BinaryInvoiceDecoder decoderBinario = new BinaryInvoiceDecoder();
+    private final JsonInvoiceDecoder decoderJson = new JsonInvoiceDecoder();
+
+    private Factura factura;
+    private ByteBuffer buffer;
+    private ByteBuffer registroBinario;
+    private ByteBuffer registroJson;
+
+    @Setup
+    public void preparar() {
+        Map<Class<? extends Producto>, Impuesto> reglas = new HashMap<>();
+        reglas.put(ProductoAlimento.class, new IVAAlimento());
+        reglas.put(ProductoRopa.class, new IVARopa());
+        reglas.put(ProductoElectronico.class, new IVAElectronico());
+
+        factura = new Factura(reglas);
+        factura.agregarProducto(new ProductoAlimento("Pan Integral", 5000.0));
+        factura.agregarProducto(new ProductoAlimento("Leche Entera 1L", 3500.0));
+        factura.agregarProducto(new ProductoRopa("Camiseta Algodón", 25000.0));
+        factura.agregarProducto(new ProductoRopa("Pantalón Jeans", 80000.0));
+        factura.agregarProducto(new ProductoElectronico("Laptop 15\"", 1500000.0));
+        factura.agregarProducto(new ProductoElectronico("Mouse Inalámbrico", 45000.0));
+
+        buffer = ByteBuffer.allocateDirect(1 << 20);
+        registroBinario = ByteBuffer.allocate(1024);
+        binario.serializar(factura, registroBinario);
+        registroBinario.flip();
+        registroJson = ByteBuffer.allocate(1024);
+        json.serializar(factura, registroJson);
+        registroJson.flip();
+    }
+
+    @Benchmark
+    public int serializarBinario() {
+        reciclar();
+        binario.serializar(factura, buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public int serializarJson() {
+        reciclar();
+        json.serializar(factura, buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public FacturaSerializada decodificarBinario() {
+        registroBinario.rewind();
+        return decoderBinario.decodificar(registroBinario);
+    }
+
+    @Benchmark
+    public FacturaSerializada decodificarJson() {
+        registroJson.rewind();
+        return decoderJson.decodificar(registroJson);
+    }
+
+    private void reciclar() {
+        if (buffer.remaining() < 4096) {
+            buffer.clear();
+        }
+    }
+}
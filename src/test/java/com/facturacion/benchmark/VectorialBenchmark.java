@@ -0,0 +1,81 @@
+package com.facturacion.benchmark;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.vectorial.LineasColumnares;
+import com.facturacion.vectorial.SumadorLineas;
+import com.facturacion.vectorial.TotalesColumnares;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la suma de subtotal e impuestos por categoría: núcleo escalar y vectorial
+ * sobre líneas columnares frente al cálculo de {@link Factura} con {@code double}.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VectorialBenchmark {
+
+    @Param({"1000", "100000"})
+    public int cantidadLineas;
+
+    private Map<Class<? extends Producto>, Impuesto> reglas;
+    private Factura factura;
+    private LineasColumnares lineas;
+    private SumadorLineas escalar;
+    private SumadorLineas vectorial;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        reglas = ReglasImpuesto.porDefecto();
+        factura = new Factura(reglas);
+        Random aleatorio = new Random(40);
+        for (int i = 0; i < cantidadLineas; i++) {
+            CategoriaProducto categoria = CategoriaProducto.porCodigo(1 + aleatorio.nextInt(3));
+            factura.agregarProducto(categoria.crear("Producto " + i, aleatorio.nextInt(5_000_000) / 100.0));
+        }
+        lineas = new LineasColumnares();
+        lineas.agregar(factura);
+        escalar = SumadorLineas.escalar();
+        vectorial = SumadorLineas.mejorDisponible();
+    }
+
+    @Benchmark
+    public TotalesColumnares columnarEscalar() {
+        return lineas.calcularTotales(escalar, reglas);
+    }
+
+    @Benchmark
+    public TotalesColumnares columnarVectorial() {
+        return lineas.calcularTotales(vectorial, reglas);
+    }
+
+    @Benchmark
+    public double factura() {
+        return factura.calcularTotal();
+    }
+}
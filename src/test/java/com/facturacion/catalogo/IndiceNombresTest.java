@@ -0,0 +1,112 @@
+package com.facturacion.catalogo;
+
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el índice de búsqueda por nombre del catálogo.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para IndiceNombres")
+class IndiceNombresTest {
+
+    private IndiceNombres indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceNombres(List.of(
+            new EntradaCatalogo(new ProductoAlimento("Pan Integral", 5000.0), 40),
+            new EntradaCatalogo(new ProductoAlimento("Pan Blanco", 3000.0), 90),
+            new EntradaCatalogo(new ProductoAlimento("Panela", 4500.0), 10),
+            new EntradaCatalogo(new ProductoRopa("Pantalón Jeans", 80000.0), 60),
+            new EntradaCatalogo(new ProductoElectronico("Cámara Digital", 900000.0), 5),
+            new EntradaCatalogo(new ProductoElectronico("Camiseta Deportiva", 30000.0), 20),
+            new EntradaCatalogo(new ProductoAlimento("Pan", 1000.0), 15)));
+    }
+
+    @Test
+    @DisplayName("Debería sugerir por prefijo de mayor a menor frecuencia")
+    void deberiaBuscarPorPrefijo() {
+        // Act
+        List<String> pan = nombres(indice.buscarPrefijo("pan", 10));
+        List<String> panB = nombres(indice.buscarPrefijo("PAN b", 10));
+
+        // Assert
+        assertEquals(List.of("Pan Blanco", "Pantalón Jeans", "Pan Integral", "Pan", "Panela"), pan);
+        assertEquals(List.of("Pan Blanco"), panB);
+        assertEquals(List.of("Pan Blanco", "Pantalón Jeans"), nombres(indice.buscarPrefijo("pa", 2)));
+        assertEquals(List.of("Cámara Digital"), nombres(indice.buscarPrefijo("camar", 5)));
+        assertTrue(indice.buscarPrefijo("xyz", 5).isEmpty());
+        assertEquals(7, indice.buscarPrefijo("", 100).size());
+    }
+
+    @Test
+    @DisplayName("Debería encontrar nombres con errores de tipeo dentro de la distancia máxima")
+    void deberiaBuscarAproximado() {
+        // Act & Assert
+        assertEquals(List.of("Panela"), nombres(indice.buscarAproximado("pnela", 1, 5)));
+        assertEquals(List.of("Pan Blanco"), nombres(indice.buscarAproximado("pan blnaco", 2, 5)));
+        assertEquals(List.of("Pan"), nombres(indice.buscarAproximado("pan", 0, 5)));
+        assertEquals(List.of("Pan"), nombres(indice.buscarAproximado("pam", 1, 5)));
+        assertEquals(List.of("Cámara Digital"), nombres(indice.buscarAproximado("camara digtal", 1, 5)));
+        assertTrue(indice.buscarAproximado("televisor", 2, 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> indice.buscarAproximado("pan", -1, 5));
+    }
+
+    @Test
+    @DisplayName("Debería coincidir con una búsqueda exhaustiva en un catálogo grande")
+    void deberiaCoincidirConBusquedaExhaustiva() {
+        // Arrange
+        Random aleatorio = new Random(42);
+        List<EntradaCatalogo> entradas = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder nombre = new StringBuilder();
+            for (int c = 4 + aleatorio.nextInt(6); c > 0; c--) {
+                nombre.append((char) ('a' + aleatorio.nextInt(6)));
+            }
+            entradas.add(new EntradaCatalogo(new ProductoAlimento(nombre.toString(), 100.0), aleatorio.nextInt(1000)));
+        }
+        IndiceNombres grande = new IndiceNombres(entradas);
+
+        // Act
+        List<EntradaCatalogo> prefijo = grande.buscarPrefijo("abc", 10);
+        List<EntradaCatalogo> aproximado = grande.buscarAproximado("abcdef", 2, 5000);
+
+        // Assert
+        long[] esperadas = entradas.stream().filter(e -> e.producto().getNombre().startsWith("abc"))
+            .mapToLong(EntradaCatalogo::frecuencia).sorted().toArray();
+        for (int i = 0; i < prefijo.size(); i++) {
+            assertEquals(esperadas[esperadas.length - 1 - i], prefijo.get(i).frecuencia());
+        }
+        long cercanas = entradas.stream().filter(e -> levenshtein(e.producto().getNombre(), "abcdef") <= 2).count();
+        assertEquals(cercanas, aproximado.size());
+        assertTrue(grande.getCantidadNodos() <= 2 * grande.getCantidadEntradas() + 1);
+    }
+
+    private static List<String> nombres(List<EntradaCatalogo> entradas) {
+        return entradas.stream().map(e -> e.producto().getNombre()).toList();
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                d[i][j] = i == 0 ? j : j == 0 ? i : Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1),
+                    d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1));
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,195 @@
+package com.facturacion.columnar;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoRopa;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la exportación columnar y su lector con salto de grupos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para EscritorColumnar y LectorColumnar")
+class ColumnarTest {
+
+    private static final Map<Class<? extends Producto>, Impuesto> REGLAS = ReglasImpuesto.porDefecto();
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+
+    @TempDir
+    Path directorio;
+
+    private final List<Factura> facturas = new ArrayList<>();
+
+    private final List<LocalDate> fechas = new ArrayList<>();
+
+    private Path archivo;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Un año de facturas en orden de fecha, con productos de las tres categorías
+        Random aleatorio = new Random(47);
+        CategoriaProducto[] categorias = CategoriaProducto.values();
+        for (int dia = 0; dia < 366; dia++) {
+            for (int f = 0; f < 4; f++) {
+                Factura factura = new Factura(REGLAS);
+                for (int l = 0, lineas = 1 + aleatorio.nextInt(5); l < lineas; l++) {
+                    CategoriaProducto categoria = categorias[aleatorio.nextInt(categorias.length)];
+                    factura.agregarProducto(categoria.crear("Producto " + aleatorio.nextInt(200),
+                        100 + aleatorio.nextInt(500_000) / 100.0));
+                }
+                facturas.add(factura);
+                fechas.add(INICIO.plusDays(dia));
+            }
+        }
+        archivo = directorio.resolve("lineas.col");
+        try (EscritorColumnar escritor = new EscritorColumnar(abrir(archivo), 64)) {
+            for (int i = 0; i < facturas.size(); i++) {
+                escritor.agregar(facturas.get(i), fechas.get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debería sumar los impuestos de una categoría en un mes saltando los demás grupos")
+    void deberiaSumarImpuestosDeUnMes() throws Exception {
+        // Arrange
+        YearMonth marzo = YearMonth.of(2024, 3);
+        double esperado = 0.0;
+        long lineasEsperadas = 0;
+        for (int i = 0; i < facturas.size(); i++) {
+            if (YearMonth.from(fechas.get(i)).equals(marzo)) {
+                Factura factura = facturas.get(i);
+                for (int l = 0; l < factura.getCantidadProductos(); l++) {
+                    Producto producto = factura.getProducto(l);
+                    if (CategoriaProducto.de(producto) == CategoriaProducto.ELECTRONICA) {
+                        esperado += factura.obtenerImpuesto(producto).calcularImpuesto(producto);
+                        lineasEsperadas++;
+                    }
+                }
+            }
+        }
+
+        // Act
+        ResultadoColumnar resultado;
+        try (LectorColumnar lector = new LectorColumnar(archivo)) {
+            resultado = lector.agregar(FiltroColumnar.todas().mes(marzo).categoria(CategoriaProducto.ELECTRONICA));
+
+            // Assert
+            assertEquals(lector.getGrupos().size(), resultado.gruposLeidos() + resultado.gruposSaltados());
+            assertTrue(resultado.gruposSaltados() > 5 * resultado.gruposLeidos(),
+                resultado.gruposLeidos() + " leídos, " + resultado.gruposSaltados() + " saltados");
+        }
+        assertEquals(lineasEsperadas, resultado.lineas());
+        assertEquals(esperado, resultado.impuestos(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Debería equivaler a calcularTotalImpuestos y calcularSubtotal sobre todas las facturas")
+    void deberiaEquivalerAFactura() throws Exception {
+        // Arrange
+        double subtotal = 0.0;
+        double impuestos = 0.0;
+        long lineas = 0;
+        for (Factura factura : facturas) {
+            subtotal += factura.calcularSubtotal();
+            impuestos += factura.calcularTotalImpuestos();
+            lineas += factura.getCantidadProductos();
+        }
+
+        // Act
+        try (LectorColumnar lector = new LectorColumnar(archivo)) {
+            ResultadoColumnar resultado = lector.agregar(FiltroColumnar.todas());
+
+            // Assert
+            assertEquals(lineas, lector.getLineas());
+            assertEquals(lineas, resultado.lineas());
+            assertEquals(0, resultado.gruposSaltados());
+            assertEquals(subtotal, resultado.subtotal(), 1e-3);
+            assertEquals(impuestos, resultado.impuestos(), 1e-3);
+            assertEquals(subtotal + impuestos, resultado.total(), 1e-3);
+            assertTrue(lector.getNombre(0).startsWith("Producto "));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería guardar estadísticas por grupo y filtrar por rango de precio")
+    void deberiaGuardarEstadisticasYFiltrarPorPrecio() throws Exception {
+        try (LectorColumnar lector = new LectorColumnar(archivo)) {
+            // Arrange
+            EstadisticasGrupo primero = lector.getGrupos().get(0);
+            long lineasCaras = 0;
+            for (Factura factura : facturas) {
+                for (int l = 0; l < factura.getCantidadProductos(); l++) {
+                    if (factura.getProducto(l).getPrecio() >= 4000) {
+                        lineasCaras++;
+                    }
+                }
+            }
+
+            // Act
+            ResultadoColumnar caras = lector.agregar(FiltroColumnar.todas().precioEntre(4000, Double.MAX_VALUE));
+            ResultadoColumnar ninguna = lector.agregar(FiltroColumnar.todas().precioEntre(0, 50));
+
+            // Assert
+            assertEquals(64, primero.lineas());
+            assertEquals(INICIO, primero.fechaMinima());
+            assertTrue(primero.contiene(CategoriaProducto.ROPA));
+            assertTrue(primero.precioMinimo() >= 100 && primero.precioMaximo() <= 5100);
+            assertTrue(primero.impuestoMinimo() <= primero.impuestoMaximo());
+            assertEquals(lineasCaras, caras.lineas());
+            assertEquals(0, ninguna.lineas());
+            assertEquals(0, ninguna.gruposLeidos());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería rechazar monedas distintas y archivos sin pie")
+    void deberiaRechazarEntradasNoValidas() throws Exception {
+        // Arrange
+        Factura enDolares = new Factura(REGLAS);
+        enDolares.agregarProducto(new ProductoRopa("Camisa", 20.0, Currency.getInstance("USD")));
+        Path truncado = directorio.resolve("truncado.col");
+        Files.write(truncado, Files.readAllBytes(archivo), StandardOpenOption.CREATE);
+        try (FileChannel canal = FileChannel.open(truncado, StandardOpenOption.WRITE)) {
+            canal.truncate(Files.size(archivo) - 1);
+        }
+
+        // Act & Assert
+        try (EscritorColumnar escritor = new EscritorColumnar(abrir(directorio.resolve("usd.col")))) {
+            assertThrows(IllegalArgumentException.class, () -> escritor.agregar(enDolares, INICIO));
+        }
+        assertThrows(IllegalStateException.class, () -> new LectorColumnar(truncado));
+        try (LectorColumnar vacio = new LectorColumnar(directorio.resolve("usd.col"))) {
+            assertEquals(0, vacio.getLineas());
+            assertEquals(0, vacio.agregar(FiltroColumnar.todas()).lineas());
+        }
+    }
+
+    private static FileChannel abrir(Path archivo) throws IOException {
+        return FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    }
+}
@@ -0,0 +1,141 @@
+package com.facturacion.consulta;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.IVAElectronico;
+import com.facturacion.impuesto.IVARopa;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para las consultas diferidas sobre facturas y líneas.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para ConsultaFacturas")
+class ConsultaFacturasTest {
+
+    private List<Factura> facturas;
+
+    @BeforeEach
+    void setUp() {
+        facturas = new ArrayList<>();
+        Map<Class<? extends Producto>, Impuesto> reglas = ReglasImpuesto.porDefecto();
+        for (int i = 0; i < 100; i++) {
+            Factura factura = new Factura(reglas);
+            factura.agregarProducto(new ProductoAlimento("Pan", 1000.0));
+            factura.agregarProducto(new ProductoRopa("Camiseta", 20000.0));
+            if (i % 10 == 0) {
+                factura.agregarProducto(new ProductoElectronico("Laptop", 2_000_000.0));
+            }
+            facturas.add(factura);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería obtener los mismos agregados que calcular cada factura")
+    void deberiaCoincidirConElCalculoCompleto() {
+        // Arrange
+        ConsultaFacturas consulta = ConsultaFacturas.sobre(facturas)
+            .filtrar(f -> f.getCantidadProductos() == 3);
+
+        // Act
+        double subtotal = consulta.sumarSubtotal();
+        double impuestos = consulta.sumarImpuestos();
+        double total = consulta.sumarTotal();
+
+        // Assert
+        double esperadoSubtotal = 0;
+        double esperadoTotal = 0;
+        for (Factura factura : facturas) {
+            if (factura.getCantidadProductos() == 3) {
+                esperadoSubtotal += factura.calcularSubtotal();
+                esperadoTotal += factura.calcularTotal();
+            }
+        }
+        assertEquals(10, consulta.contar());
+        assertEquals(esperadoSubtotal, subtotal, 0.001);
+        assertEquals(esperadoTotal, total, 0.001);
+        assertEquals(esperadoTotal - esperadoSubtotal, impuestos, 0.001);
+    }
+
+    @Test
+    @DisplayName("Debería filtrar líneas por categoría y precio y agrupar impuestos por regla")
+    void deberiaAgregarLineasFiltradas() {
+        // Act
+        double electronica = ConsultaFacturas.sobre(facturas).lineas()
+            .categoria(CategoriaProducto.ELECTRONICA)
+            .precioMayorQue(1_000_000)
+            .sumarSubtotal();
+        Map<Impuesto, Double> porRegla = ConsultaFacturas.sobre(facturas).lineas()
+            .filtrar(p -> !(p instanceof ProductoAlimento))
+            .impuestosPorRegla();
+
+        // Assert
+        assertEquals(20_000_000.0, electronica, 0.001);
+        assertEquals(2, porRegla.size());
+        porRegla.forEach((impuesto, valor) -> {
+            if (impuesto instanceof IVARopa) {
+                assertEquals(100 * 3800.0, valor, 0.001);
+            } else {
+                assertInstanceOf(IVAElectronico.class, impuesto);
+                assertEquals(10 * 500_000.0, valor, 0.001);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Debería detener el recorrido en cuanto conoce la respuesta")
+    void deberiaCortarElRecorrido() {
+        // Arrange
+        AtomicInteger evaluadas = new AtomicInteger();
+        ConsultaFacturas consulta = ConsultaFacturas.sobre(facturas)
+            .filtrar(f -> evaluadas.incrementAndGet() > 0)
+            .contieneLinea(p -> p instanceof ProductoElectronico);
+
+        // Act & Assert
+        assertTrue(consulta.existe());
+        assertEquals(1, evaluadas.get());
+        assertSame(facturas.get(0), consulta.primera().orElseThrow());
+
+        evaluadas.set(0);
+        assertEquals(3, consulta.limitar(3).contar());
+        assertEquals(21, evaluadas.get());
+
+        evaluadas.set(0);
+        assertEquals(5, ConsultaFacturas.sobre(facturas).filtrar(f -> evaluadas.incrementAndGet() > 0)
+            .lineas().limitar(5).contar());
+        assertEquals(2, evaluadas.get());
+        assertFalse(ConsultaFacturas.sobre(facturas).lineas().precioMayorQue(1e9).existe());
+    }
+
+    @Test
+    @DisplayName("Debería reflejar el contenido actual del origen en cada ejecución")
+    void deberiaSerDiferida() {
+        // Arrange
+        ConsultaLineas ropa = ConsultaFacturas.sobre(facturas).lineas().categoria(CategoriaProducto.ROPA);
+        long antes = ropa.contar();
+
+        // Act
+        facturas.get(0).agregarProducto(new ProductoRopa("Gorra", 15000.0));
+
+        // Assert
+        assertEquals(antes + 1, ropa.contar());
+        assertThrows(IllegalArgumentException.class, () -> ropa.limitar(-1));
+    }
+}
@@ -0,0 +1,132 @@
+package com.facturacion.distribuido;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.IVAElectronico;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el cálculo de totales distribuido entre procesos trabajadores.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para CoordinadorShards")
+class CoordinadorShardsTest {
+
+    @Test
+    @DisplayName("Debería combinar los parciales y conservarlos al serializarlos")
+    void deberiaCombinarYSerializarParciales() throws Exception {
+        // Arrange
+        List<Factura> facturas = crearFacturas(10);
+        TotalesParciales primeraMitad = new TotalesParciales();
+        TotalesParciales segundaMitad = new TotalesParciales();
+        for (int i = 0; i < facturas.size(); i++) {
+            (i < 5 ? primeraMitad : segundaMitad).acumular(facturas.get(i));
+        }
+
+        // Act
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        segundaMitad.escribir(new DataOutputStream(bytes));
+        TotalesParciales leidos = TotalesParciales.leer(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        primeraMitad.combinar(leidos);
+
+        // Assert
+        TotalesParciales esperado = calcularLocal(facturas);
+        assertEquals(esperado.getFacturas(), primeraMitad.getFacturas());
+        assertEquals(esperado.getLineas(), primeraMitad.getLineas());
+        assertEquals(esperado.getSubtotal(), primeraMitad.getSubtotal(), 0.001);
+        assertEquals(esperado.getImpuestosPorRegla().keySet(), primeraMitad.getImpuestosPorRegla().keySet());
+        assertEquals(esperado.getTotalImpuestos(), primeraMitad.getTotalImpuestos(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Debería obtener con procesos trabajadores los mismos totales que en una sola JVM")
+    void deberiaCalcularConProcesosTrabajadores() {
+        // Arrange
+        List<Factura> facturas = crearFacturas(300);
+        CoordinadorShards coordinador = new CoordinadorShards(2, "-XX:TieredStopAtLevel=1");
+
+        // Act
+        CoordinadorShards.ResultadoShards resultado = coordinador.calcular(facturas, f -> f.getProductos().size());
+
+        // Assert
+        TotalesParciales esperado = calcularLocal(facturas);
+        TotalesParciales total = resultado.total();
+        assertEquals(2, resultado.parciales().size());
+        assertEquals(300, total.getFacturas());
+        assertEquals(esperado.getLineas(), total.getLineas());
+        assertEquals(esperado.getSubtotal(), total.getSubtotal(), 0.001);
+        assertEquals(esperado.getTotalImpuestos(), total.getTotalImpuestos(), 0.001);
+        esperado.getImpuestosPorRegla().forEach((regla, valor) ->
+            assertEquals(valor, total.getImpuestosPorRegla().get(regla), 0.001));
+    }
+
+    @Test
+    @DisplayName("Debería asignar siempre la misma partición a la misma clave")
+    void deberiaParticionarDeFormaEstable() {
+        for (int clave = 0; clave < 1000; clave++) {
+            int particion = CoordinadorShards.particion(clave, 7);
+            assertTrue(particion >= 0 && particion < 7);
+            assertEquals(particion, CoordinadorShards.particion(clave, 7));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new CoordinadorShards(0));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar facturas con reglas distintas de las que aplican los trabajadores")
+    void deberiaRechazarReglasDistintas() {
+        // Arrange
+        List<Factura> facturas = crearFacturas(5);
+        Map<Class<? extends Producto>, Impuesto> reglas = ReglasImpuesto.porDefecto();
+        reglas.put(ProductoAlimento.class, new IVAElectronico());
+        Factura distinta = new Factura(reglas);
+        distinta.agregarProducto(new ProductoAlimento("Pan", 1000.0));
+        facturas.add(distinta);
+        CoordinadorShards coordinador = new CoordinadorShards(1);
+
+        // Act & Assert
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> coordinador.calcular(facturas));
+        assertTrue(error.getMessage().contains("La factura 5"));
+    }
+
+    private static List<Factura> crearFacturas(int cantidad) {
+        List<Factura> facturas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Factura factura = new Factura(ReglasImpuesto.porDefecto());
+            factura.agregarProducto(new ProductoAlimento("Pan " + i, 1000.0 + i));
+            if (i % 2 == 0) {
+                factura.agregarProducto(new ProductoRopa("Camiseta", 25000.0));
+            }
+            if (i % 3 == 0) {
+                factura.agregarProducto(new ProductoElectronico("Cargador", 45000.5));
+            }
+            facturas.add(factura);
+        }
+        return facturas;
+    }
+
+    private static TotalesParciales calcularLocal(List<Factura> facturas) {
+        TotalesParciales totales = new TotalesParciales();
+        facturas.forEach(totales::acumular);
+        return totales;
+    }
+}
@@ -0,0 +1,108 @@
+package com.facturacion.factura;
+
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoRopa;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la factura persistente con versiones que comparten estructura.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para FacturaPersistente")
+class FacturaPersistenteTest {
+
+    private final Map<Class<? extends Producto>, Impuesto> reglas = ReglasImpuesto.porDefecto();
+
+    @Test
+    @DisplayName("Debería guardar los productos en orden y dar los mismos totales que Factura")
+    void deberiaEquivalerAFactura() {
+        // Arrange
+        Random aleatorio = new Random(50);
+        Factura esperada = new Factura(reglas);
+        FacturaPersistente factura = FacturaPersistente.vacia(reglas);
+
+        // Act
+        // Más de 32³ + 32 productos, para que el trie crezca dos veces de nivel
+        for (int i = 0; i < 40_000; i++) {
+            Producto producto = CategoriaProducto.porCodigo(1 + aleatorio.nextInt(3))
+                .crear("Producto " + i, 100 + aleatorio.nextInt(1_000_000) / 100.0);
+            esperada.agregarProducto(producto);
+            factura = factura.agregarProducto(producto);
+        }
+
+        // Assert
+        assertEquals(esperada.getCantidadProductos(), factura.getCantidadProductos());
+        for (int i = 0; i < esperada.getCantidadProductos(); i++) {
+            assertSame(esperada.getProducto(i), factura.getProducto(i));
+        }
+        assertEquals(esperada.getProductos(), factura.getProductos());
+        assertEquals(esperada.calcularSubtotal(), factura.calcularSubtotal());
+        assertEquals(esperada.calcularTotalImpuestos(), factura.calcularTotalImpuestos());
+        assertEquals(esperada.calcularTotal(), factura.calcularTotal());
+        assertEquals(esperada.getProductos(), factura.aFactura().getProductos());
+        assertEquals(esperada.calcularTotal(), factura.aFactura().calcularTotal());
+    }
+
+    @Test
+    @DisplayName("Debería dejar intactas las versiones anteriores y permitir ramificarlas")
+    void deberiaConservarVersionesAnteriores() {
+        // Arrange
+        List<FacturaPersistente> versiones = new ArrayList<>();
+        FacturaPersistente factura = FacturaPersistente.vacia(reglas);
+        versiones.add(factura);
+        for (int i = 0; i < 2000; i++) {
+            factura = factura.agregarProducto(new ProductoAlimento("Pan " + i, 1000.0));
+            versiones.add(factura);
+        }
+        List<Producto> foto = versiones.get(1500).getProductos();
+
+        // Act
+        FacturaPersistente rama = versiones.get(1024).agregarProducto(new ProductoRopa("Camisa", 50_000.0));
+
+        // Assert
+        for (int n = 0; n < versiones.size(); n += 7) {
+            FacturaPersistente version = versiones.get(n);
+            assertEquals(n, version.getCantidadProductos());
+            assertEquals(n * 1000.0, version.calcularSubtotal(), 1e-9);
+            assertEquals(n * 50.0, version.calcularTotalImpuestos(), 1e-9);
+            if (n > 0) {
+                assertEquals("Pan " + (n - 1), version.getProducto(n - 1).getNombre());
+            }
+        }
+        assertEquals(1025, rama.getCantidadProductos());
+        assertEquals("Camisa", rama.getProducto(1024).getNombre());
+        assertEquals("Pan 1024", versiones.get(2000).getProducto(1024).getNombre());
+        assertEquals(1500, foto.size());
+        assertThrows(UnsupportedOperationException.class, () -> foto.add(new ProductoAlimento("Leche", 1.0)));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar productos sin regla y posiciones fuera de rango")
+    void deberiaRechazarEntradasNoValidas() {
+        // Arrange
+        FacturaPersistente vacia = FacturaPersistente.vacia(Map.of());
+        FacturaPersistente conPan = FacturaPersistente.vacia(reglas).agregarProducto(new ProductoAlimento("Pan", 1.0));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> vacia.agregarProducto(new ProductoAlimento("Pan", 1.0)));
+        assertThrows(NullPointerException.class, () -> conPan.agregarProducto(null));
+        assertThrows(IndexOutOfBoundsException.class, () -> conPan.getProducto(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> vacia.getProducto(0));
+        assertEquals(0, vacia.getCantidadProductos());
+        assertEquals(0.0, vacia.calcularTotal());
+    }
+}
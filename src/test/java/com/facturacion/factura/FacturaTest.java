@@ -105,6 +105,28 @@ class FacturaTest {
         assertEquals(subtotalEsperado, subtotal, 0.01);
     }
     
+    @Test
+    @DisplayName("Debería sumar el subtotal con compensación, igual que DoubleStream.sum()")
+    void deberiaCalcularSubtotalCompensado() {
+        // Arrange
+        Factura factura = new Factura(reglasImpuesto);
+        for (int i = 0; i < 10; i++) {
+            factura.agregarProducto(new ProductoAlimento("Caramelo " + i, 0.1));
+        }
+        double sumaSimple = 0.0;
+        for (int i = 0; i < 10; i++) {
+            sumaSimple += 0.1;
+        }
+        
+        // Act
+        double subtotal = factura.calcularSubtotal();
+        
+        // Assert
+        assertEquals(1.0, subtotal, 0.0);
+        assertNotEquals(sumaSimple, subtotal);
+        assertEquals(factura.getProductos().stream().mapToDouble(p -> p.getPrecio()).sum(), subtotal, 0.0);
+    }
+    
     @Test
     @DisplayName("Debería calcular el total de impuestos correctamente")
     void deberiaCalcularTotalImpuestos() {
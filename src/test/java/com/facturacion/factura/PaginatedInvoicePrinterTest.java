@@ -0,0 +1,210 @@
+package com.facturacion.factura;
+
+import com.facturacion.impuesto.IVAAlimento;
+import com.facturacion.impuesto.IVAElectronico;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la impresión paginada con acceso directo a cualquier página.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para PaginatedInvoicePrinter")
+class PaginatedInvoicePrinterTest {
+
+    private final Map<Class<? extends Producto>, Impuesto> reglas = ReglasImpuesto.porDefecto();
+
+    private final ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+    private final PaginatedInvoicePrinter printer =
+        new PaginatedInvoicePrinter(new PrintStream(salida, true, StandardCharsets.UTF_8), 10);
+
+    @Test
+    @DisplayName("Debería imprimir una página intermedia con lo que viene y lo que pasa")
+    void deberiaImprimirPaginaIntermedia() {
+        // Arrange
+        Factura factura = generarFactura(reglas, 95);
+        double van = totalHasta(factura, 20);
+        double pasan = totalHasta(factura, 30);
+
+        // Act
+        printer.imprimirPagina(factura, reglas, 3);
+        String texto = texto();
+
+        // Assert
+        assertEquals(10, printer.getPaginas(factura));
+        assertTrue(texto.contains("Página 3 de 10"));
+        assertTrue(texto.contains("PRODUCTOS (21 a 30 de 95):"));
+        assertTrue(texto.contains(String.format("VAN:                                  $%10.2f", van)));
+        assertTrue(texto.contains(String.format("PASAN:                                $%10.2f", pasan)));
+        assertTrue(texto.contains(factura.getProducto(20).toString()));
+        assertTrue(texto.contains(factura.getProducto(29).toString()));
+        assertFalse(texto.contains(factura.getProducto(19).toString() + " "));
+        assertFalse(texto.contains("TOTAL:"));
+    }
+
+    @Test
+    @DisplayName("Debería cerrar la última página con los totales de la factura")
+    void deberiaCerrarUltimaPaginaConTotales() {
+        // Arrange
+        Factura factura = generarFactura(reglas, 95);
+
+        // Act
+        printer.imprimirPagina(factura, reglas, 10);
+        String ultima = texto();
+        salida.reset();
+        printer.imprimir(factura, reglas);
+        String completa = texto();
+
+        // Assert
+        assertTrue(ultima.contains("PRODUCTOS (91 a 95 de 95):"));
+        assertTrue(ultima.contains(String.format("SUBTOTAL:                             $%10.2f", factura.calcularSubtotal())));
+        assertTrue(ultima.contains(String.format("TOTAL IMPUESTOS:                      $%10.2f", factura.calcularTotalImpuestos())));
+        assertTrue(ultima.contains(String.format("TOTAL:                                $%10.2f", factura.calcularTotal())));
+        assertEquals(10, completa.split("FACTURA DE VENTA", -1).length - 1);
+        assertTrue(completa.endsWith(ultima));
+    }
+
+    @Test
+    @DisplayName("Debería imprimir una página sin recorrer de nuevo la factura")
+    void deberiaImprimirPaginaSinRecorrerFactura() {
+        // Arrange
+        AtomicLong calculos = new AtomicLong();
+        Map<Class<? extends Producto>, Impuesto> contadas = new HashMap<>(reglas);
+        contadas.put(ProductoAlimento.class, new IVAAlimento() {
+            @Override
+            public double calcularImpuesto(Producto producto) {
+                calculos.incrementAndGet();
+                return super.calcularImpuesto(producto);
+            }
+        });
+        Factura factura = generarFactura(contadas, 100_000);
+        printer.imprimirPagina(factura, contadas, 1);
+        calculos.set(0);
+
+        // Act
+        printer.imprimirPagina(factura, contadas, 7_000);
+        printer.imprimirPagina(factura, contadas, 10_000);
+
+        // Assert
+        assertTrue(calculos.get() <= 20, "Impuestos calculados: " + calculos.get());
+        assertTrue(texto().contains(String.format("TOTAL:                                $%10.2f", factura.calcularTotal())));
+    }
+
+    @Test
+    @DisplayName("Debería extender el índice al agregar productos y rehacerlo al limpiar la factura")
+    void deberiaActualizarIndice() {
+        // Arrange
+        Factura factura = generarFactura(reglas, 15);
+        printer.imprimirPagina(factura, reglas, 2);
+        for (int i = 0; i < 10; i++) {
+            factura.agregarProducto(new ProductoAlimento("Extra " + i, 500.0));
+        }
+        double van = totalHasta(factura, 20);
+        double total = factura.calcularTotal();
+
+        // Act
+        salida.reset();
+        printer.imprimirPagina(factura, reglas, 3);
+        String extendida = texto();
+        factura.limpiar();
+        for (int i = 0; i < 25; i++) {
+            factura.agregarProducto(new ProductoAlimento("Nuevo " + i, 100.0));
+        }
+        salida.reset();
+        printer.imprimirPagina(factura, reglas, 3);
+        String rehecha = texto();
+
+        // Assert
+        assertTrue(extendida.contains(String.format("VAN:                                  $%10.2f", van)));
+        assertTrue(extendida.contains(String.format("TOTAL:                                $%10.2f", total)));
+        assertTrue(rehecha.contains(String.format("VAN:                                  $%10.2f", 20 * 105.0)));
+        assertTrue(rehecha.contains(String.format("TOTAL:                                $%10.2f", 25 * 105.0)));
+    }
+
+    @Test
+    @DisplayName("Debería calcular líneas y totales acumulados con las mismas reglas recibidas")
+    void deberiaUsarLasReglasRecibidasEnLineasYTotales() {
+        // Arrange
+        Factura factura = generarFactura(reglas, 25);
+        Map<Class<? extends Producto>, Impuesto> otras = new HashMap<>(reglas);
+        otras.put(ProductoAlimento.class, new IVAElectronico());
+        double subtotal = 0.0;
+        double impuestos = 0.0;
+        for (int i = 0; i < 25; i++) {
+            Producto producto = factura.getProducto(i);
+            subtotal += producto.getPrecio();
+            impuestos += otras.get(producto.getClass()).calcularImpuesto(producto);
+        }
+        printer.imprimirPagina(factura, reglas, 3);
+
+        // Act
+        salida.reset();
+        printer.imprimirPagina(factura, otras, 3);
+        String texto = texto();
+        salida.reset();
+
+        // Assert
+        assertTrue(texto.contains(String.format("TOTAL IMPUESTOS:                      $%10.2f", impuestos)));
+        assertTrue(texto.contains(String.format("TOTAL:                                $%10.2f", subtotal + impuestos)));
+        assertFalse(texto.contains("Impuesto (5.0%)"));
+        assertThrows(IllegalStateException.class, () -> printer.imprimirPagina(factura, Map.of(), 1));
+        assertEquals("", texto());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar páginas inexistentes y tamaños de página no positivos")
+    void deberiaRechazarPaginasInexistentes() {
+        // Arrange
+        Factura vacia = new Factura(reglas);
+
+        // Act
+        printer.imprimirPagina(vacia, reglas, 1);
+
+        // Assert
+        assertEquals(1, printer.getPaginas(vacia));
+        assertTrue(texto().contains(String.format("TOTAL:                                $%10.2f", 0.0)));
+        assertThrows(IllegalArgumentException.class, () -> printer.imprimirPagina(vacia, reglas, 2));
+        assertThrows(IllegalArgumentException.class, () -> printer.imprimirPagina(vacia, reglas, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PaginatedInvoicePrinter(System.out, 0));
+    }
+
+    private String texto() {
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Factura generarFactura(Map<Class<? extends Producto>, Impuesto> reglas, int lineas) {
+        Factura factura = new Factura(reglas);
+        for (int i = 0; i < lineas; i++) {
+            factura.agregarProducto(CategoriaProducto.porCodigo(1 + i % 3).crear("Producto " + i, 1000.0 + (i % 7) * 125.0));
+        }
+        return factura;
+    }
+
+    private static double totalHasta(Factura factura, int lineas) {
+        double subtotal = 0.0;
+        double impuestos = 0.0;
+        for (int i = 0; i < lineas; i++) {
+            Producto producto = factura.getProducto(i);
+            subtotal += producto.getPrecio();
+            impuestos += factura.obtenerImpuesto(producto).calcularImpuesto(producto);
+        }
+        return subtotal + impuestos;
+    }
+}
@@ -0,0 +1,153 @@
+package com.facturacion.factura;
+
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la reutilización de facturas y buffers de impresión.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para PoolFacturas y BufferedInvoicePrinter")
+class PoolFacturasTest {
+
+    private final Map<Class<? extends Producto>, Impuesto> reglas = ReglasImpuesto.porDefecto();
+
+    @Test
+    @DisplayName("Debería reutilizar una factura devuelta, vacía y con las mismas reglas")
+    void deberiaReutilizarFacturaDevuelta() {
+        // Arrange
+        PoolFacturas pool = new PoolFacturas(reglas, 2);
+        Factura primera = pool.obtener();
+        primera.agregarProducto(new ProductoRopa("Camiseta", 20000.0));
+
+        // Act
+        pool.devolver(primera);
+        Factura segunda = pool.obtener();
+        segunda.agregarProducto(new ProductoAlimento("Pan", 1000.0));
+
+        // Assert
+        assertSame(primera, segunda);
+        assertEquals(1, segunda.getCantidadProductos());
+        assertEquals(1050.0, segunda.calcularTotal(), 0.001);
+        assertEquals(new EstadisticasPool(1, 1, 0), pool.getEstadisticasFacturas());
+        assertEquals(0.5, pool.getEstadisticasFacturas().tasaAciertos(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Debería descartar facturas al superar la capacidad por hilo")
+    void deberiaDescartarAlSuperarCapacidad() {
+        // Arrange
+        PoolFacturas pool = new PoolFacturas(reglas, 1);
+
+        // Act
+        pool.devolver(pool.obtener());
+        pool.devolver(new Factura(reglas));
+
+        // Assert
+        assertEquals(1, pool.getLibresEnHilo());
+        assertEquals(1, pool.getEstadisticasFacturas().descartes());
+        assertThrows(IllegalArgumentException.class,
+            () -> pool.devolver(new Factura(ReglasImpuesto.porDefecto())));
+        assertThrows(IllegalArgumentException.class, () -> new PoolFacturas(reglas, -1));
+    }
+
+    @Test
+    @DisplayName("Debería mantener una reserva independiente por hilo")
+    void deberiaMantenerReservaPorHilo() throws InterruptedException {
+        // Arrange
+        PoolFacturas pool = new PoolFacturas(reglas);
+        pool.devolver(pool.obtener());
+        int[] libresEnOtroHilo = new int[1];
+
+        // Act
+        Thread otro = new Thread(() -> libresEnOtroHilo[0] = pool.getLibresEnHilo());
+        otro.start();
+        otro.join();
+
+        // Assert
+        assertEquals(1, pool.getLibresEnHilo());
+        assertEquals(0, libresEnOtroHilo[0]);
+    }
+
+    @Test
+    @DisplayName("Debería imprimir lo mismo que SimpleInvoicePrinter reutilizando el buffer")
+    void deberiaImprimirIgualQueSimpleInvoicePrinter() {
+        // Arrange
+        PoolFacturas pool = new PoolFacturas(reglas);
+        Factura factura = pool.obtener();
+        factura.agregarProducto(new ProductoAlimento("Pan Integral", 5000.0));
+        factura.agregarProducto(new ProductoElectronico("Mouse", 45000.0));
+        ByteArrayOutputStream esperado = new ByteArrayOutputStream();
+        ByteArrayOutputStream obtenido = new ByteArrayOutputStream();
+        BufferedInvoicePrinter printer = new BufferedInvoicePrinter(
+            new PrintStream(obtenido, false, StandardCharsets.UTF_8), pool);
+
+        // Act
+        new SimpleInvoicePrinter(new PrintStream(esperado, false, StandardCharsets.UTF_8)).imprimir(factura, reglas);
+        printer.imprimir(factura, reglas);
+        obtenido.reset();
+        printer.imprimir(factura, reglas);
+
+        // Assert
+        assertEquals(esperado.toString(StandardCharsets.UTF_8), obtenido.toString(StandardCharsets.UTF_8));
+        assertEquals(new EstadisticasPool(1, 1, 0), pool.getEstadisticasBuffers());
+    }
+
+    @Test
+    @DisplayName("Debería imprimir lo mismo que SimpleInvoicePrinter con decimales, otras monedas y otro locale")
+    void deberiaImprimirIgualConMontosVariados() {
+        // Arrange
+        Factura factura = new Factura(reglas);
+        Random aleatorio = new Random(3);
+        for (int i = 0; i < 300; i++) {
+            double precio = switch (i % 4) {
+                case 0 -> aleatorio.nextInt(2_000_000);
+                case 1 -> aleatorio.nextInt(1_000_000) / 100.0;
+                case 2 -> aleatorio.nextDouble() * 1000.0;
+                default -> 1.005 + i;
+            };
+            factura.agregarProducto(i % 5 == 0
+                ? new ProductoRopa("Prenda importada con nombre largo " + i, precio, Currency.getInstance("USD"))
+                : new ProductoElectronico("Equipo " + i, precio));
+        }
+        Locale original = Locale.getDefault(Locale.Category.FORMAT);
+
+        try {
+            for (Locale locale : new Locale[] {Locale.ROOT, new Locale("es", "CO"), Locale.GERMANY}) {
+                Locale.setDefault(Locale.Category.FORMAT, locale);
+                ByteArrayOutputStream esperado = new ByteArrayOutputStream();
+                ByteArrayOutputStream obtenido = new ByteArrayOutputStream();
+
+                // Act
+                new SimpleInvoicePrinter(new PrintStream(esperado, false, StandardCharsets.UTF_8))
+                    .imprimir(factura, reglas);
+                new BufferedInvoicePrinter(new PrintStream(obtenido, false, StandardCharsets.UTF_8),
+                    new PoolFacturas(reglas)).imprimir(factura, reglas);
+
+                // Assert
+                assertEquals(esperado.toString(StandardCharsets.UTF_8), obtenido.toString(StandardCharsets.UTF_8),
+                    locale.toString());
+            }
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, original);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.facturacion.factura;
+
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import com.facturacion.serializacion.ChannelInvoicePrinter;
+import com.facturacion.serializacion.CsvInvoiceSerializer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests de regresión de asignación de memoria del camino de cálculo e impresión.
+ *
+ * <p>Miden los bytes asignados por línea de factura con los contadores por hilo de
+ * {@link com.sun.management.ThreadMXBean} y fallan si se supera el presupuesto declarado.
+ * Un {@code String.format}, un stream o una clave boxeada agregados por descuido en el
+ * camino caliente hacen fallar estos tests aunque los resultados sigan siendo correctos.
+ *
+ * <p>Cada medición repite la operación primero para que el compilador JIT la optimice y
+ * luego mide muchas repeticiones, de modo que el resultado sea el costo estable y no el de
+ * la primera ejecución. Si la JVM no ofrece los contadores, los tests se omiten.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Presupuestos de asignación por línea de factura")
+class PresupuestoAsignacionTest {
+
+    /**
+     * Líneas de la factura medida, repartidas entre las tres categorías.
+     */
+    private static final int LINEAS = 50;
+
+    /**
+     * Repeticiones previas a la medición, para que el JIT compile la operación.
+     */
+    private static final int CALENTAMIENTO = 20_000;
+
+    /**
+     * Repeticiones medidas.
+     */
+    private static final int REPETICIONES = 20_000;
+
+    private static com.sun.management.ThreadMXBean hilos;
+
+    private Map<Class<? extends Producto>, Impuesto> reglas;
+    private Factura factura;
+
+    @BeforeAll
+    static void verificarContadores() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+            "La JVM no ofrece contadores de asignación por hilo");
+        hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(hilos.isThreadAllocatedMemorySupported(), "La JVM no mide la asignación por hilo");
+        hilos.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @BeforeEach
+    void setUp() {
+        reglas = ReglasImpuesto.porDefecto();
+        factura = new Factura(reglas);
+        for (int i = 0; i < LINEAS; i++) {
+            factura.agregarProducto(switch (i % 3) {
+                case 0 -> new ProductoAlimento("Pan " + i, 1000.0 + i);
+                case 1 -> new ProductoRopa("Camiseta " + i, 20000.0 + i);
+                default -> new ProductoElectronico("Cable " + i, 15000.0 + i);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Debería calcular el total de la factura sin asignar memoria por línea")
+    void deberiaCalcularTotalDentroDelPresupuesto() {
+        assertDentroDelPresupuesto("calcularTotal()", 1.0, () -> (int) factura.calcularTotal());
+    }
+
+    @Test
+    @DisplayName("Debería despachar las reglas de impuesto sin asignar memoria por línea")
+    void deberiaDespacharImpuestosDentroDelPresupuesto() {
+        assertDentroDelPresupuesto("obtenerImpuesto() + calcularImpuesto()", 1.0, () -> {
+            double suma = 0.0;
+            for (int i = 0; i < LINEAS; i++) {
+                Producto producto = factura.getProducto(i);
+                suma += factura.obtenerImpuesto(producto).calcularImpuesto(producto);
+            }
+            return (int) suma;
+        });
+    }
+
+    @Test
+    @DisplayName("Debería imprimir con BufferedInvoicePrinter dentro del presupuesto por línea")
+    void deberiaImprimirDentroDelPresupuesto() {
+        // Arrange
+        BufferedInvoicePrinter printer = new BufferedInvoicePrinter(
+            new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8), new PoolFacturas(reglas));
+
+        // Act & Assert
+        assertDentroDelPresupuesto("BufferedInvoicePrinter", 512.0, () -> {
+            printer.imprimir(factura, reglas);
+            return 0;
+        });
+    }
+
+    @Test
+    @DisplayName("Debería serializar con ChannelInvoicePrinter casi sin asignar memoria por línea")
+    void deberiaSerializarDentroDelPresupuesto() {
+        // Arrange
+        ChannelInvoicePrinter printer = new ChannelInvoicePrinter(
+            Channels.newChannel(OutputStream.nullOutputStream()), new CsvInvoiceSerializer());
+
+        // Act & Assert
+        assertDentroDelPresupuesto("ChannelInvoicePrinter", 8.0, () -> {
+            printer.imprimir(factura, reglas);
+            return 0;
+        });
+    }
+
+    private static void assertDentroDelPresupuesto(String operacion, double presupuesto, IntSupplier medida) {
+        double medido = bytesPorLinea(medida);
+        assertTrue(medido <= presupuesto, String.format(
+            "%s asigna %.1f bytes por línea; el presupuesto es %.1f", operacion, medido, presupuesto));
+    }
+
+    private static double bytesPorLinea(IntSupplier operacion) {
+        int sumidero = 0;
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            sumidero += operacion.getAsInt();
+        }
+        long hilo = Thread.currentThread().getId();
+        long antes = hilos.getThreadAllocatedBytes(hilo);
+        for (int i = 0; i < REPETICIONES; i++) {
+            sumidero += operacion.getAsInt();
+        }
+        long despues = hilos.getThreadAllocatedBytes(hilo);
+        assertNotEquals(Integer.MIN_VALUE, sumidero);
+        return (double) (despues - antes) / REPETICIONES / LINEAS;
+    }
+}
@@ -0,0 +1,163 @@
+package com.facturacion.impuesto;
+
+import com.facturacion.lote.LectorFacturas;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para el cálculo inverso de impuestos de DesgloseImpuestos.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para DesgloseImpuestos")
+class DesgloseImpuestosTest {
+
+    @Test
+    @DisplayName("Debería descomponer un precio con IVA incluido en base e impuesto")
+    void deberiaDescomponerPrecioConIVA() {
+        // Act
+        DesgloseImpuesto ropa = new IVARopa().desglosar(11900.0);
+        DesgloseImpuesto alimento = new IVAAlimento().desglosar(1.0);
+
+        // Assert
+        assertEquals(new DesgloseImpuesto(10000.0, 1900.0), ropa);
+        // 1,00 / 1,05 = 0,952... se redondea a 0,95 y el impuesto es la diferencia
+        assertEquals(new DesgloseImpuesto(0.95, 0.05), alimento);
+    }
+
+    @Test
+    @DisplayName("Debería coincidir con BigDecimal y sumar exactamente el monto bruto")
+    void deberiaCoincidirConBigDecimal() {
+        // Arrange
+        Impuesto[] reglas = {new IVAAlimento(), new IVARopa(), new IVAElectronico()};
+        Random aleatorio = new Random(44);
+        int filas = 10_000;
+        long[] brutos = new long[filas];
+        for (int i = 0; i < filas; i++) {
+            brutos[i] = aleatorio.nextInt(100_000_000);
+        }
+        long[] bases = new long[filas];
+        long[] impuestos = new long[filas];
+
+        for (Impuesto regla : reglas) {
+            // Act
+            DesgloseImpuestos.desglosar(regla, brutos, bases, impuestos, filas);
+
+            // Assert
+            BigDecimal divisor = BigDecimal.ONE.add(BigDecimal.valueOf(regla.getPorcentaje()).movePointLeft(2));
+            for (int i = 0; i < filas; i++) {
+                long esperado = BigDecimal.valueOf(brutos[i])
+                    .divide(divisor, 0, RoundingMode.HALF_UP).longValueExact();
+                assertEquals(esperado, bases[i], "base de " + brutos[i]);
+                assertEquals(brutos[i], bases[i] + impuestos[i]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Debería recuperar el precio base de un precio calculado hacia adelante")
+    void deberiaRecuperarPrecioBase() {
+        // Arrange
+        IVAElectronico iva = new IVAElectronico();
+        double[] baseOriginal = {0.04, 19.99, 1234.56, 2500000.0};
+        double[] brutos = new double[baseOriginal.length];
+        for (int i = 0; i < brutos.length; i++) {
+            double impuesto = BigDecimal.valueOf(baseOriginal[i] * 0.25).setScale(2, RoundingMode.HALF_UP).doubleValue();
+            brutos[i] = BigDecimal.valueOf(baseOriginal[i]).add(BigDecimal.valueOf(impuesto)).doubleValue();
+        }
+        double[] bases = new double[brutos.length];
+        double[] impuestos = new double[brutos.length];
+
+        // Act
+        DesgloseImpuestos.desglosar(iva, brutos, bases, impuestos, brutos.length);
+
+        // Assert
+        assertArrayEquals(baseOriginal, bases);
+    }
+
+    @Test
+    @DisplayName("Debería descomponer una columna con productos de varias categorías")
+    void deberiaDescomponerVariasCategorias() {
+        // Arrange
+        DesgloseImpuestos desglose = DesgloseImpuestos.compilar(ReglasImpuesto.porDefecto());
+        byte[] codigos = {
+            (byte) CategoriaProducto.ALIMENTO.getCodigo(),
+            (byte) CategoriaProducto.ROPA.getCodigo(),
+            (byte) CategoriaProducto.ELECTRONICA.getCodigo()
+        };
+        long[] brutos = {10500, 11900, 12500};
+        long[] bases = new long[3];
+        long[] impuestos = new long[3];
+
+        // Act
+        desglose.desglosar(codigos, brutos, bases, impuestos, 3);
+
+        // Assert
+        assertArrayEquals(new long[] {10000, 10000, 10000}, bases);
+        assertArrayEquals(new long[] {500, 1900, 2500}, impuestos);
+        assertEquals(1000.0, desglose.base(CategoriaProducto.ELECTRONICA, 1250.0));
+    }
+
+    @Test
+    @DisplayName("Debería permitir usar la columna de origen como destino de las bases")
+    void deberiaPermitirDestinoIgualAOrigen() {
+        // Arrange
+        DesgloseImpuestos desglose = DesgloseImpuestos.compilar(ReglasImpuesto.porDefecto());
+        byte[] codigos = {
+            (byte) CategoriaProducto.ALIMENTO.getCodigo(),
+            (byte) CategoriaProducto.ROPA.getCodigo()
+        };
+        long[] columna = {10500, 11900};
+        long[] impuestos = new long[2];
+
+        // Act
+        desglose.desglosar(codigos, columna, columna, impuestos, 2);
+
+        // Assert
+        assertArrayEquals(new long[] {10000, 10000}, columna);
+        assertArrayEquals(new long[] {500, 1900}, impuestos);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar montos con más de dos decimales, negativos o sin regla")
+    void deberiaRechazarMontosNoValidos() {
+        // Arrange
+        IVARopa iva = new IVARopa();
+        Map<Class<? extends Producto>, Impuesto> reglas = Map.of(ProductoRopa.class, iva);
+        DesgloseImpuestos desglose = DesgloseImpuestos.compilar(reglas);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> iva.desglosar(10.005));
+        assertThrows(IllegalArgumentException.class, () -> iva.desglosar(-1.0));
+        assertThrows(IllegalArgumentException.class, () -> DesgloseImpuestos.desglosar(
+            iva, new long[] {-5}, new long[1], new long[1], 1));
+        IllegalStateException sinRegla = assertThrows(IllegalStateException.class,
+            () -> desglose.base(CategoriaProducto.ELECTRONICA, 100.0));
+        assertTrue(sinRegla.getMessage().contains(ProductoElectronico.class.getSimpleName()));
+    }
+
+    @Test
+    @DisplayName("Debería crear productos con el precio base al leer precios con impuesto")
+    void deberiaLeerPreciosConImpuesto() {
+        // Arrange
+        DesgloseImpuestos desglose = DesgloseImpuestos.compilar(ReglasImpuesto.porDefecto());
+
+        // Act
+        Producto producto = LectorFacturas.parsearLinea("Ropa;Camisa;119000", desglose);
+
+        // Assert
+        assertInstanceOf(ProductoRopa.class, producto);
+        assertEquals(100000.0, producto.getPrecio());
+    }
+}
@@ -0,0 +1,98 @@
+package com.facturacion.indice;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para los índices secundarios de facturas.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para IndiceFacturas")
+class IndiceFacturasTest {
+
+    private Map<Class<? extends Producto>, Impuesto> reglas;
+    private IndiceFacturas indice;
+
+    @BeforeEach
+    void setUp() {
+        reglas = ReglasImpuesto.porDefecto();
+        indice = new IndiceFacturas();
+    }
+
+    @Test
+    @DisplayName("Debería encontrar facturas por producto y por categoría")
+    void deberiaBuscarPorProductoYCategoria() {
+        // Arrange
+        indice.registrar(1, factura(new ProductoAlimento("Pan", 5000.0), new ProductoAlimento("Pan", 5000.0)));
+        indice.registrar(2, factura(new ProductoRopa("Camiseta", 25000.0)));
+        indice.registrar(3, factura(new ProductoAlimento(" PAN ", 4000.0), new ProductoRopa("Gorra", 15000.0)));
+
+        // Act & Assert
+        assertArrayEquals(new long[] {1, 3}, indice.conProducto("pan"));
+        assertArrayEquals(new long[] {2, 3}, indice.conCategoria(CategoriaProducto.ROPA));
+        assertArrayEquals(new long[0], indice.conCategoria(CategoriaProducto.ELECTRONICA));
+        assertArrayEquals(new long[0], indice.conProducto("Laptop"));
+        assertEquals(3, indice.getFacturas());
+    }
+
+    @Test
+    @DisplayName("Debería responder consultas por rango de total y subtotal")
+    void deberiaBuscarPorRangoDeImporte() {
+        // Arrange: el total de la factura i es i * 1.25M (electrónico con IVA del 25%)
+        for (long id = 10; id >= 1; id--) {
+            indice.registrar(id, factura(new ProductoElectronico("Equipo " + id, id * 1_000_000.0)));
+        }
+
+        // Act & Assert
+        assertArrayEquals(LongStream.rangeClosed(1, 10).toArray(), indice.totalMayorQue(1_000_000));
+        assertArrayEquals(new long[] {5, 6, 7, 8, 9, 10}, indice.totalMayorQue(5_000_000));
+        assertArrayEquals(new long[] {2, 3}, indice.subtotalEntre(2_000_000, 3_000_000));
+        assertArrayEquals(new long[] {4}, indice.totalEntre(5_000_000, 5_000_000));
+        assertThrows(IllegalArgumentException.class, () -> indice.totalEntre(2, 1));
+    }
+
+    @Test
+    @DisplayName("Debería combinar resultados con una intersección ordenada")
+    void deberiaIntersecarResultados() {
+        // Arrange
+        for (long id = 0; id < 1000; id++) {
+            Factura factura = factura(new ProductoAlimento("Pan", 1000.0));
+            if (id % 3 == 0) {
+                factura.agregarProducto(new ProductoElectronico("Laptop", 2_000_000.0));
+            }
+            indice.registrar(id, factura);
+        }
+
+        // Act
+        long[] resultado = IndiceFacturas.interseccion(
+            indice.conProducto("Laptop"), indice.conCategoria(CategoriaProducto.ALIMENTO), new long[] {0, 3, 4, 999});
+
+        // Assert
+        assertArrayEquals(new long[] {0, 3, 999}, resultado);
+        assertEquals(334, IndiceFacturas.interseccion(indice.conProducto("pan"), indice.totalMayorQue(1e6)).length);
+    }
+
+    private Factura factura(Producto... productos) {
+        Factura factura = new Factura(reglas);
+        for (Producto producto : productos) {
+            factura.agregarProducto(producto);
+        }
+        return factura;
+    }
+}
@@ -0,0 +1,206 @@
+package com.facturacion.lote;
+
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import com.facturacion.serializacion.BinaryInvoiceDecoder;
+import com.facturacion.serializacion.FacturaSerializada;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el procesamiento de facturas por lotes.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para ProcesadorLotes")
+class ProcesadorLotesTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debería interpretar líneas de producto en sus distintas formas")
+    void deberiaParsearLineas() {
+        assertEquals(new ProductoAlimento("Pan", 5000.0), LectorFacturas.parsearLinea("Alimento;Pan;5000"));
+        assertEquals(new ProductoRopa("Camiseta", 25000.5), LectorFacturas.parsearLinea(" 2 ; Camiseta ; 25000.50 "));
+        assertEquals(new ProductoElectronico("Cable;USB", 10.0), LectorFacturas.parsearLinea("electronica;Cable;USB;10"));
+        assertThrows(IllegalArgumentException.class, () -> LectorFacturas.parsearLinea("Alimento;Pan"));
+        assertThrows(IllegalArgumentException.class, () -> LectorFacturas.parsearLinea("Juguete;Pelota;10"));
+        assertThrows(IllegalArgumentException.class, () -> LectorFacturas.parsearLinea("Ropa;Gorra;abc"));
+        assertThrows(IllegalArgumentException.class, () -> LectorFacturas.parsearLinea("Ropa;Gorra;-5"));
+    }
+
+    @Test
+    @DisplayName("Debería calcular los totales de cada factura y el resumen acumulado")
+    void deberiaProcesarArchivo() throws Exception {
+        // Arrange
+        Path entrada = escribirEntrada(2);
+        Path salida = directorio.resolve("salida.csv");
+
+        // Act
+        ResumenLote resumen = new ProcesadorLotes(
+            OpcionesLote.parsear("-o", salida.toString(), "-t", "1", entrada.toString()),
+            ReglasImpuesto.porDefecto()).ejecutar();
+
+        // Assert
+        List<String> lineas = Files.readAllLines(salida);
+        assertEquals(List.of("productos;subtotal;impuestos;total",
+            "2;30000.00;4300.00;34300.00",
+            "1;1500000.00;375000.00;1875000.00",
+            "2;30000.00;4300.00;34300.00",
+            "1;1500000.00;375000.00;1875000.00"), lineas);
+        assertEquals(4, resumen.getFacturas());
+        assertEquals(6, resumen.getLineas());
+        assertEquals(3060000.0, resumen.getSubtotal(), 0.001);
+        assertEquals(758600.0, resumen.getImpuestos(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Debería producir la misma salida con varios hilos y bloques pequeños")
+    void deberiaSerIndependienteDeLosHilos() throws Exception {
+        // Arrange
+        Path entrada = escribirEntrada(500);
+        Path secuencial = directorio.resolve("secuencial.bin");
+        Path paralelo = directorio.resolve("paralelo.bin");
+
+        // Act
+        new ProcesadorLotes(OpcionesLote.parsear("-f", "binario", "-t", "1", "-o", secuencial.toString(),
+            entrada.toString()), ReglasImpuesto.porDefecto()).ejecutar();
+        ResumenLote resumen = new ProcesadorLotes(OpcionesLote.parsear("-f", "binario", "-t", "4",
+            "--bloque", "7", "-o", paralelo.toString(), entrada.toString()), ReglasImpuesto.porDefecto()).ejecutar();
+
+        // Assert
+        assertArrayEquals(Files.readAllBytes(secuencial), Files.readAllBytes(paralelo));
+        ByteBuffer leido = ByteBuffer.wrap(Files.readAllBytes(paralelo));
+        BinaryInvoiceDecoder decoder = new BinaryInvoiceDecoder();
+        FacturaSerializada primera = decoder.decodificar(leido);
+        assertEquals(34300.0, primera.total(), 0.001);
+        assertEquals(1000, resumen.getFacturas());
+        // Solo el primer bloque crea facturas; los siguientes reutilizan las devueltas al pool
+        assertEquals(993.0 / 1000.0, resumen.getTasaAciertosPool(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Debería indicar el origen y la línea de una entrada mal formada")
+    void deberiaInformarLineaConError() throws Exception {
+        // Arrange
+        Path entrada = directorio.resolve("errores.txt");
+        Files.writeString(entrada, "Alimento;Pan;5000\n\nRopa;Camiseta\n", StandardCharsets.UTF_8);
+        OpcionesLote opciones = OpcionesLote.parsear("-o", directorio.resolve("x.csv").toString(), entrada.toString());
+
+        // Act & Assert
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> new ProcesadorLotes(opciones, ReglasImpuesto.porDefecto()).ejecutar());
+        assertTrue(error.getMessage().contains("línea 3"), error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Debería imprimir el resumen con la línea de métricas")
+    void deberiaImprimirResumen() {
+        // Arrange
+        ResumenLote resumen = new ResumenLote(10, 60, 100.0, 19.0, 2, 1_000_000, 2_000_000, 500_000,
+            4_000_000, 32L * 1024 * 1024);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        resumen.imprimir(new PrintStream(salida, true, StandardCharsets.UTF_8));
+
+        // Assert
+        String texto = salida.toString(StandardCharsets.UTF_8);
+        assertTrue(texto.contains("metricas facturas=10 lineas=60 hilos=2 facturas_seg=2500.0 lineas_seg=15000.0"));
+        assertTrue(texto.contains("Tiempos por fase:"));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar opciones no válidas")
+    void deberiaRechazarOpcionesNoValidas() {
+        assertThrows(IllegalArgumentException.class, () -> OpcionesLote.parsear("--hilos", "0"));
+        assertThrows(IllegalArgumentException.class, () -> OpcionesLote.parsear("--formato", "xml"));
+        assertThrows(IllegalArgumentException.class, () -> OpcionesLote.parsear("--salida"));
+        assertThrows(IllegalArgumentException.class, () -> OpcionesLote.parsear("--desconocida"));
+        assertThrows(IllegalArgumentException.class, () -> OpcionesLote.parsear("--checkpoint", "lote.cp"));
+        assertThrows(IllegalArgumentException.class, () -> OpcionesLote.parsear("--reanudar", "-o", "x.csv"));
+    }
+
+    @Test
+    @DisplayName("Debería reanudar desde el punto de control y producir la misma salida que sin cortes")
+    void deberiaReanudarDesdePuntoControl() throws Exception {
+        // Arrange
+        Path primera = escribirEntrada(40);
+        Path segunda = directorio.resolve("segunda.txt");
+        String contenido = Files.readString(escribirEntrada(60), StandardCharsets.UTF_8);
+        int corte = contenido.length() / 2;
+        Files.writeString(segunda, contenido.substring(0, corte) + "\nRopa;Rota\n" + contenido.substring(corte),
+            StandardCharsets.UTF_8);
+        Path esperada = directorio.resolve("esperada.csv");
+        Path salida = directorio.resolve("reanudada.csv");
+        Path control = directorio.resolve("lote.checkpoint");
+        ResumenLote completo = new ProcesadorLotes(OpcionesLote.parsear("-t", "2", "--bloque", "7",
+            "-o", esperada.toString(), primera.toString(), escribirEntrada(60).toString()),
+            ReglasImpuesto.porDefecto()).ejecutar();
+        String[] argumentos = {"-t", "2", "--bloque", "7", "--checkpoint", control.toString(),
+            "--checkpoint-cada", "3", "--reanudar", "-o", salida.toString(), primera.toString(), segunda.toString()};
+
+        // Act
+        assertThrows(IllegalArgumentException.class,
+            () -> new ProcesadorLotes(OpcionesLote.parsear(argumentos), ReglasImpuesto.porDefecto()).ejecutar());
+        PuntoControl punto = PuntoControl.leer(control);
+        Files.writeString(segunda, contenido, StandardCharsets.UTF_8);
+        ResumenLote reanudado = new ProcesadorLotes(OpcionesLote.parsear(argumentos),
+            ReglasImpuesto.porDefecto()).ejecutar();
+
+        // Assert
+        assertNotNull(punto);
+        assertEquals(1, punto.entrada());
+        assertTrue(punto.bytesSalida() < Files.size(esperada));
+        assertEquals(Files.readString(esperada), Files.readString(salida));
+        assertEquals(completo.getFacturas(), reanudado.getFacturas());
+        assertEquals(completo.getTotal(), reanudado.getTotal(), 0.001);
+        assertFalse(Files.exists(control));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un punto de control de otra ejecución")
+    void deberiaRechazarPuntoControlAjeno() throws Exception {
+        // Arrange
+        Path entrada = escribirEntrada(3);
+        Path control = directorio.resolve("otro.checkpoint");
+        new PuntoControl("JSON [otra.txt]", 0, 4, 10, 1, 2, 30000.0, 4300.0).guardar(control);
+        OpcionesLote opciones = OpcionesLote.parsear("--checkpoint", control.toString(), "--reanudar",
+            "-o", directorio.resolve("x.csv").toString(), entrada.toString());
+
+        // Act & Assert
+        assertEquals(new PuntoControl("JSON [otra.txt]", 0, 4, 10, 1, 2, 30000.0, 4300.0), PuntoControl.leer(control));
+        assertThrows(IllegalStateException.class,
+            () -> new ProcesadorLotes(opciones, ReglasImpuesto.porDefecto()).ejecutar());
+        assertNull(PuntoControl.leer(directorio.resolve("inexistente")));
+    }
+
+    private Path escribirEntrada(int repeticiones) throws Exception {
+        StringBuilder texto = new StringBuilder("# facturas de prueba\n");
+        for (int i = 0; i < repeticiones; i++) {
+            texto.append("Alimento;Pan;10000\n")
+                .append("Ropa;Camiseta \"básica\";20000\n")
+                .append("\n\n")
+                .append("3;Laptop;1500000\n")
+                .append("\n");
+        }
+        Path entrada = directorio.resolve("entrada-" + repeticiones + ".txt");
+        Files.writeString(entrada, texto, StandardCharsets.UTF_8);
+        return entrada;
+    }
+}
@@ -0,0 +1,125 @@
+package com.facturacion.moneda;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import com.facturacion.serializacion.LectorJson;
+import com.facturacion.serializacion.ProductoCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Currency;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para los precios en varias monedas y su conversión.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para la conversión de monedas")
+class ConversionMonedasTest {
+
+    private static final Currency COP = Currency.getInstance("COP");
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    private RegistroTasas registro;
+
+    @BeforeEach
+    void setUp() {
+        registro = new RegistroTasas(COP, Map.of(USD, 4000.0, EUR, 4400.0));
+    }
+
+    @Test
+    @DisplayName("Debería calcular los totales de una factura en la moneda local y en la de reporte")
+    void deberiaCalcularTotalesEnOtraMoneda() {
+        // Arrange
+        Factura factura = new Factura(ReglasImpuesto.porDefecto());
+        factura.agregarProducto(new ProductoAlimento("Pan", 4000.0));
+        factura.agregarProducto(new ProductoRopa("Camiseta", 10.0, USD));
+        factura.agregarProducto(new ProductoElectronico("Cable", 10.0, EUR));
+        TablaTasas tasas = registro.getTabla();
+
+        // Act
+        TotalesMoneda enPesos = factura.calcularTotales(COP, tasas);
+        TotalesMoneda enDolares = factura.calcularTotales(USD, tasas);
+
+        // Assert
+        assertEquals(4000.0 + 40000.0 + 44000.0, enPesos.subtotal(), 0.001);
+        assertEquals(200.0 + 7600.0 + 11000.0, enPesos.impuestos(), 0.001);
+        assertEquals(enPesos.total() / 4000.0, enDolares.total(), 0.001);
+        assertEquals(1, enDolares.versionTasas());
+    }
+
+    @Test
+    @DisplayName("Debería convertir una vez por moneda al acumular muchas facturas")
+    void deberiaAcumularPorBalde() {
+        // Arrange
+        AcumuladorMonedas acumulador = new AcumuladorMonedas();
+        for (int i = 0; i < 1000; i++) {
+            Factura factura = new Factura(ReglasImpuesto.porDefecto());
+            factura.agregarProducto(new ProductoAlimento("Café", 2.0, USD));
+            factura.agregarProducto(new ProductoAlimento("Arepa", 1000.0));
+            factura.acumularEn(acumulador);
+        }
+
+        // Act
+        TotalesMoneda total = acumulador.totalesEn(COP, registro.getTabla());
+
+        // Assert
+        assertArrayEquals(new Currency[] {USD, COP}, acumulador.getMonedas());
+        assertEquals(2000.0, acumulador.totalesLocales(USD).subtotal(), 0.001);
+        assertEquals(1000 * (2.0 * 4000.0 + 1000.0), total.subtotal(), 0.001);
+        assertEquals(total.subtotal() * 0.05, total.impuestos(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Debería publicar versiones nuevas sin alterar las tablas ya obtenidas")
+    void deberiaVersionarLasTasas() {
+        // Arrange
+        TablaTasas anterior = registro.getTabla();
+
+        // Act
+        TablaTasas nueva = registro.publicar(Map.of(USD, 4100.0));
+
+        // Assert
+        assertEquals(2, nueva.getVersion());
+        assertSame(nueva, registro.getTabla());
+        assertEquals(4000.0, anterior.convertir(1.0, USD, COP), 0.0);
+        assertEquals(4100.0, nueva.convertir(1.0, USD, COP), 0.0);
+        assertThrows(IllegalStateException.class, () -> nueva.factor(EUR, COP));
+        assertThrows(IllegalArgumentException.class, () -> registro.publicar(Map.of(USD, -1.0)));
+    }
+
+    @Test
+    @DisplayName("Debería conservar la moneda al serializar un producto")
+    void deberiaSerializarLaMoneda() {
+        // Arrange
+        Producto enDolares = new ProductoRopa("Gorra", 15.5, USD);
+        Producto enPesos = new ProductoRopa("Gorra", 15.5);
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        // Act
+        ProductoCodec.escribirBinario(enDolares, buffer);
+        ProductoCodec.escribirBinario(enPesos, buffer);
+        buffer.flip();
+        ByteBuffer json = ByteBuffer.allocate(256);
+        ProductoCodec.escribirJson(enDolares, json);
+        json.flip();
+
+        // Assert
+        assertEquals(enDolares, ProductoCodec.leerBinario(buffer));
+        assertEquals(enPesos, ProductoCodec.leerBinario(buffer));
+        assertEquals(enDolares, ProductoCodec.leerJson(new LectorJson(json)));
+        assertNotEquals(enDolares, enPesos);
+        assertEquals("[Ropa] Gorra - $15.50 USD", enDolares.toString().replace(',', '.'));
+    }
+}
@@ -0,0 +1,108 @@
+package com.facturacion.monitoreo;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.factura.SimpleInvoicePrinter;
+import com.facturacion.impuesto.IVARopa;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoRopa;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para los eventos de JDK Flight Recorder de cálculo e impresión de facturas.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para los eventos de facturación de JFR")
+class EventosFacturacionTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debería registrar cálculo, impresión y reglas faltantes con la configuración facturacion.jfc")
+    void deberiaRegistrarEventosConConfiguracion() throws Exception {
+        // Arrange
+        Map<Class<? extends Producto>, Impuesto> reglas = Map.of(ProductoRopa.class, new IVARopa());
+        Factura factura = new Factura(reglas);
+        factura.agregarProducto(new ProductoRopa("Camiseta", 20000.0));
+        factura.agregarProducto(new ProductoRopa("Gorra", 10000.0));
+        Factura sinRegla = new Factura(reglas);
+        sinRegla.agregarProducto(new ProductoAlimento("Pan", 1000.0));
+        Path archivo = directorio.resolve("facturacion.jfr");
+
+        // Act
+        try (Recording grabacion = new Recording(cargarConfiguracion())) {
+            grabacion.start();
+            factura.calcularTotal();
+            new SimpleInvoicePrinter(new PrintStream(new ByteArrayOutputStream(), false, StandardCharsets.UTF_8))
+                .imprimir(factura, reglas);
+            assertThrows(IllegalStateException.class, sinRegla::calcularTotal);
+            grabacion.stop();
+            grabacion.dump(archivo);
+        }
+        List<RecordedEvent> eventos = RecordingFile.readAllEvents(archivo);
+
+        // Assert
+        RecordedEvent calculada = primero(eventos, "com.facturacion.FacturaCalculada");
+        assertEquals(2, calculada.getInt("lineas"));
+        assertEquals(30000.0, calculada.getDouble("subtotal"), 0.001);
+        assertEquals(5700.0, calculada.getDouble("impuestos"), 0.001);
+        RecordedEvent faltante = primero(eventos, "com.facturacion.ReglaNoEncontrada");
+        assertEquals(ProductoAlimento.class.getName(), faltante.getString("claseProducto"));
+        assertNotNull(faltante.getStackTrace());
+        assertEquals("SimpleInvoicePrinter", primero(eventos, "com.facturacion.ImpresionFactura").getString("printer"));
+        assertEquals(-1L, primero(eventos, "com.facturacion.VaciadoImpresion").getLong("caracteres"));
+    }
+
+    @Test
+    @DisplayName("Debería registrar por defecto solo las facturas e impresiones lentas")
+    void deberiaTenerUmbralPorDefecto() {
+        assertEquals("10 ms", umbral(EventoFacturaCalculada.class));
+        assertEquals("10 ms", umbral(EventoImpresionFactura.class));
+        assertEquals("10 ms", umbral(EventoVaciadoImpresion.class));
+    }
+
+    private static String umbral(Class<? extends Event> evento) {
+        return EventType.getEventType(evento).getSettingDescriptors().stream()
+            .filter(s -> s.getName().equals("threshold"))
+            .findFirst()
+            .orElseThrow()
+            .getDefaultValue();
+    }
+
+    private static Configuration cargarConfiguracion() throws Exception {
+        try (Reader lector = new InputStreamReader(
+                EventosFacturacionTest.class.getResourceAsStream("/facturacion.jfc"), StandardCharsets.UTF_8)) {
+            return Configuration.create(lector);
+        }
+    }
+
+    private static RecordedEvent primero(List<RecordedEvent> eventos, String nombre) {
+        return eventos.stream()
+            .filter(e -> e.getEventType().getName().equals(nombre))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No se registró el evento " + nombre));
+    }
+}
@@ -0,0 +1,143 @@
+package com.facturacion.numeracion;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.ReglasImpuesto;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la numeración de facturas por bloques arrendados.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para NumeradorFacturas y AsignadorBloques")
+class NumeradorFacturasTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    @DisplayName("Debería numerar facturas consecutivamente dentro de una serie")
+    void deberiaNumerarConsecutivamente() throws Exception {
+        // Arrange
+        try (AsignadorBloques asignador = new AsignadorBloques(directorio.resolve("numeracion.txt"))) {
+            NumeradorFacturas numerador = new NumeradorFacturas(asignador, "A", 4);
+            Factura factura = new Factura(ReglasImpuesto.porDefecto());
+
+            // Act
+            List<Long> numeros = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                numeros.add(numerador.siguiente());
+            }
+            NumeroFactura numero = numerador.numerar(factura);
+
+            // Assert
+            assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), numeros);
+            assertEquals(new NumeroFactura("A", 11), numero);
+            assertEquals(numero, factura.getNumero());
+            assertEquals("Factura A-11 con 0 producto(s)", factura.toString());
+            assertEquals(3, numerador.getBloquesArrendados());
+            assertThrows(IllegalStateException.class, () -> numerador.numerar(factura));
+            factura.limpiar();
+            assertNull(factura.getNumero());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería entregar números únicos y crecientes por hilo con varios trabajadores")
+    void deberiaEntregarNumerosUnicosEntreHilos() throws Exception {
+        // Arrange
+        int hilos = 4;
+        int porHilo = 5_000;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try (AsignadorBloques asignador = new AsignadorBloques(directorio.resolve("numeracion.txt"))) {
+            NumeradorFacturas numerador = new NumeradorFacturas(asignador, "POS-1", 100);
+
+            // Act
+            List<Future<long[]>> resultados = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                resultados.add(ejecutor.submit(() -> {
+                    long[] numeros = new long[porHilo];
+                    for (int i = 0; i < porHilo; i++) {
+                        numeros[i] = numerador.siguiente();
+                    }
+                    return numeros;
+                }));
+            }
+
+            // Assert
+            Set<Long> vistos = new HashSet<>();
+            for (Future<long[]> resultado : resultados) {
+                long[] numeros = resultado.get();
+                for (int i = 0; i < numeros.length; i++) {
+                    assertTrue(vistos.add(numeros[i]), "número repetido: " + numeros[i]);
+                    if (i > 0) {
+                        assertTrue(numeros[i] > numeros[i - 1], "los números de un hilo deben crecer");
+                    }
+                }
+            }
+            assertEquals(hilos * porHilo, vistos.size());
+            assertEquals(hilos * porHilo + 1, asignador.getSiguiente("POS-1"));
+        } finally {
+            ejecutor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debería continuar la serie al reabrir y repartir rangos disjuntos entre asignadores")
+    void deberiaPersistirEntreAsignadores() throws Exception {
+        // Arrange
+        Path archivo = directorio.resolve("numeracion.txt");
+        try (AsignadorBloques primero = new AsignadorBloques(archivo)) {
+            primero.arrendar("A", 50);
+            primero.arrendar("B", 10);
+        }
+
+        // Act
+        BloqueNumeros bloqueA;
+        BloqueNumeros bloqueOtro;
+        BloqueNumeros bloqueB;
+        try (AsignadorBloques reabierto = new AsignadorBloques(archivo);
+             AsignadorBloques otroProceso = new AsignadorBloques(archivo)) {
+            bloqueA = reabierto.arrendar("A", 50);
+            bloqueOtro = otroProceso.arrendar("A", 50);
+            bloqueB = otroProceso.arrendar("B", 10);
+        }
+
+        // Assert
+        assertEquals(new BloqueNumeros("A", 51, 101), bloqueA);
+        assertEquals(new BloqueNumeros("A", 101, 151), bloqueOtro);
+        assertEquals(new BloqueNumeros("B", 11, 21), bloqueB);
+        assertEquals("version=1\nserie.A=151\nserie.B=21\n", Files.readString(archivo));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar series no válidas y archivos dañados")
+    void deberiaRechazarEntradasNoValidas() throws Exception {
+        // Arrange
+        Path archivo = directorio.resolve("numeracion.txt");
+        Files.writeString(archivo, "serie.A=abc\n");
+
+        // Act & Assert
+        try (AsignadorBloques asignador = new AsignadorBloques(archivo)) {
+            assertThrows(IllegalArgumentException.class, () -> new NumeradorFacturas(asignador, "con espacio"));
+            assertThrows(IllegalArgumentException.class, () -> new NumeradorFacturas(asignador, "A", 0));
+            assertThrows(IllegalStateException.class, () -> asignador.arrendar("A", 10));
+        }
+        assertEquals(new NumeroFactura("POS-02", 17), NumeroFactura.parsear("POS-02-17"));
+        assertThrows(IllegalArgumentException.class, () -> NumeroFactura.parsear("17"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.facturacion.promocion;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el motor de promociones y la cesta con descuentos incrementales.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para MotorPromociones y CestaPromociones")
+class PromocionesTest {
+
+    private static final double DELTA = 0.001;
+
+    @Test
+    @DisplayName("Debería regalar unidades en promociones 2x1 al menor precio del SKU")
+    void deberiaAplicarPromocionPorCantidad() {
+        // Arrange
+        MotorPromociones motor = new MotorPromociones(List.of(
+            new PromocionCantidad("2x1-pan", "Pan", 1, 1),
+            new PromocionCantidad("3x2-pan", "Pan", 2, 1)));
+        CestaPromociones cesta = motor.crearCesta(new Factura(ReglasImpuesto.porDefecto()));
+
+        // Act
+        cesta.agregarProducto(new ProductoAlimento("Pan", 1000.0));
+        double descuentoUno = cesta.getDescuento();
+        cesta.agregarProducto(new ProductoAlimento("Pan", 800.0));
+        double descuentoDos = cesta.getDescuento();
+        cesta.agregarProducto(new ProductoAlimento("Leche", 3000.0));
+        TotalesPromocion totales = cesta.calcularTotales();
+
+        // Assert
+        assertEquals(0.0, descuentoUno, DELTA);
+        assertEquals(800.0, descuentoDos, DELTA);
+        assertEquals(4800.0, totales.subtotal(), DELTA);
+        assertEquals(800.0, totales.descuento(), DELTA);
+        // Impuesto del 5% sobre 4000 de precio final
+        assertEquals(200.0, totales.impuestos(), DELTA);
+        assertEquals(4200.0, totales.total(), DELTA);
+    }
+
+    @Test
+    @DisplayName("Debería aplicar el mejor porcentaje de la categoría y luego el umbral sobre el neto")
+    void deberiaAplicarCategoriaYUmbral() {
+        // Arrange
+        MotorPromociones motor = new MotorPromociones(List.of(
+            new PromocionCategoria("ropa-10", CategoriaProducto.ROPA, 10.0),
+            new PromocionCategoria("ropa-20", CategoriaProducto.ROPA, 20.0),
+            new PromocionUmbral("umbral-100k", 100_000.0, 5.0),
+            new PromocionUmbral("umbral-200k", 200_000.0, 10.0)));
+        CestaPromociones cesta = motor.crearCesta(new Factura(ReglasImpuesto.porDefecto()));
+
+        // Act
+        cesta.agregarProducto(new ProductoRopa("Chaqueta", 100_000.0));
+        double sinUmbral = cesta.getDescuento();
+        cesta.agregarProducto(new ProductoElectronico("Audífonos", 20_000.0));
+        TotalesPromocion totales = cesta.calcularTotales();
+
+        // Assert
+        // 80.000 netos no alcanzan el umbral de 100.000
+        assertEquals(20_000.0, sinUmbral, DELTA);
+        // 100.000 netos alcanzan el umbral del 5%: ropa 76.000, electrónica 19.000
+        assertEquals(25_000.0, totales.descuento(), DELTA);
+        assertEquals(76_000.0 * 0.19 + 19_000.0 * 0.25, totales.impuestos(), DELTA);
+        assertEquals(cesta.getDescuento(), totales.descuento(), DELTA);
+    }
+
+    @Test
+    @DisplayName("Debería dar el mismo descuento incremental que una evaluación completa con miles de promociones")
+    void deberiaCoincidirConEvaluacionCompleta() {
+        // Arrange
+        List<Promocion> promociones = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            promociones.add(new PromocionCantidad("c" + i, "Producto " + i, 1 + i % 3, 1));
+        }
+        promociones.add(new PromocionCategoria("alimento", CategoriaProducto.ALIMENTO, 15.0));
+        promociones.add(new PromocionUmbral("umbral", 50_000.0, 3.0));
+        MotorPromociones motor = new MotorPromociones(promociones);
+        CestaPromociones cesta = motor.crearCesta(new Factura(ReglasImpuesto.porDefecto()));
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            cesta.agregarProducto(new ProductoAlimento("Producto " + (i % 7), 1000.0 + i));
+        }
+        CestaPromociones reevaluada = motor.crearCesta(cesta.getFactura());
+
+        // Assert
+        assertEquals(3002, motor.getCantidadPromociones());
+        assertEquals(reevaluada.getDescuento(), cesta.getDescuento(), DELTA);
+        assertEquals(cesta.getDescuento(), cesta.calcularTotales().descuento(), DELTA);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar promociones con porcentajes o cantidades inválidas")
+    void deberiaRechazarPromocionesInvalidas() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new PromocionCategoria("x", CategoriaProducto.ROPA, 0.0));
+        assertThrows(IllegalArgumentException.class,
+            () -> new PromocionUmbral("x", 1000.0, 150.0));
+        assertThrows(IllegalArgumentException.class,
+            () -> new PromocionCantidad("x", "Pan", 0, 1));
+        assertThrows(NullPointerException.class,
+            () -> new MotorPromociones(java.util.Arrays.asList((Promocion) null)));
+    }
+}
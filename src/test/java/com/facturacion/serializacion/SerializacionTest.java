@@ -0,0 +1,231 @@
+package com.facturacion.serializacion;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.IVAAlimento;
+import com.facturacion.impuesto.IVAElectronico;
+import com.facturacion.impuesto.IVARopa;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para los serializadores y decodificadores de facturas.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para la serialización de facturas")
+class SerializacionTest {
+
+    private Map<Class<? extends Producto>, Impuesto> reglasImpuesto;
+    private Factura factura;
+
+    @BeforeEach
+    void setUp() {
+        reglasImpuesto = new HashMap<>();
+        reglasImpuesto.put(ProductoAlimento.class, new IVAAlimento());
+        reglasImpuesto.put(ProductoRopa.class, new IVARopa());
+        reglasImpuesto.put(ProductoElectronico.class, new IVAElectronico());
+
+        factura = new Factura(reglasImpuesto);
+        factura.agregarProducto(new ProductoAlimento("Pan Integral", 5000.0));
+        factura.agregarProducto(new ProductoRopa("Camiseta \"Algodón\"", 25000.5));
+        factura.agregarProducto(new ProductoElectronico("Laptop 15\" 💻", 1500000.0));
+        factura.agregarProducto(new ProductoAlimento("Leche", 0.1 + 0.2));
+    }
+
+    @Test
+    @DisplayName("Debería decodificar en binario exactamente lo que se serializó")
+    void deberiaHacerIdaYVueltaBinaria() {
+        // Arrange
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        // Act
+        new BinaryInvoiceSerializer().serializar(factura, buffer);
+        buffer.flip();
+        FacturaSerializada leida = new BinaryInvoiceDecoder().decodificar(buffer);
+
+        // Assert
+        verificarIgual(leida);
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Debería decodificar en JSON exactamente lo que se serializó")
+    void deberiaHacerIdaYVueltaJson() {
+        // Arrange
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        // Act
+        new JsonInvoiceSerializer().serializar(factura, buffer);
+        buffer.flip();
+        FacturaSerializada leida = new JsonInvoiceDecoder().decodificar(buffer);
+
+        // Assert
+        verificarIgual(leida);
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Debería escribir montos con dos decimales y escapar cadenas en JSON")
+    void deberiaEscribirJsonLegible() {
+        // Arrange
+        Factura simple = new Factura(reglasImpuesto);
+        simple.agregarProducto(new ProductoAlimento("Pan \"x\"", 5000.0));
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+
+        // Act
+        new JsonInvoiceSerializer().serializar(simple, buffer);
+        String json = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+
+        // Assert
+        assertEquals("{\"productos\":[{\"categoria\":\"ALIMENTO\",\"nombre\":\"Pan \\\"x\\\"\",\"precio\":5000.00}],"
+            + "\"subtotal\":5000.00,\"impuestos\":250.00,\"total\":5250.00}\n", json);
+    }
+
+    @Test
+    @DisplayName("Debería devolver null mientras el registro esté incompleto")
+    void deberiaEsperarRegistrosIncompletos() {
+        // Arrange
+        ByteBuffer completo = ByteBuffer.allocate(1024);
+        new BinaryInvoiceSerializer().serializar(factura, completo);
+        new BinaryInvoiceSerializer().serializar(factura, completo);
+        completo.flip();
+        ByteBuffer parcial = ByteBuffer.allocate(1024);
+        BinaryInvoiceDecoder decoder = new BinaryInvoiceDecoder();
+        int leidas = 0;
+
+        // Act: se entregan los bytes de a uno, como llegarían por un canal lento
+        while (completo.hasRemaining()) {
+            parcial.put(completo.get());
+            parcial.flip();
+            FacturaSerializada leida = decoder.decodificar(parcial);
+            if (leida != null) {
+                verificarIgual(leida);
+                leidas++;
+            }
+            parcial.compact();
+        }
+
+        // Assert
+        assertEquals(2, leidas);
+        assertEquals(0, parcial.position());
+    }
+
+    @Test
+    @DisplayName("Debería dejar el buffer intacto si la factura no cabe")
+    void deberiaRestaurarPosicionSiNoCabe() {
+        // Arrange
+        ByteBuffer pequeno = ByteBuffer.allocate(40);
+        pequeno.put((byte) 7);
+
+        // Act & Assert
+        assertThrows(BufferOverflowException.class, () -> new JsonInvoiceSerializer().serializar(factura, pequeno));
+        assertThrows(BufferOverflowException.class, () -> new BinaryInvoiceSerializer().serializar(factura, pequeno));
+        assertEquals(1, pequeno.position());
+    }
+
+    @Test
+    @DisplayName("Debería ignorar claves desconocidas y aceptar cualquier orden en JSON")
+    void deberiaToleraClavesDesconocidas() {
+        // Arrange
+        String json = "{ \"total\": 105.0, \"extra\": {\"a\": [1, true, null]},"
+            + " \"productos\": [ {\"precio\": 1e2, \"nombre\": \"Caf\\u00e9\", \"categoria\": \"ALIMENTO\"} ],"
+            + " \"impuestos\": 5, \"subtotal\": 100 }\n";
+        ByteBuffer buffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        FacturaSerializada leida = new JsonInvoiceDecoder().decodificar(buffer);
+
+        // Assert
+        assertEquals(1, leida.productos().size());
+        assertEquals(new ProductoAlimento("Café", 100.0), leida.productos().get(0));
+        assertEquals(105.0, leida.total(), 0.0);
+        assertEquals(105.0, leida.aFactura(reglasImpuesto).calcularTotal(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar registros JSON mal formados")
+    void deberiaRechazarJsonMalFormado() {
+        // Arrange
+        ByteBuffer buffer = ByteBuffer.wrap("{\"productos\":[{\"categoria\":\"ALIMENTO\"}]}\n"
+            .getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new JsonInvoiceDecoder().decodificar(buffer));
+    }
+
+    @Test
+    @DisplayName("Debería escribir en el canal a través de un buffer reutilizable que crece si hace falta")
+    void deberiaImprimirEnCanal() throws Exception {
+        // Arrange
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ChannelInvoicePrinter printer = new ChannelInvoicePrinter(
+            Channels.newChannel(salida), new BinaryInvoiceSerializer(), 16);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            printer.imprimir(factura, reglasImpuesto);
+        }
+        printer.close();
+
+        // Assert
+        ByteBuffer leido = ByteBuffer.wrap(salida.toByteArray());
+        BinaryInvoiceDecoder decoder = new BinaryInvoiceDecoder();
+        int cantidad = 0;
+        while (decoder.decodificar(leido) != null) {
+            cantidad++;
+        }
+        assertEquals(10, cantidad);
+    }
+
+    @Test
+    @DisplayName("Debería calcular los impuestos en el canal con las reglas recibidas")
+    void deberiaUsarReglasRecibidasEnCanal() throws Exception {
+        // Arrange
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ChannelInvoicePrinter printer = new ChannelInvoicePrinter(
+            Channels.newChannel(salida), new BinaryInvoiceSerializer());
+        Map<Class<? extends Producto>, Impuesto> otras = new HashMap<>(reglasImpuesto);
+        otras.put(ProductoAlimento.class, new IVAElectronico());
+        double impuestos = 0.0;
+        for (Producto producto : factura.getProductos()) {
+            impuestos += otras.get(producto.getClass()).calcularImpuesto(producto);
+        }
+
+        // Act
+        printer.imprimir(factura, otras);
+        printer.close();
+
+        // Assert
+        FacturaSerializada leida = new BinaryInvoiceDecoder().decodificar(ByteBuffer.wrap(salida.toByteArray()));
+        assertNotNull(leida);
+        assertEquals(factura.calcularSubtotal(), leida.subtotal(), 0.0);
+        assertEquals(impuestos, leida.impuestos(), 0.0);
+        assertNotEquals(factura.calcularTotalImpuestos(), leida.impuestos());
+        assertThrows(IllegalStateException.class, () -> printer.imprimir(factura, Map.of()));
+    }
+
+    private void verificarIgual(FacturaSerializada leida) {
+        assertNotNull(leida);
+        assertEquals(factura.getProductos(), leida.productos());
+        assertEquals(factura.calcularSubtotal(), leida.subtotal(), 0.0);
+        assertEquals(factura.calcularTotalImpuestos(), leida.impuestos(), 0.0);
+        assertEquals(factura.calcularTotal(), leida.total(), 0.0);
+    }
+}
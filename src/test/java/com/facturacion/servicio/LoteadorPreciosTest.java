@@ -0,0 +1,143 @@
+package com.facturacion.servicio;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.IVAAlimento;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoRopa;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la etapa de agrupación de cestas.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para LoteadorPrecios")
+class LoteadorPreciosTest {
+
+    @Test
+    @DisplayName("Debería cotizar cestas concurrentes con los mismos totales que Factura")
+    void deberiaCotizarComoFactura() throws Exception {
+        // Arrange
+        Map<Class<? extends Producto>, Impuesto> reglas = ReglasImpuesto.porDefecto();
+        ExecutorService llamadores = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> verificaciones = new ArrayList<>();
+
+        // Act
+        try (LoteadorPrecios loteador = new LoteadorPrecios(reglas, 16, Duration.ofMillis(1))) {
+            for (int hilo = 0; hilo < 8; hilo++) {
+                int semilla = hilo;
+                verificaciones.add(llamadores.submit(() -> {
+                    Random aleatorio = new Random(semilla);
+                    for (int i = 0; i < 250; i++) {
+                        Factura factura = new Factura(reglas);
+                        for (int j = 0; j < 1 + aleatorio.nextInt(8); j++) {
+                            CategoriaProducto categoria = CategoriaProducto.porCodigo(1 + aleatorio.nextInt(3));
+                            factura.agregarProducto(categoria.crear("P" + j, aleatorio.nextInt(1_000_000) / 100.0));
+                        }
+                        TotalesCesta totales = loteador.cotizar(factura.getProductos()).get();
+                        // Assert: exactamente los mismos double
+                        assertEquals(factura.getCantidadProductos(), totales.lineas());
+                        assertEquals(factura.calcularSubtotal(), totales.subtotal());
+                        assertEquals(factura.calcularTotalImpuestos(), totales.impuestos());
+                        assertEquals(factura.calcularTotal(), totales.total());
+                    }
+                    return 250;
+                }));
+            }
+            for (Future<Integer> verificacion : verificaciones) {
+                verificacion.get();
+            }
+            llamadores.shutdown();
+
+            // Assert
+            EstadisticasLotes estadisticas = loteador.getEstadisticas();
+            assertEquals(2000, estadisticas.cestas());
+            assertTrue(estadisticas.tamanoMaximo() <= 8);
+            assertTrue(estadisticas.lotes() <= 2000);
+            assertEquals(estadisticas.lotes(), java.util.Arrays.stream(estadisticas.distribucion()).sum());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería respetar el tamaño máximo de lote y agrupar mientras espera")
+    void deberiaRespetarTamanoMaximo() throws Exception {
+        // Arrange
+        List<Producto> cesta = List.of(new ProductoAlimento("Pan", 1000.0));
+        List<CompletableFuture<TotalesCesta>> futuros = new ArrayList<>();
+
+        // Act
+        try (LoteadorPrecios loteador = new LoteadorPrecios(ReglasImpuesto.porDefecto(), 4, Duration.ofMillis(200))) {
+            for (int i = 0; i < 10; i++) {
+                futuros.add(loteador.cotizar(cesta));
+            }
+            for (CompletableFuture<TotalesCesta> futuro : futuros) {
+                assertEquals(1050.0, futuro.get().total(), 0.001);
+            }
+            EstadisticasLotes estadisticas = loteador.getEstadisticas();
+
+            // Assert
+            // 10 cestas entregadas juntas forman lotes de 4, 4 y 2
+            assertEquals(3, estadisticas.lotes());
+            assertEquals(4, estadisticas.tamanoMaximo());
+            assertEquals(10.0 / 3, estadisticas.tamanoPromedio(), 0.001);
+            assertArrayEquals(new long[] {0, 1, 2}, estadisticas.distribucion());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería fallar solo la cesta con un producto sin regla de impuesto")
+    void deberiaAislarErroresPorCesta() throws Exception {
+        // Arrange
+        Map<Class<? extends Producto>, Impuesto> reglas = new HashMap<>();
+        reglas.put(ProductoAlimento.class, new IVAAlimento());
+
+        try (LoteadorPrecios loteador = new LoteadorPrecios(reglas, 8, Duration.ofMillis(50))) {
+            // Act
+            CompletableFuture<TotalesCesta> correcta = loteador.cotizar(List.of(new ProductoAlimento("Pan", 100.0)));
+            CompletableFuture<TotalesCesta> sinRegla = loteador.cotizar(List.of(new ProductoRopa("Camisa", 100.0)));
+
+            // Assert
+            assertEquals(105.0, correcta.get().total(), 0.001);
+            ExecutionException error = assertThrows(ExecutionException.class, sinRegla::get);
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+            assertTrue(error.getCause().getMessage().contains("ProductoRopa"));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería rechazar cestas después de cerrarse y validar la configuración")
+    void deberiaRechazarDespuesDeCerrar() {
+        // Arrange
+        LoteadorPrecios loteador = new LoteadorPrecios(ReglasImpuesto.porDefecto(), 8, Duration.ZERO);
+
+        // Act
+        loteador.close();
+
+        // Assert
+        assertThrows(IllegalStateException.class, () -> loteador.cotizar(List.of()));
+        assertThrows(IllegalArgumentException.class,
+            () -> new LoteadorPrecios(ReglasImpuesto.porDefecto(), 0, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+            () -> new LoteadorPrecios(ReglasImpuesto.porDefecto(), 8, Duration.ofMillis(-1)));
+    }
+}
@@ -0,0 +1,172 @@
+package com.facturacion.servicio;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.ProductoAlimento;
+import com.facturacion.model.ProductoElectronico;
+import com.facturacion.model.ProductoRopa;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el servicio HTTP de precios y su generador de carga.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para ServicioPrecios")
+class ServicioPreciosTest {
+
+    private ServicioPrecios servicio;
+    private HttpClient cliente;
+    private URI destino;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servicio = new ServicioPrecios(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+            ReglasImpuesto.porDefecto(), 2);
+        servicio.iniciar();
+        cliente = HttpClient.newHttpClient();
+        destino = URI.create("http://localhost:" + servicio.getPuerto() + ServicioPrecios.RUTA);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servicio.close();
+    }
+
+    @Test
+    @DisplayName("Debería responder los mismos totales que Factura.calcularTotal")
+    void deberiaCalcularTotalesComoFactura() throws Exception {
+        // Arrange
+        Factura factura = new Factura(ReglasImpuesto.porDefecto());
+        factura.agregarProducto(new ProductoAlimento("Pan \"Integral\"", 5000.10));
+        factura.agregarProducto(new ProductoRopa("Camiseta", 25000.33));
+        factura.agregarProducto(new ProductoElectronico("Mouse", 45000.07));
+        ByteBuffer cesta = ByteBuffer.allocate(1024);
+        CodecPrecios.escribirCesta(factura, cesta);
+
+        // Act
+        HttpResponse<String> respuesta = enviar("POST", Arrays.copyOf(cesta.array(), cesta.position()));
+
+        // Assert
+        assertEquals(200, respuesta.statusCode());
+        assertTrue(respuesta.body().startsWith("{\"lineas\":3,"));
+        // Los montos deben ser exactamente los mismos double, no solo aproximados
+        assertEquals(factura.calcularSubtotal(), campo(respuesta.body(), "subtotal"));
+        assertEquals(factura.calcularTotalImpuestos(), campo(respuesta.body(), "impuestos"));
+        assertEquals(factura.calcularTotal(), campo(respuesta.body(), "total"));
+    }
+
+    @Test
+    @DisplayName("Debería responder 400 a cestas inválidas y 405 a otros métodos")
+    void deberiaRechazarSolicitudesInvalidas() throws Exception {
+        // Act
+        HttpResponse<String> malFormada = enviar("POST", "{\"productos\":[{\"nombre\":\"Pan\"}]}"
+            .getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> negativa = enviar("POST",
+            "{\"productos\":[{\"categoria\":\"ROPA\",\"nombre\":\"Camisa\",\"precio\":-1}]}"
+                .getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> vacia = enviar("POST", "{}".getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> consulta = cliente.send(HttpRequest.newBuilder(destino).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(400, malFormada.statusCode());
+        assertTrue(malFormada.body().startsWith("{\"error\":\"Producto JSON incompleto"));
+        assertEquals(400, negativa.statusCode());
+        assertEquals(200, vacia.statusCode());
+        assertEquals("{\"lineas\":0,\"subtotal\":0.00,\"impuestos\":0.00,\"total\":0.00}", vacia.body());
+        assertEquals(405, consulta.statusCode());
+        assertEquals("POST", consulta.headers().firstValue("Allow").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Debería responder lo mismo al cotizar a través del loteador")
+    void deberiaCotizarConLoteador() throws Exception {
+        // Arrange
+        byte[] cesta = GeneradorCarga.cestaDeEjemplo(7);
+        String directa = enviar("POST", cesta).body();
+        try (LoteadorPrecios loteador = new LoteadorPrecios(ReglasImpuesto.porDefecto(), 8, Duration.ofMillis(1));
+             ServicioPrecios conLotes = new ServicioPrecios(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                 ReglasImpuesto.porDefecto(), 2, loteador)) {
+            conLotes.iniciar();
+            destino = URI.create("http://localhost:" + conLotes.getPuerto() + ServicioPrecios.RUTA);
+
+            // Act
+            HttpResponse<String> respuesta = enviar("POST", cesta);
+
+            // Assert
+            assertEquals(200, respuesta.statusCode());
+            assertEquals(directa, respuesta.body());
+            assertEquals(1, loteador.getEstadisticas().cestas());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería medir rendimiento y percentiles de latencia sin errores")
+    void deberiaMedirCarga() throws Exception {
+        // Arrange
+        GeneradorCarga generador = new GeneradorCarga(destino, GeneradorCarga.cestaDeEjemplo(10), 2);
+
+        // Act
+        ResultadoCarga resultado = generador.ejecutar(Duration.ofMillis(200), Duration.ofMillis(500));
+
+        // Assert
+        assertTrue(resultado.solicitudes() > 0);
+        assertEquals(0, resultado.errores());
+        assertTrue(resultado.p50() > 0);
+        assertTrue(resultado.p50() <= resultado.p99());
+        assertTrue(resultado.p99() <= resultado.p999());
+        assertTrue(resultado.p999() <= resultado.maxima());
+        assertTrue(resultado.solicitudesPorSegundo() > 0);
+    }
+
+    @Test
+    @DisplayName("Debería calcular percentiles por el método del rango más cercano")
+    void deberiaCalcularPercentiles() {
+        // Arrange
+        long[] latencias = new long[1000];
+        for (int i = 0; i < latencias.length; i++) {
+            latencias[i] = i + 1;
+        }
+
+        // Act & Assert
+        assertEquals(500, GeneradorCarga.percentil(latencias, 0.50));
+        assertEquals(990, GeneradorCarga.percentil(latencias, 0.99));
+        assertEquals(999, GeneradorCarga.percentil(latencias, 0.999));
+        assertEquals(0, GeneradorCarga.percentil(new long[0], 0.99));
+    }
+
+    private static double campo(String json, String clave) {
+        int inicio = json.indexOf("\"" + clave + "\":") + clave.length() + 3;
+        int fin = inicio;
+        while (fin < json.length() && json.charAt(fin) != ',' && json.charAt(fin) != '}') {
+            fin++;
+        }
+        return Double.parseDouble(json.substring(inicio, fin));
+    }
+
+    private HttpResponse<String> enviar(String metodo, byte[] cuerpo) throws IOException, InterruptedException {
+        HttpRequest solicitud = HttpRequest.newBuilder(destino)
+            .method(metodo, HttpRequest.BodyPublishers.ofByteArray(cuerpo))
+            .build();
+        return cliente.send(solicitud, HttpResponse.BodyHandlers.ofString());
+    }
+}
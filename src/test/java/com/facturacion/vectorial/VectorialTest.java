@@ -0,0 +1,112 @@
+package com.facturacion.vectorial;
+
+import com.facturacion.factura.Factura;
+import com.facturacion.impuesto.Impuesto;
+import com.facturacion.impuesto.ReglasImpuesto;
+import com.facturacion.model.CategoriaProducto;
+import com.facturacion.model.Producto;
+import com.facturacion.model.ProductoAlimento;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para los sumadores de líneas escalar y vectorial.
+ *
+ * @author Sistema de Facturación SOLID
+ * @version 1.0
+ */
+@DisplayName("Tests para SumadorLineas y LineasColumnares")
+class VectorialTest {
+
+    @Test
+    @DisplayName("Debería usar el sumador vectorial cuando el módulo está disponible")
+    void deberiaElegirSumadorVectorial() {
+        // Act
+        SumadorLineas sumador = SumadorLineas.mejorDisponible();
+
+        // Assert
+        // Surefire inicia la JVM con --add-modules jdk.incubator.vector
+        assertTrue(ModuleLayer.boot().findModule(SumadorLineas.MODULO_VECTOR).isPresent());
+        assertInstanceOf(SumadorVectorial.class, sumador);
+    }
+
+    @Test
+    @DisplayName("Debería dar las mismas sumas en escalar y vectorial para cualquier cola")
+    void deberiaCoincidirEscalarYVectorial() {
+        // Arrange
+        Random aleatorio = new Random(40);
+        long[] lineas = new long[300];
+        for (int i = 0; i < lineas.length; i++) {
+            lineas[i] = LineasColumnares.codificar(aleatorio.nextInt(10_000_000), 1 + aleatorio.nextInt(3));
+        }
+        SumadorLineas escalar = SumadorLineas.escalar();
+        SumadorLineas vectorial = SumadorLineas.mejorDisponible();
+
+        // Act & Assert
+        // Todas las longitudes hasta 300 cubren colas de cualquier tamaño de vector
+        for (int cantidad = 0; cantidad <= lineas.length; cantidad++) {
+            assertEquals(escalar.sumar(lineas, cantidad), vectorial.sumar(lineas, cantidad));
+            assertArrayEquals(escalar.sumarPorCategoria(lineas, cantidad),
+                vectorial.sumarPorCategoria(lineas, cantidad));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería calcular totales exactos iguales a la suma línea por línea en BigDecimal")
+    void deberiaCalcularTotalesExactos() {
+        // Arrange
+        Map<Class<? extends Producto>, Impuesto> reglas = ReglasImpuesto.porDefecto();
+        Factura factura = new Factura(reglas);
+        Random aleatorio = new Random(7);
+        for (int i = 0; i < 1037; i++) {
+            CategoriaProducto categoria = CategoriaProducto.porCodigo(1 + aleatorio.nextInt(3));
+            factura.agregarProducto(categoria.crear("Producto " + i, aleatorio.nextInt(5_000_000) / 100.0));
+        }
+        BigDecimal subtotalEsperado = BigDecimal.ZERO;
+        BigDecimal impuestosEsperados = BigDecimal.ZERO;
+        for (int i = 0; i < factura.getCantidadProductos(); i++) {
+            Producto producto = factura.getProducto(i);
+            BigDecimal precio = BigDecimal.valueOf(producto.getPrecio());
+            subtotalEsperado = subtotalEsperado.add(precio);
+            impuestosEsperados = impuestosEsperados.add(precio
+                .multiply(BigDecimal.valueOf(factura.obtenerImpuesto(producto).getPorcentaje()))
+                .movePointLeft(2));
+        }
+        LineasColumnares lineas = new LineasColumnares();
+
+        // Act
+        lineas.agregar(factura);
+        TotalesColumnares escalar = lineas.calcularTotales(SumadorLineas.escalar(), reglas);
+        TotalesColumnares vectorial = lineas.calcularTotales(SumadorLineas.mejorDisponible(), reglas);
+
+        // Assert
+        assertEquals(1037, lineas.getCantidad());
+        assertEquals(0, subtotalEsperado.compareTo(escalar.subtotal()));
+        assertEquals(0, impuestosEsperados.compareTo(escalar.impuestos()));
+        assertEquals(escalar, vectorial);
+        assertEquals(0, subtotalEsperado.compareTo(lineas.calcularSubtotal(SumadorLineas.mejorDisponible())));
+        assertEquals(factura.calcularTotal(), vectorial.total().doubleValue(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar precios con más de dos decimales y monedas mezcladas")
+    void deberiaRechazarLineasNoExactas() {
+        // Arrange
+        LineasColumnares lineas = new LineasColumnares();
+        lineas.agregar(new ProductoAlimento("Pan", 1000.0));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> lineas.agregar(new ProductoAlimento("Leche", 10.005)));
+        assertThrows(IllegalArgumentException.class,
+            () -> lineas.agregar(new ProductoAlimento("Queso", 10.0, Currency.getInstance("USD"))));
+        assertEquals(1, lineas.getCantidad());
+    }
+}